@@ -0,0 +1,54 @@
+/**
+ * Embedded H2 database (MySQL mode) standing in for the production schema during benchmarks.
+ * Must be started before anything touches DatabaseConnection, because the connection
+ * settings are read once from system properties when that class is first used.
+ * Data comes from WorkforceGenerator with a fixed seed, so runs at the same size are comparable.
+ */
+package benchmarks;
+
+import dao.SchemaMigrator;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import utils.JdbcWorkforceSink;
+import utils.WorkforceGenerator;
+
+public final class BenchmarkDatabase {
+    public static final String USERNAME = "sa";
+    private static final long SEED = 42L;
+
+    private static String url;
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Migrates the schema, seeds it with the given number of employees and points
+     * DatabaseConnection at it. Only the first call in a JVM has any effect.
+     */
+    public static synchronized void start(int employees, int payrollMonths) throws SQLException {
+        if (url != null) {
+            return;
+        }
+        url = "jdbc:h2:mem:nexquery_bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        System.setProperty("nexquery.db.url", url);
+        System.setProperty("nexquery.db.username", USERNAME);
+        System.setProperty("nexquery.db.password", "");
+        // The same schema and indexes production gets
+        if (new SchemaMigrator().migrate() == null) {
+            throw new SQLException("Could not migrate benchmark database");
+        }
+        try (Connection connection = DriverManager.getConnection(url, USERNAME, "")) {
+            WorkforceGenerator generator = new WorkforceGenerator(SEED, employees);
+            generator.setPayrollMonths(payrollMonths);
+            generator.generate(new JdbcWorkforceSink(connection));
+        } catch (IOException e) {
+            throw new SQLException("Could not seed benchmark database", e);
+        }
+    }
+
+    public static Connection openConnection() throws SQLException {
+        return DriverManager.getConnection(url, USERNAME, "");
+    }
+}
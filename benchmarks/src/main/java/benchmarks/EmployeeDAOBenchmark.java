@@ -0,0 +1,126 @@
+/**
+ * Latency of the EmployeeDAO queries and the cached service-layer lookup.
+ * The table size is a JMH parameter: -p employees=1000,100000,1000000
+ * (data from WorkforceGenerator, see BenchmarkDatabase).
+ */
+package benchmarks;
+
+import dao.EmployeeDAO;
+import dao.PayrollReportDAO;
+import dao.PayrollTotalsDAO;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import models.Employee;
+import models.PayrollReport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import services.AuthenticationService;
+import utils.WorkforceGenerator;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeDAOBenchmark {
+    @Param({ "1000", "100000" })
+    public int employees;
+
+    // Pay history is not read by these benchmarks, so none is generated by default
+    @Param({ "0" })
+    public int payrollMonths;
+
+    private EmployeeDAO dao;
+    private PayrollReportDAO reports;
+    private AuthenticationService service;
+    private int nextNewId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.start(employees, payrollMonths);
+        dao = new EmployeeDAO();
+        reports = new PayrollReportDAO();
+        service = new AuthenticationService();
+    }
+
+    // Drop the rows addEmployee created so every iteration sees the seeded table size
+    @Setup(Level.Iteration)
+    public void removeAddedEmployees() throws SQLException {
+        try (Connection connection = BenchmarkDatabase.openConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("DELETE FROM employee_job_titles WHERE empid > " + employees);
+            stmt.executeUpdate("DELETE FROM employees WHERE empid > " + employees);
+        }
+        // The deletes above bypass the DAO, so bring the payroll totals back in line
+        new PayrollTotalsDAO().rebuild();
+        nextNewId = employees + 1;
+    }
+
+    @Benchmark
+    public Employee getEmployeeById() {
+        return dao.getEmployeeById(randomId());
+    }
+
+    @Benchmark
+    public Employee getEmployeeByIdThroughService() {
+        return service.getEmployeeById(randomId());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Employee> getAllEmployees() {
+        return dao.getAllEmployees();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<String[]> getPayrollByJobTitle() {
+        return dao.getPayrollByJobTitle();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<String[]> getPayrollByDivision() {
+        return dao.getPayrollByDivision();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<String[]> getLivePayrollByJobTitle() {
+        return dao.getLivePayrollByJobTitle();
+    }
+
+    // Every combination of title, division and hire year in one scan
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public PayrollReport buildFullPayrollReport() {
+        return reports.buildReport(PayrollReportDAO.ALL_GROUPINGS);
+    }
+
+    @Benchmark
+    public boolean addEmployee() {
+        int id = nextNewId++;
+        Employee emp = new Employee(id, "Bench", "Mark" + id, "bench" + id + "@example.com",
+            55_000, "2024-01-15", "000-00-0000", WorkforceGenerator.regularTitle(0));
+        return dao.addEmployee(emp, "2024-01-15", "000-00-0000", 55_000);
+    }
+
+    private int randomId() {
+        return 1 + ThreadLocalRandom.current().nextInt(employees);
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * Cost of the legacy and current password hashes, i.e. the CPU time of one login check.
+ * Sweep PBKDF2 iteration counts against the login latency budget with
+ * gradle :benchmarks:jmh -Pjmh.args='PasswordHashing -p iterations=210000,310000,600000'.
+ */
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.Pbkdf2PasswordHasher;
+import utils.PasswordUtil;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHashingBenchmark {
+    @Param({ "310000" })
+    public int iterations;
+
+    private final String password = "correct horse battery staple";
+    private Pbkdf2PasswordHasher pbkdf2;
+
+    @Setup
+    public void setUp() {
+        pbkdf2 = new Pbkdf2PasswordHasher(iterations);
+    }
+
+    @Benchmark
+    public String hashPassword() {
+        return PasswordUtil.hashPassword(password);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public String pbkdf2Hash() {
+        return pbkdf2.hash(password);
+    }
+}
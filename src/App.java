@@ -11,23 +11,115 @@
  * - interfaces/DataAccessible.java - Defines CRUD permissions
  * - utils/DatabaseConnection.java (Singleton) - Manages database connection
  * - dao/EmployeeDAO.java - Data access layer for employee operations
- * - services/AuthenticationService.java - Business logic for authentication
+ * - dao/DaoMetrics.java (Singleton) - Per-operation latency/row metrics, also exported via JMX
+ * - dao/EmployeeDirectory.java, dao/EmployeeQueryCache.java (Singletons) - Bounded read-through caches
+ * - services/AuthenticationService.java - Stateless business logic for authentication
+ * - services/SessionRegistry.java (Singleton) - Active sessions with idle expiry
+ * - services/AsyncAuthenticationService.java - CompletableFuture facade with deadlines
+ * - services/SalaryAdjustmentService.java - Transactional bulk salary adjustments, previewed from the salary index
+ * - services/BulkExportService.java - Streaming CSV export of the whole workforce
+ * - services/BulkImportService.java - Batched CSV onboarding with a reject file
+ * - services/PayrollService.java - Typed payroll reports and payroll totals maintenance
+ * - services/ReportPackService.java - Runs every payroll summary concurrently
+ * - services/HiringService.java - Hiring trends, anniversaries and tenure from the hire date index
  * - ui/ConsoleUI.java - Terminal interface for user interaction
  * - ui/HRAdminView.java (Aggregation) - Specialized view for HR Admin users
  */
 
-import java.util.ArrayList;
+import dao.DaoMetrics;
+import dao.EmployeeDirectory;
+import dao.EmployeeQueryCache;
+import java.math.BigDecimal;
 import java.util.List;
+import models.EmployeePage;
+import models.PayHistoryPage;
+import models.PayPeriodTotal;
+import models.PayRecord;
+import models.PayrollReport;
+import models.PayrollReport.Dimension;
+import models.Session;
 import models.Person;
+import models.SalaryAdjustmentPreview;
+import services.AsyncAuthenticationService;
 import services.AuthenticationService;
+import services.BulkExportService;
+import services.BulkImportService;
+import services.HiringService;
+import services.PayrollService;
+import services.ReportPackService;
+import services.SalaryAdjustmentService;
 import ui.ConsoleUI;
 import ui.HRAdminView;
 import utils.DatabaseConnection;
 
 public class App {
+    // Rows shown per page in the employee and pay history listings
+    private static final int PAGE_SIZE = 20;
+
+    /**
+     * Pages through employees (optionally of one job title) with next/previous navigation.
+     * @return false if there were no employees to show
+     */
+    private static boolean browseEmployees(ConsoleUI ui, AuthenticationService authService, String jobTitle) {
+        EmployeePage page = authService.getEmployeePage(jobTitle, EmployeePage.START, PAGE_SIZE);
+        if (page.isEmpty()) {
+            return false;
+        }
+        while (true) {
+            for (models.Employee emp : page.getEmployees()) {
+                System.out.println("ID: " + emp.getEmpId() + ", Name: " + emp.getFullName() + ", Email: " + emp.getEmail() + ", Role: " + emp.getOccupation());
+            }
+            System.out.println();
+            char nav = ui.getPageNavigation(page.hasPrevious(), page.hasNext());
+            if (nav == 'n') {
+                page = authService.getEmployeePage(jobTitle, page.getLastKey(), PAGE_SIZE);
+            } else if (nav == 'p') {
+                page = authService.getEmployeePageBefore(jobTitle, page.getFirstKey(), PAGE_SIZE);
+            } else {
+                return true;
+            }
+            if (page.isEmpty()) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Pages through an employee's individual payments in [from, to], newest first.
+     */
+    private static void browsePayHistory(ConsoleUI ui, PayrollService payrollService, int empId,
+                                         java.time.LocalDate from, java.time.LocalDate to) {
+        PayHistoryPage page = payrollService.getPayHistoryPage(empId, from, to, null, PAGE_SIZE);
+        if (page.isEmpty()) {
+            System.out.println("No payments in this range.\n");
+            return;
+        }
+        while (true) {
+            System.out.printf("%-15s %-15s\n", "Date", "Earnings");
+            for (PayRecord record : page.getRecords()) {
+                System.out.printf("%-15s $%,.2f\n", record.getPayDate(), record.getEarnings());
+            }
+            System.out.println();
+            if (ui.getPageNavigation(false, page.hasNext()) != 'n') {
+                return;
+            }
+            page = payrollService.getPayHistoryPage(empId, from, to, page.getLast(), PAGE_SIZE);
+            if (page.isEmpty()) {
+                return;
+            }
+        }
+    }
+
     public static void main(String[] args) {
         ConsoleUI ui = new ConsoleUI();
         AuthenticationService authService = new AuthenticationService();
+        AsyncAuthenticationService asyncAuthService = new AsyncAuthenticationService(authService);
+        SalaryAdjustmentService salaryService = new SalaryAdjustmentService();
+        BulkExportService exportService = new BulkExportService();
+        BulkImportService importService = new BulkImportService();
+        PayrollService payrollService = new PayrollService();
+        ReportPackService reportPackService = new ReportPackService();
+        HiringService hiringService = new HiringService();
         HRAdminView adminView = new HRAdminView(ui);
         
         ui.displayWelcome();
@@ -41,8 +133,9 @@ public class App {
             int empId = ui.getEmployeeId();
             String password = ui.getPassword();
 
-            if (authService.authenticateByPassword(empId, password)) {
-                Person currentUser = authService.getCurrentUser();
+            Session session = authService.authenticateByPassword(empId, password);
+            if (session != null) {
+                Person currentUser = session.getUser();
                 ui.displayLoginSuccess(currentUser.getFullName());
 
                 if ("HR_ADMIN".equals(currentUser.getRole())) {
@@ -59,9 +152,127 @@ public class App {
                 // Main application loop (placeholder for future functionality)
                 boolean running = true;
                 while (running) {
-                    boolean isAdmin = "HR_ADMIN".equals(currentUser.getRole());
+                    boolean isAdmin = session.isAdmin();
                     int choice = ui.displayMainMenu(isAdmin);
+                    if (authService.getSession(session.getToken()) == null) {
+                        System.out.println("Your session has expired. Please log in again.");
+                        loggedIn = false;
+                        break;
+                    }
                     switch (choice) {
+                        case 10:
+                            if (isAdmin) {
+                                System.out.println("\nBulk Data Tools:");
+                                System.out.println("1. Export all employees to CSV");
+                                System.out.println("2. Import new employees from CSV");
+                                System.out.println("3. Rebuild payroll totals");
+                                System.out.println("4. Check payroll totals");
+                                System.out.print("Enter option (or 'q' to cancel): ");
+                                String toolChoice = ui.readLine();
+                                if ("q".equalsIgnoreCase(toolChoice)) break;
+                                switch (toolChoice) {
+                                    case "1":
+                                        System.out.print("Enter file path for CSV export (e.g., employees.csv): ");
+                                        String exportPath = ui.readLine();
+                                        System.out.print("Compress with gzip? (y/n): ");
+                                        boolean gzip = "y".equalsIgnoreCase(ui.readLine());
+                                        System.out.print("Maximum rows per file (0 for a single file): ");
+                                        long maxRows;
+                                        try {
+                                            maxRows = Long.parseLong(ui.readLine().trim());
+                                        } catch (NumberFormatException e) {
+                                            System.out.println("Invalid number. Returning to menu.\n");
+                                            break;
+                                        }
+                                        BulkExportService.ExportResult exported = exportService.exportAllEmployees(
+                                            java.nio.file.Paths.get(exportPath), gzip, maxRows,
+                                            (rows, rate) -> System.out.printf("  %,d rows written (%,.0f rows/s)\n", rows, rate));
+                                        if (exported.isSuccess()) {
+                                            System.out.printf("Exported %,d employee(s) to %d file(s) in %.1f s (%,.0f rows/s).\n",
+                                                exported.getRows(), exported.getFiles().size(), exported.getElapsedMillis() / 1000.0, exported.getRowsPerSecond());
+                                            for (java.nio.file.Path file : exported.getFiles()) {
+                                                System.out.println("  " + file);
+                                            }
+                                            System.out.println();
+                                        } else {
+                                            System.out.println("Failed to export employee data.\n");
+                                        }
+                                        break;
+                                    case "2":
+                                        System.out.println("Columns: " + utils.CsvExportUtil.HEADER);
+                                        System.out.print("Enter file path of CSV to import: ");
+                                        String importPath = ui.readLine();
+                                        System.out.print("Enter file path for rejected rows (e.g., rejects.csv): ");
+                                        String rejectPath = ui.readLine();
+                                        System.out.print("Rows per transaction (blank for " + BulkImportService.DEFAULT_CHUNK_SIZE + "): ");
+                                        String chunkInput = ui.readLine().trim();
+                                        int chunkSize = BulkImportService.DEFAULT_CHUNK_SIZE;
+                                        if (!chunkInput.isEmpty()) {
+                                            try {
+                                                chunkSize = Integer.parseInt(chunkInput);
+                                            } catch (NumberFormatException e) {
+                                                System.out.println("Invalid number. Returning to menu.\n");
+                                                break;
+                                            }
+                                        }
+                                        BulkImportService.ImportResult imported = importService.importEmployees(
+                                            java.nio.file.Paths.get(importPath), java.nio.file.Paths.get(rejectPath), chunkSize);
+                                        if (imported.isSuccess()) {
+                                            System.out.printf("Read %,d row(s): %,d imported, %,d rejected in %.1f s.\n",
+                                                imported.getRowsRead(), imported.getRowsImported(), imported.getRowsRejected(), imported.getElapsedMillis() / 1000.0);
+                                            if (imported.getRowsRejected() > 0) {
+                                                System.out.println("Rejected rows were written to " + rejectPath);
+                                            }
+                                            System.out.println();
+                                        } else {
+                                            System.out.println("Import failed: " + imported.getError() + "\n");
+                                        }
+                                        break;
+                                    case "3":
+                                        if (payrollService.rebuildTotals()) {
+                                            System.out.println("Payroll totals rebuilt.\n");
+                                        } else {
+                                            System.out.println("Failed to rebuild payroll totals.\n");
+                                        }
+                                        break;
+                                    case "4":
+                                        List<String> mismatches = payrollService.checkTotals();
+                                        if (mismatches == null) {
+                                            System.out.println("Failed to check payroll totals.\n");
+                                        } else if (mismatches.isEmpty()) {
+                                            System.out.println("Payroll totals are consistent.\n");
+                                        } else {
+                                            System.out.println(mismatches.size() + " payroll total(s) differ from the employees table:");
+                                            for (String mismatch : mismatches) {
+                                                System.out.println("  " + mismatch);
+                                            }
+                                            System.out.println("Use option 3 to rebuild them.\n");
+                                        }
+                                        break;
+                                    default:
+                                        System.out.println("Invalid option. Returning to menu.\n");
+                                }
+                            } else {
+                                ui.displayAccessDenied();
+                            }
+                            break;
+                        case 11:
+                            if (isAdmin) {
+                                ui.displayDaoMetrics(DaoMetrics.getInstance().getOperations());
+                                ui.displayCacheStats(new String[] { "Employees by ID", "List queries" },
+                                    new utils.SegmentedLruCache.Stats[] {
+                                        EmployeeDirectory.getInstance().getStats(), EmployeeQueryCache.getInstance().getStats() });
+                                System.out.print("Reset the counters? (y/n): ");
+                                if ("y".equalsIgnoreCase(ui.readLine())) {
+                                    DaoMetrics.getInstance().resetAll();
+                                    EmployeeDirectory.getInstance().resetStats();
+                                    EmployeeQueryCache.getInstance().resetStats();
+                                    System.out.println("Metrics reset.\n");
+                                }
+                            } else {
+                                ui.displayAccessDenied();
+                            }
+                            break;
                         case 9:
                             // Password reset option for all users
                             System.out.print("Would you like to reset your password? (y/n): ");
@@ -70,7 +281,7 @@ public class App {
                                 System.out.print("Enter your current password: ");
                                 String oldPassword = ui.getPassword();
                                 // Verify old password
-                                boolean verified = authService.authenticateByPassword(currentUser.getEmpId(), oldPassword);
+                                boolean verified = authService.verifyPassword(currentUser.getEmpId(), oldPassword);
                                 if (!verified) {
                                     System.out.println("Current password is incorrect. Password reset aborted.\n");
                                     break;
@@ -78,7 +289,10 @@ public class App {
                                 String newPassword = ui.getNewPassword();
                                 boolean success = authService.resetPassword(currentUser.getEmpId(), newPassword);
                                 if (success) {
-                                    System.out.println("Password reset successfully.\n");
+                                    // Resetting the password ended every session, this one included
+                                    System.out.println("Password reset successfully. Please log in again.\n");
+                                    loggedIn = false;
+                                    running = false;
                                 } else {
                                     System.out.println("Failed to reset password.\n");
                                 }
@@ -93,29 +307,30 @@ public class App {
                                 System.out.println("2. Total payroll by division");
                                 System.out.println("3. Employee pay history");
                                 System.out.println("4. Employees hired in date range");
-                                System.out.print("Enter option (1-4, or 'q' to cancel): ");
+                                System.out.println("5. Payroll breakdown (title, division, hire year)");
+                                System.out.println("6. Run all summaries");
+                                System.out.println("7. Hiring trends, anniversaries and tenure");
+                                System.out.print("Enter option (1-7, or 'q' to cancel): ");
                                 String summaryType = ui.readLine();
                                 if ("q".equalsIgnoreCase(summaryType)) break;
                                 switch (summaryType) {
                                     case "1":
                                         // Total payroll by job title
-                                        List<String[]> jobTitleSummary = authService.getPayrollByJobTitle();
-                                        System.out.println("\nPayroll by Job Title:");
-                                        System.out.printf("%-25s %-15s\n", "Job Title", "Total Payroll");
-                                        for (String[] row : jobTitleSummary) {
-                                            System.out.printf("%-25s $%,.2f\n", row[0], Double.parseDouble(row[1]));
+                                        PayrollReport.Grouping titleTotals = payrollService.getPayrollTotals(Dimension.JOB_TITLE);
+                                        if (titleTotals == null) {
+                                            System.out.println("Failed to build payroll report.\n");
+                                            break;
                                         }
-                                        System.out.println();
+                                        ui.displayPayrollGrouping(titleTotals);
                                         break;
                                     case "2":
                                         // Total payroll by division
-                                        List<String[]> divisionSummary = authService.getPayrollByDivision();
-                                        System.out.println("\nPayroll by Division:");
-                                        System.out.printf("%-25s %-15s\n", "Division", "Total Payroll");
-                                        for (String[] row : divisionSummary) {
-                                            System.out.printf("%-25s $%,.2f\n", row[0], Double.parseDouble(row[1]));
+                                        PayrollReport.Grouping divisionTotals = payrollService.getPayrollTotals(Dimension.DIVISION);
+                                        if (divisionTotals == null) {
+                                            System.out.println("Failed to build payroll report.\n");
+                                            break;
                                         }
-                                        System.out.println();
+                                        ui.displayPayrollGrouping(divisionTotals);
                                         break;
                                     case "3":
                                         // Employee pay history by ID, display name
@@ -123,24 +338,52 @@ public class App {
                                         String empIdInput = ui.readLine();
                                         int empIdHist = -1;
                                         try { empIdHist = Integer.parseInt(empIdInput); } catch (NumberFormatException e) { System.out.println("Invalid ID."); break; }
-                                        models.Employee foundEmp = null;
-                                        for (models.Employee emp : authService.getAllEmployees()) {
-                                            if (emp.getEmpId() == empIdHist) {
-                                                foundEmp = emp;
-                                                break;
-                                            }
-                                        }
+                                        models.Employee foundEmp = authService.getEmployeeById(empIdHist);
                                         if (foundEmp == null) {
                                             System.out.println("Employee not found.\n");
                                             break;
                                         }
-                                        List<String[]> payHistory = authService.getEmployeePayHistory(empIdHist);
+                                        java.time.LocalDate historyTo = java.time.LocalDate.now();
+                                        java.time.LocalDate historyFrom = historyTo.minusYears(1).plusDays(1);
+                                        try {
+                                            System.out.print("Start date (YYYY-MM-DD, blank for " + historyFrom + "): ");
+                                            String fromInput = ui.readLine().trim();
+                                            if (!fromInput.isEmpty()) historyFrom = java.time.LocalDate.parse(fromInput);
+                                            System.out.print("End date (YYYY-MM-DD, blank for " + historyTo + "): ");
+                                            String toInput = ui.readLine().trim();
+                                            if (!toInput.isEmpty()) historyTo = java.time.LocalDate.parse(toInput);
+                                        } catch (java.time.format.DateTimeParseException e) {
+                                            System.out.println("Invalid date.\n");
+                                            break;
+                                        }
+                                        System.out.println("1. Monthly totals");
+                                        System.out.println("2. Quarterly totals");
+                                        System.out.println("3. Year to date (as of " + historyTo + ")");
+                                        System.out.println("4. Individual payments");
+                                        System.out.print("Enter option (1-4): ");
+                                        String historyView = ui.readLine().trim();
                                         System.out.println("\nPay History for " + foundEmp.getFullName() + ":");
-                                        System.out.printf("%-15s %-15s\n", "Date", "Salary");
-                                        for (String[] row : payHistory) {
-                                            System.out.printf("%-15s $%,.2f\n", row[0], Double.parseDouble(row[1]));
+                                        if ("4".equals(historyView)) {
+                                            browsePayHistory(ui, payrollService, empIdHist, historyFrom, historyTo);
+                                            break;
                                         }
-                                        System.out.println();
+                                        List<PayPeriodTotal> rollup;
+                                        boolean yearToDate = "3".equals(historyView);
+                                        if ("1".equals(historyView)) {
+                                            rollup = payrollService.getPayRollup(empIdHist, historyFrom, historyTo, PayPeriodTotal.Granularity.MONTH);
+                                        } else if ("2".equals(historyView)) {
+                                            rollup = payrollService.getPayRollup(empIdHist, historyFrom, historyTo, PayPeriodTotal.Granularity.QUARTER);
+                                        } else if (yearToDate) {
+                                            rollup = payrollService.getPayRollup(empIdHist, historyTo.withDayOfYear(1), historyTo, PayPeriodTotal.Granularity.MONTH);
+                                        } else {
+                                            System.out.println("Invalid option.\n");
+                                            break;
+                                        }
+                                        if (rollup == null) {
+                                            System.out.println("Failed to retrieve pay history.\n");
+                                            break;
+                                        }
+                                        ui.displayPayRollup(rollup, yearToDate);
                                         break;
                                     case "4":
                                         // Employees hired in date range
@@ -148,14 +391,117 @@ public class App {
                                         String startDate = ui.readLine();
                                         System.out.print("Enter end date (YYYY-MM-DD): ");
                                         String endDate = ui.readLine();
-                                        List<models.Employee> hiredRange = authService.getEmployeesHiredInRange(startDate, endDate);
-                                        System.out.println("\nEmployees hired between " + startDate + " and " + endDate + ":");
+                                        int hiredCount;
+                                        try {
+                                            hiredCount = hiringService.countHiredBetween(
+                                                java.time.LocalDate.parse(startDate.trim()), java.time.LocalDate.parse(endDate.trim()));
+                                        } catch (java.time.format.DateTimeParseException e) {
+                                            System.out.println("Invalid date. Use YYYY-MM-DD.\n");
+                                            break;
+                                        }
+                                        System.out.println("\nEmployees hired between " + startDate + " and " + endDate
+                                            + (hiredCount >= 0 ? " (" + hiredCount + "):" : ":"));
                                         System.out.printf("%-10s %-20s %-15s\n", "ID", "Name", "Hire Date");
-                                        for (models.Employee emp : hiredRange) {
-                                            System.out.printf("%-10d %-20s %-15s\n", emp.getEmpId(), emp.getFullName(), emp.getHireDate());
+                                        if (authService.forEachEmployeeHiredInRange(startDate, endDate, emp ->
+                                                System.out.printf("%-10d %-20s %-15s\n", emp.getEmpId(), emp.getFullName(), emp.getHireDate())) < 0) {
+                                            System.out.println("Failed to retrieve employees.");
                                         }
                                         System.out.println();
                                         break;
+                                    case "5":
+                                        // Several breakdowns from one scan
+                                        System.out.print("Group by (any of: title, division, year; blank for every combination): ");
+                                        String groupInput = ui.readLine().trim().toLowerCase();
+                                        PayrollReport breakdown;
+                                        if (groupInput.isEmpty()) {
+                                            breakdown = payrollService.buildFullReport();
+                                        } else {
+                                            java.util.Set<Dimension> groupBy = java.util.EnumSet.noneOf(Dimension.class);
+                                            for (String part : groupInput.split("[,\\s]+")) {
+                                                if (part.startsWith("t")) groupBy.add(Dimension.JOB_TITLE);
+                                                else if (part.startsWith("d")) groupBy.add(Dimension.DIVISION);
+                                                else if (part.startsWith("y") || part.startsWith("h")) groupBy.add(Dimension.HIRE_YEAR);
+                                            }
+                                            if (groupBy.isEmpty()) {
+                                                System.out.println("No valid dimensions given.\n");
+                                                break;
+                                            }
+                                            breakdown = payrollService.buildReport(java.util.Collections.singletonList(groupBy));
+                                        }
+                                        if (breakdown == null) {
+                                            System.out.println("Failed to build payroll report.\n");
+                                            break;
+                                        }
+                                        for (PayrollReport.Grouping grouping : breakdown.getGroupings()) {
+                                            ui.displayPayrollGrouping(grouping);
+                                        }
+                                        System.out.printf("Scanned %,d employee(s) in %d ms.\n\n", breakdown.getEmployeesScanned(), breakdown.getElapsedMillis());
+                                        break;
+                                    case "6":
+                                        // Every summary at once, each on its own pooled connection
+                                        java.time.LocalDate packTo = java.time.LocalDate.now();
+                                        java.time.LocalDate packFrom = packTo.withDayOfYear(1);
+                                        Integer packEmpId = null;
+                                        try {
+                                            System.out.print("Hired from (YYYY-MM-DD, blank for " + packFrom + "): ");
+                                            String packFromInput = ui.readLine().trim();
+                                            if (!packFromInput.isEmpty()) packFrom = java.time.LocalDate.parse(packFromInput);
+                                            System.out.print("Hired to (YYYY-MM-DD, blank for " + packTo + "): ");
+                                            String packToInput = ui.readLine().trim();
+                                            if (!packToInput.isEmpty()) packTo = java.time.LocalDate.parse(packToInput);
+                                            System.out.print("Employee ID for pay history (blank to skip): ");
+                                            String packEmpInput = ui.readLine().trim();
+                                            if (!packEmpInput.isEmpty()) packEmpId = Integer.parseInt(packEmpInput);
+                                        } catch (java.time.format.DateTimeParseException | NumberFormatException e) {
+                                            System.out.println("Invalid input.\n");
+                                            break;
+                                        }
+                                        java.time.LocalDate payTo = java.time.LocalDate.now();
+                                        ReportPackService.ReportPack pack = reportPackService.runAll(packFrom, packTo, packEmpId,
+                                            payTo.minusYears(1).plusDays(1), payTo, ReportPackService.DEFAULT_TIMEOUT_MS);
+                                        if (pack.getJobTitles().isSuccess()) {
+                                            ui.displayPayrollGrouping(pack.getJobTitles().getValue());
+                                        }
+                                        if (pack.getDivisions().isSuccess()) {
+                                            ui.displayPayrollGrouping(pack.getDivisions().getValue());
+                                        }
+                                        if (pack.getHires().isSuccess()) {
+                                            System.out.println(pack.getHires().getName() + ":");
+                                            System.out.printf("%-10s %-20s %-15s\n", "ID", "Name", "Hire Date");
+                                            for (models.Employee hired : pack.getHires().getValue()) {
+                                                System.out.printf("%-10d %-20s %-15s\n", hired.getEmpId(), hired.getFullName(), hired.getHireDate());
+                                            }
+                                            System.out.println();
+                                        }
+                                        if (pack.getPayHistory() != null && pack.getPayHistory().isSuccess()) {
+                                            System.out.println(pack.getPayHistory().getName() + " (last 12 months):");
+                                            ui.displayPayRollup(pack.getPayHistory().getValue(), false);
+                                        }
+                                        ui.displayReportPackStatus(pack);
+                                        break;
+                                    case "7":
+                                        // Hire date index: trends and tenure are counts, anniversaries a short list
+                                        java.time.LocalDate today = java.time.LocalDate.now();
+                                        int daysAhead = 30;
+                                        System.out.print("Show anniversaries in the next how many days (blank for 30): ");
+                                        String daysInput = ui.readLine().trim();
+                                        try {
+                                            if (!daysInput.isEmpty()) daysAhead = Math.max(1, Math.min(366, Integer.parseInt(daysInput)));
+                                        } catch (NumberFormatException e) {
+                                            System.out.println("Invalid number.\n");
+                                            break;
+                                        }
+                                        java.util.Map<Integer, Integer> hiresPerYear = hiringService.getHiresPerYear();
+                                        int[] tenureBands = hiringService.getTenureBandCounts(today, HiringService.DEFAULT_TENURE_BANDS);
+                                        List<models.Employee> anniversaries = hiringService.getAnniversaries(today, today.plusDays(daysAhead - 1));
+                                        if (hiresPerYear == null || tenureBands == null || anniversaries == null) {
+                                            System.out.println("Failed to load hire dates.\n");
+                                            break;
+                                        }
+                                        ui.displayHiresPerYear(hiresPerYear);
+                                        ui.displayTenureBands(HiringService.DEFAULT_TENURE_BANDS, tenureBands);
+                                        ui.displayAnniversaries(anniversaries, today);
+                                        break;
                                     default:
                                         System.out.println("Invalid summary type. Returning to menu.\n");
                                 }
@@ -190,8 +536,9 @@ public class App {
                                                         }
                                                         // Salary range calculation and confirmation loop
                                                         while (true) {
-                                                            double lowerBound = baseSalary * (1 - Math.abs(percent) / 100.0);
-                                                            double upperBound = baseSalary * (1 + Math.abs(percent) / 100.0);
+                                                            double[] range = salaryService.rangeAround(baseSalary, percent);
+                                                            double lowerBound = range[0];
+                                                            double upperBound = range[1];
                                                             System.out.printf("\nSalary range to be adjusted: $%,.2f - $%,.2f\n", lowerBound, upperBound);
                                                             System.out.print("Is this the salary range you wish to proceed with? (y/n): ");
                                                             String rangeConfirm = ui.readLine();
@@ -213,18 +560,18 @@ public class App {
                                                                 System.out.println("Returning to menu.\n");
                                                                 break;
                                                             }
-                                                            // Filter employees in range
-                                                            List<models.Employee> inRange = new ArrayList<>();
-                                                            for (models.Employee emp : authService.getAllEmployees()) {
-                                                                double sal = emp.getSalary();
-                                                                if (sal >= lowerBound && sal <= upperBound) {
-                                                                    inRange.add(emp);
-                                                                }
+                                                            // Count, total and sample come from the in-memory salary index, not a table scan
+                                                            SalaryAdjustmentPreview preview = salaryService.preview(lowerBound, upperBound);
+                                                            if (preview == null) {
+                                                                System.out.println("Failed to preview salary adjustment. Returning to menu.\n");
+                                                                break;
                                                             }
-                                                            if (inRange.isEmpty()) {
+                                                            if (preview.getAffectedCount() == 0) {
                                                                 System.out.println("No employees found in the selected salary range. Returning to menu.\n");
                                                                 break;
                                                             }
+                                                            System.out.printf("%d employee(s) found in the selected salary range, earning $%,.2f in total.\n",
+                                                                preview.getAffectedCount(), preview.getCurrentTotal());
                                                             // Prompt for adjustment percentage
                                                             while (true) {
                                                                 System.out.print("Enter percentage to increase salaries by (e.g., 5 for 5% or 'q' to cancel): ");
@@ -241,27 +588,34 @@ public class App {
                                                                     continue;
                                                                 }
                                                                 // Show preview
-                                                                System.out.println("\nEmployees to be adjusted:");
-                                                                for (models.Employee emp : inRange) {
-                                                                    double newSal = emp.getSalary() * (1 + adjPercent / 100.0);
+                                                                System.out.println("\nEmployees to be adjusted (highest salaries first):");
+                                                                for (models.Employee emp : preview.getSample()) {
+                                                                    double newSal = SalaryAdjustmentPreview.adjustedSalary(emp.getSalary(), adjPercent);
                                                                     System.out.printf("\nID: %d, Name: %s, Old Salary: $%,.2f, New Salary: $%,.2f\n",
                                                                         emp.getEmpId(), emp.getFullName(), emp.getSalary(), newSal);
                                                                 }
+                                                                int notShown = preview.getAffectedCount() - preview.getSample().size();
+                                                                if (notShown > 0) {
+                                                                    System.out.printf("\n...and %d more.\n", notShown);
+                                                                }
+                                                                BigDecimal costDelta = salaryService.costDelta(lowerBound, upperBound, adjPercent);
+                                                                if (costDelta != null) {
+                                                                    System.out.printf("\nTotal payroll change: $%,.2f across %d employee(s).\n",
+                                                                        costDelta, preview.getAffectedCount());
+                                                                } else {
+                                                                    System.out.printf("\nTotal payroll change could not be computed (%d employee(s) affected).\n",
+                                                                        preview.getAffectedCount());
+                                                                }
                                                                 System.out.print("\nWould you like to confirm this salary adjustment? (y/n): ");
                                                                 String confirmAdj = ui.readLine();
                                                                 if ("y".equalsIgnoreCase(confirmAdj)) {
-                                                                    // Update salaries
-                                                                    int updated = 0;
-                                                                    for (models.Employee emp : inRange) {
-                                                                        double newSal = emp.getSalary() * (1 + adjPercent / 100.0);
-                                                                        models.Employee updatedEmp = new models.Employee(
-                                                                            emp.getEmpId(), emp.getFirstName(), emp.getLastName(), emp.getEmail(),
-                                                                            newSal, emp.getHireDate(), emp.getSSN(), emp.getOccupation());
-                                                                        if (authService.updateEmployee(updatedEmp)) {
-                                                                            updated++;
-                                                                        }
+                                                                    // Update salaries in one transaction
+                                                                    int updated = salaryService.adjustSalaries(lowerBound, upperBound, adjPercent);
+                                                                    if (updated < 0) {
+                                                                        System.out.println("\nSalary adjustment failed. No salaries were changed.\n");
+                                                                    } else {
+                                                                        System.out.printf("\n%d employee(s) had their salaries updated successfully.\n\n", updated);
                                                                     }
-                                                                    System.out.printf("\n%d employee(s) had their salaries updated successfully.\n\n", updated);
                                                                     break;
                                                                 } else if ("n".equalsIgnoreCase(confirmAdj)) {
                                                                     System.out.println("Enter another salary adjustment percentage.\n");
@@ -279,7 +633,7 @@ public class App {
                                                     break;
                         case 0:
                             System.out.println("Logging out...");
-                            authService.logout();
+                            authService.logout(session);
                             running = false;
                             break;
                         case 1:
@@ -298,15 +652,22 @@ public class App {
                             break;
                         case 2:
                             if (isAdmin) {
+                                // Load the filter choices while the first page is read and browsed
+                                java.util.concurrent.CompletableFuture<List<String>> jobTitlesFuture = asyncAuthService.getAllJobTitles();
                                 System.out.println("\nAll Employees:");
-                                for (models.Employee emp : authService.getAllEmployees()) {
-                                    System.out.println("ID: " + emp.getEmpId() + ", Name: " + emp.getFullName() + ", Email: " + emp.getEmail() + ", Role: " + emp.getOccupation());
-                                }
-                                System.out.println();
+                                browseEmployees(ui, authService, null);
                                 System.out.print("Would you like to filter employees by role/department? (y/n): ");
                                 String filterChoice = ui.readLine();
-                                if ("y".equalsIgnoreCase(filterChoice)) {
-                                    List<String> jobTitles = authService.getAllJobTitles();
+                                if (!"y".equalsIgnoreCase(filterChoice)) {
+                                    jobTitlesFuture.cancel(true);
+                                } else {
+                                    List<String> jobTitles;
+                                    try {
+                                        jobTitles = jobTitlesFuture.join();
+                                    } catch (java.util.concurrent.CompletionException | java.util.concurrent.CancellationException e) {
+                                        System.out.println("Could not load roles/departments. Returning to menu.\n");
+                                        break;
+                                    }
                                     if (jobTitles.isEmpty()) {
                                         System.out.println("No roles/departments found in the database.\n");
                                     } else {
@@ -327,15 +688,9 @@ public class App {
                                             break;
                                         }
                                         String jobTitle = jobTitles.get(selected - 1);
-                                        List<models.Employee> filtered = authService.getEmployeesByJobTitle(jobTitle);
-                                        if (filtered.isEmpty()) {
+                                        System.out.println("\nFiltered Employees:");
+                                        if (!browseEmployees(ui, authService, jobTitle)) {
                                             System.out.println("No employees found for role/department: " + jobTitle + "\n");
-                                        } else {
-                                            System.out.println("\nFiltered Employees:");
-                                            for (models.Employee emp : filtered) {
-                                                System.out.println("ID: " + emp.getEmpId() + ", Name: " + emp.getFullName() + ", Email: " + emp.getEmail() + ", Role: " + emp.getOccupation());
-                                            }
-                                            System.out.println();
                                         }
                                     }
                                 }
@@ -441,9 +796,7 @@ public class App {
                                 if ("q".equalsIgnoreCase(delIdInput)) break;
                                 final int delId = tempDelId;
                                 // Fetch employee info for confirmation
-                                models.Employee empToDelete = authService.getAllEmployees().stream()
-                                    .filter(e -> e.getEmpId() == delId)
-                                    .findFirst().orElse(null);
+                                models.Employee empToDelete = authService.getEmployeeById(delId);
                                 if (empToDelete == null) {
                                     System.out.println("No employee found with ID " + delId + ".\n");
                                     break;
@@ -481,13 +834,7 @@ public class App {
                                     firstPromptSearch = false;
                                 }
                                 if ("q".equalsIgnoreCase(searchIdInput)) break;
-                                models.Employee foundEmp = null;
-                                for (models.Employee emp : authService.getAllEmployees()) {
-                                    if (emp.getEmpId() == searchId) {
-                                        foundEmp = emp;
-                                        break;
-                                    }
-                                }
+                                models.Employee foundEmp = authService.getEmployeeById(searchId);
                                 if (foundEmp != null) {
                                     System.out.println("\nEmployee Found:");
                                     System.out.println("ID: " + foundEmp.getEmpId());
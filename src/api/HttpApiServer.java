@@ -0,0 +1,643 @@
+/**
+ * Embedded HTTP JSON API over the existing services.
+ * Built on the JDK's com.sun.net.httpserver. Every exchange runs on its own thread from
+ * TaskExecutors (virtual threads on Java 21+), so a slow query holds up only its own
+ * request, and all requests share the process-wide connection pool, session registry
+ * and employee index.
+ *
+ * Clients log in with POST /api/login and send the returned token as
+ * "Authorization: Bearer <token>". Large listings (/api/employees/export and
+ * /api/employees/hired) are streamed as a chunked JSON array straight from the database
+ * cursor. Employee JSON never includes the SSN; salary is shown to HR admins and to the
+ * employee themself.
+ *
+ * Endpoints:
+ *   POST   /api/login                      {"empId":..,"password":".."} -> session token
+ *   POST   /api/logout
+ *   GET    /api/me
+ *   GET    /api/job-titles
+ *   GET    /api/employees?jobTitle=&after=&limit=     keyset page (admin)
+ *   GET    /api/employees/export                      every employee, streamed (admin)
+ *   GET    /api/employees/hired?from=&to=             streamed (admin)
+ *   GET    /api/employees/earning?min=&max=           salary range, lowest first, streamed (admin)
+ *   POST   /api/employees                             create (admin)
+ *   GET    /api/employees/{id}                        admin or self
+ *   PUT    /api/employees/{id}                        update name, email, salary (admin)
+ *   DELETE /api/employees/{id}                        (admin)
+ *   GET    /api/employees/{id}/pay?from=&to=&granularity=month|quarter|year   admin or self
+ *   GET    /api/employees/{id}/payments?from=&to=&afterDate=&afterPayId=&limit=   admin or self
+ *   GET    /api/payroll?groupBy=title,division,year   payroll report (admin)
+ *
+ * Run with: java -cp bin:lib/* api.HttpApiServer [port]   (default nexquery.http.port or 8080)
+ */
+package api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import models.Employee;
+import models.EmployeePage;
+import models.HRAdmin;
+import models.PayHistoryPage;
+import models.PayPeriodTotal;
+import models.PayRecord;
+import models.PayrollReport;
+import models.Person;
+import models.Session;
+import services.AuthenticationService;
+import services.PayrollService;
+import utils.TaskExecutors;
+
+public class HttpApiServer {
+    public static final int DEFAULT_PORT = Integer.getInteger("nexquery.http.port", 8080);
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final String JSON = "application/json; charset=utf-8";
+
+    /**
+     * Ends a request with an HTTP error status and a {"error": message} body.
+     */
+    static class ApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    // Writes a JSON response body
+    @FunctionalInterface
+    interface JsonBody {
+        void write(JsonWriter json) throws IOException;
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AuthenticationService authService;
+    private final PayrollService payrollService;
+
+    public HttpApiServer(InetSocketAddress address) throws IOException {
+        this.authService = new AuthenticationService();
+        this.payrollService = new PayrollService();
+        this.executor = TaskExecutors.newPerTaskExecutor("nexquery-http");
+        this.server = HttpServer.create(address, 0);
+        this.server.createContext("/api/", this::handle);
+        this.server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    // Stops accepting requests and waits up to delaySeconds for in-flight ones
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            route(exchange);
+        } catch (ApiException e) {
+            sendError(exchange, e.status, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (UncheckedIOException e) {
+            // Client went away mid-stream; nothing more can be sent
+        } catch (RuntimeException e) {
+            System.err.println("Error handling " + exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath() + ": " + e);
+            sendError(exchange, 500, "Internal error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] path = exchange.getRequestURI().getPath().substring("/api/".length()).split("/");
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+        if (path.length == 1 && "login".equals(path[0])) {
+            requireMethod(method, "POST");
+            login(exchange);
+            return;
+        }
+        Session session = requireSession(exchange);
+        String resource = path[0];
+        if ("logout".equals(resource) && path.length == 1) {
+            requireMethod(method, "POST");
+            authService.logout(session);
+            sendJson(exchange, 200, json -> json.beginObject().field("loggedOut", true).endObject());
+        } else if ("me".equals(resource) && path.length == 1) {
+            requireMethod(method, "GET");
+            Person user = session.getUser();
+            sendJson(exchange, 200, json -> writePerson(json, user, true));
+        } else if ("job-titles".equals(resource) && path.length == 1) {
+            requireMethod(method, "GET");
+            List<String> titles = authService.getAllJobTitles();
+            sendJson(exchange, 200, json -> {
+                json.beginArray();
+                for (String title : titles) {
+                    json.value(title);
+                }
+                json.endArray();
+            });
+        } else if ("employees".equals(resource)) {
+            routeEmployees(exchange, method, path, query, session);
+        } else if ("payroll".equals(resource) && path.length == 1) {
+            requireMethod(method, "GET");
+            requireAdmin(session);
+            payrollReport(exchange, query);
+        } else {
+            throw new ApiException(404, "No such endpoint");
+        }
+    }
+
+    private void routeEmployees(HttpExchange exchange, String method, String[] path, Map<String, String> query,
+                                Session session) throws IOException {
+        if (path.length == 1) {
+            requireAdmin(session);
+            if ("GET".equals(method)) {
+                listEmployees(exchange, query);
+            } else if ("POST".equals(method)) {
+                createEmployee(exchange);
+            } else {
+                throw new ApiException(405, "Method not allowed");
+            }
+            return;
+        }
+        if (path.length == 2 && "export".equals(path[1])) {
+            requireMethod(method, "GET");
+            requireAdmin(session);
+            streamEmployees(exchange, action -> authService.forEachEmployee(action));
+            return;
+        }
+        if (path.length == 2 && "hired".equals(path[1])) {
+            requireMethod(method, "GET");
+            requireAdmin(session);
+            LocalDate from = requireDate(query, "from");
+            LocalDate to = requireDate(query, "to");
+            streamEmployees(exchange, action -> authService.forEachEmployeeHiredInRange(from.toString(), to.toString(), action));
+            return;
+        }
+        if (path.length == 2 && "earning".equals(path[1])) {
+            requireMethod(method, "GET");
+            requireAdmin(session);
+            double min = requireAmount(query, "min");
+            double max = requireAmount(query, "max");
+            streamEmployees(exchange, action -> authService.forEachEmployeeInSalaryRange(min, max, action));
+            return;
+        }
+
+        int empId = parseInt(path[1], "employee ID");
+        if (!session.isAdmin() && session.getEmpId() != empId) {
+            throw new ApiException(403, "Not allowed");
+        }
+        if (path.length == 2) {
+            if ("GET".equals(method)) {
+                Employee emp = authService.getEmployeeById(empId);
+                if (emp == null) {
+                    throw new ApiException(404, "Employee not found");
+                }
+                sendJson(exchange, 200, json -> writePerson(json, emp, true));
+            } else if ("PUT".equals(method)) {
+                requireAdmin(session);
+                updateEmployee(exchange, empId);
+            } else if ("DELETE".equals(method)) {
+                requireAdmin(session);
+                if (authService.getEmployeeById(empId) == null) {
+                    throw new ApiException(404, "Employee not found");
+                }
+                // The employee exists, so a false here is a database failure (or a concurrent delete)
+                if (!authService.deleteEmployee(empId)) {
+                    throw new ApiException(500, "Could not delete employee");
+                }
+                sendJson(exchange, 200, json -> json.beginObject().field("deleted", empId).endObject());
+            } else {
+                throw new ApiException(405, "Method not allowed");
+            }
+        } else if (path.length == 3 && "pay".equals(path[2])) {
+            requireMethod(method, "GET");
+            payRollup(exchange, empId, query);
+        } else if (path.length == 3 && "payments".equals(path[2])) {
+            requireMethod(method, "GET");
+            payments(exchange, empId, query);
+        } else {
+            throw new ApiException(404, "No such endpoint");
+        }
+    }
+
+    private void login(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = readBody(exchange);
+        int empId = requireInt(body, "empId");
+        String password = requireString(body, "password");
+        Session session = authService.authenticateByPassword(empId, password);
+        if (session == null) {
+            throw new ApiException(401, "Invalid employee ID or password");
+        }
+        sendJson(exchange, 200, json -> {
+            json.beginObject().field("token", session.getToken()).name("user");
+            writePerson(json, session.getUser(), true);
+            json.endObject();
+        });
+    }
+
+    private void listEmployees(HttpExchange exchange, Map<String, String> query) throws IOException {
+        String jobTitle = query.get("jobTitle");
+        int after = query.containsKey("after") ? parseInt(query.get("after"), "after") : EmployeePage.START;
+        int limit = pageSize(query);
+        EmployeePage page = authService.getEmployeePage(jobTitle, after, limit);
+        sendJson(exchange, 200, json -> {
+            json.beginObject().name("employees").beginArray();
+            for (Employee emp : page.getEmployees()) {
+                writePerson(json, emp, true);
+            }
+            json.endArray().field("hasNext", page.hasNext());
+            if (page.hasNext()) {
+                json.field("next", "/api/employees?after=" + page.getLastKey() + "&limit=" + limit
+                    + (jobTitle != null ? "&jobTitle=" + java.net.URLEncoder.encode(jobTitle, StandardCharsets.UTF_8) : ""));
+            }
+            json.endObject();
+        });
+    }
+
+    private void createEmployee(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = readBody(exchange);
+        int empId = requireInt(body, "empId");
+        String hireDate = requireDate(requireString(body, "hireDate"), "hireDate").toString();
+        double salary = requireNumber(body, "salary").doubleValue();
+        String ssn = optionalString(body, "ssn");
+        Employee emp = new Employee(empId, requireString(body, "firstName"), requireString(body, "lastName"),
+            requireString(body, "email"), salary, hireDate, ssn, requireString(body, "occupation"));
+        if (!authService.addEmployee(emp, hireDate, ssn, salary)) {
+            throw new ApiException(409, "Employee could not be added (duplicate ID or invalid value)");
+        }
+        Employee created = authService.getEmployeeById(empId);
+        sendJson(exchange, 201, json -> writePerson(json, created != null ? created : emp, true));
+    }
+
+    private void updateEmployee(HttpExchange exchange, int empId) throws IOException {
+        Employee existing = authService.getEmployeeById(empId);
+        if (existing == null) {
+            throw new ApiException(404, "Employee not found");
+        }
+        Map<String, Object> body = readBody(exchange);
+        String firstName = body.containsKey("firstName") ? requireString(body, "firstName") : existing.getFirstName();
+        String lastName = body.containsKey("lastName") ? requireString(body, "lastName") : existing.getLastName();
+        String email = body.containsKey("email") ? requireString(body, "email") : existing.getEmail();
+        double salary = body.containsKey("salary") ? requireNumber(body, "salary").doubleValue() : existing.getSalary();
+        Employee updated = new Employee(empId, firstName, lastName, email, salary,
+            existing.getHireDate(), existing.getSSN(), existing.getOccupation());
+        if (!authService.updateEmployee(updated)) {
+            throw new ApiException(409, "Employee could not be updated");
+        }
+        Employee reloaded = authService.getEmployeeById(empId);
+        sendJson(exchange, 200, json -> writePerson(json, reloaded != null ? reloaded : updated, true));
+    }
+
+    private void payRollup(HttpExchange exchange, int empId, Map<String, String> query) throws IOException {
+        LocalDate to = query.containsKey("to") ? requireDate(query, "to") : LocalDate.now();
+        LocalDate from = query.containsKey("from") ? requireDate(query, "from") : to.withDayOfYear(1);
+        PayPeriodTotal.Granularity granularity;
+        try {
+            granularity = PayPeriodTotal.Granularity.valueOf(query.getOrDefault("granularity", "month").toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, "granularity must be month, quarter or year");
+        }
+        List<PayPeriodTotal> totals = payrollService.getPayRollup(empId, from, to, granularity);
+        if (totals == null) {
+            throw new ApiException(500, "Could not read pay history");
+        }
+        sendJson(exchange, 200, json -> {
+            json.beginObject().field("empId", empId).field("from", from.toString()).field("to", to.toString())
+                .name("periods").beginArray();
+            long total = 0;
+            for (PayPeriodTotal period : totals) {
+                json.beginObject().field("period", period.getLabel()).field("start", period.getStartDate().toString())
+                    .field("payments", period.getPayments()).field("earnings", period.getTotal()).endObject();
+                total += period.getTotalCents();
+            }
+            json.endArray().field("total", PayrollReport.toDollars(total)).endObject();
+        });
+    }
+
+    private void payments(HttpExchange exchange, int empId, Map<String, String> query) throws IOException {
+        LocalDate to = query.containsKey("to") ? requireDate(query, "to") : LocalDate.now();
+        LocalDate from = query.containsKey("from") ? requireDate(query, "from") : to.minusYears(1).plusDays(1);
+        PayRecord after = null;
+        if (query.containsKey("afterDate")) {
+            after = new PayRecord(parseInt(query.getOrDefault("afterPayId", String.valueOf(Integer.MAX_VALUE)), "afterPayId"),
+                requireDate(query, "afterDate"), 0);
+        }
+        int limit = pageSize(query);
+        PayHistoryPage page = payrollService.getPayHistoryPage(empId, from, to, after, limit);
+        sendJson(exchange, 200, json -> {
+            json.beginObject().name("payments").beginArray();
+            for (PayRecord record : page.getRecords()) {
+                json.beginObject().field("payId", record.getPayId()).field("payDate", record.getPayDate().toString())
+                    .field("earnings", record.getEarnings()).endObject();
+            }
+            json.endArray().field("hasNext", page.hasNext());
+            if (page.hasNext()) {
+                PayRecord last = page.getLast();
+                json.field("next", "/api/employees/" + empId + "/payments?from=" + from + "&to=" + to
+                    + "&afterDate=" + last.getPayDate() + "&afterPayId=" + last.getPayId() + "&limit=" + limit);
+            }
+            json.endObject();
+        });
+    }
+
+    private void payrollReport(HttpExchange exchange, Map<String, String> query) throws IOException {
+        Set<PayrollReport.Dimension> groupBy = EnumSet.noneOf(PayrollReport.Dimension.class);
+        for (String part : query.getOrDefault("groupBy", "title").split(",")) {
+            switch (part.trim().toLowerCase()) {
+                case "title":
+                    groupBy.add(PayrollReport.Dimension.JOB_TITLE);
+                    break;
+                case "division":
+                    groupBy.add(PayrollReport.Dimension.DIVISION);
+                    break;
+                case "year":
+                    groupBy.add(PayrollReport.Dimension.HIRE_YEAR);
+                    break;
+                case "":
+                    break;
+                default:
+                    throw new ApiException(400, "groupBy takes title, division and/or year");
+            }
+        }
+        PayrollReport.Grouping grouping;
+        // Null when served from the materialized totals, which need no scan
+        PayrollReport report = null;
+        if (groupBy.size() == 1 && !groupBy.contains(PayrollReport.Dimension.HIRE_YEAR)) {
+            grouping = payrollService.getPayrollTotals(groupBy.iterator().next());
+        } else {
+            report = payrollService.buildReport(java.util.Collections.singletonList(groupBy));
+            grouping = report != null ? report.getGroupings().get(0) : null;
+        }
+        if (grouping == null) {
+            throw new ApiException(500, "Could not build payroll report");
+        }
+        List<PayrollReport.Dimension> dimensions = grouping.getDimensions();
+        long employeesScanned = report != null ? report.getEmployeesScanned() : -1;
+        sendJson(exchange, 200, json -> {
+            json.beginObject().name("groupBy").beginArray();
+            for (PayrollReport.Dimension dimension : dimensions) {
+                json.value(dimension.name());
+            }
+            json.endArray().name("groups").beginArray();
+            for (int row = 0; row < grouping.getRowCount(); row++) {
+                json.beginObject();
+                for (int d = 0; d < dimensions.size(); d++) {
+                    json.field(dimensions.get(d).name(), grouping.getKey(row, d));
+                }
+                json.field("count", grouping.getCount(row))
+                    .field("total", grouping.getTotal(row))
+                    .field("average", grouping.getAverage(row))
+                    .field("min", PayrollReport.toDollars(grouping.getMinCents(row)))
+                    .field("max", PayrollReport.toDollars(grouping.getMaxCents(row)))
+                    .endObject();
+            }
+            json.endArray();
+            if (employeesScanned >= 0) {
+                json.field("employeesScanned", employeesScanned);
+            }
+            json.endObject();
+        });
+    }
+
+    /**
+     * Streams employees as a JSON array with chunked transfer encoding, writing each row as
+     * the database cursor produces it.
+     */
+    private void streamEmployees(HttpExchange exchange, java.util.function.ToIntFunction<Consumer<Employee>> source) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(200, 0);
+        Writer body = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 32 * 1024);
+        JsonWriter json = new JsonWriter(body);
+        json.beginArray();
+        int rows = source.applyAsInt(emp -> {
+            try {
+                writePerson(json, emp, true);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        json.endArray();
+        if (rows < 0) {
+            // Headers are already sent; a truncated array is the only signal left
+            System.err.println("Employee stream for " + exchange.getRequestURI().getPath() + " ended early");
+        }
+        json.flush();
+    }
+
+    private static void writePerson(JsonWriter json, Person person, boolean includeSalary) throws IOException {
+        json.beginObject()
+            .field("empId", person.getEmpId())
+            .field("firstName", person.getFirstName())
+            .field("lastName", person.getLastName())
+            .field("email", person.getEmail())
+            .field("role", person.getRole());
+        if (person instanceof Employee) {
+            Employee emp = (Employee) person;
+            json.field("occupation", emp.getOccupation()).field("hireDate", emp.getHireDate());
+            if (includeSalary) {
+                json.field("salary", BigDecimal.valueOf(emp.getSalary()).setScale(2, java.math.RoundingMode.HALF_UP));
+            }
+        } else if (person instanceof HRAdmin) {
+            HRAdmin admin = (HRAdmin) person;
+            json.field("occupation", admin.getOccupation());
+            if (includeSalary) {
+                json.field("salary", BigDecimal.valueOf(admin.getSalary()).setScale(2, java.math.RoundingMode.HALF_UP));
+            }
+        }
+        json.endObject();
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, JsonBody body) throws IOException {
+        StringWriter buffer = new StringWriter(256);
+        body.write(new JsonWriter(buffer));
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) {
+        try {
+            if (status == 401) {
+                exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer");
+            }
+            sendJson(exchange, status, json -> json.beginObject().field("error", message).endObject());
+        } catch (IOException e) {
+            // Response already started or client gone
+        }
+    }
+
+    private Session requireSession(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            throw new ApiException(401, "Missing bearer token");
+        }
+        Session session = authService.getSession(header.substring(7).trim());
+        if (session == null) {
+            throw new ApiException(401, "Session expired or invalid");
+        }
+        return session;
+    }
+
+    private static void requireAdmin(Session session) {
+        if (!session.isAdmin()) {
+            throw new ApiException(403, "HR admin access required");
+        }
+    }
+
+    private static void requireMethod(String method, String expected) {
+        if (!expected.equals(method)) {
+            throw new ApiException(405, "Method not allowed");
+        }
+    }
+
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                if (bytes.size() + n > MAX_BODY_BYTES) {
+                    throw new ApiException(413, "Request body too large");
+                }
+                bytes.write(buffer, 0, n);
+            }
+        }
+        return JsonReader.parseObject(bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq >= 0 ? pair.substring(0, eq) : pair, StandardCharsets.UTF_8);
+            String value = eq >= 0 ? URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8) : "";
+            params.put(name, value);
+        }
+        return params;
+    }
+
+    private static int pageSize(Map<String, String> query) {
+        int limit = query.containsKey("limit") ? parseInt(query.get("limit"), "limit") : DEFAULT_PAGE_SIZE;
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ApiException(400, "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return limit;
+    }
+
+    private static int parseInt(String value, String name) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "Invalid " + name);
+        }
+    }
+
+    private static LocalDate requireDate(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null) {
+            throw new ApiException(400, "Missing " + name);
+        }
+        return requireDate(value, name);
+    }
+
+    private static LocalDate requireDate(String value, String name) {
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new ApiException(400, name + " must be YYYY-MM-DD");
+        }
+    }
+
+    private static double requireAmount(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null) {
+            throw new ApiException(400, "Missing " + name);
+        }
+        try {
+            double amount = Double.parseDouble(value.trim());
+            if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+                throw new NumberFormatException();
+            }
+            return amount;
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, name + " must be a number");
+        }
+    }
+
+    private static String requireString(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (!(value instanceof String) || ((String) value).trim().isEmpty()) {
+            throw new ApiException(400, name + " is required");
+        }
+        return ((String) value).trim();
+    }
+
+    private static String optionalString(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        return value instanceof String && !((String) value).trim().isEmpty() ? ((String) value).trim() : null;
+    }
+
+    private static BigDecimal requireNumber(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (!(value instanceof BigDecimal)) {
+            throw new ApiException(400, name + " must be a number");
+        }
+        return (BigDecimal) value;
+    }
+
+    private static int requireInt(Map<String, Object> body, String name) {
+        try {
+            return requireNumber(body, name).intValueExact();
+        } catch (ArithmeticException e) {
+            throw new ApiException(400, name + " must be a whole number");
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        HttpApiServer api = new HttpApiServer(new InetSocketAddress(port));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> api.stop(2), "nexquery-http-shutdown"));
+        api.start();
+        System.out.println("NexQuery API listening on port " + api.getPort()
+            + (TaskExecutors.usesVirtualThreads() ? " (virtual threads)" : ""));
+    }
+}
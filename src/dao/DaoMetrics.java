@@ -0,0 +1,69 @@
+/**
+ * Registry of per-operation data-access metrics.
+ * Each DAO method holds its OperationMetrics in a static field, so recording never looks
+ * anything up. Every operation is also registered with the platform MBean server under
+ * nexquery:type=DaoMetrics,name=<operation> for JConsole/VisualVM or a JMX exporter.
+ * Singleton so all DAOs in the process report into one place.
+ */
+package dao;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+public class DaoMetrics {
+    private static DaoMetrics instance;
+
+    private final Map<String, OperationMetrics> operations = new LinkedHashMap<>();
+
+    private DaoMetrics() {
+    }
+
+    public static synchronized DaoMetrics getInstance() {
+        if (instance == null) {
+            instance = new DaoMetrics();
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the metrics for the named operation, creating and registering them on first use.
+     */
+    public synchronized OperationMetrics operation(String name) {
+        OperationMetrics metrics = operations.get(name);
+        if (metrics == null) {
+            metrics = new OperationMetrics(name);
+            operations.put(name, metrics);
+            register(metrics);
+        }
+        return metrics;
+    }
+
+    // All operations in registration order
+    public synchronized List<OperationMetrics> getOperations() {
+        return new ArrayList<>(operations.values());
+    }
+
+    public synchronized void resetAll() {
+        for (OperationMetrics metrics : operations.values()) {
+            metrics.reset();
+        }
+    }
+
+    private static void register(OperationMetrics metrics) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName("nexquery:type=DaoMetrics,name=" + ObjectName.quote(metrics.getName()));
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(metrics, objectName);
+            }
+        } catch (JMException e) {
+            System.err.println("Error registering DAO metrics with JMX: " + e.getMessage());
+        }
+    }
+}
@@ -5,30 +5,46 @@
  */
 package dao;
 
+import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import models.Employee;
+import models.EmployeePage;
 import models.Person;
+import models.SalaryAdjustmentPreview;
 import utils.DatabaseConnection;
+import utils.PasswordUtil;
 
 public class EmployeeDAO {
-                        // Authenticate user by empId and password
+                        // Authenticate user by empId and password; upgrades the stored hash if it uses an outdated algorithm
                         public Person authenticateByPassword(int empId, String password) {
-                            String query = "SELECT e.empid, e.Fname, e.Lname, e.Email, e.Salary, e.HireDate, e.SSN, jt.job_title_id, jt.job_title " +
+                            long start = AUTHENTICATE_BY_PASSWORD.begin();
+                            String query = "SELECT e.empid, e.Fname, e.Lname, e.Email, e.Salary, e.HireDate, e.SSN, e.password, jt.job_title_id, jt.job_title " +
                                 "FROM employees e " +
                                 "JOIN employee_job_titles ejt ON e.empid = ejt.empid " +
                                 "JOIN job_titles jt ON ejt.job_title_id = jt.job_title_id " +
-                                "WHERE e.empid = ? AND e.password = ?";
-                            String hashedPassword = utils.PasswordUtil.hashPassword(password);
-                            try (PreparedStatement stmt = connection.prepareStatement(query)) {
+                                "WHERE e.empid = ?";
+                            String storedHash;
+                            Person user;
+                            try (Connection connection = AUTHENTICATE_BY_PASSWORD.connect(database);
+                                 PreparedStatement stmt = connection.prepareStatement(query)) {
                                 stmt.setInt(1, empId);
-                                stmt.setString(2, hashedPassword);
                                 ResultSet rs = stmt.executeQuery();
-                                if (rs.next()) {
+                                if (!rs.next()) {
+                                    storedHash = null;
+                                    user = null;
+                                } else {
+                                    storedHash = rs.getString("password");
                                     int jobTitleId = rs.getInt("job_title_id");
                                     String firstName = rs.getString("Fname");
                                     String lastNameFromDB = rs.getString("Lname");
@@ -38,26 +54,61 @@ public class EmployeeDAO {
                                     String hireDateDb = rs.getString("HireDate");
                                     String ssnDb = rs.getString("SSN");
                                     if (jobTitleId >= 900) {
-                                        return new models.HRAdmin(empId, firstName, lastNameFromDB, email, salary, occupation);
+                                        user = new models.HRAdmin(empId, firstName, lastNameFromDB, email, salary, occupation);
                                     } else {
-                                        return new Employee(empId, firstName, lastNameFromDB, email, salary, hireDateDb, ssnDb, occupation);
+                                        user = new Employee(empId, firstName, lastNameFromDB, email, salary, hireDateDb, ssnDb, occupation);
                                     }
                                 }
+                                AUTHENTICATE_BY_PASSWORD.success(start, user != null ? 1 : 0);
                             } catch (SQLException e) {
+                                AUTHENTICATE_BY_PASSWORD.failure(start);
                                 System.err.println("Authentication error: " + e.getMessage());
+                                return null;
+                            }
+                            // Hashing is deliberately slow, so it runs after the connection is back in the pool
+                            if (user == null) {
+                                // Spend the same hashing time as a real check so unknown IDs cannot be told apart by timing
+                                PasswordUtil.verify(password, DummyHash.VALUE);
+                                return null;
+                            }
+                            if (!PasswordUtil.verify(password, storedHash)) {
+                                return null;
+                            }
+                            if (PasswordUtil.needsRehash(storedHash, passwordColumnWidth())) {
+                                upgradePasswordHash(empId, storedHash, password);
+                            }
+                            return user;
+                        }
+
+                        // Re-hashes a verified password with the current algorithm; only replaces the hash that was verified
+                        private void upgradePasswordHash(int empId, String oldHash, String password) {
+                            String query = "UPDATE employees SET password = ? WHERE empid = ? AND password = ?";
+                            String newHash = PasswordUtil.hash(password);
+                            try (Connection connection = database.getConnection();
+                                 PreparedStatement stmt = connection.prepareStatement(query)) {
+                                stmt.setString(1, newHash);
+                                stmt.setInt(2, empId);
+                                stmt.setString(3, oldHash);
+                                stmt.executeUpdate();
+                            } catch (SQLException e) {
+                                System.err.println("Error upgrading password hash: " + e.getMessage());
                             }
-                            return null;
                         }
 
                         // Reset password for a user
                         public boolean resetPassword(int empId, String newPassword) {
                             String query = "UPDATE employees SET password = ? WHERE empid = ?";
-                            String hashedPassword = utils.PasswordUtil.hashPassword(newPassword);
-                            try (PreparedStatement stmt = connection.prepareStatement(query)) {
+                            long start = RESET_PASSWORD.begin();
+                            String hashedPassword = PasswordUtil.hash(newPassword, passwordColumnWidth());
+                            try (Connection connection = RESET_PASSWORD.connect(database);
+                                 PreparedStatement stmt = connection.prepareStatement(query)) {
                                 stmt.setString(1, hashedPassword);
                                 stmt.setInt(2, empId);
-                                return stmt.executeUpdate() > 0;
+                                int updated = stmt.executeUpdate();
+                                RESET_PASSWORD.success(start, updated);
+                                return updated > 0;
                             } catch (SQLException e) {
+                                RESET_PASSWORD.failure(start);
                                 System.err.println("Error resetting password: " + e.getMessage());
                                 return false;
                             }
@@ -66,12 +117,16 @@ public class EmployeeDAO {
                     public List<String> getAllJobTitles() {
                         List<String> jobTitles = new ArrayList<>();
                         String query = "SELECT DISTINCT job_title FROM job_titles ORDER BY job_title";
-                        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+                        long start = GET_ALL_JOB_TITLES.begin();
+                        try (Connection connection = GET_ALL_JOB_TITLES.connect(database);
+                             PreparedStatement stmt = connection.prepareStatement(query)) {
                             ResultSet rs = stmt.executeQuery();
                             while (rs.next()) {
                                 jobTitles.add(rs.getString("job_title"));
                             }
+                            GET_ALL_JOB_TITLES.success(start, jobTitles.size());
                         } catch (SQLException e) {
+                            GET_ALL_JOB_TITLES.failure(start);
                             System.err.println("Error retrieving job titles: " + e.getMessage());
                         }
                         return jobTitles;
@@ -79,40 +134,46 @@ public class EmployeeDAO {
                 // Get employees by job title (role/department)
                 public List<Employee> getEmployeesByJobTitle(String jobTitle) {
                     List<Employee> employees = new ArrayList<>();
-                    String query = "SELECT e.empid, e.Fname, e.Lname, e.Email, e.Salary, e.HireDate, e.SSN, jt.job_title " +
-                        "FROM employees e " +
-                        "LEFT JOIN employee_job_titles ejt ON e.empid = ejt.empid " +
-                        "LEFT JOIN job_titles jt ON ejt.job_title_id = jt.job_title_id " +
-                        "WHERE jt.job_title = ?";
-                    try (PreparedStatement stmt = connection.prepareStatement(query)) {
+                    forEachEmployeeByJobTitle(jobTitle, employees::add);
+                    return employees;
+                }
+
+                /**
+                 * Streams employees with the given job title to action without materializing the result.
+                 * @return number of employees streamed, or -1 on error
+                 */
+                public int forEachEmployeeByJobTitle(String jobTitle, Consumer<Employee> action) {
+                    String query = EMPLOYEES_BY_TITLE_PROJECTION + "WHERE jt.job_title = ?";
+                    long start = EMPLOYEES_BY_JOB_TITLE.begin();
+                    try (Connection connection = EMPLOYEES_BY_JOB_TITLE.connect(database);
+                         PreparedStatement stmt = connection.prepareStatement(query)) {
                         stmt.setString(1, jobTitle);
-                        ResultSet rs = stmt.executeQuery();
-                        while (rs.next()) {
-                            employees.add(new Employee(
-                                rs.getInt("empid"),
-                                rs.getString("Fname"),
-                                rs.getString("Lname"),
-                                rs.getString("Email"),
-                                rs.getDouble("Salary"),
-                                rs.getString("HireDate"),
-                                rs.getString("SSN"),
-                                rs.getString("job_title")
-                            ));
-                        }
+                        int rows = streamEmployees(stmt, action);
+                        EMPLOYEES_BY_JOB_TITLE.success(start, rows);
+                        return rows;
                     } catch (SQLException e) {
+                        EMPLOYEES_BY_JOB_TITLE.failure(start);
                         System.err.println("Error retrieving employees by job title: " + e.getMessage());
+                        return -1;
+                    } catch (RuntimeException e) {
+                        EMPLOYEES_BY_JOB_TITLE.failure(start);
+                        throw e;
                     }
-                    return employees;
                 }
             // Get all HR Admin users
             public List<models.HRAdmin> getAllHRAdmins() {
                 List<models.HRAdmin> admins = new ArrayList<>();
+                // Admins are picked through the title index first; as a plain join filter on the
+                // title, H2 reads every employee and probes each one's titles
                 String query = "SELECT e.empid, e.Fname, e.Lname, e.Email, e.Salary, jt.job_title " +
                     "FROM employees e " +
                     "JOIN employee_job_titles ejt ON e.empid = ejt.empid " +
                     "JOIN job_titles jt ON ejt.job_title_id = jt.job_title_id " +
-                    "WHERE jt.job_title_id >= 900";
-                try (PreparedStatement stmt = connection.prepareStatement(query)) {
+                    "WHERE e.empid IN (SELECT empid FROM employee_job_titles WHERE job_title_id >= 900) " +
+                    "AND ejt.job_title_id >= 900";
+                long start = GET_ALL_HR_ADMINS.begin();
+                try (Connection connection = GET_ALL_HR_ADMINS.connect(database);
+                     PreparedStatement stmt = connection.prepareStatement(query)) {
                     ResultSet rs = stmt.executeQuery();
                     while (rs.next()) {
                         admins.add(new models.HRAdmin(
@@ -124,44 +185,66 @@ public class EmployeeDAO {
                             rs.getString("job_title")
                         ));
                     }
+                    GET_ALL_HR_ADMINS.success(start, admins.size());
                 } catch (SQLException e) {
+                    GET_ALL_HR_ADMINS.failure(start);
                     System.err.println("Error retrieving HR Admins: " + e.getMessage());
                 }
                 return admins;
             }
-        // Payroll summary: total payroll by job title
+        // Payroll summary: total payroll by job title, from the materialized totals when available
         public List<String[]> getPayrollByJobTitle() {
+            List<String[]> totals = payrollTotals.getPayrollByJobTitle();
+            return totals != null ? totals : getLivePayrollByJobTitle();
+        }
+
+        // Payroll by job title computed with a full join and GROUP BY
+        public List<String[]> getLivePayrollByJobTitle() {
             List<String[]> result = new ArrayList<>();
             String query = "SELECT jt.job_title, SUM(e.Salary) AS total_payroll " +
                 "FROM employees e " +
                 "JOIN employee_job_titles ejt ON e.empid = ejt.empid " +
                 "JOIN job_titles jt ON ejt.job_title_id = jt.job_title_id " +
                 "GROUP BY jt.job_title";
-            try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            long start = PAYROLL_BY_JOB_TITLE.begin();
+            try (Connection connection = PAYROLL_BY_JOB_TITLE.connect(database);
+                 PreparedStatement stmt = connection.prepareStatement(query)) {
                 ResultSet rs = stmt.executeQuery();
                 while (rs.next()) {
                     result.add(new String[] { rs.getString("job_title"), String.valueOf(rs.getDouble("total_payroll")) });
                 }
+                PAYROLL_BY_JOB_TITLE.success(start, result.size());
             } catch (SQLException e) {
+                PAYROLL_BY_JOB_TITLE.failure(start);
                 System.err.println("Error generating payroll by job title: " + e.getMessage());
             }
             return result;
         }
 
-        // Payroll summary: total payroll by division
+        // Payroll summary: total payroll by division, from the materialized totals when available
         public List<String[]> getPayrollByDivision() {
+            List<String[]> totals = payrollTotals.getPayrollByDivision();
+            return totals != null ? totals : getLivePayrollByDivision();
+        }
+
+        // Payroll by division computed with a full join and GROUP BY
+        public List<String[]> getLivePayrollByDivision() {
             List<String[]> result = new ArrayList<>();
             String query = "SELECT d.Name, SUM(e.Salary) AS total_payroll " +
                 "FROM employees e " +
                 "JOIN employee_division ed ON e.empid = ed.empid " +
                 "JOIN division d ON ed.div_ID = d.ID " +
                 "GROUP BY d.Name";
-            try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            long start = PAYROLL_BY_DIVISION.begin();
+            try (Connection connection = PAYROLL_BY_DIVISION.connect(database);
+                 PreparedStatement stmt = connection.prepareStatement(query)) {
                 ResultSet rs = stmt.executeQuery();
                 while (rs.next()) {
                     result.add(new String[] { rs.getString("Name"), String.valueOf(rs.getDouble("total_payroll")) });
                 }
+                PAYROLL_BY_DIVISION.success(start, result.size());
             } catch (SQLException e) {
+                PAYROLL_BY_DIVISION.failure(start);
                 System.err.println("Error generating payroll by division: " + e.getMessage());
             }
             return result;
@@ -171,13 +254,17 @@ public class EmployeeDAO {
         public List<String[]> getEmployeePayHistory(int empId) {
             List<String[]> result = new ArrayList<>();
             String query = "SELECT pay_date, Earnings FROM payroll WHERE empid = ? ORDER BY pay_date DESC";
-            try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            long start = EMPLOYEE_PAY_HISTORY.begin();
+            try (Connection connection = EMPLOYEE_PAY_HISTORY.connect(database);
+                 PreparedStatement stmt = connection.prepareStatement(query)) {
                 stmt.setInt(1, empId);
                 ResultSet rs = stmt.executeQuery();
                 while (rs.next()) {
                     result.add(new String[] { rs.getString("pay_date"), String.valueOf(rs.getDouble("Earnings")) });
                 }
+                EMPLOYEE_PAY_HISTORY.success(start, result.size());
             } catch (SQLException e) {
+                EMPLOYEE_PAY_HISTORY.failure(start);
                 System.err.println("Error retrieving pay history: " + e.getMessage());
             }
             return result;
@@ -186,36 +273,135 @@ public class EmployeeDAO {
         // Employees hired in a date range
         public List<Employee> getEmployeesHiredInRange(String startDate, String endDate) {
             List<Employee> employees = new ArrayList<>();
-            String query = "SELECT e.empid, e.Fname, e.Lname, e.Email, e.Salary, e.HireDate, e.SSN, jt.job_title " +
-                "FROM employees e " +
-                "LEFT JOIN employee_job_titles ejt ON e.empid = ejt.empid " +
-                "LEFT JOIN job_titles jt ON ejt.job_title_id = jt.job_title_id " +
-                "WHERE e.HireDate BETWEEN ? AND ?";
-            try (PreparedStatement stmt = connection.prepareStatement(query)) {
-                stmt.setString(1, startDate);
-                stmt.setString(2, endDate);
-                ResultSet rs = stmt.executeQuery();
-                while (rs.next()) {
-                    employees.add(new Employee(
-                        rs.getInt("empid"),
-                        rs.getString("Fname"),
-                        rs.getString("Lname"),
-                        rs.getString("Email"),
-                        rs.getDouble("Salary"),
-                        rs.getString("HireDate"),
-                        rs.getString("SSN"),
-                        rs.getString("job_title")
-                    ));
-                }
+            forEachEmployeeHiredInRange(startDate, endDate, employees::add);
+            return employees;
+        }
+
+        /**
+         * Streams employees hired between startDate and endDate (inclusive, YYYY-MM-DD) to action.
+         * @return number of employees streamed, or -1 on error or an invalid date
+         */
+        public int forEachEmployeeHiredInRange(String startDate, String endDate, Consumer<Employee> action) {
+            LocalDate from;
+            LocalDate to;
+            try {
+                from = LocalDate.parse(startDate.trim());
+                to = LocalDate.parse(endDate.trim());
+            } catch (DateTimeParseException e) {
+                System.err.println("Error retrieving employees hired in range: " + e.getMessage());
+                return -1;
+            }
+            return forEachEmployeeHiredInRange(from, to, action);
+        }
+
+        /**
+         * Streams employees hired between from and to (inclusive) to action, in hire-date order.
+         * The bounds are bound as DATE values so the comparison does not depend on string formats.
+         * @return number of employees streamed, or -1 on error
+         */
+        public int forEachEmployeeHiredInRange(LocalDate from, LocalDate to, Consumer<Employee> action) {
+            String query = EMPLOYEE_PROJECTION + "WHERE e.HireDate BETWEEN ? AND ? ORDER BY e.HireDate, e.empid";
+            long start = EMPLOYEES_HIRED_IN_RANGE.begin();
+            try (Connection connection = EMPLOYEES_HIRED_IN_RANGE.connect(database);
+                 PreparedStatement stmt = connection.prepareStatement(query)) {
+                stmt.setDate(1, java.sql.Date.valueOf(from));
+                stmt.setDate(2, java.sql.Date.valueOf(to));
+                int rows = streamEmployees(stmt, action);
+                EMPLOYEES_HIRED_IN_RANGE.success(start, rows);
+                return rows;
             } catch (SQLException e) {
+                EMPLOYEES_HIRED_IN_RANGE.failure(start);
                 System.err.println("Error retrieving employees hired in range: " + e.getMessage());
+                return -1;
+            } catch (RuntimeException e) {
+                EMPLOYEES_HIRED_IN_RANGE.failure(start);
+                throw e;
             }
+        }
+
+        // Employees earning between lowerBound and upperBound (inclusive), lowest salary first
+        public List<Employee> getEmployeesInSalaryRange(double lowerBound, double upperBound) {
+            List<Employee> employees = new ArrayList<>();
+            forEachEmployeeInSalaryRange(lowerBound, upperBound, employees::add);
             return employees;
         }
-    private Connection connection;
+
+        /**
+         * Streams employees earning between lowerBound and upperBound (inclusive) to action in
+         * salary order, ties by empId, so the Salary index serves both the filter and the order.
+         * @return number of employees streamed, or -1 on error
+         */
+        public int forEachEmployeeInSalaryRange(double lowerBound, double upperBound, Consumer<Employee> action) {
+            String query = EMPLOYEE_PROJECTION + "WHERE e.Salary BETWEEN ? AND ? ORDER BY e.Salary, e.empid";
+            long start = EMPLOYEES_IN_SALARY_RANGE.begin();
+            try (Connection connection = EMPLOYEES_IN_SALARY_RANGE.connect(database);
+                 PreparedStatement stmt = connection.prepareStatement(query)) {
+                stmt.setDouble(1, lowerBound);
+                stmt.setDouble(2, upperBound);
+                int rows = streamEmployees(stmt, action);
+                EMPLOYEES_IN_SALARY_RANGE.success(start, rows);
+                return rows;
+            } catch (SQLException e) {
+                EMPLOYEES_IN_SALARY_RANGE.failure(start);
+                System.err.println("Error retrieving employees in salary range: " + e.getMessage());
+                return -1;
+            } catch (RuntimeException e) {
+                EMPLOYEES_IN_SALARY_RANGE.failure(start);
+                throw e;
+            }
+        }
+    // Standard employee projection; callers append their own WHERE clause
+    private static final String EMPLOYEE_PROJECTION = "SELECT e.empid, e.Fname, e.Lname, e.Email, e.Salary, e.HireDate, e.SSN, jt.job_title " +
+        "FROM employees e " +
+        "LEFT JOIN employee_job_titles ejt ON e.empid = ejt.empid " +
+        "LEFT JOIN job_titles jt ON ejt.job_title_id = jt.job_title_id ";
+    // Same columns with inner joins, so a filter on the title drives the join from the job_titles index
+    private static final String EMPLOYEES_BY_TITLE_PROJECTION = "SELECT e.empid, e.Fname, e.Lname, e.Email, e.Salary, e.HireDate, e.SSN, jt.job_title " +
+        "FROM job_titles jt " +
+        "JOIN employee_job_titles ejt ON ejt.job_title_id = jt.job_title_id " +
+        "JOIN employees e ON e.empid = ejt.empid ";
+
+    // Per-operation metrics; the List and streaming variants of a query share one entry
+    private static final DaoMetrics METRICS = DaoMetrics.getInstance();
+    private static final OperationMetrics AUTHENTICATE = METRICS.operation("authenticate");
+    private static final OperationMetrics AUTHENTICATE_BY_PASSWORD = METRICS.operation("authenticateByPassword");
+    private static final OperationMetrics RESET_PASSWORD = METRICS.operation("resetPassword");
+    private static final OperationMetrics GET_EMPLOYEE_BY_ID = METRICS.operation("getEmployeeById");
+    private static final OperationMetrics ALL_EMPLOYEES = METRICS.operation("allEmployees");
+    private static final OperationMetrics EMPLOYEES_BY_JOB_TITLE = METRICS.operation("employeesByJobTitle");
+    private static final OperationMetrics EMPLOYEES_HIRED_IN_RANGE = METRICS.operation("employeesHiredInRange");
+    private static final OperationMetrics EMPLOYEES_IN_SALARY_RANGE = METRICS.operation("employeesInSalaryRange");
+    private static final OperationMetrics EMPLOYEES_BY_ID = METRICS.operation("employeesById");
+    private static final OperationMetrics EMPLOYEE_PAGE = METRICS.operation("employeePage");
+    private static final OperationMetrics GET_ALL_JOB_TITLES = METRICS.operation("getAllJobTitles");
+    private static final OperationMetrics GET_ALL_HR_ADMINS = METRICS.operation("getAllHRAdmins");
+    private static final OperationMetrics PAYROLL_BY_JOB_TITLE = METRICS.operation("payrollByJobTitle");
+    private static final OperationMetrics PAYROLL_BY_DIVISION = METRICS.operation("payrollByDivision");
+    private static final OperationMetrics EMPLOYEE_PAY_HISTORY = METRICS.operation("employeePayHistory");
+    private static final OperationMetrics ADD_EMPLOYEE = METRICS.operation("addEmployee");
+    private static final OperationMetrics INSERT_EMPLOYEE_BATCH = METRICS.operation("insertEmployeeBatch");
+    private static final OperationMetrics UPDATE_EMPLOYEE = METRICS.operation("updateEmployee");
+    private static final OperationMetrics DELETE_EMPLOYEE = METRICS.operation("deleteEmployee");
+    private static final OperationMetrics PREVIEW_SALARY_ADJUSTMENT = METRICS.operation("previewSalaryAdjustment");
+    private static final OperationMetrics ADJUST_SALARIES_IN_RANGE = METRICS.operation("adjustSalariesInRange");
+
+    private final DatabaseConnection database;
+    private final JobTitleRegistry jobTitles;
+    private final PayrollTotalsDAO payrollTotals;
+    private int streamFetchSize = Integer.getInteger("nexquery.dao.fetchSize", 500);
+    // Cached by passwordColumnWidth(); 0 until read
+    private static volatile int passwordColumnWidth;
+    // Employee IDs bound per IN (...) list by forEachEmployeeById
+    private static final int ID_CHUNK_SIZE = 500;
+    // A chunk's IN list is padded to the next of these lengths, so every chunk runs one of a
+    // few SQL texts and stays in the statement cache instead of evicting hot entries
+    private static final int[] ID_LIST_LENGTHS = { 8, 32, 128, ID_CHUNK_SIZE };
+    private static final String[] EMPLOYEES_BY_ID_QUERIES = employeesByIdQueries();
     
     public EmployeeDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
+        this.database = DatabaseConnection.getInstance();
+        this.jobTitles = JobTitleRegistry.getInstance();
+        this.payrollTotals = new PayrollTotalsDAO();
     }
     
     /**
@@ -242,7 +428,9 @@ public class EmployeeDAO {
                 "JOIN job_titles jt ON ejt.job_title_id = jt.job_title_id " +
                 "WHERE e.empid = ? AND e.SSN = ?";
         }
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        long start = AUTHENTICATE.begin();
+        try (Connection connection = AUTHENTICATE.connect(database);
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, empId);
             if (useAllFields) {
                 stmt.setString(2, lastName);
@@ -265,13 +453,16 @@ public class EmployeeDAO {
                 try { occupation = rs.getString("job_title"); } catch (Exception ignore) {}
                 try { hireDateDb = rs.getString("HireDate"); } catch (Exception ignore) {}
                 try { ssnDb = rs.getString("SSN"); } catch (Exception ignore) {}
+                AUTHENTICATE.success(start, 1);
                 if (jobTitleId >= 900) {
                     return new models.HRAdmin(empId, firstName, lastNameFromDB, email, salary, occupation);
                 } else {
                     return new Employee(empId, firstName, lastNameFromDB, email, salary, hireDateDb, ssnDb, occupation);
                 }
             }
+            AUTHENTICATE.success(start, 0);
         } catch (SQLException e) {
+            AUTHENTICATE.failure(start);
             System.err.println("Authentication error: " + e.getMessage());
             e.printStackTrace();
         }
@@ -289,10 +480,13 @@ public class EmployeeDAO {
             "LEFT JOIN employee_job_titles ejt ON e.empid = ejt.empid " +
             "LEFT JOIN job_titles jt ON ejt.job_title_id = jt.job_title_id " +
             "WHERE e.empid = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        long start = GET_EMPLOYEE_BY_ID.begin();
+        try (Connection connection = GET_EMPLOYEE_BY_ID.connect(database);
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, empId);
             ResultSet rs = stmt.executeQuery();
             if (rs.next()) {
+                GET_EMPLOYEE_BY_ID.success(start, 1);
                 return new Employee(
                     rs.getInt("empid"),
                     rs.getString("Fname"),
@@ -304,38 +498,204 @@ public class EmployeeDAO {
                     rs.getString("job_title")
                 );
             }
+            GET_EMPLOYEE_BY_ID.success(start, 0);
         } catch (SQLException e) {
+            GET_EMPLOYEE_BY_ID.failure(start);
             System.err.println("Error retrieving employee: " + e.getMessage());
             e.printStackTrace();
         }
         return null;
     }
 
+    /**
+     * Streams the employees with the given IDs to action in the order of empIds, reading them
+     * by primary key a chunk at a time. IDs with no employee are skipped.
+     * @return number of employees streamed, or -1 on error
+     */
+    public int forEachEmployeeById(int[] empIds, Consumer<Employee> action) {
+        long start = EMPLOYEES_BY_ID.begin();
+        int rows = 0;
+        try (Connection connection = EMPLOYEES_BY_ID.connect(database)) {
+            for (int offset = 0; offset < empIds.length; offset += ID_CHUNK_SIZE) {
+                int chunkSize = Math.min(ID_CHUNK_SIZE, empIds.length - offset);
+                int bucket = 0;
+                while (ID_LIST_LENGTHS[bucket] < chunkSize) {
+                    bucket++;
+                }
+                utils.IntObjectMap<Employee> found = new utils.IntObjectMap<>(chunkSize);
+                try (PreparedStatement stmt = connection.prepareStatement(EMPLOYEES_BY_ID_QUERIES[bucket])) {
+                    // Padding repeats the chunk's last ID, which matches the same row
+                    for (int i = 0; i < ID_LIST_LENGTHS[bucket]; i++) {
+                        stmt.setInt(i + 1, empIds[offset + Math.min(i, chunkSize - 1)]);
+                    }
+                    ResultSet rs = stmt.executeQuery();
+                    while (rs.next()) {
+                        Employee emp = mapEmployee(rs);
+                        found.put(emp.getEmpId(), emp);
+                    }
+                }
+                for (int i = 0; i < chunkSize; i++) {
+                    Employee emp = found.get(empIds[offset + i]);
+                    if (emp != null) {
+                        action.accept(emp);
+                        rows++;
+                    }
+                }
+            }
+            EMPLOYEES_BY_ID.success(start, rows);
+            return rows;
+        } catch (SQLException e) {
+            EMPLOYEES_BY_ID.failure(start);
+            System.err.println("Error retrieving employees by ID: " + e.getMessage());
+            return -1;
+        } catch (RuntimeException e) {
+            EMPLOYEES_BY_ID.failure(start);
+            throw e;
+        }
+    }
+
+    private static String[] employeesByIdQueries() {
+        String[] queries = new String[ID_LIST_LENGTHS.length];
+        for (int bucket = 0; bucket < queries.length; bucket++) {
+            StringBuilder query = new StringBuilder(EMPLOYEE_PROJECTION).append("WHERE e.empid IN (");
+            for (int i = 0; i < ID_LIST_LENGTHS[bucket]; i++) {
+                query.append(i == 0 ? "?" : ",?");
+            }
+            queries[bucket] = query.append(')').toString();
+        }
+        return queries;
+    }
+
     // Get all employees
     public List<Employee> getAllEmployees() {
         List<Employee> employees = new ArrayList<>();
-        String query = "SELECT e.empid, e.Fname, e.Lname, e.Email, e.Salary, e.HireDate, e.SSN, jt.job_title " +
-            "FROM employees e " +
+        forEachEmployee(employees::add);
+        return employees;
+    }
+
+    /**
+     * Streams every employee to action through a server-side cursor, so memory use does not
+     * grow with the size of the employees table. The connection stays borrowed until the
+     * last row has been handed to action.
+     * @return number of employees streamed, or -1 on error
+     */
+    public int forEachEmployee(Consumer<Employee> action) {
+        long start = ALL_EMPLOYEES.begin();
+        try (Connection connection = ALL_EMPLOYEES.connect(database);
+             PreparedStatement stmt = connection.prepareStatement(EMPLOYEE_PROJECTION)) {
+            int rows = streamEmployees(stmt, action);
+            ALL_EMPLOYEES.success(start, rows);
+            return rows;
+        } catch (SQLException e) {
+            ALL_EMPLOYEES.failure(start);
+            System.err.println("Error retrieving employees: " + e.getMessage());
+            return -1;
+        } catch (RuntimeException e) {
+            // Thrown by action, e.g. a failed write to the export file or HTTP client
+            ALL_EMPLOYEES.failure(start);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns up to pageSize employees with empid greater than afterEmpId, in empid order.
+     * Uses the last key seen as the cursor instead of OFFSET, so every page is an index range scan.
+     * An employee with several titles appears once per title but takes a single slot of pageSize.
+     * @param jobTitle restrict to this job title, or null for all employees
+     * @param afterEmpId cursor from EmployeePage.getLastKey, or EmployeePage.START for the first page
+     */
+    public EmployeePage getEmployeePage(String jobTitle, int afterEmpId, int pageSize) {
+        List<Employee> employees = fetchPage(pageQuery(jobTitle, ">", "ASC"), jobTitle, afterEmpId, pageSize);
+        if (employees == null) {
+            return new EmployeePage(new ArrayList<>(), false, false);
+        }
+        boolean hasNext = trimToPage(employees, pageSize);
+        return new EmployeePage(employees, afterEmpId != EmployeePage.START, hasNext);
+    }
+
+    /**
+     * Returns up to pageSize employees with empid less than beforeEmpId, in empid order.
+     * @param jobTitle restrict to this job title, or null for all employees
+     * @param beforeEmpId cursor from EmployeePage.getFirstKey, or EmployeePage.END for the last page
+     */
+    public EmployeePage getEmployeePageBefore(String jobTitle, int beforeEmpId, int pageSize) {
+        List<Employee> employees = fetchPage(pageQuery(jobTitle, "<", "DESC"), jobTitle, beforeEmpId, pageSize);
+        if (employees == null) {
+            return new EmployeePage(new ArrayList<>(), false, false);
+        }
+        boolean hasPrevious = trimToPage(employees, pageSize);
+        Collections.reverse(employees);
+        return new EmployeePage(employees, hasPrevious, beforeEmpId != EmployeePage.END);
+    }
+
+    /**
+     * Keyset page query: the LIMIT applies to employees, not to their title rows. Unfiltered,
+     * the empids are paged on their own and the titles joined afterwards; filtered, each
+     * employee has one row for the title, so the title projection can be limited directly.
+     */
+    private static String pageQuery(String jobTitle, String comparison, String direction) {
+        if (jobTitle != null) {
+            return EMPLOYEES_BY_TITLE_PROJECTION + "WHERE jt.job_title = ? AND e.empid " + comparison + " ? " +
+                "ORDER BY e.empid " + direction + " LIMIT ?";
+        }
+        return "SELECT e.empid, e.Fname, e.Lname, e.Email, e.Salary, e.HireDate, e.SSN, jt.job_title " +
+            "FROM (SELECT empid FROM employees WHERE empid " + comparison + " ? ORDER BY empid " + direction + " LIMIT ?) p " +
+            "JOIN employees e ON e.empid = p.empid " +
             "LEFT JOIN employee_job_titles ejt ON e.empid = ejt.empid " +
-            "LEFT JOIN job_titles jt ON ejt.job_title_id = jt.job_title_id";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            "LEFT JOIN job_titles jt ON ejt.job_title_id = jt.job_title_id " +
+            "ORDER BY e.empid " + direction;
+    }
+
+    // Fetches one extra employee so the caller can tell whether another page exists
+    private List<Employee> fetchPage(String query, String jobTitle, int cursor, int pageSize) {
+        List<Employee> employees = new ArrayList<>(pageSize + 1);
+        long start = EMPLOYEE_PAGE.begin();
+        try (Connection connection = EMPLOYEE_PAGE.connect(database);
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            int index = 1;
+            if (jobTitle != null) {
+                stmt.setString(index++, jobTitle);
+            }
+            stmt.setInt(index++, cursor);
+            stmt.setInt(index, pageSize + 1);
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
-                employees.add(new Employee(
-                    rs.getInt("empid"),
-                    rs.getString("Fname"),
-                    rs.getString("Lname"),
-                    rs.getString("Email"),
-                    rs.getDouble("Salary"),
-                    rs.getString("HireDate"),
-                    rs.getString("SSN"),
-                    rs.getString("job_title")
-                ));
+                employees.add(mapEmployee(rs));
             }
+            EMPLOYEE_PAGE.success(start, employees.size());
+            return employees;
         } catch (SQLException e) {
-            System.err.println("Error retrieving employees: " + e.getMessage());
+            EMPLOYEE_PAGE.failure(start);
+            System.err.println("Error retrieving employee page: " + e.getMessage());
+            return null;
         }
-        return employees;
+    }
+
+    /**
+     * Drops the rows of the extra employee fetchPage read past pageSize (rows are grouped by empid).
+     * @return whether there was such an employee, i.e. whether another page exists
+     */
+    private static boolean trimToPage(List<Employee> rows, int pageSize) {
+        int employees = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            if (i == 0 || rows.get(i).getEmpId() != rows.get(i - 1).getEmpId()) {
+                employees++;
+            }
+            if (employees > pageSize) {
+                rows.subList(i, rows.size()).clear();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Rows fetched per cursor round trip by the forEach* methods
+    public void setStreamFetchSize(int fetchSize) {
+        this.streamFetchSize = fetchSize;
+    }
+
+    public int getStreamFetchSize() {
+        return streamFetchSize;
     }
 
     // Add a new employee
@@ -346,81 +706,160 @@ public class EmployeeDAO {
             System.err.println("Occupation is required for new employee.");
             return false;
         }
-        try {
-            // 1. Insert employee
-            try (PreparedStatement stmt = connection.prepareStatement(empInsert)) {
-                stmt.setInt(1, emp.getEmpId());
-                stmt.setString(2, emp.getFirstName());
-                stmt.setString(3, emp.getLastName());
-                stmt.setString(4, emp.getEmail());
-                stmt.setString(5, hireDate);
-                stmt.setString(6, ssn);
-                stmt.setDouble(7, salary);
-                stmt.executeUpdate();
+        long start = ADD_EMPLOYEE.begin();
+        try (Connection connection = ADD_EMPLOYEE.connect(database)) {
+            // 1. Resolve occupation to a job_title_id, creating the title (300-800) if it is new
+            int jobTitleId = jobTitles.resolveOrCreate(occupation);
+            if (jobTitleId < 0) {
+                ADD_EMPLOYEE.failure(start);
+                System.err.println("No available job_title_id in range 300-800.");
+                return false;
             }
 
-            // 2. Check if occupation exists in job_titles
-            Integer jobTitleId = null;
-            String selectJobTitle = "SELECT job_title_id FROM job_titles WHERE job_title = ?";
-            try (PreparedStatement stmt = connection.prepareStatement(selectJobTitle)) {
-                stmt.setString(1, occupation);
-                ResultSet rs = stmt.executeQuery();
-                if (rs.next()) {
-                    jobTitleId = rs.getInt("job_title_id");
+            connection.setAutoCommit(false);
+            try {
+                // 2. Insert employee
+                try (PreparedStatement stmt = connection.prepareStatement(empInsert)) {
+                    stmt.setInt(1, emp.getEmpId());
+                    stmt.setString(2, emp.getFirstName());
+                    stmt.setString(3, emp.getLastName());
+                    stmt.setString(4, emp.getEmail());
+                    stmt.setString(5, hireDate);
+                    stmt.setString(6, ssn);
+                    stmt.setDouble(7, salary);
+                    stmt.executeUpdate();
                 }
-            }
 
-            // 3. If not, insert new job_title with id 300-800
-            if (jobTitleId == null) {
-                // Find unused job_title_id in 300-800
-                int newId = 300;
-                String findUsed = "SELECT job_title_id FROM job_titles WHERE job_title_id BETWEEN 300 AND 800 ORDER BY job_title_id";
-                List<Integer> usedIds = new ArrayList<>();
-                try (PreparedStatement stmt = connection.prepareStatement(findUsed)) {
-                    ResultSet rs = stmt.executeQuery();
-                    while (rs.next()) {
-                        usedIds.add(rs.getInt("job_title_id"));
-                    }
-                }
-                while (usedIds.contains(newId) && newId <= 800) newId++;
-                if (newId > 800) {
-                    System.err.println("No available job_title_id in range 300-800.");
-                    return false;
-                }
-                String insertJobTitle = "INSERT INTO job_titles (job_title_id, job_title) VALUES (?, ?)";
-                try (PreparedStatement stmt = connection.prepareStatement(insertJobTitle)) {
-                    stmt.setInt(1, newId);
-                    stmt.setString(2, occupation);
+                // 3. Insert into employee_job_titles
+                String insertEmpJob = "INSERT INTO employee_job_titles (empid, job_title_id) VALUES (?, ?)";
+                try (PreparedStatement stmt = connection.prepareStatement(insertEmpJob)) {
+                    stmt.setInt(1, emp.getEmpId());
+                    stmt.setInt(2, jobTitleId);
                     stmt.executeUpdate();
                 }
-                jobTitleId = newId;
-            }
 
-            // 4. Insert into employee_job_titles
-            String insertEmpJob = "INSERT INTO employee_job_titles (empid, job_title_id) VALUES (?, ?)";
-            try (PreparedStatement stmt = connection.prepareStatement(insertEmpJob)) {
-                stmt.setInt(1, emp.getEmpId());
-                stmt.setInt(2, jobTitleId);
-                stmt.executeUpdate();
+                // 4. Add the new salary to the payroll totals
+                payrollTotals.applyEmployees(connection, 1, emp.getEmpId());
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
             }
+            ADD_EMPLOYEE.success(start, 1);
             return true;
         } catch (SQLException e) {
+            ADD_EMPLOYEE.failure(start);
             System.err.println("Error adding employee: " + e.getMessage());
             return false;
         }
     }
 
+    /**
+     * Returns every job title and its ID from the in-memory registry.
+     */
+    public Map<String, Integer> getJobTitleIds() {
+        try {
+            return jobTitles.snapshot();
+        } catch (SQLException e) {
+            System.err.println("Error retrieving job titles: " + e.getMessage());
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * Returns the ID of a regular job title, creating it if it does not exist yet.
+     * @return the job_title_id, or -1 if it could not be created
+     */
+    public int resolveOrCreateJobTitle(String title) {
+        try {
+            int newId = jobTitles.resolveOrCreate(title);
+            if (newId < 0) {
+                System.err.println("No available job_title_id in range 300-800.");
+            }
+            return newId;
+        } catch (SQLException e) {
+            System.err.println("Error creating job title: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Inserts a batch of new employees and their job title links in one transaction using
+     * JDBC batches. Every employee's occupation must already exist (see JobTitleRegistry.resolveOrCreate).
+     * @return true if the whole batch was committed, false if it was rolled back
+     */
+    public boolean insertEmployeeBatch(List<Employee> employees) {
+        String empInsert = "INSERT INTO employees (empid, Fname, Lname, Email, HireDate, SSN, Salary) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        String linkInsert = "INSERT INTO employee_job_titles (empid, job_title_id) VALUES (?, ?)";
+        long start = INSERT_EMPLOYEE_BATCH.begin();
+        try (Connection connection = INSERT_EMPLOYEE_BATCH.connect(database)) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement empStmt = connection.prepareStatement(empInsert);
+                 PreparedStatement linkStmt = connection.prepareStatement(linkInsert)) {
+                for (Employee emp : employees) {
+                    empStmt.setInt(1, emp.getEmpId());
+                    empStmt.setString(2, emp.getFirstName());
+                    empStmt.setString(3, emp.getLastName());
+                    empStmt.setString(4, emp.getEmail());
+                    empStmt.setString(5, emp.getHireDate());
+                    empStmt.setString(6, emp.getSSN());
+                    empStmt.setDouble(7, emp.getSalary());
+                    empStmt.addBatch();
+                    linkStmt.setInt(1, emp.getEmpId());
+                    int jobTitleId = jobTitles.resolve(emp.getOccupation());
+                    if (jobTitleId < 0) {
+                        throw new SQLException("Unknown job title: " + emp.getOccupation());
+                    }
+                    linkStmt.setInt(2, jobTitleId);
+                    linkStmt.addBatch();
+                }
+                empStmt.executeBatch();
+                linkStmt.executeBatch();
+                int[] empIds = new int[employees.size()];
+                for (int i = 0; i < empIds.length; i++) {
+                    empIds[i] = employees.get(i).getEmpId();
+                }
+                payrollTotals.applyEmployees(connection, 1, empIds);
+                connection.commit();
+                INSERT_EMPLOYEE_BATCH.success(start, employees.size());
+                return true;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            INSERT_EMPLOYEE_BATCH.failure(start);
+            System.err.println("Error inserting employee batch: " + e.getMessage());
+            return false;
+        }
+    }
+
     // Update an employee
     public boolean updateEmployee(Employee emp) {
         String query = "UPDATE employees SET Fname = ?, Lname = ?, Email = ?, Salary = ? WHERE empid = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, emp.getFirstName());
-            stmt.setString(2, emp.getLastName());
-            stmt.setString(3, emp.getEmail());
-            stmt.setDouble(4, emp.getSalary());
-            stmt.setInt(5, emp.getEmpId());
-            return stmt.executeUpdate() > 0;
+        long start = UPDATE_EMPLOYEE.begin();
+        try (Connection connection = UPDATE_EMPLOYEE.connect(database)) {
+            connection.setAutoCommit(false);
+            int updated;
+            try (PreparedStatement stmt = connection.prepareStatement(query)) {
+                // Swap the old salary for the new one in the payroll totals
+                payrollTotals.applyEmployees(connection, -1, emp.getEmpId());
+                stmt.setString(1, emp.getFirstName());
+                stmt.setString(2, emp.getLastName());
+                stmt.setString(3, emp.getEmail());
+                stmt.setDouble(4, emp.getSalary());
+                stmt.setInt(5, emp.getEmpId());
+                updated = stmt.executeUpdate();
+                payrollTotals.applyEmployees(connection, 1, emp.getEmpId());
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+            UPDATE_EMPLOYEE.success(start, updated);
+            return updated > 0;
         } catch (SQLException e) {
+            UPDATE_EMPLOYEE.failure(start);
             System.err.println("Error updating employee: " + e.getMessage());
             return false;
         }
@@ -429,12 +868,210 @@ public class EmployeeDAO {
     // Delete an employee
     public boolean deleteEmployee(int empId) {
         String query = "DELETE FROM employees WHERE empid = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, empId);
-            return stmt.executeUpdate() > 0;
+        long start = DELETE_EMPLOYEE.begin();
+        try (Connection connection = DELETE_EMPLOYEE.connect(database)) {
+            connection.setAutoCommit(false);
+            int deleted;
+            try (PreparedStatement stmt = connection.prepareStatement(query)) {
+                payrollTotals.applyEmployees(connection, -1, empId);
+                // Drop the title and division links too, or a new employee reusing the ID inherits them
+                deleteLinks(connection, "employee_job_titles", empId);
+                deleteLinks(connection, "employee_division", empId);
+                stmt.setInt(1, empId);
+                deleted = stmt.executeUpdate();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+            DELETE_EMPLOYEE.success(start, deleted);
+            return deleted > 0;
         } catch (SQLException e) {
+            DELETE_EMPLOYEE.failure(start);
             System.err.println("Error deleting employee: " + e.getMessage());
             return false;
         }
     }
+
+    private static void deleteLinks(Connection connection, String table, int empId) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement("DELETE FROM " + table + " WHERE empid = ?")) {
+            stmt.setInt(1, empId);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Counts and totals the salaries in [lowerBound, upperBound] on the server and returns
+     * the first few affected employees for display.
+     * @param sampleLimit maximum number of employees to include in the sample
+     * @return preview, or null if the query failed
+     */
+    public SalaryAdjustmentPreview previewSalaryAdjustment(double lowerBound, double upperBound, int sampleLimit) {
+        String totalsQuery = "SELECT COUNT(*) AS affected, COALESCE(SUM(Salary), 0) AS total_salary " +
+            "FROM employees WHERE Salary BETWEEN ? AND ?";
+        String sampleQuery = "SELECT e.empid, e.Fname, e.Lname, e.Email, e.Salary, e.HireDate, e.SSN, jt.job_title " +
+            "FROM employees e " +
+            "LEFT JOIN employee_job_titles ejt ON e.empid = ejt.empid " +
+            "LEFT JOIN job_titles jt ON ejt.job_title_id = jt.job_title_id " +
+            "WHERE e.Salary BETWEEN ? AND ? ORDER BY e.empid LIMIT ?";
+        long start = PREVIEW_SALARY_ADJUSTMENT.begin();
+        try (Connection connection = PREVIEW_SALARY_ADJUSTMENT.connect(database)) {
+            int affected = 0;
+            double total = 0.0;
+            try (PreparedStatement stmt = connection.prepareStatement(totalsQuery)) {
+                stmt.setDouble(1, lowerBound);
+                stmt.setDouble(2, upperBound);
+                ResultSet rs = stmt.executeQuery();
+                if (rs.next()) {
+                    affected = rs.getInt("affected");
+                    total = rs.getDouble("total_salary");
+                }
+            }
+            List<Employee> sample = new ArrayList<>();
+            if (affected > 0 && sampleLimit > 0) {
+                try (PreparedStatement stmt = connection.prepareStatement(sampleQuery)) {
+                    stmt.setDouble(1, lowerBound);
+                    stmt.setDouble(2, upperBound);
+                    stmt.setInt(3, sampleLimit);
+                    ResultSet rs = stmt.executeQuery();
+                    while (rs.next()) {
+                        sample.add(mapEmployee(rs));
+                    }
+                }
+            }
+            PREVIEW_SALARY_ADJUSTMENT.success(start, 1 + sample.size());
+            return new SalaryAdjustmentPreview(lowerBound, upperBound, affected, total, sample);
+        } catch (SQLException e) {
+            PREVIEW_SALARY_ADJUSTMENT.failure(start);
+            System.err.println("Error previewing salary adjustment: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Raises every salary in [lowerBound, upperBound] by percent with one set-based UPDATE
+     * in a single transaction. New salaries are rounded to cents, so the payroll totals can be
+     * adjusted by exactly the same amount beforehand.
+     * @return number of rows updated, or -1 if the update failed and was rolled back
+     */
+    /**
+     * Change in total payroll that adjustSalariesInRange would make, summing the rounded new salaries.
+     * @return the change in dollars, or null on error
+     */
+    public BigDecimal getSalaryAdjustmentDelta(double lowerBound, double upperBound, double percent) {
+        String query = "SELECT COALESCE(SUM(ROUND(Salary * ?, 2) - Salary), 0) AS delta " +
+            "FROM employees WHERE Salary BETWEEN ? AND ?";
+        long start = PREVIEW_SALARY_ADJUSTMENT.begin();
+        try (Connection connection = PREVIEW_SALARY_ADJUSTMENT.connect(database);
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setBigDecimal(1, SalaryAdjustmentPreview.adjustmentFactor(percent));
+            stmt.setDouble(2, lowerBound);
+            stmt.setDouble(3, upperBound);
+            ResultSet rs = stmt.executeQuery();
+            BigDecimal delta = rs.next() ? rs.getBigDecimal("delta") : BigDecimal.ZERO;
+            PREVIEW_SALARY_ADJUSTMENT.success(start, 1);
+            return delta;
+        } catch (SQLException e) {
+            PREVIEW_SALARY_ADJUSTMENT.failure(start);
+            System.err.println("Error previewing salary adjustment: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public int adjustSalariesInRange(double lowerBound, double upperBound, double percent) {
+        String query = "UPDATE employees SET Salary = ROUND(Salary * ?, 2) WHERE Salary BETWEEN ? AND ?";
+        // Exact decimal factor, so the database multiplies in DECIMAL rather than floating point
+        BigDecimal factor = SalaryAdjustmentPreview.adjustmentFactor(percent);
+        long start = ADJUST_SALARIES_IN_RANGE.begin();
+        try (Connection connection = ADJUST_SALARIES_IN_RANGE.connect(database)) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement stmt = connection.prepareStatement(query)) {
+                payrollTotals.applySalaryAdjustment(connection, factor, lowerBound, upperBound);
+                stmt.setBigDecimal(1, factor);
+                stmt.setDouble(2, lowerBound);
+                stmt.setDouble(3, upperBound);
+                int updated = stmt.executeUpdate();
+                connection.commit();
+                ADJUST_SALARIES_IN_RANGE.success(start, updated);
+                return updated;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            ADJUST_SALARIES_IN_RANGE.failure(start);
+            System.err.println("Error adjusting salaries: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    // Executes stmt with a bounded fetch size and hands each row to action as it arrives
+    private int streamEmployees(PreparedStatement stmt, Consumer<Employee> action) throws SQLException {
+        stmt.setFetchSize(streamFetchSize);
+        int rows = 0;
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                action.accept(mapEmployee(rs));
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Declared length of employees.password, read once per process. Databases created before
+     * schema migration 4 have VARCHAR(64), which holds only legacy SHA-256 hashes; until the
+     * column is widened, new passwords are stored in that format and logins are not upgraded.
+     * @return the length, or Integer.MAX_VALUE if it cannot be determined
+     */
+    static int passwordColumnWidth() {
+        int width = passwordColumnWidth;
+        if (width > 0) {
+            return width;
+        }
+        width = Integer.MAX_VALUE;
+        try (Connection connection = DatabaseConnection.getInstance().getConnection()) {
+            java.sql.DatabaseMetaData meta = connection.getMetaData();
+            String table = meta.storesUpperCaseIdentifiers() ? "EMPLOYEES" : "employees";
+            String column = meta.storesUpperCaseIdentifiers() ? "PASSWORD" : "password";
+            try (ResultSet rs = meta.getColumns(connection.getCatalog(), null, table, column)) {
+                if (rs.next() && rs.getInt("COLUMN_SIZE") > 0) {
+                    width = rs.getInt("COLUMN_SIZE");
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading password column size: " + e.getMessage());
+            return width; // not cached; try again next time
+        }
+        if (!PasswordUtil.defaultHashFits(width)) {
+            System.err.println("WARNING: employees.password is VARCHAR(" + width + "); storing legacy SHA-256 "
+                + "password hashes until it is widened (run dao.SchemaMigrator).");
+        }
+        passwordColumnWidth = width;
+        return width;
+    }
+
+    // Forgets the password column length after a schema change
+    static void resetPasswordColumnWidth() {
+        passwordColumnWidth = 0;
+    }
+
+    // Hash checked when the employee ID does not exist; built on first use
+    private static final class DummyHash {
+        static final String VALUE = PasswordUtil.hash("nexquery-no-such-user");
+    }
+
+    // Maps the standard employee projection (empid, Fname, Lname, Email, Salary, HireDate, SSN, job_title)
+    private Employee mapEmployee(ResultSet rs) throws SQLException {
+        return new Employee(
+            rs.getInt("empid"),
+            rs.getString("Fname"),
+            rs.getString("Lname"),
+            rs.getString("Email"),
+            rs.getDouble("Salary"),
+            rs.getString("HireDate"),
+            rs.getString("SSN"),
+            rs.getString("job_title")
+        );
+    }
 }
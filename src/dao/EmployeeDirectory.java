@@ -0,0 +1,71 @@
+/**
+ * In-memory primary-key index of employees keyed on empId.
+ * Point lookups are answered from a bounded segmented-LRU cache keyed on the primitive
+ * empId (IntSegmentedLruCache, so a lookup does not box its key) and fall back to
+ * EmployeeDAO.getEmployeeById on a miss. Entries expire after a TTL so rows changed
+ * outside this process are picked up again, and writers keep it coherent in the meantime
+ * by calling put or invalidate after adding, updating or deleting an employee.
+ * Size and TTL come from nexquery.cache.employees.maxEntries and nexquery.cache.ttlMs.
+ * Singleton so every service in the process shares one index.
+ */
+package dao;
+
+import models.Employee;
+import utils.IntSegmentedLruCache;
+import utils.SegmentedLruCache;
+
+public class EmployeeDirectory {
+    public static final long MAX_ENTRIES = Long.getLong("nexquery.cache.employees.maxEntries", 100_000L);
+    public static final long TTL_MS = Long.getLong("nexquery.cache.ttlMs", 300_000L);
+
+    private static EmployeeDirectory instance;
+
+    private final EmployeeDAO employeeDAO;
+    private final IntSegmentedLruCache<Employee> byId = new IntSegmentedLruCache<>(MAX_ENTRIES, TTL_MS);
+
+    private EmployeeDirectory() {
+        this.employeeDAO = new EmployeeDAO();
+    }
+
+    public static synchronized EmployeeDirectory getInstance() {
+        if (instance == null) {
+            instance = new EmployeeDirectory();
+        }
+        return instance;
+    }
+
+    /**
+     * Looks up an employee by ID, loading and indexing it from the database on a miss.
+     * @return the employee, or null if no employee has this ID
+     */
+    public Employee get(int empId) {
+        // A load racing an invalidate of the same employee is returned but not cached
+        return byId.getOrLoad(empId, employeeDAO::getEmployeeById);
+    }
+
+    public void put(Employee emp) {
+        byId.put(emp.getEmpId(), emp);
+    }
+
+    // Drops one employee so the next lookup reloads it
+    public void invalidate(int empId) {
+        byId.invalidate(empId);
+    }
+
+    // Drops everything, e.g. after a bulk update touched an unknown set of rows
+    public void clear() {
+        byId.clear();
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public SegmentedLruCache.Stats getStats() {
+        return byId.getStats();
+    }
+
+    public void resetStats() {
+        byId.resetStats();
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Read-through cache for list queries (employees by title, hire range, pages, job titles).
+ * Results are kept in a segmented-LRU cache bounded by their estimated size in bytes
+ * (nexquery.cache.queries.maxBytes) and expire after nexquery.cache.ttlMs. Any single
+ * write can change many cached lists, so writers call invalidateAll rather than working
+ * out which keys are affected. Cached lists are unmodifiable because callers share them.
+ * Singleton so every service in the process shares one cache.
+ */
+package dao;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+import models.EmployeePage;
+import utils.SegmentedLruCache;
+
+public class EmployeeQueryCache {
+    public static final long MAX_BYTES = Long.getLong("nexquery.cache.queries.maxBytes", 64L * 1024 * 1024);
+    // Rough retained size of one Employee with its strings, and of one list slot or string
+    private static final long EMPLOYEE_BYTES = 400;
+    private static final long ELEMENT_BYTES = 64;
+    private static final long ENTRY_OVERHEAD_BYTES = 128;
+
+    private static EmployeeQueryCache instance;
+
+    private final SegmentedLruCache<String, Object> results =
+        new SegmentedLruCache<>(MAX_BYTES, EmployeeQueryCache::estimateBytes, EmployeeDirectory.TTL_MS);
+
+    private EmployeeQueryCache() {
+    }
+
+    public static synchronized EmployeeQueryCache getInstance() {
+        if (instance == null) {
+            instance = new EmployeeQueryCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the cached list for key, running query on a miss. A null result (the DAOs'
+     * error value) is passed through and not cached.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> list(String key, Supplier<List<T>> query) {
+        return (List<T>) results.getOrLoad(key, k -> {
+            List<T> rows = query.get();
+            return rows != null ? Collections.unmodifiableList(rows) : null;
+        });
+    }
+
+    public EmployeePage page(String key, Supplier<EmployeePage> query) {
+        return (EmployeePage) results.getOrLoad(key, k -> query.get());
+    }
+
+    // Drops every cached result, after any write to employees or job titles
+    public void invalidateAll() {
+        results.clear();
+    }
+
+    public SegmentedLruCache.Stats getStats() {
+        return results.getStats();
+    }
+
+    public void resetStats() {
+        results.resetStats();
+    }
+
+    private static long estimateBytes(Object value) {
+        if (value instanceof EmployeePage) {
+            return ENTRY_OVERHEAD_BYTES + ((EmployeePage) value).getEmployees().size() * EMPLOYEE_BYTES;
+        }
+        List<?> rows = (List<?>) value;
+        long perRow = !rows.isEmpty() && rows.get(0) instanceof String ? ELEMENT_BYTES : EMPLOYEE_BYTES;
+        return ENTRY_OVERHEAD_BYTES + rows.size() * perRow;
+    }
+}
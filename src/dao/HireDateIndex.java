@@ -0,0 +1,332 @@
+/**
+ * In-memory index of hire dates for date-range, anniversary and tenure queries.
+ * Hire dates are read once as typed DATE values and held as epoch days in a sorted int[]
+ * with a parallel int[] of empIds (ties ordered by empId), so a range is two binary
+ * searches and a count needs no further work. Anniversaries within a window are one range
+ * per hire year, and a tenure band is the range of hire dates between two cutoffs.
+ *
+ * The index is an immutable snapshot, rebuilt on the first query after invalidate() or
+ * once it is older than nexquery.cache.ttlMs. Every query returns null (or -1 for counts)
+ * if the snapshot cannot be loaded, so callers fall back to the SQL path.
+ * Singleton so every service in the process shares one index.
+ */
+package dao;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Arrays;
+import java.util.BitSet;
+import utils.DatabaseConnection;
+
+public class HireDateIndex {
+    private static final OperationMetrics LOAD = DaoMetrics.getInstance().operation("hireDateIndexLoad");
+    private static final long REFRESH_NANOS = EmployeeDirectory.TTL_MS * 1_000_000L;
+
+    private static HireDateIndex instance;
+
+    // One loaded copy of the index; never modified after construction
+    private static class Snapshot {
+        final int[] days;
+        final int[] empIds;
+        final long loadedAt;
+
+        Snapshot(int[] days, int[] empIds, long loadedAt) {
+            this.days = days;
+            this.empIds = empIds;
+            this.loadedAt = loadedAt;
+        }
+
+        // First position whose hire day is >= day
+        int lowerBound(long day) {
+            int lo = 0;
+            int hi = days.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (days[mid] < day) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        // First position whose hire day is > day
+        int upperBound(long day) {
+            return lowerBound(day + 1);
+        }
+    }
+
+    private final DatabaseConnection database;
+    private volatile Snapshot snapshot;
+    // Bumped by every invalidation so a load racing a writer is not kept
+    private long generation;
+
+    private HireDateIndex() {
+        this.database = DatabaseConnection.getInstance();
+    }
+
+    public static synchronized HireDateIndex getInstance() {
+        if (instance == null) {
+            instance = new HireDateIndex();
+        }
+        return instance;
+    }
+
+    // Marks the index stale after employees were added or deleted; the next query reloads it
+    public synchronized void invalidate() {
+        snapshot = null;
+        generation++;
+    }
+
+    /**
+     * @return number of indexed employees, or -1 if the index is unavailable
+     */
+    public int size() {
+        Snapshot current = current();
+        return current != null ? current.days.length : -1;
+    }
+
+    /**
+     * Employees hired between from and to (inclusive), in hire-date order.
+     * @return their empIds, or null if the index is unavailable
+     */
+    public int[] hiredBetween(LocalDate from, LocalDate to) {
+        Snapshot current = current();
+        if (current == null) {
+            return null;
+        }
+        if (from.isAfter(to)) {
+            return new int[0];
+        }
+        return Arrays.copyOfRange(current.empIds, current.lowerBound(from.toEpochDay()), current.upperBound(to.toEpochDay()));
+    }
+
+    /**
+     * @return number of employees hired between from and to (inclusive), or -1 if the index is unavailable
+     */
+    public int countHiredBetween(LocalDate from, LocalDate to) {
+        Snapshot current = current();
+        if (current == null) {
+            return -1;
+        }
+        if (from.isAfter(to)) {
+            return 0;
+        }
+        return current.upperBound(to.toEpochDay()) - current.lowerBound(from.toEpochDay());
+    }
+
+    /**
+     * Hires per calendar year from fromYear through toYear.
+     * @return counts indexed by year - fromYear, or null if the index is unavailable
+     */
+    public int[] hiresPerYear(int fromYear, int toYear) {
+        Snapshot current = current();
+        if (current == null) {
+            return null;
+        }
+        int[] counts = new int[Math.max(0, toYear - fromYear + 1)];
+        int position = current.lowerBound(LocalDate.of(fromYear, 1, 1).toEpochDay());
+        for (int i = 0; i < counts.length; i++) {
+            int next = current.lowerBound(LocalDate.of(fromYear + i + 1, 1, 1).toEpochDay());
+            counts[i] = next - position;
+            position = next;
+        }
+        return counts;
+    }
+
+    /**
+     * @return first year with an indexed hire, or -1 if there is none or the index is unavailable
+     */
+    public int getFirstHireYear() {
+        Snapshot current = current();
+        return current != null && current.days.length > 0 ? LocalDate.ofEpochDay(current.days[0]).getYear() : -1;
+    }
+
+    /**
+     * @return last year with an indexed hire, or -1 if there is none or the index is unavailable
+     */
+    public int getLastHireYear() {
+        Snapshot current = current();
+        return current != null && current.days.length > 0
+            ? LocalDate.ofEpochDay(current.days[current.days.length - 1]).getYear() : -1;
+    }
+
+    /**
+     * Employees with a work anniversary (one or more full years) between from and to
+     * inclusive, each listed once at their first anniversary in the window. Employees hired
+     * on February 29 celebrate on February 28 in common years.
+     * @return their empIds ordered by anniversary date, or null if the index is unavailable
+     */
+    public int[] anniversariesBetween(LocalDate from, LocalDate to) {
+        Snapshot current = current();
+        if (current == null) {
+            return null;
+        }
+        if (from.isAfter(to) || current.days.length == 0) {
+            return new int[0];
+        }
+        int firstHireYear = LocalDate.ofEpochDay(current.days[0]).getYear();
+        // Packed (anniversary epoch day, position) so sorting orders by date, then hire date
+        long[] matches = new long[16];
+        int matchCount = 0;
+        for (int year = from.getYear(); year <= to.getYear(); year++) {
+            LocalDate windowStart = year == from.getYear() ? from : LocalDate.of(year, 1, 1);
+            LocalDate windowEnd = year == to.getYear() ? to : LocalDate.of(year, 12, 31);
+            for (int hireYear = firstHireYear; hireYear < year; hireYear++) {
+                LocalDate hireFrom = windowStart.withYear(hireYear);
+                LocalDate hireTo = windowEnd.withYear(hireYear);
+                if (!windowEnd.isLeapYear() && hireTo.getMonth() == Month.FEBRUARY && hireTo.getDayOfMonth() == 28
+                        && hireTo.isLeapYear()) {
+                    hireTo = hireTo.plusDays(1); // Feb 29 hires celebrate on Feb 28
+                }
+                int end = current.upperBound(hireTo.toEpochDay());
+                for (int i = current.lowerBound(hireFrom.toEpochDay()); i < end; i++) {
+                    LocalDate anniversary = anniversaryIn(LocalDate.ofEpochDay(current.days[i]), year);
+                    if (anniversary.isBefore(windowStart)) {
+                        continue; // a Feb 28 hire when the window opens on Feb 29
+                    }
+                    if (matchCount == matches.length) {
+                        matches = Arrays.copyOf(matches, matchCount * 2);
+                    }
+                    matches[matchCount++] = (anniversary.toEpochDay() << 32) | i;
+                }
+            }
+        }
+        Arrays.sort(matches, 0, matchCount);
+        // A window longer than a year can hold two anniversaries; list each employee at the first
+        BitSet listed = new BitSet(current.days.length);
+        int[] empIds = new int[matchCount];
+        int listedCount = 0;
+        for (int i = 0; i < matchCount; i++) {
+            int position = (int) matches[i];
+            if (!listed.get(position)) {
+                listed.set(position);
+                empIds[listedCount++] = current.empIds[position];
+            }
+        }
+        return listedCount == matchCount ? empIds : Arrays.copyOf(empIds, listedCount);
+    }
+
+    /**
+     * Employees who have completed at least minYears and fewer than maxYears full years of
+     * service on asOf. Pass Integer.MAX_VALUE as maxYears for no upper limit.
+     * @return their empIds, longest-serving first, or null if the index is unavailable
+     */
+    public int[] tenureBetween(int minYears, int maxYears, LocalDate asOf) {
+        Snapshot current = current();
+        if (current == null) {
+            return null;
+        }
+        int from = tenureStart(current, maxYears, asOf);
+        int to = tenureEnd(current, minYears, asOf);
+        return from < to ? Arrays.copyOfRange(current.empIds, from, to) : new int[0];
+    }
+
+    /**
+     * Head counts per tenure band on asOf. Band i covers bounds[i] up to (not including)
+     * bounds[i + 1] full years; the last band is open-ended.
+     * @param bounds ascending year boundaries, e.g. 0, 1, 3, 5, 10
+     * @return one count per bound, or null if the index is unavailable
+     */
+    public int[] tenureBandCounts(LocalDate asOf, int... bounds) {
+        Snapshot current = current();
+        if (current == null) {
+            return null;
+        }
+        int[] counts = new int[bounds.length];
+        for (int i = 0; i < bounds.length; i++) {
+            int maxYears = i + 1 < bounds.length ? bounds[i + 1] : Integer.MAX_VALUE;
+            counts[i] = Math.max(0, tenureEnd(current, bounds[i], asOf) - tenureStart(current, maxYears, asOf));
+        }
+        return counts;
+    }
+
+    /**
+     * The date in the given year on which an employee hired on hireDate has their anniversary.
+     */
+    public static LocalDate anniversaryIn(LocalDate hireDate, int year) {
+        // withYear moves February 29 to February 28 in common years
+        return hireDate.withYear(year);
+    }
+
+    /**
+     * The first anniversary of an employee hired on hireDate that falls on or after date.
+     */
+    public static LocalDate nextAnniversary(LocalDate hireDate, LocalDate date) {
+        LocalDate anniversary = anniversaryIn(hireDate, Math.max(date.getYear(), hireDate.getYear() + 1));
+        return anniversary.isBefore(date) ? anniversaryIn(hireDate, anniversary.getYear() + 1) : anniversary;
+    }
+
+    // First position with fewer than maxYears of service on asOf
+    private static int tenureStart(Snapshot current, int maxYears, LocalDate asOf) {
+        if (maxYears == Integer.MAX_VALUE || maxYears > asOf.getYear()) {
+            return 0;
+        }
+        return current.upperBound(asOf.minusYears(maxYears).toEpochDay());
+    }
+
+    // First position with fewer than minYears of service on asOf
+    private static int tenureEnd(Snapshot current, int minYears, LocalDate asOf) {
+        return current.upperBound(asOf.minusYears(Math.max(0, minYears)).toEpochDay());
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null && System.nanoTime() - current.loadedAt < REFRESH_NANOS) {
+            return current;
+        }
+        return reload();
+    }
+
+    private synchronized Snapshot reload() {
+        Snapshot current = snapshot;
+        if (current != null && System.nanoTime() - current.loadedAt < REFRESH_NANOS) {
+            return current; // another thread reloaded it while this one waited
+        }
+        long seenGeneration = generation;
+        Snapshot loaded = load();
+        if (loaded != null && generation == seenGeneration) {
+            snapshot = loaded;
+        }
+        return loaded;
+    }
+
+    private Snapshot load() {
+        String query = "SELECT empid, HireDate FROM employees WHERE HireDate IS NOT NULL";
+        long start = LOAD.begin();
+        try (Connection connection = LOAD.connect(database);
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setFetchSize(Integer.getInteger("nexquery.dao.fetchSize", 500));
+            // (epoch day, empId) packed into one long so a single primitive sort orders both
+            long[] packed = new long[1024];
+            int count = 0;
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                Date hireDate = rs.getDate("HireDate");
+                if (count == packed.length) {
+                    packed = Arrays.copyOf(packed, count * 2);
+                }
+                packed[count++] = (hireDate.toLocalDate().toEpochDay() << 32) | (rs.getInt("empid") & 0xffffffffL);
+            }
+            Arrays.sort(packed, 0, count);
+            int[] days = new int[count];
+            int[] empIds = new int[count];
+            for (int i = 0; i < count; i++) {
+                days[i] = (int) (packed[i] >> 32);
+                empIds[i] = (int) packed[i];
+            }
+            LOAD.success(start, count);
+            return new Snapshot(days, empIds, System.nanoTime());
+        } catch (SQLException e) {
+            LOAD.failure(start);
+            System.err.println("Error loading hire date index: " + e.getMessage());
+            return null;
+        }
+    }
+}
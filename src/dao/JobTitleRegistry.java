@@ -0,0 +1,190 @@
+/**
+ * In-memory registry of job titles and their IDs.
+ * Keeps the title-to-ID map in memory so resolving a title on the insert path costs no
+ * query, and tracks which IDs are taken with one BitSet per reserved range (300-800 for
+ * regular roles, 900-999 for HR admins) so a free ID is found without scanning a list.
+ * Allocation is serialized inside the JVM; a duplicate-key error from another process
+ * triggers a reload and a retry. The registry reloads itself once its snapshot is older
+ * than the refresh interval (nexquery.jobTitles.refreshMs).
+ * Titles are matched ignoring case and surrounding spaces, as job_title = ? does under
+ * MySQL's default case-insensitive collation, so "Engineer" and "engineer " are one title.
+ * Singleton so every DAO in the process shares one registry.
+ */
+package dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import utils.DatabaseConnection;
+
+public class JobTitleRegistry {
+    public static final int REGULAR_MIN_ID = 300;
+    public static final int REGULAR_MAX_ID = 800;
+    public static final int ADMIN_MIN_ID = 900;
+    public static final int ADMIN_MAX_ID = 999;
+    private static final int MAX_ALLOCATION_ATTEMPTS = 3;
+    private static final long REFRESH_INTERVAL_MS = Long.getLong("nexquery.jobTitles.refreshMs", 60_000L);
+
+    private static JobTitleRegistry instance;
+
+    private final DatabaseConnection database;
+    // Keyed by key(title); titlesById keeps the spelling stored in the database
+    private final Map<String, Integer> idsByKey = new HashMap<>();
+    private final Map<Integer, String> titlesById = new HashMap<>();
+    // Bit i set means ID (range minimum + i) is taken
+    private final BitSet regularIds = new BitSet(REGULAR_MAX_ID - REGULAR_MIN_ID + 1);
+    private final BitSet adminIds = new BitSet(ADMIN_MAX_ID - ADMIN_MIN_ID + 1);
+    private long loadedAt;
+    private boolean loaded;
+
+    private JobTitleRegistry() {
+        this.database = DatabaseConnection.getInstance();
+    }
+
+    public static synchronized JobTitleRegistry getInstance() {
+        if (instance == null) {
+            instance = new JobTitleRegistry();
+        }
+        return instance;
+    }
+
+    /**
+     * @return the ID of the title, or -1 if no such title exists
+     */
+    public synchronized int resolve(String title) throws SQLException {
+        ensureFresh();
+        Integer id = idsByKey.get(key(title));
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Returns the ID of a regular job title, creating the title with the lowest free ID
+     * in 300-800 if it does not exist yet.
+     * @return the job_title_id, or -1 if the range is full
+     */
+    public int resolveOrCreate(String title) throws SQLException {
+        return resolveOrCreate(title, false);
+    }
+
+    /**
+     * Returns the ID of a job title, creating it in the admin (900-999) or regular
+     * (300-800) range if it does not exist yet.
+     * @return the job_title_id, or -1 if the range is full
+     */
+    public synchronized int resolveOrCreate(String title, boolean admin) throws SQLException {
+        ensureFresh();
+        for (int attempt = 0; attempt < MAX_ALLOCATION_ATTEMPTS; attempt++) {
+            Integer existing = idsByKey.get(key(title));
+            if (existing != null) {
+                return existing;
+            }
+            BitSet used = admin ? adminIds : regularIds;
+            int min = admin ? ADMIN_MIN_ID : REGULAR_MIN_ID;
+            int max = admin ? ADMIN_MAX_ID : REGULAR_MAX_ID;
+            int offset = used.nextClearBit(0);
+            if (min + offset > max) {
+                return -1;
+            }
+            int newId = min + offset;
+            try {
+                insert(newId, title);
+                used.set(offset);
+                idsByKey.put(key(title), newId);
+                titlesById.put(newId, title);
+                return newId;
+            } catch (SQLIntegrityConstraintViolationException e) {
+                // Another process took this ID or created the title first; reload and try again
+                reload();
+            }
+        }
+        throw new SQLException("Could not allocate a job_title_id for '" + title + "' after "
+            + MAX_ALLOCATION_ATTEMPTS + " attempts");
+    }
+
+    // Copy of the current title-to-ID map
+    public synchronized Map<String, Integer> snapshot() throws SQLException {
+        ensureFresh();
+        Map<String, Integer> titles = new HashMap<>();
+        for (Map.Entry<Integer, String> entry : titlesById.entrySet()) {
+            titles.put(entry.getValue(), entry.getKey());
+        }
+        return titles;
+    }
+
+    // Forces a reload on next use, e.g. after job_titles was edited outside this process
+    public synchronized void invalidate() {
+        loaded = false;
+    }
+
+    private void ensureFresh() throws SQLException {
+        if (!loaded || System.currentTimeMillis() - loadedAt > REFRESH_INTERVAL_MS) {
+            reload();
+        }
+    }
+
+    private void reload() throws SQLException {
+        String query = "SELECT job_title_id, job_title FROM job_titles ORDER BY job_title_id";
+        Map<String, Integer> ids = new HashMap<>();
+        Map<Integer, String> titles = new HashMap<>();
+        BitSet regular = new BitSet(REGULAR_MAX_ID - REGULAR_MIN_ID + 1);
+        BitSet adminSet = new BitSet(ADMIN_MAX_ID - ADMIN_MIN_ID + 1);
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                int id = rs.getInt("job_title_id");
+                String title = rs.getString("job_title");
+                // Titles differing only in case resolve to the lowest ID, like the first row job_title = ? finds
+                ids.putIfAbsent(key(title), id);
+                titles.put(id, title);
+                if (id >= REGULAR_MIN_ID && id <= REGULAR_MAX_ID) {
+                    regular.set(id - REGULAR_MIN_ID);
+                } else if (id >= ADMIN_MIN_ID && id <= ADMIN_MAX_ID) {
+                    adminSet.set(id - ADMIN_MIN_ID);
+                }
+            }
+        }
+        idsByKey.clear();
+        idsByKey.putAll(ids);
+        titlesById.clear();
+        titlesById.putAll(titles);
+        regularIds.clear();
+        regularIds.or(regular);
+        adminIds.clear();
+        adminIds.or(adminSet);
+        loadedAt = System.currentTimeMillis();
+        loaded = true;
+    }
+
+    // Lookup key matching how the collation compares titles
+    private static String key(String title) {
+        return title == null ? "" : title.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void insert(int id, String title) throws SQLException {
+        String query = "INSERT INTO job_titles (job_title_id, job_title) VALUES (?, ?)";
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, id);
+            stmt.setString(2, title);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            // Drivers differ in whether they use the SQLIntegrityConstraintViolationException subclass
+            if (!(e instanceof SQLIntegrityConstraintViolationException) && "23".equals(sqlStateClass(e))) {
+                throw new SQLIntegrityConstraintViolationException(e.getMessage(), e.getSQLState(), e.getErrorCode(), e);
+            }
+            throw e;
+        }
+    }
+
+    private static String sqlStateClass(SQLException e) {
+        String state = e.getSQLState();
+        return state != null && state.length() >= 2 ? state.substring(0, 2) : null;
+    }
+}
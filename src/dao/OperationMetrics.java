@@ -0,0 +1,138 @@
+/**
+ * Call, error and row counters plus latency and connection-wait histograms for one
+ * data-access operation. Operations over the slow-query threshold are also handed to
+ * SlowQueryLog. Recording only touches atomic counters, so it is safe on the
+ * hot path and from any thread.
+ *
+ * Usage inside a DAO method:
+ *   long start = OPERATION.begin();
+ *   try (Connection connection = OPERATION.connect(database); ...) {
+ *       ...
+ *       OPERATION.success(start, rows);
+ *   } catch (SQLException e) {
+ *       OPERATION.failure(start);
+ *   }
+ */
+package dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+import utils.DatabaseConnection;
+import utils.LatencyHistogram;
+import utils.SlowQueryLog;
+
+public class OperationMetrics implements OperationMetricsMBean {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final SlowQueryLog SLOW_QUERIES = SlowQueryLog.getInstance();
+
+    private final String name;
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram connectionWait = new LatencyHistogram();
+
+    OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    public long begin() {
+        return System.nanoTime();
+    }
+
+    // Borrows a connection, recording how long the caller waited for the pool
+    public Connection connect(DatabaseConnection database) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return database.getConnection();
+        } finally {
+            connectionWait.record(System.nanoTime() - start);
+        }
+    }
+
+    public void success(long start, long rowCount) {
+        long elapsed = System.nanoTime() - start;
+        latency.record(elapsed);
+        calls.incrementAndGet();
+        if (rowCount > 0) {
+            rows.addAndGet(rowCount);
+        }
+        SLOW_QUERIES.record(name, start, elapsed, rowCount);
+    }
+
+    public void failure(long start) {
+        long elapsed = System.nanoTime() - start;
+        latency.record(elapsed);
+        calls.incrementAndGet();
+        errors.incrementAndGet();
+        SLOW_QUERIES.record(name, start, elapsed, -1);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCalls() {
+        return calls.get();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.get();
+    }
+
+    @Override
+    public long getRows() {
+        return rows.get();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return latency.getMeanNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return latency.getPercentileNanos(50) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP99Millis() {
+        return latency.getPercentileNanos(99) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latency.getMaxNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getConnectionWaitMeanMillis() {
+        return connectionWait.getMeanNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getConnectionWaitP99Millis() {
+        return connectionWait.getPercentileNanos(99) / NANOS_PER_MILLI;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public LatencyHistogram getConnectionWait() {
+        return connectionWait;
+    }
+
+    @Override
+    public void reset() {
+        calls.set(0);
+        errors.set(0);
+        rows.set(0);
+        latency.reset();
+        connectionWait.reset();
+    }
+}
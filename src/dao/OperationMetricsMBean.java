@@ -0,0 +1,29 @@
+/**
+ * JMX view of one data-access operation's metrics.
+ * Registered as nexquery:type=DaoMetrics,name=<operation>; times are in milliseconds.
+ */
+package dao;
+
+public interface OperationMetricsMBean {
+    String getName();
+
+    long getCalls();
+
+    long getErrors();
+
+    long getRows();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP99Millis();
+
+    double getMaxMillis();
+
+    double getConnectionWaitMeanMillis();
+
+    double getConnectionWaitP99Millis();
+
+    void reset();
+}
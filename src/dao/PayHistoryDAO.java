@@ -0,0 +1,137 @@
+/**
+ * Data access for an employee's pay history.
+ * Rollups by month, quarter and year are aggregated by the database over a date range,
+ * so answering "what did they earn this year" returns one row per period instead of every
+ * payment. Individual payments are read a page at a time, newest first, using the last
+ * (pay_date, payID) seen as the cursor. Both become index range scans with an index on
+ * payroll (empid, pay_date).
+ */
+package dao;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import models.PayHistoryPage;
+import models.PayPeriodTotal;
+import models.PayPeriodTotal.Granularity;
+import models.PayRecord;
+import utils.DatabaseConnection;
+
+public class PayHistoryDAO {
+    private static final DaoMetrics METRICS = DaoMetrics.getInstance();
+    private static final OperationMetrics PAY_ROLLUP = METRICS.operation("payRollup");
+    private static final OperationMetrics PAY_HISTORY_PAGE = METRICS.operation("payHistoryPage");
+
+    private final DatabaseConnection database;
+
+    public PayHistoryDAO() {
+        this.database = DatabaseConnection.getInstance();
+    }
+
+    /**
+     * Sums an employee's earnings per month, quarter or year for pay dates in [from, to].
+     * @return one total per period that has payments, oldest first, or null on error
+     */
+    public List<PayPeriodTotal> getRollup(int empId, LocalDate from, LocalDate to, Granularity granularity) {
+        String period;
+        switch (granularity) {
+            case MONTH:
+                period = "MONTH(pay_date)";
+                break;
+            case QUARTER:
+                period = "QUARTER(pay_date)";
+                break;
+            default:
+                period = null;
+        }
+        String query = "SELECT YEAR(pay_date) AS pay_year, " + (period != null ? period : "0") + " AS pay_period, " +
+            "COUNT(*) AS payments, SUM(Earnings) AS total " +
+            "FROM payroll WHERE empid = ? AND pay_date BETWEEN ? AND ? " +
+            "GROUP BY YEAR(pay_date)" + (period != null ? ", " + period : "") + " " +
+            "ORDER BY pay_year" + (period != null ? ", pay_period" : "");
+        List<PayPeriodTotal> totals = new ArrayList<>();
+        long start = PAY_ROLLUP.begin();
+        try (Connection connection = PAY_ROLLUP.connect(database);
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, empId);
+            stmt.setDate(2, Date.valueOf(from));
+            stmt.setDate(3, Date.valueOf(to));
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                totals.add(new PayPeriodTotal(granularity, rs.getInt("pay_year"), rs.getInt("pay_period"),
+                    rs.getInt("payments"), toCents(rs.getBigDecimal("total"))));
+            }
+            PAY_ROLLUP.success(start, totals.size());
+            return totals;
+        } catch (SQLException e) {
+            PAY_ROLLUP.failure(start);
+            System.err.println("Error retrieving pay history rollup: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Earnings from January 1 of asOf's year through asOf.
+     * @return the year-to-date total (zero payments if there were none), or null on error
+     */
+    public PayPeriodTotal getYearToDate(int empId, LocalDate asOf) {
+        List<PayPeriodTotal> totals = getRollup(empId, asOf.withDayOfYear(1), asOf, Granularity.YEAR);
+        if (totals == null) {
+            return null;
+        }
+        return totals.isEmpty() ? new PayPeriodTotal(Granularity.YEAR, asOf.getYear(), 0, 0, 0) : totals.get(0);
+    }
+
+    /**
+     * Returns up to pageSize payments with pay dates in [from, to], newest first, that come
+     * after the given cursor.
+     * @param after last record of the previous page, or null for the first page
+     */
+    public PayHistoryPage getPage(int empId, LocalDate from, LocalDate to, PayRecord after, int pageSize) {
+        String query = "SELECT payID, pay_date, Earnings FROM payroll WHERE empid = ? AND pay_date BETWEEN ? AND ? " +
+            (after != null ? "AND (pay_date < ? OR (pay_date = ? AND payID < ?)) " : "") +
+            "ORDER BY pay_date DESC, payID DESC LIMIT ?";
+        List<PayRecord> records = new ArrayList<>();
+        long start = PAY_HISTORY_PAGE.begin();
+        try (Connection connection = PAY_HISTORY_PAGE.connect(database);
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            int index = 1;
+            stmt.setInt(index++, empId);
+            stmt.setDate(index++, Date.valueOf(from));
+            stmt.setDate(index++, Date.valueOf(to));
+            if (after != null) {
+                Date afterDate = Date.valueOf(after.getPayDate());
+                stmt.setDate(index++, afterDate);
+                stmt.setDate(index++, afterDate);
+                stmt.setInt(index++, after.getPayId());
+            }
+            // One extra row tells whether another page follows
+            stmt.setInt(index, pageSize + 1);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                records.add(new PayRecord(rs.getInt("payID"), rs.getDate("pay_date").toLocalDate(), toCents(rs.getBigDecimal("Earnings"))));
+            }
+            PAY_HISTORY_PAGE.success(start, records.size());
+        } catch (SQLException e) {
+            PAY_HISTORY_PAGE.failure(start);
+            System.err.println("Error retrieving pay history: " + e.getMessage());
+            return new PayHistoryPage(new ArrayList<>(), false);
+        }
+        boolean hasNext = records.size() > pageSize;
+        if (hasNext) {
+            records.remove(pageSize);
+        }
+        return new PayHistoryPage(records, hasNext);
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount == null ? 0 : amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+}
@@ -0,0 +1,363 @@
+/**
+ * Builds multi-dimensional payroll reports in a single scan of the employees.
+ * One query streams each employee's salary (in cents), job title ID, division ID and hire
+ * year; every row is folded into all requested grouping sets at once. An employee with
+ * several titles or divisions comes back as several rows, so rows arrive in empid order and
+ * each grouping set counts an employee once per group: under each of their titles, but only
+ * once in a hire-year group or the company total. Dimension values are
+ * mapped to dense ordinals and each grouping set accumulates into primitive arrays keyed by
+ * the packed ordinals, so a report with eight grouping sets costs one pass and no per-row
+ * objects. Title and division names are resolved once at the end.
+ */
+package dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import models.PayrollReport;
+import models.PayrollReport.Dimension;
+import utils.DatabaseConnection;
+import utils.IntObjectMap;
+
+public class PayrollReportDAO {
+    private static final String SCAN =
+        "SELECT e.empid, ROUND(e.Salary * 100) AS salary_cents, ejt.job_title_id, ed.div_ID, YEAR(e.HireDate) AS hire_year " +
+        "FROM employees e " +
+        "LEFT JOIN employee_job_titles ejt ON e.empid = ejt.empid " +
+        "LEFT JOIN employee_division ed ON e.empid = ed.empid " +
+        "ORDER BY e.empid";
+    private static final Dimension[] DIMENSIONS = Dimension.values();
+    // Bits per dimension ordinal in a packed group key
+    private static final int ORDINAL_BITS = 21;
+    private static final int MAX_ORDINALS = 1 << ORDINAL_BITS;
+
+    private static final DaoMetrics METRICS = DaoMetrics.getInstance();
+    private static final OperationMetrics PAYROLL_REPORT = METRICS.operation("payrollReport");
+
+    /**
+     * Every combination of job title, division and hire year, from the company total up to
+     * the full three-way breakdown.
+     */
+    public static final List<Set<Dimension>> ALL_GROUPINGS;
+
+    static {
+        List<Set<Dimension>> all = new ArrayList<>();
+        for (int mask = 0; mask < 1 << DIMENSIONS.length; mask++) {
+            Set<Dimension> set = EnumSet.noneOf(Dimension.class);
+            for (Dimension dimension : DIMENSIONS) {
+                if ((mask & (1 << dimension.ordinal())) != 0) {
+                    set.add(dimension);
+                }
+            }
+            all.add(set);
+        }
+        ALL_GROUPINGS = Collections.unmodifiableList(all);
+    }
+
+    private final DatabaseConnection database;
+    private int fetchSize = Integer.getInteger("nexquery.dao.fetchSize", 500);
+
+    public PayrollReportDAO() {
+        this.database = DatabaseConnection.getInstance();
+    }
+
+    /**
+     * Computes count, sum, min, max and average salary for each grouping set in one scan.
+     * @param groupingSets dimensions to group by, one set per grouping; an empty set is the company total
+     * @return the report with one grouping per set, in the order given, or null on error
+     */
+    public PayrollReport buildReport(List<Set<Dimension>> groupingSets) {
+        Accumulator[] accumulators = new Accumulator[groupingSets.size()];
+        for (int i = 0; i < accumulators.length; i++) {
+            accumulators[i] = new Accumulator(groupingSets.get(i));
+        }
+        Ordinals[] ordinals = new Ordinals[DIMENSIONS.length];
+        for (int d = 0; d < ordinals.length; d++) {
+            ordinals[d] = new Ordinals();
+        }
+
+        long start = PAYROLL_REPORT.begin();
+        try (Connection connection = PAYROLL_REPORT.connect(database);
+             PreparedStatement stmt = connection.prepareStatement(SCAN)) {
+            stmt.setFetchSize(fetchSize);
+            int[] rowOrdinals = new int[DIMENSIONS.length];
+            long scanned = 0;
+            int lastEmpId = 0;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int empId = rs.getInt("empid");
+                    boolean newEmployee = scanned == 0 || empId != lastEmpId;
+                    long cents = rs.getLong("salary_cents");
+                    rowOrdinals[Dimension.JOB_TITLE.ordinal()] = ordinals[Dimension.JOB_TITLE.ordinal()].of(nullableInt(rs, "job_title_id"));
+                    rowOrdinals[Dimension.DIVISION.ordinal()] = ordinals[Dimension.DIVISION.ordinal()].of(nullableInt(rs, "div_ID"));
+                    rowOrdinals[Dimension.HIRE_YEAR.ordinal()] = ordinals[Dimension.HIRE_YEAR.ordinal()].of(nullableInt(rs, "hire_year"));
+                    for (Accumulator accumulator : accumulators) {
+                        accumulator.add(rowOrdinals, cents, newEmployee);
+                    }
+                    if (newEmployee) {
+                        scanned++;
+                        lastEmpId = empId;
+                    }
+                }
+            }
+
+            String[][] labels = new String[DIMENSIONS.length][];
+            labels[Dimension.JOB_TITLE.ordinal()] = ordinals[Dimension.JOB_TITLE.ordinal()].labels(
+                loadNames(connection, "SELECT job_title_id AS id, job_title AS name FROM job_titles"));
+            labels[Dimension.DIVISION.ordinal()] = ordinals[Dimension.DIVISION.ordinal()].labels(
+                loadNames(connection, "SELECT ID AS id, Name AS name FROM division"));
+            labels[Dimension.HIRE_YEAR.ordinal()] = ordinals[Dimension.HIRE_YEAR.ordinal()].labels(null);
+
+            List<PayrollReport.Grouping> groupings = new ArrayList<>(accumulators.length);
+            for (Accumulator accumulator : accumulators) {
+                groupings.add(accumulator.toGrouping(labels, ordinals));
+            }
+            PAYROLL_REPORT.success(start, scanned);
+            return new PayrollReport(groupings, scanned, (System.nanoTime() - start) / 1_000_000);
+        } catch (SQLException e) {
+            PAYROLL_REPORT.failure(start);
+            System.err.println("Error building payroll report: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Rows fetched per cursor round trip during the scan
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    private static int nullableInt(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? Ordinals.NULL_VALUE : value;
+    }
+
+    private static IntObjectMap<String> loadNames(Connection connection, String query) throws SQLException {
+        IntObjectMap<String> names = new IntObjectMap<>();
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                String name = rs.getString("name");
+                if (name != null) {
+                    names.put(rs.getInt("id"), name);
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Dense ordinals for the distinct values of one dimension, in order of first appearance.
+     */
+    private static class Ordinals {
+        static final int NULL_VALUE = Integer.MIN_VALUE;
+
+        private final IntObjectMap<Integer> ordinalsByValue = new IntObjectMap<>();
+        private int[] values = new int[16];
+        private int size;
+
+        int of(int value) throws SQLException {
+            Integer ordinal = ordinalsByValue.get(value);
+            if (ordinal != null) {
+                return ordinal;
+            }
+            if (size == MAX_ORDINALS) {
+                throw new SQLException("Too many distinct values for a payroll report dimension");
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size] = value;
+            ordinalsByValue.put(value, size);
+            return size++;
+        }
+
+        int value(int ordinal) {
+            return values[ordinal];
+        }
+
+        // Display label per ordinal: the name for the value, or the value itself when names is null
+        String[] labels(IntObjectMap<String> names) {
+            String[] labels = new String[size];
+            for (int i = 0; i < size; i++) {
+                int value = values[i];
+                if (value == NULL_VALUE) {
+                    labels[i] = PayrollReport.NONE;
+                } else if (names == null) {
+                    labels[i] = String.valueOf(value);
+                } else {
+                    String name = names.get(value);
+                    labels[i] = name != null ? name : "#" + value;
+                }
+            }
+            return labels;
+        }
+    }
+
+    /**
+     * Running measures of one grouping set. Groups are found through an open-addressing table
+     * from packed ordinal key to group index; the measures live in parallel arrays by group.
+     */
+    private static class Accumulator {
+        private static final long EMPTY = -1L;
+
+        private final Dimension[] dimensions;
+        private long[] table = newTable(16);
+        private int[] tableGroups = new int[16];
+        private long[] groupKeys = new long[16];
+        private int[] counts = new int[16];
+        private long[] totals = new long[16];
+        private long[] mins = new long[16];
+        private long[] maxes = new long[16];
+        private int groups;
+        // Groups the current employee was already counted in (one per title/division row at most)
+        private int[] employeeGroups = new int[4];
+        private int employeeGroupCount;
+
+        Accumulator(Set<Dimension> dimensions) {
+            this.dimensions = dimensions.toArray(new Dimension[0]);
+        }
+
+        // newEmployee is true on the first row of each employee
+        void add(int[] rowOrdinals, long cents, boolean newEmployee) {
+            long key = 0;
+            for (int d = 0; d < dimensions.length; d++) {
+                key |= (long) rowOrdinals[dimensions[d].ordinal()] << (d * ORDINAL_BITS);
+            }
+            int group = groupOf(key);
+            if (newEmployee) {
+                employeeGroupCount = 0;
+            } else {
+                for (int i = 0; i < employeeGroupCount; i++) {
+                    if (employeeGroups[i] == group) {
+                        return;
+                    }
+                }
+            }
+            if (employeeGroupCount == employeeGroups.length) {
+                employeeGroups = Arrays.copyOf(employeeGroups, employeeGroupCount * 2);
+            }
+            employeeGroups[employeeGroupCount++] = group;
+            counts[group]++;
+            totals[group] += cents;
+            if (cents < mins[group]) {
+                mins[group] = cents;
+            }
+            if (cents > maxes[group]) {
+                maxes[group] = cents;
+            }
+        }
+
+        private int groupOf(long key) {
+            int mask = table.length - 1;
+            int slot = slot(key, mask);
+            while (table[slot] != EMPTY) {
+                if (table[slot] == key) {
+                    return tableGroups[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            int group = groups++;
+            if (group == counts.length) {
+                int capacity = group * 2;
+                groupKeys = Arrays.copyOf(groupKeys, capacity);
+                counts = Arrays.copyOf(counts, capacity);
+                totals = Arrays.copyOf(totals, capacity);
+                mins = Arrays.copyOf(mins, capacity);
+                maxes = Arrays.copyOf(maxes, capacity);
+            }
+            groupKeys[group] = key;
+            mins[group] = Long.MAX_VALUE;
+            maxes[group] = Long.MIN_VALUE;
+            table[slot] = key;
+            tableGroups[slot] = group;
+            if (groups * 2 > table.length) {
+                rehash(table.length * 2);
+            }
+            return group;
+        }
+
+        private void rehash(int capacity) {
+            long[] newTable = newTable(capacity);
+            int[] newGroups = new int[capacity];
+            int mask = capacity - 1;
+            for (int group = 0; group < groups; group++) {
+                int slot = slot(groupKeys[group], mask);
+                while (newTable[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                newTable[slot] = groupKeys[group];
+                newGroups[slot] = group;
+            }
+            table = newTable;
+            tableGroups = newGroups;
+        }
+
+        // Rows sorted by key: names alphabetically, hire years numerically, "(none)" last
+        PayrollReport.Grouping toGrouping(String[][] labels, Ordinals[] ordinals) {
+            Integer[] order = new Integer[groups];
+            for (int i = 0; i < groups; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> {
+                for (int d = 0; d < dimensions.length; d++) {
+                    int dim = dimensions[d].ordinal();
+                    int ordinalA = ordinal(groupKeys[a], d);
+                    int ordinalB = ordinal(groupKeys[b], d);
+                    int valueA = ordinals[dim].value(ordinalA);
+                    int valueB = ordinals[dim].value(ordinalB);
+                    int cmp;
+                    if (valueA == Ordinals.NULL_VALUE || valueB == Ordinals.NULL_VALUE) {
+                        cmp = Boolean.compare(valueA == Ordinals.NULL_VALUE, valueB == Ordinals.NULL_VALUE);
+                    } else if (dimensions[d] == Dimension.HIRE_YEAR) {
+                        cmp = Integer.compare(valueA, valueB);
+                    } else {
+                        cmp = labels[dim][ordinalA].compareToIgnoreCase(labels[dim][ordinalB]);
+                    }
+                    if (cmp != 0) {
+                        return cmp;
+                    }
+                }
+                return 0;
+            });
+
+            String[][] keys = new String[dimensions.length][groups];
+            int[] sortedCounts = new int[groups];
+            long[] sortedTotals = new long[groups];
+            long[] sortedMins = new long[groups];
+            long[] sortedMaxes = new long[groups];
+            for (int row = 0; row < groups; row++) {
+                int group = order[row];
+                for (int d = 0; d < dimensions.length; d++) {
+                    keys[d][row] = labels[dimensions[d].ordinal()][ordinal(groupKeys[group], d)];
+                }
+                sortedCounts[row] = counts[group];
+                sortedTotals[row] = totals[group];
+                sortedMins[row] = mins[group];
+                sortedMaxes[row] = maxes[group];
+            }
+            return new PayrollReport.Grouping(dimensions, keys, sortedCounts, sortedTotals, sortedMins, sortedMaxes);
+        }
+
+        private static int ordinal(long key, int position) {
+            return (int) (key >>> (position * ORDINAL_BITS)) & (MAX_ORDINALS - 1);
+        }
+
+        private static int slot(long key, int mask) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+
+        private static long[] newTable(int capacity) {
+            long[] table = new long[capacity];
+            Arrays.fill(table, EMPTY);
+            return table;
+        }
+    }
+}
@@ -0,0 +1,447 @@
+/**
+ * Materialized payroll totals per job title and per division.
+ * payroll_title_totals and payroll_division_totals hold the headcount, salary sum and
+ * lowest and highest salary that the payroll summaries would otherwise compute with a full
+ * join and GROUP BY. EmployeeDAO keeps them current by applying deltas inside the same
+ * transaction as every employee write, so the summaries read a few dozen rows regardless of
+ * how many employees exist. Adding an employee can only widen a group's salary range, but
+ * removing its lowest or highest earner or adjusting salaries cannot be applied as a delta,
+ * so those writes clear min_salary/max_salary to NULL and the next read recomputes them for
+ * just those groups through the title and division indexes.
+ * The tables are created on first use and filled whenever both are found empty while
+ * employees have titles or divisions. rebuild() recomputes them from scratch and check()
+ * compares them with a live GROUP BY, for changes made outside this DAO.
+ */
+package dao;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import models.PayrollReport;
+import models.PayrollReport.Dimension;
+import utils.DatabaseConnection;
+
+public class PayrollTotalsDAO {
+    private static final String TITLE_LINKS =
+        "FROM employees e JOIN employee_job_titles ejt ON e.empid = ejt.empid " +
+        "JOIN job_titles jt ON ejt.job_title_id = jt.job_title_id ";
+    private static final String DIVISION_LINKS =
+        "FROM employees e JOIN employee_division ed ON e.empid = ed.empid " +
+        "JOIN division d ON ed.div_ID = d.ID ";
+    // Adds the grouped headcount and salary of the matching employees onto the stored totals;
+    // the salary range columns are filled in by Change
+    private static final String TITLE_DELTA =
+        "INSERT INTO payroll_title_totals (job_title_id, headcount, total_salary, min_salary, max_salary) " +
+        "SELECT ejt.job_title_id, ? * COUNT(*), SUM(%s), %s " + TITLE_LINKS + "WHERE %s GROUP BY ejt.job_title_id " +
+        "ON DUPLICATE KEY UPDATE headcount = headcount + VALUES(headcount), total_salary = total_salary + VALUES(total_salary), %s";
+    private static final String DIVISION_DELTA =
+        "INSERT INTO payroll_division_totals (div_ID, headcount, total_salary, min_salary, max_salary) " +
+        "SELECT ed.div_ID, ? * COUNT(*), SUM(%s), %s " + DIVISION_LINKS + "WHERE %s GROUP BY ed.div_ID " +
+        "ON DUPLICATE KEY UPDATE headcount = headcount + VALUES(headcount), total_salary = total_salary + VALUES(total_salary), %s";
+    // Recomputes the salary range of groups a removal or adjustment left unknown
+    private static final String TITLE_RANGE_REFRESH =
+        "UPDATE payroll_title_totals t SET " +
+        "min_salary = (SELECT MIN(e.Salary) FROM employee_job_titles ejt JOIN employees e ON e.empid = ejt.empid WHERE ejt.job_title_id = t.job_title_id), " +
+        "max_salary = (SELECT MAX(e.Salary) FROM employee_job_titles ejt JOIN employees e ON e.empid = ejt.empid WHERE ejt.job_title_id = t.job_title_id) " +
+        "WHERE t.headcount > 0 AND (t.min_salary IS NULL OR t.max_salary IS NULL)";
+    private static final String DIVISION_RANGE_REFRESH =
+        "UPDATE payroll_division_totals t SET " +
+        "min_salary = (SELECT MIN(e.Salary) FROM employee_division ed JOIN employees e ON e.empid = ed.empid WHERE ed.div_ID = t.div_ID), " +
+        "max_salary = (SELECT MAX(e.Salary) FROM employee_division ed JOIN employees e ON e.empid = ed.empid WHERE ed.div_ID = t.div_ID) " +
+        "WHERE t.headcount > 0 AND (t.min_salary IS NULL OR t.max_salary IS NULL)";
+
+    // How a delta affects the stored salary range; NULL in min_salary/max_salary means "recompute on read"
+    private enum Change {
+        // New salaries can only widen the range (an unknown range stays unknown)
+        ADDED("MIN(e.Salary), MAX(e.Salary)",
+            "min_salary = CASE WHEN VALUES(min_salary) < min_salary THEN VALUES(min_salary) ELSE min_salary END, " +
+            "max_salary = CASE WHEN VALUES(max_salary) > max_salary THEN VALUES(max_salary) ELSE max_salary END"),
+        // Removing the current lowest or highest salary leaves the range unknown
+        REMOVED("MIN(e.Salary), MAX(e.Salary)",
+            "min_salary = CASE WHEN VALUES(min_salary) > min_salary THEN min_salary END, " +
+            "max_salary = CASE WHEN VALUES(max_salary) < max_salary THEN max_salary END"),
+        ADJUSTED("NULL, NULL", "min_salary = NULL, max_salary = NULL");
+
+        final String selectRange;
+        final String updateRange;
+
+        Change(String selectRange, String updateRange) {
+            this.selectRange = selectRange;
+            this.updateRange = updateRange;
+        }
+
+        String delta(String template, String amount, String where) {
+            return String.format(template, amount, selectRange, where, updateRange);
+        }
+    }
+
+    private static final DaoMetrics METRICS = DaoMetrics.getInstance();
+    private static final OperationMetrics PAYROLL_TOTALS_BY_JOB_TITLE = METRICS.operation("payrollTotalsByJobTitle");
+    private static final OperationMetrics PAYROLL_TOTALS_BY_DIVISION = METRICS.operation("payrollTotalsByDivision");
+    private static final OperationMetrics REBUILD_PAYROLL_TOTALS = METRICS.operation("rebuildPayrollTotals");
+    private static final OperationMetrics CHECK_PAYROLL_TOTALS = METRICS.operation("checkPayrollTotals");
+
+    // Shared across instances: whether the tables are known to exist (null = not checked yet)
+    private static Boolean available;
+
+    private final DatabaseConnection database;
+
+    public PayrollTotalsDAO() {
+        this.database = DatabaseConnection.getInstance();
+    }
+
+    /**
+     * Total payroll per job title from the materialized totals, as {title, total}.
+     * @return null if the totals are unavailable (e.g. the tables could not be created)
+     */
+    public List<String[]> getPayrollByJobTitle() {
+        return readTotals(PAYROLL_TOTALS_BY_JOB_TITLE,
+            "SELECT jt.job_title AS name, SUM(t.total_salary) AS total_payroll FROM payroll_title_totals t " +
+            "JOIN job_titles jt ON t.job_title_id = jt.job_title_id WHERE t.headcount > 0 GROUP BY jt.job_title");
+    }
+
+    /**
+     * Total payroll per division from the materialized totals, as {division, total}.
+     * @return null if the totals are unavailable
+     */
+    public List<String[]> getPayrollByDivision() {
+        return readTotals(PAYROLL_TOTALS_BY_DIVISION,
+            "SELECT d.Name AS name, SUM(t.total_salary) AS total_payroll FROM payroll_division_totals t " +
+            "JOIN division d ON t.div_ID = d.ID WHERE t.headcount > 0 GROUP BY d.Name");
+    }
+
+    /**
+     * Headcount, total, lowest and highest salary per job title or division from the
+     * materialized totals, sorted by name. Employees with no title or division are not listed.
+     * @param dimension JOB_TITLE or DIVISION
+     * @return the grouping, or null if the totals are unavailable
+     */
+    public PayrollReport.Grouping getGrouping(Dimension dimension) {
+        switch (dimension) {
+            case JOB_TITLE:
+                return readGrouping(PAYROLL_TOTALS_BY_JOB_TITLE, dimension, TITLE_RANGE_REFRESH,
+                    "SELECT t.job_title_id AS id, jt.job_title AS name, t.headcount, t.total_salary, t.min_salary, t.max_salary " +
+                    "FROM payroll_title_totals t LEFT JOIN job_titles jt ON t.job_title_id = jt.job_title_id WHERE t.headcount > 0");
+            case DIVISION:
+                return readGrouping(PAYROLL_TOTALS_BY_DIVISION, dimension, DIVISION_RANGE_REFRESH,
+                    "SELECT t.div_ID AS id, d.Name AS name, t.headcount, t.total_salary, t.min_salary, t.max_salary " +
+                    "FROM payroll_division_totals t LEFT JOIN division d ON t.div_ID = d.ID WHERE t.headcount > 0");
+            default:
+                throw new IllegalArgumentException("No payroll totals are kept by " + dimension);
+        }
+    }
+
+    /**
+     * Recomputes both tables from the employee data in one transaction.
+     * @return true if the rebuild was committed
+     */
+    public boolean rebuild() {
+        long start = REBUILD_PAYROLL_TOTALS.begin();
+        try (Connection connection = REBUILD_PAYROLL_TOTALS.connect(database)) {
+            createTables(connection);
+            addSalaryRange(connection);
+            connection.setAutoCommit(false);
+            try {
+                rebuild(connection);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+            markAvailable(true);
+            REBUILD_PAYROLL_TOTALS.success(start, 0);
+            return true;
+        } catch (SQLException e) {
+            REBUILD_PAYROLL_TOTALS.failure(start);
+            System.err.println("Error rebuilding payroll totals: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Compares the stored totals with a live GROUP BY over the employee data.
+     * @return one line per title or division whose totals differ (empty if consistent), or null on error
+     */
+    public List<String> check() {
+        if (!isAvailable()) {
+            return null;
+        }
+        long start = CHECK_PAYROLL_TOTALS.begin();
+        List<String> mismatches = new ArrayList<>();
+        try (Connection connection = CHECK_PAYROLL_TOTALS.connect(database)) {
+            compare(connection, "job title",
+                "SELECT ejt.job_title_id AS id, COUNT(*) AS headcount, SUM(e.Salary) AS total_salary, " +
+                "MIN(e.Salary) AS min_salary, MAX(e.Salary) AS max_salary " + TITLE_LINKS + "GROUP BY ejt.job_title_id",
+                "SELECT job_title_id AS id, headcount, total_salary, min_salary, max_salary FROM payroll_title_totals", mismatches);
+            compare(connection, "division",
+                "SELECT ed.div_ID AS id, COUNT(*) AS headcount, SUM(e.Salary) AS total_salary, " +
+                "MIN(e.Salary) AS min_salary, MAX(e.Salary) AS max_salary " + DIVISION_LINKS + "GROUP BY ed.div_ID",
+                "SELECT div_ID AS id, headcount, total_salary, min_salary, max_salary FROM payroll_division_totals", mismatches);
+            CHECK_PAYROLL_TOTALS.success(start, mismatches.size());
+            return mismatches;
+        } catch (SQLException e) {
+            CHECK_PAYROLL_TOTALS.failure(start);
+            System.err.println("Error checking payroll totals: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Adds (sign 1) or removes (sign -1) the given employees' current salaries and headcount.
+     * Runs on the caller's connection so it commits or rolls back with the employee change.
+     */
+    void applyEmployees(Connection connection, int sign, int... empIds) throws SQLException {
+        if (empIds.length == 0 || !isAvailable()) {
+            return;
+        }
+        StringBuilder where = new StringBuilder("e.empid IN (");
+        for (int i = 0; i < empIds.length; i++) {
+            where.append(i > 0 ? ", ?" : "?");
+        }
+        where.append(')');
+        Change change = sign < 0 ? Change.REMOVED : Change.ADDED;
+        for (String template : new String[] { TITLE_DELTA, DIVISION_DELTA }) {
+            try (PreparedStatement stmt = connection.prepareStatement(
+                    change.delta(template, sign < 0 ? "-e.Salary" : "e.Salary", where.toString()))) {
+                stmt.setInt(1, sign);
+                for (int i = 0; i < empIds.length; i++) {
+                    stmt.setInt(i + 2, empIds[i]);
+                }
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Adds the salary change of "SET Salary = ROUND(Salary * factor, 2) WHERE Salary BETWEEN
+     * lower AND upper". Must run before that UPDATE, in the same transaction.
+     */
+    void applySalaryAdjustment(Connection connection, BigDecimal factor, double lowerBound, double upperBound) throws SQLException {
+        if (!isAvailable()) {
+            return;
+        }
+        for (String template : new String[] { TITLE_DELTA, DIVISION_DELTA }) {
+            try (PreparedStatement stmt = connection.prepareStatement(
+                    Change.ADJUSTED.delta(template, "ROUND(e.Salary * ?, 2) - e.Salary", "e.Salary BETWEEN ? AND ?"))) {
+                stmt.setInt(1, 0);
+                stmt.setBigDecimal(2, factor);
+                stmt.setDouble(3, lowerBound);
+                stmt.setDouble(4, upperBound);
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    private List<String[]> readTotals(OperationMetrics operation, String query) {
+        if (!isAvailable()) {
+            return null;
+        }
+        List<String[]> result = new ArrayList<>();
+        long start = operation.begin();
+        try (Connection connection = operation.connect(database);
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                result.add(new String[] { rs.getString("name"), String.valueOf(rs.getDouble("total_payroll")) });
+            }
+            operation.success(start, result.size());
+            return result;
+        } catch (SQLException e) {
+            operation.failure(start);
+            System.err.println("Error reading payroll totals: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private PayrollReport.Grouping readGrouping(OperationMetrics operation, Dimension dimension, String rangeRefresh, String query) {
+        if (!isAvailable()) {
+            return null;
+        }
+        long start = operation.begin();
+        try (Connection connection = operation.connect(database)) {
+            // Prepared so it goes through the statement cache, which applies the caller's QueryDeadline
+            try (PreparedStatement stmt = connection.prepareStatement(rangeRefresh)) {
+                stmt.executeUpdate();
+            }
+            List<Object[]> rows = new ArrayList<>();
+            try (PreparedStatement stmt = connection.prepareStatement(query)) {
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    String name = rs.getString("name");
+                    rows.add(new Object[] { name != null ? name : "#" + rs.getInt("id"), rs.getInt("headcount"),
+                        toCents(rs.getBigDecimal("total_salary")), toCents(rs.getBigDecimal("min_salary")),
+                        toCents(rs.getBigDecimal("max_salary")) });
+                }
+            }
+            rows.sort((a, b) -> ((String) a[0]).compareToIgnoreCase((String) b[0]));
+            String[][] keys = new String[1][rows.size()];
+            int[] counts = new int[rows.size()];
+            long[] totals = new long[rows.size()];
+            long[] mins = new long[rows.size()];
+            long[] maxes = new long[rows.size()];
+            for (int row = 0; row < rows.size(); row++) {
+                Object[] values = rows.get(row);
+                keys[0][row] = (String) values[0];
+                counts[row] = (Integer) values[1];
+                totals[row] = (Long) values[2];
+                mins[row] = (Long) values[3];
+                maxes[row] = (Long) values[4];
+            }
+            operation.success(start, rows.size());
+            return new PayrollReport.Grouping(new Dimension[] { dimension }, keys, counts, totals, mins, maxes);
+        } catch (SQLException | ArithmeticException e) {
+            operation.failure(start);
+            System.err.println("Error reading payroll totals: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Exact cents of a DECIMAL(n,2) amount; 0 for NULL (a group whose salaries are all unset)
+    private static long toCents(BigDecimal amount) {
+        return amount != null ? amount.movePointRight(2).longValueExact() : 0;
+    }
+
+    // Creates the tables the first time they are needed, and fills them if they are empty
+    private boolean isAvailable() {
+        synchronized (PayrollTotalsDAO.class) {
+            if (available != null) {
+                return available;
+            }
+        }
+        try (Connection connection = database.getConnection()) {
+            createTables(connection);
+            addSalaryRange(connection);
+            fillIfEmpty(connection);
+            markAvailable(true);
+        } catch (SQLException e) {
+            System.err.println("Payroll totals unavailable, using live queries: " + e.getMessage());
+            markAvailable(false);
+        }
+        return available;
+    }
+
+    private static synchronized void markAvailable(boolean value) {
+        available = value;
+    }
+
+    // Also run by SchemaMigrator as a versioned migration
+    static void createTables(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS payroll_title_totals (" +
+                "job_title_id INT PRIMARY KEY, headcount INT NOT NULL, total_salary DECIMAL(15,2) NOT NULL)");
+            stmt.execute("CREATE TABLE IF NOT EXISTS payroll_division_totals (" +
+                "div_ID INT PRIMARY KEY, headcount INT NOT NULL, total_salary DECIMAL(15,2) NOT NULL)");
+        }
+    }
+
+    // Run by SchemaMigrator as its own migration; NULL ranges are filled in by the next read
+    static void addSalaryRange(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            for (String table : new String[] { "payroll_title_totals", "payroll_division_totals" }) {
+                if (!hasSalaryRange(connection, table)) {
+                    stmt.execute("ALTER TABLE " + table + " ADD COLUMN min_salary DECIMAL(10,2) NULL");
+                    stmt.execute("ALTER TABLE " + table + " ADD COLUMN max_salary DECIMAL(10,2) NULL");
+                }
+            }
+        }
+    }
+
+    private static boolean hasSalaryRange(Connection connection, String table) {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeQuery("SELECT min_salary, max_salary FROM " + table + " WHERE 1 = 0").close();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Rebuilds the totals if both tables are empty while employees have titles or divisions,
+     * e.g. right after the tables were created. Also run by SchemaMigrator as a migration.
+     */
+    static void fillIfEmpty(Connection connection) throws SQLException {
+        if (hasRow(connection, "SELECT 1 FROM payroll_title_totals LIMIT 1")
+                || hasRow(connection, "SELECT 1 FROM payroll_division_totals LIMIT 1")
+                || (!hasRow(connection, "SELECT 1 FROM employee_job_titles LIMIT 1")
+                    && !hasRow(connection, "SELECT 1 FROM employee_division LIMIT 1"))) {
+            return;
+        }
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            rebuild(connection);
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static boolean hasRow(Connection connection, String query) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            ResultSet rs = stmt.executeQuery();
+            return rs.next();
+        }
+    }
+
+    private static void rebuild(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("DELETE FROM payroll_title_totals");
+            stmt.executeUpdate("DELETE FROM payroll_division_totals");
+            stmt.executeUpdate("INSERT INTO payroll_title_totals (job_title_id, headcount, total_salary, min_salary, max_salary) " +
+                "SELECT ejt.job_title_id, COUNT(*), SUM(e.Salary), MIN(e.Salary), MAX(e.Salary) " + TITLE_LINKS + "GROUP BY ejt.job_title_id");
+            stmt.executeUpdate("INSERT INTO payroll_division_totals (div_ID, headcount, total_salary, min_salary, max_salary) " +
+                "SELECT ed.div_ID, COUNT(*), SUM(e.Salary), MIN(e.Salary), MAX(e.Salary) " + DIVISION_LINKS + "GROUP BY ed.div_ID");
+        }
+    }
+
+    private static void compare(Connection connection, String dimension, String liveQuery, String storedQuery,
+                                List<String> mismatches) throws SQLException {
+        Map<Integer, Object[]> live = readById(connection, liveQuery);
+        Map<Integer, Object[]> stored = readById(connection, storedQuery);
+        TreeSet<Integer> ids = new TreeSet<>(live.keySet());
+        ids.addAll(stored.keySet());
+        Object[] none = { 0, BigDecimal.ZERO, null, null };
+        for (Integer id : ids) {
+            Object[] expected = live.getOrDefault(id, none);
+            Object[] actual = stored.getOrDefault(id, none);
+            if (!Objects.equals(expected[0], actual[0]) || ((BigDecimal) expected[1]).compareTo((BigDecimal) actual[1]) != 0) {
+                mismatches.add(String.format("%s %d: stored headcount %s, total %s; actual headcount %s, total %s",
+                    dimension, id, actual[0], actual[1], expected[0], expected[1]));
+            } else if (!rangeMatches((BigDecimal) actual[2], (BigDecimal) expected[2])
+                    || !rangeMatches((BigDecimal) actual[3], (BigDecimal) expected[3])) {
+                mismatches.add(String.format("%s %d: stored salary range %s to %s; actual %s to %s",
+                    dimension, id, actual[2], actual[3], expected[2], expected[3]));
+            }
+        }
+    }
+
+    // A stored NULL is an unknown range waiting to be recomputed, not a mismatch
+    private static boolean rangeMatches(BigDecimal stored, BigDecimal actual) {
+        return stored == null || (actual != null && stored.compareTo(actual) == 0);
+    }
+
+    private static Map<Integer, Object[]> readById(Connection connection, String query) throws SQLException {
+        Map<Integer, Object[]> rows = new HashMap<>();
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                BigDecimal total = rs.getBigDecimal("total_salary");
+                rows.put(rs.getInt("id"), new Object[] { rs.getInt("headcount"), total != null ? total : BigDecimal.ZERO,
+                    rs.getBigDecimal("min_salary"), rs.getBigDecimal("max_salary") });
+            }
+        }
+        return rows;
+    }
+}
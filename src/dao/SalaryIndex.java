@@ -0,0 +1,301 @@
+/**
+ * In-memory index of salaries for range counts, range totals and top earners.
+ * Salaries are held as exact cents in a sorted long[] with a parallel int[] of empIds
+ * (ties ordered by empId) and a prefix-sum array, so the head count in a salary range is
+ * two binary searches, its total is one subtraction, and the top N earners in a range are
+ * the last N positions before its upper bound.
+ *
+ * The index is an immutable snapshot, rebuilt on the first query after invalidate() or
+ * once it is older than nexquery.cache.ttlMs. Every query returns null (or -1 for counts
+ * and totals) if the snapshot cannot be loaded, so callers fall back to the SQL path.
+ * Range bounds are inclusive dollar amounts, matching Salary BETWEEN ? AND ?.
+ * Singleton so every service in the process shares one index.
+ */
+package dao;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import utils.DatabaseConnection;
+
+public class SalaryIndex {
+    private static final OperationMetrics LOAD = DaoMetrics.getInstance().operation("salaryIndexLoad");
+    private static final long REFRESH_NANOS = EmployeeDirectory.TTL_MS * 1_000_000L;
+
+    private static SalaryIndex instance;
+
+    // One loaded copy of the index; never modified after construction
+    private static class Snapshot {
+        final long[] cents;
+        final int[] empIds;
+        // prefixCents[i] is the total of the first i salaries
+        final long[] prefixCents;
+        final long loadedAt;
+
+        Snapshot(long[] cents, int[] empIds, long loadedAt) {
+            this.cents = cents;
+            this.empIds = empIds;
+            this.prefixCents = new long[cents.length + 1];
+            for (int i = 0; i < cents.length; i++) {
+                prefixCents[i + 1] = prefixCents[i] + cents[i];
+            }
+            this.loadedAt = loadedAt;
+        }
+
+        // First position whose salary is >= value
+        int lowerBound(long value) {
+            int lo = 0;
+            int hi = cents.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (cents[mid] < value) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        // First position whose salary is > value
+        int upperBound(long value) {
+            return value == Long.MAX_VALUE ? cents.length : lowerBound(value + 1);
+        }
+    }
+
+    /**
+     * Head count, salary total and top earners of one salary range, all from the same snapshot.
+     */
+    public static class RangeSummary {
+        private final int count;
+        private final long totalCents;
+        private final int[] topEmpIds;
+
+        RangeSummary(int count, long totalCents, int[] topEmpIds) {
+            this.count = count;
+            this.totalCents = totalCents;
+            this.topEmpIds = topEmpIds;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public long getTotalCents() {
+            return totalCents;
+        }
+
+        // Highest-paid first
+        public int[] getTopEmpIds() {
+            return topEmpIds;
+        }
+    }
+
+    private final DatabaseConnection database;
+    private volatile Snapshot snapshot;
+    // Bumped by every invalidation so a load racing a writer is not kept
+    private long generation;
+
+    private SalaryIndex() {
+        this.database = DatabaseConnection.getInstance();
+    }
+
+    public static synchronized SalaryIndex getInstance() {
+        if (instance == null) {
+            instance = new SalaryIndex();
+        }
+        return instance;
+    }
+
+    // Marks the index stale after salaries changed or employees were added or deleted
+    public synchronized void invalidate() {
+        snapshot = null;
+        generation++;
+    }
+
+    /**
+     * @return number of indexed employees, or -1 if the index is unavailable
+     */
+    public int size() {
+        Snapshot current = current();
+        return current != null ? current.cents.length : -1;
+    }
+
+    /**
+     * @return number of employees earning between lowerBound and upperBound, or -1 if the index is unavailable
+     */
+    public int countBetween(double lowerBound, double upperBound) {
+        Snapshot current = current();
+        if (current == null) {
+            return -1;
+        }
+        return end(current, upperBound) - start(current, lowerBound, upperBound);
+    }
+
+    /**
+     * @return total salary in cents of everyone earning between lowerBound and upperBound,
+     *         or -1 if the index is unavailable
+     */
+    public long sumCentsBetween(double lowerBound, double upperBound) {
+        Snapshot current = current();
+        if (current == null) {
+            return -1;
+        }
+        return current.prefixCents[end(current, upperBound)] - current.prefixCents[start(current, lowerBound, upperBound)];
+    }
+
+    /**
+     * Employees earning between lowerBound and upperBound, lowest salary first.
+     * @return their empIds, or null if the index is unavailable
+     */
+    public int[] between(double lowerBound, double upperBound) {
+        Snapshot current = current();
+        if (current == null) {
+            return null;
+        }
+        return Arrays.copyOfRange(current.empIds, start(current, lowerBound, upperBound), end(current, upperBound));
+    }
+
+    /**
+     * The n highest-paid employees earning between lowerBound and upperBound, highest first.
+     * Pass Double.NEGATIVE_INFINITY and Double.POSITIVE_INFINITY for the whole workforce.
+     * @return their empIds, or null if the index is unavailable
+     */
+    public int[] topBetween(double lowerBound, double upperBound, int n) {
+        Snapshot current = current();
+        if (current == null) {
+            return null;
+        }
+        return top(current, start(current, lowerBound, upperBound), end(current, upperBound), n);
+    }
+
+    /**
+     * Count, total and the n highest-paid employees between lowerBound and upperBound, read
+     * from a single snapshot so the three agree even if the index is reloaded meanwhile.
+     * @return the summary, or null if the index is unavailable
+     */
+    public RangeSummary summarize(double lowerBound, double upperBound, int n) {
+        Snapshot current = current();
+        if (current == null) {
+            return null;
+        }
+        int start = start(current, lowerBound, upperBound);
+        int end = end(current, upperBound);
+        return new RangeSummary(end - start, current.prefixCents[end] - current.prefixCents[start],
+            top(current, start, end, n));
+    }
+
+    // EmpIds of the last n positions in [start, end), highest salary first
+    private static int[] top(Snapshot current, int start, int end, int n) {
+        int from = Math.max(start, end - Math.max(0, n));
+        int[] empIds = new int[end - from];
+        for (int i = 0; i < empIds.length; i++) {
+            empIds[i] = current.empIds[end - 1 - i];
+        }
+        return empIds;
+    }
+
+    /**
+     * Change in the total salary of everyone earning between lowerBound and upperBound if each
+     * salary became salary * factor rounded to the cent, as adjustSalariesInRange stores it.
+     * @return the change in dollars, or null if the index is unavailable
+     */
+    public BigDecimal adjustmentDeltaBetween(double lowerBound, double upperBound, BigDecimal factor) {
+        Snapshot current = current();
+        if (current == null) {
+            return null;
+        }
+        long deltaCents = 0;
+        for (int i = start(current, lowerBound, upperBound), end = end(current, upperBound); i < end; i++) {
+            long cents = current.cents[i];
+            deltaCents += BigDecimal.valueOf(cents).multiply(factor).setScale(0, RoundingMode.HALF_UP).longValueExact() - cents;
+        }
+        return BigDecimal.valueOf(deltaCents, 2);
+    }
+
+    // First position in range; never past end, so empty or inverted ranges come out empty
+    private static int start(Snapshot current, double lowerBound, double upperBound) {
+        return Math.min(current.lowerBound(ceilCents(lowerBound)), end(current, upperBound));
+    }
+
+    private static int end(Snapshot current, double upperBound) {
+        return Double.isNaN(upperBound) ? 0 : current.upperBound(floorCents(upperBound));
+    }
+
+    // Smallest whole number of cents >= dollars, so the index matches Salary >= ? exactly
+    private static long ceilCents(double dollars) {
+        if (Double.isNaN(dollars) || dollars == Double.POSITIVE_INFINITY) {
+            return Long.MAX_VALUE;
+        }
+        if (dollars == Double.NEGATIVE_INFINITY) {
+            return Long.MIN_VALUE;
+        }
+        return BigDecimal.valueOf(dollars).movePointRight(2).setScale(0, RoundingMode.CEILING).longValue();
+    }
+
+    // Largest whole number of cents <= dollars
+    private static long floorCents(double dollars) {
+        if (dollars == Double.POSITIVE_INFINITY) {
+            return Long.MAX_VALUE;
+        }
+        if (dollars == Double.NEGATIVE_INFINITY) {
+            return Long.MIN_VALUE;
+        }
+        return BigDecimal.valueOf(dollars).movePointRight(2).setScale(0, RoundingMode.FLOOR).longValue();
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null && System.nanoTime() - current.loadedAt < REFRESH_NANOS) {
+            return current;
+        }
+        return reload();
+    }
+
+    private synchronized Snapshot reload() {
+        Snapshot current = snapshot;
+        if (current != null && System.nanoTime() - current.loadedAt < REFRESH_NANOS) {
+            return current; // another thread reloaded it while this one waited
+        }
+        long seenGeneration = generation;
+        Snapshot loaded = load();
+        if (loaded != null && generation == seenGeneration) {
+            snapshot = loaded;
+        }
+        return loaded;
+    }
+
+    private Snapshot load() {
+        // Read in index order: cents need more than 32 bits, so they cannot be packed beside the
+        // empId for a single primitive sort as the hire date index does
+        String query = "SELECT empid, Salary FROM employees WHERE Salary IS NOT NULL ORDER BY Salary, empid";
+        long start = LOAD.begin();
+        try (Connection connection = LOAD.connect(database);
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setFetchSize(Integer.getInteger("nexquery.dao.fetchSize", 500));
+            long[] cents = new long[1024];
+            int[] empIds = new int[1024];
+            int count = 0;
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                if (count == cents.length) {
+                    cents = Arrays.copyOf(cents, count * 2);
+                    empIds = Arrays.copyOf(empIds, count * 2);
+                }
+                cents[count] = rs.getBigDecimal("Salary").movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+                empIds[count] = rs.getInt("empid");
+                count++;
+            }
+            LOAD.success(start, count);
+            return new Snapshot(Arrays.copyOf(cents, count), Arrays.copyOf(empIds, count), System.nanoTime());
+        } catch (SQLException | ArithmeticException e) {
+            LOAD.failure(start);
+            System.err.println("Error loading salary index: " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+/**
+ * Versioned schema migrations.
+ * Each migration has a version number and is applied at most once, in version order; the
+ * applied versions are recorded in schema_version along with when they ran and how long
+ * they took. Every step is written to be safe on a database that already has the object
+ * (CREATE TABLE IF NOT EXISTS, indexes created only when no index already starts with the
+ * same columns), so version 1 also adopts an existing production schema as the baseline.
+ * MySQL commits DDL implicitly, so a failed migration is not recorded and is simply
+ * retried, from its first step, on the next run.
+ * Usage: java dao.SchemaMigrator [--status]
+ */
+package dao;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import utils.DatabaseConnection;
+
+public class SchemaMigrator {
+    // One unit of DDL inside a migration
+    @FunctionalInterface
+    interface Step {
+        void apply(Connection connection) throws SQLException;
+    }
+
+    /**
+     * A numbered schema change.
+     */
+    public static class Migration {
+        private final int version;
+        private final String description;
+        private final List<Step> steps;
+
+        Migration(int version, String description, Step... steps) {
+            this.version = version;
+            this.description = description;
+            this.steps = Arrays.asList(steps);
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    // In version order; never edit a released migration, add a new one instead
+    private static final List<Migration> MIGRATIONS = Collections.unmodifiableList(Arrays.asList(
+        new Migration(1, "Baseline schema",
+            execute("CREATE TABLE IF NOT EXISTS employees (empid INT NOT NULL PRIMARY KEY, Fname VARCHAR(65), " +
+                "Lname VARCHAR(65), Email VARCHAR(65), HireDate DATE, Salary DECIMAL(10,2), SSN VARCHAR(12), " +
+                "password VARCHAR(64))"),
+            execute("CREATE TABLE IF NOT EXISTS job_titles (job_title_id INT NOT NULL PRIMARY KEY, job_title VARCHAR(125))"),
+            execute("CREATE TABLE IF NOT EXISTS employee_job_titles (empid INT NOT NULL, job_title_id INT NOT NULL, " +
+                "PRIMARY KEY (empid, job_title_id))"),
+            execute("CREATE TABLE IF NOT EXISTS division (ID INT NOT NULL PRIMARY KEY, Name VARCHAR(100))"),
+            execute("CREATE TABLE IF NOT EXISTS employee_division (empid INT NOT NULL, div_ID INT NOT NULL, " +
+                "PRIMARY KEY (empid, div_ID))"),
+            execute("CREATE TABLE IF NOT EXISTS payroll (payID INT NOT NULL AUTO_INCREMENT PRIMARY KEY, " +
+                "pay_date DATE, empid INT, Earnings DECIMAL(10,2))")),
+        new Migration(2, "Payroll totals tables",
+            PayrollTotalsDAO::createTables),
+        new Migration(3, "Indexes for DAO filters and joins",
+            // Lookups from an employee to its title and division (existing schemas may lack the primary key)
+            index("employee_job_titles", "idx_ejt_empid", "empid", "job_title_id"),
+            index("employee_division", "idx_ed_empid", "empid", "div_ID"),
+            // Title and division to employees, for listings and per-title/per-division reports
+            index("employee_job_titles", "idx_ejt_title", "job_title_id", "empid"),
+            index("employee_division", "idx_ed_div", "div_ID", "empid"),
+            index("job_titles", "idx_job_titles_title", "job_title"),
+            // Hire-date ranges and salary-range previews and adjustments
+            index("employees", "idx_employees_hiredate", "HireDate"),
+            index("employees", "idx_employees_salary", "Salary"),
+            // Pay history rollups and pages by employee and date
+            index("payroll", "idx_payroll_emp_date", "empid", "pay_date")),
+        new Migration(4, "Widen password for salted PBKDF2 hashes",
+            execute("ALTER TABLE employees MODIFY password VARCHAR(255)")),
+        new Migration(5, "Salary range in payroll totals",
+            PayrollTotalsDAO::addSalaryRange),
+        // Version 2 only created the tables; fill them from the existing employees
+        new Migration(6, "Fill payroll totals",
+            PayrollTotalsDAO::fillIfEmpty)
+    ));
+
+    private final DatabaseConnection database;
+
+    public SchemaMigrator() {
+        this.database = DatabaseConnection.getInstance();
+    }
+
+    public static List<Migration> getMigrations() {
+        return MIGRATIONS;
+    }
+
+    // Version of the newest migration this build knows about
+    public static int getLatestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).getVersion();
+    }
+
+    /**
+     * Applies every migration newer than the database's current version, in order.
+     * @return the migrations applied by this call, or null if one failed (earlier ones stay applied)
+     */
+    public List<Migration> migrate() {
+        List<Migration> applied = new ArrayList<>();
+        try (Connection connection = database.getConnection()) {
+            connection.setAutoCommit(true);
+            createVersionTable(connection);
+            Map<Integer, String> done = readApplied(connection);
+            for (Migration migration : MIGRATIONS) {
+                if (done.containsKey(migration.version)) {
+                    continue;
+                }
+                long start = System.nanoTime();
+                for (Step step : migration.steps) {
+                    step.apply(connection);
+                }
+                record(connection, migration, (System.nanoTime() - start) / 1_000_000);
+                applied.add(migration);
+            }
+            if (!applied.isEmpty()) {
+                EmployeeDAO.resetPasswordColumnWidth();
+            }
+            return applied;
+        } catch (SQLException e) {
+            System.err.println("Error applying schema migrations: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return applied version to its description, or null on error
+     */
+    public Map<Integer, String> getAppliedVersions() {
+        try (Connection connection = database.getConnection()) {
+            createVersionTable(connection);
+            return readApplied(connection);
+        } catch (SQLException e) {
+            System.err.println("Error reading schema version: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void createVersionTable(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version (version INT NOT NULL PRIMARY KEY, " +
+                "description VARCHAR(200) NOT NULL, applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+                "elapsed_ms BIGINT NOT NULL)");
+        }
+    }
+
+    private static Map<Integer, String> readApplied(Connection connection) throws SQLException {
+        Map<Integer, String> applied = new TreeMap<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, description FROM schema_version")) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getString("description"));
+            }
+        }
+        return applied;
+    }
+
+    private static void record(Connection connection, Migration migration, long elapsedMillis) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "INSERT INTO schema_version (version, description, elapsed_ms) VALUES (?, ?, ?)")) {
+            stmt.setInt(1, migration.version);
+            stmt.setString(2, migration.description);
+            stmt.setLong(3, elapsedMillis);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static Step execute(String sql) {
+        return connection -> {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute(sql);
+            }
+        };
+    }
+
+    /**
+     * Creates an index unless the table already has one (the primary key included) whose
+     * leading columns are the given ones, since that index serves the same lookups.
+     */
+    private static Step index(String table, String name, String... columns) {
+        return connection -> {
+            if (hasIndexStartingWith(connection, table, columns)) {
+                return;
+            }
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("CREATE INDEX " + name + " ON " + table + " (" + String.join(", ", columns) + ")");
+            }
+        };
+    }
+
+    private static boolean hasIndexStartingWith(Connection connection, String table, String[] columns) throws SQLException {
+        DatabaseMetaData meta = connection.getMetaData();
+        String tableName = meta.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT) : table;
+        // index name -> its columns by position
+        Map<String, Map<Integer, String>> indexes = new HashMap<>();
+        try (ResultSet rs = meta.getIndexInfo(connection.getCatalog(), null, tableName, false, false)) {
+            while (rs.next()) {
+                String indexName = rs.getString("INDEX_NAME");
+                String column = rs.getString("COLUMN_NAME");
+                if (indexName != null && column != null) {
+                    indexes.computeIfAbsent(indexName, k -> new TreeMap<>()).put((int) rs.getShort("ORDINAL_POSITION"), column);
+                }
+            }
+        }
+        for (Map<Integer, String> indexColumns : indexes.values()) {
+            List<String> ordered = new ArrayList<>(indexColumns.values());
+            if (ordered.size() < columns.length) {
+                continue;
+            }
+            boolean matches = true;
+            for (int i = 0; i < columns.length && matches; i++) {
+                matches = ordered.get(i).equalsIgnoreCase(columns[i]);
+            }
+            if (matches) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static void main(String[] args) {
+        SchemaMigrator migrator = new SchemaMigrator();
+        if (args.length > 0 && "--status".equals(args[0])) {
+            Map<Integer, String> applied = migrator.getAppliedVersions();
+            if (applied == null) {
+                System.exit(1);
+            }
+            for (Migration migration : MIGRATIONS) {
+                System.out.printf("%4d  %-8s %s%n", migration.version,
+                    applied.containsKey(migration.version) ? "applied" : "pending", migration.description);
+            }
+            return;
+        }
+        List<Migration> applied = migrator.migrate();
+        if (applied == null) {
+            System.exit(1);
+        }
+        for (Migration migration : applied) {
+            System.out.println("Applied " + migration.version + ": " + migration.description);
+        }
+        System.out.println("Schema is at version " + getLatestVersion() + (applied.isEmpty() ? " (nothing to do)" : ""));
+    }
+}
@@ -2,10 +2,14 @@
  * Interface for authentication operations.
  * This demonstrates interface usage for contract-based programming.
  * Any class implementing this interface must provide authentication functionality.
+ * Implementations are stateless: authenticate returns a Session that the caller passes back.
  */
 package interfaces;
 
+import models.Session;
+
 public interface Authenticatable {
-    boolean authenticate(int empId, String lastName, String dob, String ssn);
-    boolean hasPermission(String operation);
+    // The new session, or null if the credentials do not match
+    Session authenticate(int empId, String lastName, String dob, String ssn);
+    boolean hasPermission(Session session, String operation);
 }
@@ -0,0 +1,51 @@
+/**
+ * One page of employees ordered by empid, produced by keyset pagination.
+ * The first and last empids on the page are the cursors for fetching the
+ * previous and next pages, so deep pages cost the same as the first one.
+ */
+package models;
+
+import java.util.List;
+
+public class EmployeePage {
+    // Cursor value meaning "start from the beginning"
+    public static final int START = Integer.MIN_VALUE;
+    // Cursor value meaning "start from the end"
+    public static final int END = Integer.MAX_VALUE;
+
+    private final List<Employee> employees;
+    private final boolean hasPrevious;
+    private final boolean hasNext;
+
+    public EmployeePage(List<Employee> employees, boolean hasPrevious, boolean hasNext) {
+        this.employees = employees;
+        this.hasPrevious = hasPrevious;
+        this.hasNext = hasNext;
+    }
+
+    public List<Employee> getEmployees() {
+        return employees;
+    }
+
+    public boolean isEmpty() {
+        return employees.isEmpty();
+    }
+
+    public boolean hasPrevious() {
+        return hasPrevious;
+    }
+
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    // Cursor for getEmployeePageBefore
+    public int getFirstKey() {
+        return employees.isEmpty() ? END : employees.get(0).getEmpId();
+    }
+
+    // Cursor for getEmployeePage
+    public int getLastKey() {
+        return employees.isEmpty() ? START : employees.get(employees.size() - 1).getEmpId();
+    }
+}
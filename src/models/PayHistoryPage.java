@@ -0,0 +1,35 @@
+/**
+ * One page of an employee's payments, newest first, produced by keyset pagination.
+ * The last payment on the page (its date and payID) is the cursor for the next page,
+ * so paging through years of weekly pay never re-reads the rows already shown.
+ */
+package models;
+
+import java.util.List;
+
+public class PayHistoryPage {
+    private final List<PayRecord> records;
+    private final boolean hasNext;
+
+    public PayHistoryPage(List<PayRecord> records, boolean hasNext) {
+        this.records = records;
+        this.hasNext = hasNext;
+    }
+
+    public List<PayRecord> getRecords() {
+        return records;
+    }
+
+    public boolean isEmpty() {
+        return records.isEmpty();
+    }
+
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    // Cursor for the next page, or null if the page is empty
+    public PayRecord getLast() {
+        return records.isEmpty() ? null : records.get(records.size() - 1);
+    }
+}
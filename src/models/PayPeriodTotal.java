@@ -0,0 +1,80 @@
+/**
+ * Earnings of one employee summed over a calendar month, quarter or year.
+ * Produced by a GROUP BY in the database, so only one row per period leaves the server
+ * no matter how often the employee is paid.
+ */
+package models;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class PayPeriodTotal {
+    public enum Granularity {
+        MONTH,
+        QUARTER,
+        YEAR
+    }
+
+    private final Granularity granularity;
+    private final int year;
+    // Month (1-12) or quarter (1-4) within the year; 0 for yearly totals
+    private final int period;
+    private final int payments;
+    private final long totalCents;
+
+    public PayPeriodTotal(Granularity granularity, int year, int period, int payments, long totalCents) {
+        this.granularity = granularity;
+        this.year = year;
+        this.period = period;
+        this.payments = payments;
+        this.totalCents = totalCents;
+    }
+
+    public Granularity getGranularity() {
+        return granularity;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public int getPeriod() {
+        return period;
+    }
+
+    public int getPayments() {
+        return payments;
+    }
+
+    public long getTotalCents() {
+        return totalCents;
+    }
+
+    public BigDecimal getTotal() {
+        return BigDecimal.valueOf(totalCents, 2);
+    }
+
+    // First day of the period
+    public LocalDate getStartDate() {
+        switch (granularity) {
+            case MONTH:
+                return LocalDate.of(year, period, 1);
+            case QUARTER:
+                return LocalDate.of(year, (period - 1) * 3 + 1, 1);
+            default:
+                return LocalDate.of(year, 1, 1);
+        }
+    }
+
+    // e.g. "2024-03", "2024-Q1" or "2024"
+    public String getLabel() {
+        switch (granularity) {
+            case MONTH:
+                return String.format("%d-%02d", year, period);
+            case QUARTER:
+                return year + "-Q" + period;
+            default:
+                return String.valueOf(year);
+        }
+    }
+}
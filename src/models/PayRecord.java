@@ -0,0 +1,35 @@
+/**
+ * A single payroll payment to an employee.
+ */
+package models;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class PayRecord {
+    private final int payId;
+    private final LocalDate payDate;
+    private final long earningsCents;
+
+    public PayRecord(int payId, LocalDate payDate, long earningsCents) {
+        this.payId = payId;
+        this.payDate = payDate;
+        this.earningsCents = earningsCents;
+    }
+
+    public int getPayId() {
+        return payId;
+    }
+
+    public LocalDate getPayDate() {
+        return payDate;
+    }
+
+    public long getEarningsCents() {
+        return earningsCents;
+    }
+
+    public BigDecimal getEarnings() {
+        return BigDecimal.valueOf(earningsCents, 2);
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * Result of a multi-dimensional payroll report.
+ * Holds one Grouping per requested grouping set (e.g. job title, title by division, company
+ * total). Each grouping is columnar: the group keys and the measures are parallel arrays
+ * indexed by row, and money is kept as exact long cents rather than parsed strings.
+ */
+package models;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+public class PayrollReport {
+    // Key shown for employees with no job title or division
+    public static final String NONE = "(none)";
+
+    public enum Dimension {
+        JOB_TITLE("Job Title"),
+        DIVISION("Division"),
+        HIRE_YEAR("Hire Year");
+
+        private final String label;
+
+        Dimension(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * Groups of one grouping set with their count, sum, min, max and average salary.
+     * A grouping with no dimensions has a single row: the company total.
+     */
+    public static class Grouping {
+        private final Dimension[] dimensions;
+        // keys[d][row] is the value of dimensions[d] for that row
+        private final String[][] keys;
+        private final int[] counts;
+        private final long[] totalCents;
+        private final long[] minCents;
+        private final long[] maxCents;
+
+        public Grouping(Dimension[] dimensions, String[][] keys, int[] counts, long[] totalCents, long[] minCents, long[] maxCents) {
+            this.dimensions = dimensions;
+            this.keys = keys;
+            this.counts = counts;
+            this.totalCents = totalCents;
+            this.minCents = minCents;
+            this.maxCents = maxCents;
+        }
+
+        public List<Dimension> getDimensions() {
+            return Collections.unmodifiableList(Arrays.asList(dimensions));
+        }
+
+        public int getRowCount() {
+            return counts.length;
+        }
+
+        public String getKey(int row, int dimension) {
+            return keys[dimension][row];
+        }
+
+        public String getKey(int row, Dimension dimension) {
+            for (int d = 0; d < dimensions.length; d++) {
+                if (dimensions[d] == dimension) {
+                    return keys[d][row];
+                }
+            }
+            throw new IllegalArgumentException(dimension + " is not part of this grouping");
+        }
+
+        public int getCount(int row) {
+            return counts[row];
+        }
+
+        public long getTotalCents(int row) {
+            return totalCents[row];
+        }
+
+        public long getMinCents(int row) {
+            return minCents[row];
+        }
+
+        public long getMaxCents(int row) {
+            return maxCents[row];
+        }
+
+        // Mean salary rounded half up to the cent
+        public long getAverageCents(int row) {
+            return Math.floorDiv(2 * totalCents[row] + counts[row], 2L * counts[row]);
+        }
+
+        public BigDecimal getTotal(int row) {
+            return toDollars(totalCents[row]);
+        }
+
+        public BigDecimal getAverage(int row) {
+            return toDollars(getAverageCents(row));
+        }
+    }
+
+    private final List<Grouping> groupings;
+    private final long employeesScanned;
+    private final long elapsedMillis;
+
+    public PayrollReport(List<Grouping> groupings, long employeesScanned, long elapsedMillis) {
+        this.groupings = groupings;
+        this.employeesScanned = employeesScanned;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public List<Grouping> getGroupings() {
+        return groupings;
+    }
+
+    /**
+     * @return the grouping over exactly the given dimensions (none for the company total),
+     *         or null if it was not requested
+     */
+    public Grouping getGrouping(Dimension... dimensions) {
+        Set<Dimension> wanted = dimensions.length == 0 ? EnumSet.noneOf(Dimension.class) : EnumSet.copyOf(Arrays.asList(dimensions));
+        for (Grouping grouping : groupings) {
+            if (grouping.dimensions.length == wanted.size() && wanted.containsAll(grouping.getDimensions())) {
+                return grouping;
+            }
+        }
+        return null;
+    }
+
+    public long getEmployeesScanned() {
+        return employeesScanned;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public static BigDecimal toDollars(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
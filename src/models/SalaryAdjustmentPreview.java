@@ -0,0 +1,57 @@
+/**
+ * Result of previewing a bulk salary adjustment.
+ * Holds the server-side head count and salary total for the selected range plus a
+ * small sample of the affected employees for display before the change is confirmed.
+ */
+package models;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+public class SalaryAdjustmentPreview {
+    private final double lowerBound;
+    private final double upperBound;
+    private final int affectedCount;
+    private final double currentTotal;
+    private final List<Employee> sample;
+
+    public SalaryAdjustmentPreview(double lowerBound, double upperBound, int affectedCount, double currentTotal, List<Employee> sample) {
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        this.affectedCount = affectedCount;
+        this.currentTotal = currentTotal;
+        this.sample = sample;
+    }
+
+    public double getLowerBound() {
+        return lowerBound;
+    }
+
+    public double getUpperBound() {
+        return upperBound;
+    }
+
+    public int getAffectedCount() {
+        return affectedCount;
+    }
+
+    // Sum of the current salaries of everyone in range
+    public double getCurrentTotal() {
+        return currentTotal;
+    }
+
+    public List<Employee> getSample() {
+        return sample;
+    }
+
+    // Multiplier for a raise of percent, as an exact decimal so the database multiplies in DECIMAL
+    public static BigDecimal adjustmentFactor(double percent) {
+        return BigDecimal.valueOf(1 + percent / 100.0);
+    }
+
+    // New salary after a raise of percent, rounded to the cent as ROUND(Salary * factor, 2) stores it
+    public static double adjustedSalary(double salary, double percent) {
+        return BigDecimal.valueOf(salary).multiply(adjustmentFactor(percent)).setScale(2, RoundingMode.HALF_UP).doubleValue();
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * A logged-in user's session.
+ * Identified by an unguessable token so a front end can hold on to the token alone;
+ * the user and role are fixed at login. Sessions are issued and expired by SessionRegistry.
+ */
+package models;
+
+import java.time.Instant;
+
+public class Session {
+    private final String token;
+    private final Person user;
+    private final long createdAtMillis;
+    private volatile long lastAccessMillis;
+
+    public Session(String token, Person user, long createdAtMillis) {
+        this.token = token;
+        this.user = user;
+        this.createdAtMillis = createdAtMillis;
+        this.lastAccessMillis = createdAtMillis;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public Person getUser() {
+        return user;
+    }
+
+    public int getEmpId() {
+        return user.getEmpId();
+    }
+
+    public boolean isAdmin() {
+        return "HR_ADMIN".equals(user.getRole());
+    }
+
+    public Instant getCreatedAt() {
+        return Instant.ofEpochMilli(createdAtMillis);
+    }
+
+    public Instant getLastAccess() {
+        return Instant.ofEpochMilli(lastAccessMillis);
+    }
+
+    // Marks the session as used now, pushing back its idle expiry
+    public void touch(long nowMillis) {
+        lastAccessMillis = nowMillis;
+    }
+
+    public boolean isIdleLongerThan(long idleMillis, long nowMillis) {
+        return nowMillis - lastAccessMillis > idleMillis;
+    }
+
+    // Leaves the token out so it does not end up in logs
+    @Override
+    public String toString() {
+        return "Session[empId=" + user.getEmpId() + ", role=" + user.getRole() + ", created=" + getCreatedAt() + "]";
+    }
+}
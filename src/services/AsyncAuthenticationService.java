@@ -0,0 +1,167 @@
+/**
+ * Asynchronous facade over AuthenticationService.
+ * Each call runs on its own thread from TaskExecutors (virtual threads on Java 21+) and
+ * returns a CompletableFuture, so a front end can issue independent calls together, e.g.
+ * load the job titles while the first page of employees is being read. Every call has a
+ * deadline, applied to each statement it runs as a JDBC query timeout (see QueryDeadline),
+ * so the driver aborts a query that overruns it; interrupting a thread blocked in JDBC
+ * does not. For reads, the future also fails with a TimeoutException at the deadline and
+ * the worker is interrupted; cancelling the future does the same.
+ * Writes (adding, updating or deleting employees and resetting passwords) are never failed
+ * or interrupted from outside: a timed-out statement makes the write roll back and complete
+ * with false, so the future always reports what the database actually did. Cancelling a
+ * write only stops it if it has not started.
+ * The synchronous AuthenticationService stays available through getSynchronous().
+ */
+package services;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import models.Employee;
+import models.EmployeePage;
+import models.HRAdmin;
+import models.Session;
+import utils.QueryDeadline;
+import utils.TaskExecutors;
+
+public class AsyncAuthenticationService {
+    public static final long DEFAULT_TIMEOUT_MS = Long.getLong("nexquery.async.timeoutMs", 30_000L);
+
+    private static ExecutorService sharedExecutor;
+
+    private final AuthenticationService delegate;
+    private final ExecutorService executor;
+    private final long timeoutMillis;
+
+    public AsyncAuthenticationService(AuthenticationService delegate) {
+        this(delegate, sharedExecutor(), DEFAULT_TIMEOUT_MS);
+    }
+
+    private AsyncAuthenticationService(AuthenticationService delegate, ExecutorService executor, long timeoutMillis) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Same service with a different per-call deadline, e.g.
+     * async.withTimeout(2, TimeUnit.SECONDS).getAllJobTitles().
+     */
+    public AsyncAuthenticationService withTimeout(long timeout, TimeUnit unit) {
+        return new AsyncAuthenticationService(delegate, executor, unit.toMillis(timeout));
+    }
+
+    public AuthenticationService getSynchronous() {
+        return delegate;
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    // Completes with the new session, or null if the password does not match
+    public CompletableFuture<Session> authenticateByPassword(int empId, String password) {
+        return call(() -> delegate.authenticateByPassword(empId, password));
+    }
+
+    public CompletableFuture<Boolean> resetPassword(int empId, String newPassword) {
+        return write(() -> delegate.resetPassword(empId, newPassword));
+    }
+
+    public CompletableFuture<List<String>> getAllJobTitles() {
+        return call(delegate::getAllJobTitles);
+    }
+
+    public CompletableFuture<List<Employee>> getEmployeesByJobTitle(String jobTitle) {
+        return call(() -> delegate.getEmployeesByJobTitle(jobTitle));
+    }
+
+    public CompletableFuture<List<HRAdmin>> getAllHRAdmins() {
+        return call(delegate::getAllHRAdmins);
+    }
+
+    public CompletableFuture<List<Employee>> getEmployeesHiredInRange(String startDate, String endDate) {
+        return call(() -> delegate.getEmployeesHiredInRange(startDate, endDate));
+    }
+
+    public CompletableFuture<List<Employee>> getAllEmployees() {
+        return call(delegate::getAllEmployees);
+    }
+
+    public CompletableFuture<EmployeePage> getEmployeePage(String jobTitle, int afterEmpId, int pageSize) {
+        return call(() -> delegate.getEmployeePage(jobTitle, afterEmpId, pageSize));
+    }
+
+    public CompletableFuture<EmployeePage> getEmployeePageBefore(String jobTitle, int beforeEmpId, int pageSize) {
+        return call(() -> delegate.getEmployeePageBefore(jobTitle, beforeEmpId, pageSize));
+    }
+
+    // Completes with null if there is no such employee
+    public CompletableFuture<Employee> getEmployeeById(int empId) {
+        return call(() -> delegate.getEmployeeById(empId));
+    }
+
+    public CompletableFuture<Boolean> addEmployee(Employee emp, String hireDate, String ssn, double salary) {
+        return write(() -> delegate.addEmployee(emp, hireDate, ssn, salary));
+    }
+
+    public CompletableFuture<Boolean> updateEmployee(Employee emp) {
+        return write(() -> delegate.updateEmployee(emp));
+    }
+
+    public CompletableFuture<Boolean> deleteEmployee(int empId) {
+        return write(() -> delegate.deleteEmployee(empId));
+    }
+
+    /**
+     * Runs a read on the executor. The returned future fails with TimeoutException once the
+     * deadline passes; timing out or cancelling it interrupts the worker thread.
+     */
+    private <T> CompletableFuture<T> call(Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> worker = submit(task, result);
+        result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+            .whenComplete((value, error) -> {
+                if (error != null) {
+                    worker.cancel(true);
+                }
+            });
+        return result;
+    }
+
+    /**
+     * Runs a write on the executor. Its statements share the deadline, but the future
+     * completes only with the write's own result, so it never reports a timeout for a write
+     * that went on to commit.
+     */
+    private <T> CompletableFuture<T> write(Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        submit(task, result);
+        return result;
+    }
+
+    private <T> Future<?> submit(Callable<T> task, CompletableFuture<T> result) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        return executor.submit(() -> {
+            if (result.isDone()) {
+                return; // cancelled or timed out before it started
+            }
+            try {
+                result.complete(QueryDeadline.call(deadline, task));
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+    }
+
+    private static synchronized ExecutorService sharedExecutor() {
+        if (sharedExecutor == null) {
+            sharedExecutor = TaskExecutors.newPerTaskExecutor("nexquery-async");
+        }
+        return sharedExecutor;
+    }
+}
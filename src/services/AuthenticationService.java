@@ -3,36 +3,59 @@
  * This service class implements the Authenticatable interface and coordinates
  * authentication operations between the UI and DAO layers.
  * Demonstrates the Service layer pattern for business logic separation.
+ * The service holds no per-user state: a successful login returns a Session from the
+ * shared SessionRegistry, and callers pass that session (or its token) back in. One
+ * instance can therefore serve any number of users from any number of threads.
  */
 package services;
 
 import dao.EmployeeDAO;
+import dao.EmployeeDirectory;
+import dao.EmployeeQueryCache;
+import dao.HireDateIndex;
+import dao.SalaryIndex;
 import interfaces.Authenticatable;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import models.Employee;
+import models.EmployeePage;
 import models.Person;
+import models.Session;
 
 public class AuthenticationService implements Authenticatable {
-                        public boolean authenticateByPassword(int empId, String password) {
+                        // Starts a session if the password matches; null otherwise
+                        public Session authenticateByPassword(int empId, String password) {
                             Person user = employeeDAO.authenticateByPassword(empId, password);
-                            if (user != null) {
-                                this.currentUser = user;
-                                return true;
-                            }
-                            return false;
+                            return user != null ? sessions.create(user) : null;
+                        }
+
+                        // Checks a password without starting a session, e.g. before a password change
+                        public boolean verifyPassword(int empId, String password) {
+                            return employeeDAO.authenticateByPassword(empId, password) != null;
                         }
 
+                        // Also ends every session of that employee, so a stolen session does not outlive the old password
                         public boolean resetPassword(int empId, String newPassword) {
-                            return employeeDAO.resetPassword(empId, newPassword);
+                            if (!employeeDAO.resetPassword(empId, newPassword)) {
+                                return false;
+                            }
+                            sessions.invalidateUser(empId);
+                            return true;
                         }
                     public List<String> getAllJobTitles() {
-                        return employeeDAO.getAllJobTitles();
+                        return queryCache.list("jobTitles", employeeDAO::getAllJobTitles);
                     }
                 public List<models.Employee> getEmployeesByJobTitle(String jobTitle) {
-                    return employeeDAO.getEmployeesByJobTitle(jobTitle);
+                    return queryCache.list("byTitle:" + jobTitle, () -> employeeDAO.getEmployeesByJobTitle(jobTitle));
+                }
+                public int forEachEmployeeByJobTitle(String jobTitle, Consumer<Employee> action) {
+                    return employeeDAO.forEachEmployeeByJobTitle(jobTitle, action);
                 }
             public java.util.List<models.HRAdmin> getAllHRAdmins() {
-                return employeeDAO.getAllHRAdmins();
+                return queryCache.list("admins", employeeDAO::getAllHRAdmins);
             }
         // Payroll summary methods
         public List<String[]> getPayrollByJobTitle() {
@@ -48,69 +71,136 @@ public class AuthenticationService implements Authenticatable {
         }
 
         public List<Employee> getEmployeesHiredInRange(String startDate, String endDate) {
-            return employeeDAO.getEmployeesHiredInRange(startDate, endDate);
+            return queryCache.list("hired:" + startDate + ".." + endDate, () -> {
+                List<Employee> employees = new ArrayList<>();
+                return forEachEmployeeHiredInRange(startDate, endDate, employees::add) < 0 ? null : employees;
+            });
+        }
+
+        // Hire-date order; the IDs come from the hire date index, with the SQL range query as fallback
+        public int forEachEmployeeHiredInRange(String startDate, String endDate, Consumer<Employee> action) {
+            LocalDate from;
+            LocalDate to;
+            try {
+                from = LocalDate.parse(startDate.trim());
+                to = LocalDate.parse(endDate.trim());
+            } catch (DateTimeParseException e) {
+                return employeeDAO.forEachEmployeeHiredInRange(startDate, endDate, action); // logs and returns -1
+            }
+            int[] empIds = hireDates.hiredBetween(from, to);
+            if (empIds == null) {
+                return employeeDAO.forEachEmployeeHiredInRange(from, to, action);
+            }
+            return employeeDAO.forEachEmployeeById(empIds, action);
+        }
+
+        // Salary order; the IDs come from the salary index, with the SQL range query as fallback
+        public int forEachEmployeeInSalaryRange(double lowerBound, double upperBound, Consumer<Employee> action) {
+            int[] empIds = salaries.between(lowerBound, upperBound);
+            if (empIds == null) {
+                return employeeDAO.forEachEmployeeInSalaryRange(lowerBound, upperBound, action);
+            }
+            return employeeDAO.forEachEmployeeById(empIds, action);
         }
-    private EmployeeDAO employeeDAO;
-    private Person currentUser;
+    private final EmployeeDAO employeeDAO;
+    private final EmployeeDirectory employeeDirectory;
+    private final EmployeeQueryCache queryCache;
+    private final HireDateIndex hireDates;
+    private final SalaryIndex salaries;
+    private final SessionRegistry sessions;
     
     public AuthenticationService() {
         this.employeeDAO = new EmployeeDAO();
-        this.currentUser = null;
+        this.employeeDirectory = EmployeeDirectory.getInstance();
+        this.queryCache = EmployeeQueryCache.getInstance();
+        this.hireDates = HireDateIndex.getInstance();
+        this.salaries = SalaryIndex.getInstance();
+        this.sessions = SessionRegistry.getInstance();
     }
     
     @Override
-    public boolean authenticate(int empId, String lastName, String dob, String ssn) {
+    public Session authenticate(int empId, String lastName, String dob, String ssn) {
         Person user = employeeDAO.authenticate(empId, lastName, dob, ssn);
-        if (user != null) {
-            // If user is an employee, fetch full record with salary/occupation
-            if (user instanceof models.Employee) {
-                models.Employee fullEmp = employeeDAO.getEmployeeById(empId);
-                if (fullEmp != null) {
-                    this.currentUser = fullEmp;
-                } else {
-                    this.currentUser = user;
-                }
-            } else {
-                this.currentUser = user;
+        if (user == null) {
+            return null;
+        }
+        // If user is an employee, fetch full record with salary/occupation
+        if (user instanceof models.Employee) {
+            models.Employee fullEmp = employeeDAO.getEmployeeById(empId);
+            if (fullEmp != null) {
+                user = fullEmp;
             }
-            return true;
         }
-        return false;
+        return sessions.create(user);
     }
     
     @Override
-    public boolean hasPermission(String operation) {
-        if (currentUser == null) {
+    public boolean hasPermission(Session session, String operation) {
+        if (session == null || sessions.get(session.getToken()) == null) {
             return false;
         }
         
         // Check if user is HR Admin for full permissions
-        return "HR_ADMIN".equals(currentUser.getRole());
+        return session.isAdmin();
     }
     
-    public Person getCurrentUser() {
-        return currentUser;
+    // The live session for a token, or null if it is unknown, ended or expired
+    public Session getSession(String token) {
+        return sessions.get(token);
     }
     
-    public void logout() {
-        this.currentUser = null;
-    }
-    
-    public boolean isLoggedIn() {
-        return currentUser != null;
+    public void logout(Session session) {
+        if (session != null) {
+            sessions.invalidate(session.getToken());
+        }
     }
 
-    // CRUD methods for admin
+    // CRUD methods for admin; listings are served from the shared query cache
     public List<Employee> getAllEmployees() {
-        return employeeDAO.getAllEmployees();
+        return queryCache.list("all", employeeDAO::getAllEmployees);
+    }
+    // Streams every employee in constant memory; returns the row count or -1 on error
+    public int forEachEmployee(Consumer<Employee> action) {
+        return employeeDAO.forEachEmployee(action);
+    }
+    // Keyset-paginated listing; jobTitle may be null for all employees
+    public EmployeePage getEmployeePage(String jobTitle, int afterEmpId, int pageSize) {
+        return queryCache.page("after:" + jobTitle + ":" + afterEmpId + ":" + pageSize,
+            () -> employeeDAO.getEmployeePage(jobTitle, afterEmpId, pageSize));
+    }
+    public EmployeePage getEmployeePageBefore(String jobTitle, int beforeEmpId, int pageSize) {
+        return queryCache.page("before:" + jobTitle + ":" + beforeEmpId + ":" + pageSize,
+            () -> employeeDAO.getEmployeePageBefore(jobTitle, beforeEmpId, pageSize));
+    }
+    // Point lookup through the in-memory index; null if no such employee
+    public Employee getEmployeeById(int empId) {
+        return employeeDirectory.get(empId);
     }
     public boolean addEmployee(Employee emp, String hireDate, String ssn, double salary) {
-        return employeeDAO.addEmployee(emp, hireDate, ssn, salary);
+        boolean added = employeeDAO.addEmployee(emp, hireDate, ssn, salary);
+        if (added) {
+            employeeDirectory.put(emp);
+            // A new employee can belong in any cached list, and may have created a job title
+            queryCache.invalidateAll();
+            hireDates.invalidate();
+            salaries.invalidate();
+        }
+        return added;
     }
     public boolean updateEmployee(Employee emp) {
-        return employeeDAO.updateEmployee(emp);
+        boolean updated = employeeDAO.updateEmployee(emp);
+        // Invalidate rather than put: callers may pass a partially populated Employee
+        employeeDirectory.invalidate(emp.getEmpId());
+        queryCache.invalidateAll();
+        salaries.invalidate();
+        return updated;
     }
     public boolean deleteEmployee(int empId) {
-        return employeeDAO.deleteEmployee(empId);
+        boolean deleted = employeeDAO.deleteEmployee(empId);
+        employeeDirectory.invalidate(empId);
+        queryCache.invalidateAll();
+        hireDates.invalidate();
+        salaries.invalidate();
+        return deleted;
     }
 }
@@ -0,0 +1,115 @@
+/**
+ * Bulk Export Service - Streams the whole workforce to CSV.
+ * Rows come straight from the DAO cursor into a CsvChannelWriter, so memory use stays
+ * flat no matter how many employees are exported.
+ */
+package services;
+
+import dao.EmployeeDAO;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import utils.CsvChannelWriter;
+import utils.CsvExportUtil;
+
+public class BulkExportService {
+    // Progress is reported every this many rows
+    private static final int PROGRESS_INTERVAL_ROWS = 10_000;
+
+    /**
+     * Receives periodic progress updates during an export.
+     */
+    public interface ProgressListener {
+        void onProgress(long rowsWritten, double rowsPerSecond);
+    }
+
+    /**
+     * Summary of a finished (or failed) export.
+     */
+    public static class ExportResult {
+        private final boolean success;
+        private final long rows;
+        private final List<Path> files;
+        private final long elapsedMillis;
+
+        public ExportResult(boolean success, long rows, List<Path> files, long elapsedMillis) {
+            this.success = success;
+            this.rows = rows;
+            this.files = files;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public List<Path> getFiles() {
+            return files;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public double getRowsPerSecond() {
+            return elapsedMillis > 0 ? rows * 1000.0 / elapsedMillis : rows;
+        }
+    }
+
+    private final EmployeeDAO employeeDAO;
+
+    public BulkExportService() {
+        this.employeeDAO = new EmployeeDAO();
+    }
+
+    /**
+     * Exports every employee to CSV.
+     * @param target output file (part numbers are added when splitting)
+     * @param gzip compress the output
+     * @param maxRowsPerFile split after this many rows per file; 0 for a single file
+     * @param listener progress callback, may be null
+     */
+    public ExportResult exportAllEmployees(Path target, boolean gzip, long maxRowsPerFile, ProgressListener listener) {
+        long start = System.nanoTime();
+        CsvChannelWriter writer = new CsvChannelWriter(target, gzip, maxRowsPerFile, CsvExportUtil.HEADER);
+        boolean success;
+        try {
+            int streamed = employeeDAO.forEachEmployee(emp -> {
+                try {
+                    writer.write(emp);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                long rows = writer.getTotalRows();
+                if (listener != null && rows % PROGRESS_INTERVAL_ROWS == 0) {
+                    listener.onProgress(rows, rowsPerSecond(rows, start));
+                }
+            });
+            success = streamed >= 0;
+        } catch (UncheckedIOException e) {
+            System.err.println("Error writing CSV export: " + e.getCause().getMessage());
+            success = false;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            System.err.println("Error closing CSV export: " + e.getMessage());
+            success = false;
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        if (listener != null) {
+            listener.onProgress(writer.getTotalRows(), rowsPerSecond(writer.getTotalRows(), start));
+        }
+        return new ExportResult(success, writer.getTotalRows(), writer.getFiles(), elapsedMillis);
+    }
+
+    private static double rowsPerSecond(long rows, long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        return seconds > 0 ? rows / seconds : 0;
+    }
+}
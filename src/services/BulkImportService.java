@@ -0,0 +1,233 @@
+/**
+ * Bulk Import Service - Onboards many employees from a CSV file at once.
+ * Expects the same column layout as CsvExportUtil.HEADER. Job titles are resolved against the
+ * in-memory JobTitleRegistry, and rows are inserted with JDBC batches in chunk-sized
+ * transactions. Rows that fail validation or are refused by the database are written to a
+ * reject file with the reason instead of stopping the run.
+ */
+package services;
+
+import dao.EmployeeDAO;
+import dao.EmployeeQueryCache;
+import dao.HireDateIndex;
+import dao.SalaryIndex;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import models.Employee;
+import utils.CsvExportUtil;
+import utils.CsvReader;
+
+public class BulkImportService {
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+    private static final int COLUMN_COUNT = 8;
+
+    /**
+     * Summary of an import run.
+     */
+    public static class ImportResult {
+        private final long rowsRead;
+        private final long rowsImported;
+        private final long rowsRejected;
+        private final long elapsedMillis;
+        private final String error;
+
+        public ImportResult(long rowsRead, long rowsImported, long rowsRejected, long elapsedMillis, String error) {
+            this.rowsRead = rowsRead;
+            this.rowsImported = rowsImported;
+            this.rowsRejected = rowsRejected;
+            this.elapsedMillis = elapsedMillis;
+            this.error = error;
+        }
+
+        public long getRowsRead() {
+            return rowsRead;
+        }
+
+        public long getRowsImported() {
+            return rowsImported;
+        }
+
+        public long getRowsRejected() {
+            return rowsRejected;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        // Set when the run could not start or was aborted (unreadable file, wrong header, ...)
+        public String getError() {
+            return error;
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+
+    private final EmployeeDAO employeeDAO;
+
+    public BulkImportService() {
+        this.employeeDAO = new EmployeeDAO();
+    }
+
+    /**
+     * Imports employees from a CSV file.
+     * @param source CSV file with CsvExportUtil.HEADER as its first line
+     * @param rejectFile where rejected rows are written, with an extra Reason column
+     * @param chunkSize rows per transaction
+     */
+    public ImportResult importEmployees(Path source, Path rejectFile, int chunkSize) {
+        long start = System.nanoTime();
+        int batchSize = chunkSize > 0 ? chunkSize : DEFAULT_CHUNK_SIZE;
+        Set<Integer> seenIds = new HashSet<>();
+        List<Employee> chunk = new ArrayList<>(batchSize);
+        List<List<String>> chunkRecords = new ArrayList<>(batchSize);
+        long read = 0;
+        long imported = 0;
+        long rejected = 0;
+
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(source, StandardCharsets.UTF_8));
+             BufferedWriter rejects = Files.newBufferedWriter(rejectFile, StandardCharsets.UTF_8)) {
+            List<String> header = reader.readRecord();
+            if (header == null || !CsvExportUtil.HEADER.equalsIgnoreCase(String.join(",", header).trim())) {
+                return new ImportResult(0, 0, 0, elapsedMillis(start), "Unexpected header; expected: " + CsvExportUtil.HEADER);
+            }
+            rejects.write(CsvExportUtil.HEADER + ",Reason" + CsvExportUtil.LINE_END);
+
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                if (record.size() == 1 && record.get(0).isEmpty()) {
+                    continue; // blank line
+                }
+                read++;
+                String problem = validate(record);
+                Employee emp = null;
+                if (problem == null) {
+                    emp = toEmployee(record);
+                    if (!seenIds.add(emp.getEmpId())) {
+                        problem = "Duplicate ID in file";
+                    } else if (employeeDAO.resolveOrCreateJobTitle(emp.getOccupation()) < 0) {
+                        problem = "Could not create job title";
+                    }
+                }
+                if (problem != null) {
+                    writeReject(rejects, record, problem);
+                    rejected++;
+                    continue;
+                }
+                chunk.add(emp);
+                chunkRecords.add(record);
+                if (chunk.size() >= batchSize) {
+                    int ok = flushChunk(chunk, chunkRecords, rejects);
+                    imported += ok;
+                    rejected += chunk.size() - ok;
+                    chunk.clear();
+                    chunkRecords.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                int ok = flushChunk(chunk, chunkRecords, rejects);
+                imported += ok;
+                rejected += chunk.size() - ok;
+            }
+        } catch (IOException e) {
+            System.err.println("Error importing employees: " + e.getMessage());
+            return new ImportResult(read, imported, rejected, elapsedMillis(start), e.getMessage());
+        }
+        return new ImportResult(read, imported, rejected, elapsedMillis(start), null);
+    }
+
+    /**
+     * Inserts one chunk in a single transaction. If the database refuses the chunk, the rows
+     * are retried one at a time so only the offending rows are rejected.
+     * @return number of rows inserted
+     */
+    private int flushChunk(List<Employee> chunk, List<List<String>> records, BufferedWriter rejects) throws IOException {
+        if (employeeDAO.insertEmployeeBatch(chunk)) {
+            EmployeeQueryCache.getInstance().invalidateAll();
+            HireDateIndex.getInstance().invalidate();
+            SalaryIndex.getInstance().invalidate();
+            return chunk.size();
+        }
+        int inserted = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            if (employeeDAO.insertEmployeeBatch(Collections.singletonList(chunk.get(i)))) {
+                inserted++;
+            } else {
+                writeReject(rejects, records.get(i), "Rejected by database (duplicate ID or invalid value)");
+            }
+        }
+        if (inserted > 0) {
+            EmployeeQueryCache.getInstance().invalidateAll();
+            HireDateIndex.getInstance().invalidate();
+            SalaryIndex.getInstance().invalidate();
+        }
+        return inserted;
+    }
+
+    // Returns null if the record can be imported, otherwise the reason it cannot
+    private static String validate(List<String> record) {
+        if (record.size() != COLUMN_COUNT) {
+            return "Expected " + COLUMN_COUNT + " columns but found " + record.size();
+        }
+        try {
+            Integer.parseInt(record.get(0).trim());
+        } catch (NumberFormatException e) {
+            return "Invalid ID";
+        }
+        if (record.get(1).trim().isEmpty() || record.get(2).trim().isEmpty()) {
+            return "First and last name are required";
+        }
+        try {
+            Double.parseDouble(record.get(4).trim().replace(",", ""));
+        } catch (NumberFormatException e) {
+            return "Invalid salary";
+        }
+        try {
+            LocalDate.parse(record.get(5).trim());
+        } catch (DateTimeParseException e) {
+            return "Invalid hire date (expected YYYY-MM-DD)";
+        }
+        if (record.get(7).trim().isEmpty()) {
+            return "Occupation is required";
+        }
+        return null;
+    }
+
+    private static Employee toEmployee(List<String> record) {
+        String ssn = record.get(6).trim();
+        return new Employee(
+            Integer.parseInt(record.get(0).trim()),
+            record.get(1).trim(),
+            record.get(2).trim(),
+            record.get(3).trim(),
+            Double.parseDouble(record.get(4).trim().replace(",", "")),
+            record.get(5).trim(),
+            ssn.isEmpty() ? null : ssn,
+            record.get(7).trim());
+    }
+
+    private static void writeReject(BufferedWriter rejects, List<String> record, String reason) throws IOException {
+        StringBuilder sb = new StringBuilder(128);
+        for (String field : record) {
+            CsvExportUtil.appendField(sb, field).append(',');
+        }
+        CsvExportUtil.appendField(sb, reason).append(CsvExportUtil.LINE_END);
+        rejects.append(sb);
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
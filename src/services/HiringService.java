@@ -0,0 +1,85 @@
+/**
+ * Hiring Service - Hiring trends, work anniversaries and tenure.
+ * Answered from the in-memory HireDateIndex: counts take a couple of binary searches and
+ * never touch the database, and lists of employees are read by primary key for just the
+ * matching IDs. Every method returns null (or -1) if the index cannot be loaded.
+ */
+package services;
+
+import dao.EmployeeDAO;
+import dao.HireDateIndex;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import models.Employee;
+
+public class HiringService {
+    // Default tenure bands in full years: <1, 1-3, 3-5, 5-10, 10+
+    public static final int[] DEFAULT_TENURE_BANDS = { 0, 1, 3, 5, 10 };
+
+    private final EmployeeDAO employeeDAO;
+    private final HireDateIndex hireDates;
+
+    public HiringService() {
+        this.employeeDAO = new EmployeeDAO();
+        this.hireDates = HireDateIndex.getInstance();
+    }
+
+    // Employees hired between from and to (inclusive), or -1 if the index is unavailable
+    public int countHiredBetween(LocalDate from, LocalDate to) {
+        return hireDates.countHiredBetween(from, to);
+    }
+
+    /**
+     * Hires per calendar year from the first year with a hire through the last.
+     * @return year to count in year order, or null if the index is unavailable
+     */
+    public Map<Integer, Integer> getHiresPerYear() {
+        int firstYear = hireDates.getFirstHireYear();
+        int lastYear = hireDates.getLastHireYear();
+        int[] counts = firstYear < 0 ? null : hireDates.hiresPerYear(firstYear, lastYear);
+        if (counts == null) {
+            return hireDates.size() == 0 ? new LinkedHashMap<>() : null;
+        }
+        Map<Integer, Integer> perYear = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            perYear.put(firstYear + i, counts[i]);
+        }
+        return perYear;
+    }
+
+    /**
+     * Employees with a work anniversary between from and to, in anniversary order.
+     * @return the employees, or null on error
+     */
+    public List<Employee> getAnniversaries(LocalDate from, LocalDate to) {
+        return load(hireDates.anniversariesBetween(from, to));
+    }
+
+    /**
+     * Employees with at least minYears and fewer than maxYears full years of service on asOf,
+     * longest-serving first.
+     * @return the employees, or null on error
+     */
+    public List<Employee> getEmployeesWithTenure(int minYears, int maxYears, LocalDate asOf) {
+        return load(hireDates.tenureBetween(minYears, maxYears, asOf));
+    }
+
+    /**
+     * Head counts per tenure band on asOf; see HireDateIndex.tenureBandCounts.
+     * @return one count per bound, or null if the index is unavailable
+     */
+    public int[] getTenureBandCounts(LocalDate asOf, int... bounds) {
+        return hireDates.tenureBandCounts(asOf, bounds);
+    }
+
+    private List<Employee> load(int[] empIds) {
+        if (empIds == null) {
+            return null;
+        }
+        List<Employee> employees = new ArrayList<>(empIds.length);
+        return employeeDAO.forEachEmployeeById(empIds, employees::add) < 0 ? null : employees;
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Payroll Service - Payroll reports, pay history and maintenance of the payroll totals.
+ * Reports are typed, multi-dimensional breakdowns built in one scan by PayrollReportDAO;
+ * the plain per-title and per-division summaries come from the materialized totals instead.
+ * Pay history is served as per-period rollups or keyset-paged payments by PayHistoryDAO.
+ * The per-title and per-division totals are kept up to date by every write in EmployeeDAO;
+ * this service rebuilds them from scratch and checks them against a live aggregation, for
+ * use after employees were edited outside the application.
+ */
+package services;
+
+import dao.PayHistoryDAO;
+import dao.PayrollReportDAO;
+import dao.PayrollTotalsDAO;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import models.PayHistoryPage;
+import models.PayPeriodTotal;
+import models.PayPeriodTotal.Granularity;
+import models.PayRecord;
+import models.PayrollReport;
+import models.PayrollReport.Dimension;
+
+public class PayrollService {
+    private final PayrollTotalsDAO payrollTotals;
+    private final PayrollReportDAO payrollReports;
+    private final PayHistoryDAO payHistory;
+
+    public PayrollService() {
+        this.payrollTotals = new PayrollTotalsDAO();
+        this.payrollReports = new PayrollReportDAO();
+        this.payHistory = new PayHistoryDAO();
+    }
+
+    /**
+     * An employee's earnings per month, quarter or year for pay dates in [from, to].
+     * @return totals oldest first, or null on error
+     */
+    public List<PayPeriodTotal> getPayRollup(int empId, LocalDate from, LocalDate to, Granularity granularity) {
+        if (from.isAfter(to)) {
+            return Collections.emptyList();
+        }
+        return payHistory.getRollup(empId, from, to, granularity);
+    }
+
+    // Earnings from January 1 through asOf, or null on error
+    public PayPeriodTotal getYearToDate(int empId, LocalDate asOf) {
+        return payHistory.getYearToDate(empId, asOf);
+    }
+
+    /**
+     * One page of individual payments in [from, to], newest first.
+     * @param after PayHistoryPage.getLast() of the previous page, or null for the first page
+     */
+    public PayHistoryPage getPayHistoryPage(int empId, LocalDate from, LocalDate to, PayRecord after, int pageSize) {
+        return payHistory.getPage(empId, from, to, after, pageSize);
+    }
+
+    /**
+     * Builds a report with one grouping per set of dimensions, e.g. {JOB_TITLE} and
+     * {JOB_TITLE, DIVISION}, from a single scan.
+     * @return the report, or null on error
+     */
+    public PayrollReport buildReport(List<Set<Dimension>> groupingSets) {
+        return payrollReports.buildReport(groupingSets);
+    }
+
+    // Report grouped by the given dimensions only
+    public PayrollReport buildReport(Dimension first, Dimension... rest) {
+        return buildReport(Collections.singletonList(EnumSet.of(first, rest)));
+    }
+
+    /**
+     * Payroll per job title or per division, read from the materialized totals rather than
+     * scanning every employee; falls back to a report scan if the totals are unavailable.
+     * @param dimension JOB_TITLE or DIVISION
+     * @return the grouping, or null on error
+     */
+    public PayrollReport.Grouping getPayrollTotals(Dimension dimension) {
+        PayrollReport.Grouping totals = payrollTotals.getGrouping(dimension);
+        if (totals != null) {
+            return totals;
+        }
+        PayrollReport report = buildReport(dimension);
+        return report != null ? report.getGrouping(dimension) : null;
+    }
+
+    // Report with every combination of job title, division and hire year
+    public PayrollReport buildFullReport() {
+        return buildReport(PayrollReportDAO.ALL_GROUPINGS);
+    }
+
+    public boolean rebuildTotals() {
+        return payrollTotals.rebuild();
+    }
+
+    /**
+     * @return one description per group whose stored totals differ from the employees table
+     *         (empty when consistent), or null if the check could not run
+     */
+    public List<String> checkTotals() {
+        return payrollTotals.check();
+    }
+}
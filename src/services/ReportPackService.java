@@ -0,0 +1,237 @@
+/**
+ * Report Pack Service - Runs the payroll summaries concurrently.
+ * The job-title, division, hire-range and pay-history reports are independent queries, so
+ * they are submitted together and each borrows its own pooled connection; the pack takes
+ * about as long as its slowest report rather than the sum of all of them. Every report has
+ * its own timeout, and a report that fails or times out is reported as such without
+ * discarding the ones that succeeded. The timeout is also applied to every statement a
+ * report runs (see QueryDeadline), so a timed-out report's query is aborted by the driver
+ * rather than left running on its connection.
+ */
+package services;
+
+import dao.EmployeeDAO;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import models.Employee;
+import models.PayPeriodTotal;
+import models.PayrollReport;
+import models.PayrollReport.Dimension;
+import utils.QueryDeadline;
+import utils.TaskExecutors;
+
+public class ReportPackService {
+    public static final long DEFAULT_TIMEOUT_MS = Long.getLong("nexquery.reports.timeoutMs", 30_000L);
+
+    public enum Status {
+        COMPLETED,
+        FAILED,
+        TIMED_OUT
+    }
+
+    /**
+     * Result of one report in a pack: its value if it completed, otherwise why not.
+     */
+    public static class ReportOutcome<T> {
+        private final String name;
+        private final Status status;
+        private final T value;
+        private final String error;
+        private final long elapsedMillis;
+
+        public ReportOutcome(String name, Status status, T value, String error, long elapsedMillis) {
+            this.name = name;
+            this.status = status;
+            this.value = value;
+            this.error = error;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public boolean isSuccess() {
+            return status == Status.COMPLETED;
+        }
+
+        // Null unless the report completed
+        public T getValue() {
+            return value;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+
+    /**
+     * Outcomes of every report in a pack.
+     */
+    public static class ReportPack {
+        private final ReportOutcome<PayrollReport.Grouping> jobTitles;
+        private final ReportOutcome<PayrollReport.Grouping> divisions;
+        private final ReportOutcome<List<Employee>> hires;
+        private final ReportOutcome<List<PayPeriodTotal>> payHistory;
+        private final long elapsedMillis;
+
+        public ReportPack(ReportOutcome<PayrollReport.Grouping> jobTitles, ReportOutcome<PayrollReport.Grouping> divisions,
+                          ReportOutcome<List<Employee>> hires, ReportOutcome<List<PayPeriodTotal>> payHistory, long elapsedMillis) {
+            this.jobTitles = jobTitles;
+            this.divisions = divisions;
+            this.hires = hires;
+            this.payHistory = payHistory;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public ReportOutcome<PayrollReport.Grouping> getJobTitles() {
+            return jobTitles;
+        }
+
+        public ReportOutcome<PayrollReport.Grouping> getDivisions() {
+            return divisions;
+        }
+
+        public ReportOutcome<List<Employee>> getHires() {
+            return hires;
+        }
+
+        // Null when no employee was given for the pay history report
+        public ReportOutcome<List<PayPeriodTotal>> getPayHistory() {
+            return payHistory;
+        }
+
+        public List<ReportOutcome<?>> getOutcomes() {
+            List<ReportOutcome<?>> outcomes = new ArrayList<>(4);
+            outcomes.add(jobTitles);
+            outcomes.add(divisions);
+            outcomes.add(hires);
+            if (payHistory != null) {
+                outcomes.add(payHistory);
+            }
+            return outcomes;
+        }
+
+        public int getFailureCount() {
+            int failures = 0;
+            for (ReportOutcome<?> outcome : getOutcomes()) {
+                if (!outcome.isSuccess()) {
+                    failures++;
+                }
+            }
+            return failures;
+        }
+
+        // Wall-clock time of the whole pack
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+
+    // Value of a report plus how long it took to produce
+    private static class Timed<T> {
+        final T value;
+        final long elapsedNanos;
+
+        Timed(T value, long elapsedNanos) {
+            this.value = value;
+            this.elapsedNanos = elapsedNanos;
+        }
+    }
+
+    // One executor for every instance; its threads are daemons, so it never needs shutting down
+    private static ExecutorService sharedExecutor;
+
+    private final PayrollService payrollService;
+    private final EmployeeDAO employeeDAO;
+    private final ExecutorService executor;
+
+    public ReportPackService() {
+        this.payrollService = new PayrollService();
+        this.employeeDAO = new EmployeeDAO();
+        this.executor = sharedExecutor();
+    }
+
+    /**
+     * Runs the job-title, division and hire-range reports, plus a monthly pay history for
+     * one employee if payHistoryEmpId is not null, all at once.
+     * @param timeoutMillis how long each report may take before it is cancelled
+     */
+    public ReportPack runAll(LocalDate hireFrom, LocalDate hireTo, Integer payHistoryEmpId,
+                             LocalDate payFrom, LocalDate payTo, long timeoutMillis) {
+        long start = System.nanoTime();
+        // Every report's deadline counts from submission, so waiting on one does not eat into another's
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        Future<Timed<PayrollReport.Grouping>> jobTitles = submit(deadline, () -> payrollService.getPayrollTotals(Dimension.JOB_TITLE));
+        Future<Timed<PayrollReport.Grouping>> divisions = submit(deadline, () -> payrollService.getPayrollTotals(Dimension.DIVISION));
+        Future<Timed<List<Employee>>> hires = submit(deadline, () -> {
+            List<Employee> hired = new ArrayList<>();
+            // A failed or aborted query returns -1; report it rather than a short list
+            return employeeDAO.forEachEmployeeHiredInRange(hireFrom, hireTo, hired::add) < 0 ? null : hired;
+        });
+        Future<Timed<List<PayPeriodTotal>>> payHistory = payHistoryEmpId == null ? null : submit(deadline, () ->
+            payrollService.getPayRollup(payHistoryEmpId, payFrom, payTo, PayPeriodTotal.Granularity.MONTH));
+
+        return new ReportPack(
+            await("Payroll by job title", jobTitles, deadline),
+            await("Payroll by division", divisions, deadline),
+            await("Employees hired " + hireFrom + " to " + hireTo, hires, deadline),
+            payHistory == null ? null : await("Pay history for " + payHistoryEmpId, payHistory, deadline),
+            (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private <T> Future<Timed<T>> submit(long deadlineNanos, Callable<T> report) {
+        return executor.submit(() -> {
+            long start = System.nanoTime();
+            T value = QueryDeadline.call(deadlineNanos, report);
+            return new Timed<>(value, System.nanoTime() - start);
+        });
+    }
+
+    private static synchronized ExecutorService sharedExecutor() {
+        if (sharedExecutor == null) {
+            sharedExecutor = TaskExecutors.newPerTaskExecutor("nexquery-report");
+        }
+        return sharedExecutor;
+    }
+
+    private static <T> ReportOutcome<T> await(String name, Future<Timed<T>> future, long deadlineNanos) {
+        try {
+            Timed<T> result = future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            long elapsedMillis = result.elapsedNanos / 1_000_000;
+            if (result.value == null) {
+                // The DAOs log the SQLException and return null
+                return new ReportOutcome<>(name, Status.FAILED, null, "Query failed (see error log)", elapsedMillis);
+            }
+            return new ReportOutcome<>(name, Status.COMPLETED, result.value, null, elapsedMillis);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return new ReportOutcome<>(name, Status.TIMED_OUT, null, "Did not finish in time", -1);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return new ReportOutcome<>(name, Status.FAILED, null, cause.toString(), -1);
+        } catch (CancellationException e) {
+            return new ReportOutcome<>(name, Status.FAILED, null, "Cancelled", -1);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            return new ReportOutcome<>(name, Status.FAILED, null, "Interrupted", -1);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Salary Adjustment Service - Business logic for adjusting a range of salaries at once.
+ * Previews are answered from one snapshot of the in-memory SalaryIndex (count and total by
+ * binary search and prefix sums, the sample read by primary key), falling back to the
+ * database if the index cannot be loaded. The adjustment itself is a single set-based UPDATE inside one
+ * transaction, so either every salary in range changes or none do.
+ */
+package services;
+
+import dao.EmployeeDAO;
+import dao.EmployeeDirectory;
+import dao.EmployeeQueryCache;
+import dao.SalaryIndex;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import models.Employee;
+import models.SalaryAdjustmentPreview;
+
+public class SalaryAdjustmentService {
+    // How many affected employees are listed in a preview
+    public static final int PREVIEW_SAMPLE_SIZE = 20;
+
+    private final EmployeeDAO employeeDAO;
+    private final SalaryIndex salaries;
+
+    public SalaryAdjustmentService() {
+        this.employeeDAO = new EmployeeDAO();
+        this.salaries = SalaryIndex.getInstance();
+    }
+
+    /**
+     * Salary range covering baseSalary plus or minus the given percentage.
+     * @return {lowerBound, upperBound}
+     */
+    public double[] rangeAround(double baseSalary, double percent) {
+        double lowerBound = baseSalary * (1 - Math.abs(percent) / 100.0);
+        double upperBound = baseSalary * (1 + Math.abs(percent) / 100.0);
+        return new double[] { lowerBound, upperBound };
+    }
+
+    /**
+     * Head count and salary total for [lowerBound, upperBound], with the highest-paid
+     * affected employees (where a raise costs most) as the sample.
+     * @return preview, or null if it could not be computed
+     */
+    public SalaryAdjustmentPreview preview(double lowerBound, double upperBound) {
+        SalaryIndex.RangeSummary range = salaries.summarize(lowerBound, upperBound, PREVIEW_SAMPLE_SIZE);
+        if (range == null) {
+            return employeeDAO.previewSalaryAdjustment(lowerBound, upperBound, PREVIEW_SAMPLE_SIZE);
+        }
+        int[] sampleIds = range.getTopEmpIds();
+        List<Employee> sample = new ArrayList<>(sampleIds.length);
+        if (employeeDAO.forEachEmployeeById(sampleIds, sample::add) < 0) {
+            return null;
+        }
+        return new SalaryAdjustmentPreview(lowerBound, upperBound, range.getCount(), range.getTotalCents() / 100.0, sample);
+    }
+
+    /**
+     * Change in total payroll adjustSalaries would make, with every new salary rounded to the
+     * cent as the database stores it.
+     * @return the change in dollars, or null if it could not be computed
+     */
+    public BigDecimal costDelta(double lowerBound, double upperBound, double percent) {
+        BigDecimal delta = salaries.adjustmentDeltaBetween(lowerBound, upperBound, SalaryAdjustmentPreview.adjustmentFactor(percent));
+        return delta != null ? delta : employeeDAO.getSalaryAdjustmentDelta(lowerBound, upperBound, percent);
+    }
+
+    /**
+     * Raises every salary in [lowerBound, upperBound] by percent.
+     * @return number of employees updated, or -1 if the adjustment failed and was rolled back
+     */
+    public int adjustSalaries(double lowerBound, double upperBound, double percent) {
+        if (lowerBound > upperBound) {
+            return 0;
+        }
+        int updated = employeeDAO.adjustSalariesInRange(lowerBound, upperBound, percent);
+        if (updated > 0) {
+            EmployeeDirectory.getInstance().clear();
+            EmployeeQueryCache.getInstance().invalidateAll();
+            salaries.invalidate();
+        }
+        return updated;
+    }
+}
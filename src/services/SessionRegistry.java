@@ -0,0 +1,128 @@
+/**
+ * Registry of active sessions, keyed by token.
+ * Tokens are 256 random bits from SecureRandom, URL-safe Base64 encoded. Sessions expire
+ * after nexquery.session.idleTimeoutMs (default 30 minutes) without use: a lookup of an
+ * idle session removes it, and expired sessions are swept whenever a new one is created
+ * and a sweep has not run for a minute. All state lives in a ConcurrentHashMap, so any
+ * number of threads can create, look up and end sessions at once.
+ * Singleton so every service in the process shares one registry.
+ */
+package services;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import models.Person;
+import models.Session;
+
+public class SessionRegistry {
+    public static final long DEFAULT_IDLE_TIMEOUT_MS = Long.getLong("nexquery.session.idleTimeoutMs", 30 * 60_000L);
+    private static final long SWEEP_INTERVAL_MS = 60_000L;
+    private static final int TOKEN_BYTES = 32;
+
+    private static SessionRegistry instance;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    private final AtomicLong lastSweep = new AtomicLong(System.currentTimeMillis());
+    private volatile long idleTimeoutMillis = DEFAULT_IDLE_TIMEOUT_MS;
+
+    private SessionRegistry() {
+    }
+
+    public static synchronized SessionRegistry getInstance() {
+        if (instance == null) {
+            instance = new SessionRegistry();
+        }
+        return instance;
+    }
+
+    public Session create(Person user) {
+        long now = System.currentTimeMillis();
+        sweepIfDue(now);
+        while (true) {
+            byte[] bytes = new byte[TOKEN_BYTES];
+            random.nextBytes(bytes);
+            Session session = new Session(encoder.encodeToString(bytes), user, now);
+            if (sessions.putIfAbsent(session.getToken(), session) == null) {
+                return session;
+            }
+        }
+    }
+
+    /**
+     * Returns the live session for a token and marks it as used.
+     * @return the session, or null if the token is unknown, ended or has been idle too long
+     */
+    public Session get(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (session.isIdleLongerThan(idleTimeoutMillis, now)) {
+            sessions.remove(token, session);
+            return null;
+        }
+        session.touch(now);
+        return session;
+    }
+
+    // Ends a session; true if it was still active
+    public boolean invalidate(String token) {
+        return token != null && sessions.remove(token) != null;
+    }
+
+    // Ends every session of one employee, e.g. after their password was changed
+    public int invalidateUser(int empId) {
+        int removed = 0;
+        for (Iterator<Session> it = sessions.values().iterator(); it.hasNext(); ) {
+            if (it.next().getEmpId() == empId) {
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public int getActiveCount() {
+        return sessions.size();
+    }
+
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    // Removes every session idle longer than the timeout
+    public int sweep() {
+        long now = System.currentTimeMillis();
+        lastSweep.set(now);
+        int removed = 0;
+        for (Iterator<Session> it = sessions.values().iterator(); it.hasNext(); ) {
+            if (it.next().isIdleLongerThan(idleTimeoutMillis, now)) {
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private void sweepIfDue(long now) {
+        long last = lastSweep.get();
+        // Only the thread that wins the compareAndSet sweeps
+        if (now - last > SWEEP_INTERVAL_MS && lastSweep.compareAndSet(last, now)) {
+            sweep();
+        }
+    }
+}
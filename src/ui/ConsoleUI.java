@@ -132,6 +132,8 @@ public class ConsoleUI {
             System.out.println("6. Search Employee");
             System.out.println("7. Adjust Range of Salaries");
             System.out.println("8. Payroll Summary Generator");
+            System.out.println("10. Bulk Data Tools");
+            System.out.println("11. Data Layer Metrics");
         }
         System.out.println("9. Reset Password");
         System.out.println("0. Logout");
@@ -161,6 +163,175 @@ public class ConsoleUI {
         System.out.println("──────────────────────────────────────────────\n");
     }
     
+    /**
+     * Prompts for page navigation and returns 'n' (next), 'p' (previous) or 'q' (done).
+     * Options that are not available on the current page are not offered.
+     */
+    public char getPageNavigation(boolean hasPrevious, boolean hasNext) {
+        if (!hasPrevious && !hasNext) {
+            return 'q';
+        }
+        StringBuilder prompt = new StringBuilder();
+        if (hasNext) prompt.append("[n]ext page, ");
+        if (hasPrevious) prompt.append("[p]revious page, ");
+        prompt.append("[q] done: ");
+        while (true) {
+            System.out.print(prompt);
+            String input = scanner.nextLine().trim().toLowerCase();
+            if (input.equals("q")) return 'q';
+            if (input.equals("n") && hasNext) return 'n';
+            if (input.equals("p") && hasPrevious) return 'p';
+            System.out.println("Invalid option.");
+        }
+    }
+    
+    /**
+     * Displays call counts, latency percentiles and connection wait per data-access operation.
+     * Operations that have not been called yet are omitted.
+     */
+    public void displayDaoMetrics(java.util.List<dao.OperationMetrics> operations) {
+        System.out.println("\n──────────────────────────────── Data Layer Metrics ────────────────────────────────");
+        System.out.printf("%-24s %8s %6s %10s %9s %9s %9s %9s\n",
+            "Operation", "Calls", "Errors", "Rows", "Mean ms", "p99 ms", "Max ms", "Wait p99");
+        int shown = 0;
+        for (dao.OperationMetrics op : operations) {
+            if (op.getCalls() == 0) {
+                continue;
+            }
+            System.out.printf("%-24s %8d %6d %10d %9.2f %9.2f %9.2f %9.2f\n",
+                op.getName(), op.getCalls(), op.getErrors(), op.getRows(),
+                op.getMeanMillis(), op.getP99Millis(), op.getMaxMillis(), op.getConnectionWaitP99Millis());
+            shown++;
+        }
+        if (shown == 0) {
+            System.out.println("No data-access calls recorded yet.");
+        }
+        System.out.println("────────────────────────────────────────────────────────────────────────────────────\n");
+    }
+    
+    /**
+     * Displays hit rate, size and eviction counts of the in-memory caches, one line each.
+     */
+    public void displayCacheStats(String[] names, utils.SegmentedLruCache.Stats[] stats) {
+        System.out.printf("%-24s %10s %10s %8s %10s %10s %10s %10s\n",
+            "Cache", "Hits", "Misses", "Hit %", "Entries", "Weight", "Evicted", "Expired");
+        for (int i = 0; i < names.length; i++) {
+            utils.SegmentedLruCache.Stats s = stats[i];
+            System.out.printf("%-24s %10d %10d %7.1f%% %10d %10s %10d %10d\n",
+                names[i], s.getHits(), s.getMisses(), s.getHitRate() * 100, s.getSize(),
+                s.getWeight() + "/" + s.getMaxWeight(), s.getEvictions(), s.getExpirations());
+        }
+        System.out.println();
+    }
+    
+    // Hires per year with a bar scaled to the busiest year
+    public void displayHiresPerYear(java.util.Map<Integer, Integer> hiresPerYear) {
+        System.out.println("\nHires per year:");
+        int max = 1;
+        for (int count : hiresPerYear.values()) {
+            max = Math.max(max, count);
+        }
+        for (java.util.Map.Entry<Integer, Integer> year : hiresPerYear.entrySet()) {
+            System.out.printf("%-6d %8d  %s\n", year.getKey(), year.getValue(), "#".repeat((int) ((long) year.getValue() * 40 / max)));
+        }
+        if (hiresPerYear.isEmpty()) {
+            System.out.println("No hire dates recorded.");
+        }
+        System.out.println();
+    }
+    
+    // Head count per tenure band; bounds are full years of service, the last band open-ended
+    public void displayTenureBands(int[] bounds, int[] counts) {
+        System.out.println("Tenure:");
+        for (int i = 0; i < bounds.length; i++) {
+            String band = i + 1 < bounds.length ? bounds[i] + "-" + bounds[i + 1] + " years" : bounds[i] + "+ years";
+            if (i == 0 && bounds[0] == 0 && bounds.length > 1) {
+                band = "under " + bounds[1] + (bounds[1] == 1 ? " year" : " years");
+            }
+            System.out.printf("%-16s %8d\n", band, counts[i]);
+        }
+        System.out.println();
+    }
+    
+    // Upcoming work anniversaries on or after from, in date order
+    public void displayAnniversaries(java.util.List<models.Employee> employees, java.time.LocalDate from) {
+        System.out.println("Upcoming work anniversaries:");
+        if (employees.isEmpty()) {
+            System.out.println("None.\n");
+            return;
+        }
+        System.out.printf("%-12s %-10s %-20s %-12s %s\n", "Date", "ID", "Name", "Hired", "Years");
+        for (models.Employee emp : employees) {
+            java.time.LocalDate hired = java.time.LocalDate.parse(emp.getHireDate());
+            java.time.LocalDate anniversary = dao.HireDateIndex.nextAnniversary(hired, from);
+            System.out.printf("%-12s %-10d %-20s %-12s %d\n", anniversary, emp.getEmpId(), emp.getFullName(),
+                emp.getHireDate(), anniversary.getYear() - hired.getYear());
+        }
+        System.out.println();
+    }
+    
+    public void displayPayrollGrouping(models.PayrollReport.Grouping grouping) {
+        java.util.List<models.PayrollReport.Dimension> dimensions = grouping.getDimensions();
+        StringBuilder title = new StringBuilder();
+        for (models.PayrollReport.Dimension dimension : dimensions) {
+            title.append(title.length() == 0 ? "" : " x ").append(dimension.getLabel());
+        }
+        System.out.println("\nPayroll by " + (dimensions.isEmpty() ? "Company" : title) + ":");
+        for (models.PayrollReport.Dimension dimension : dimensions) {
+            System.out.printf("%-25s ", dimension.getLabel());
+        }
+        System.out.printf("%7s %16s %13s %13s %13s\n", "Count", "Total Payroll", "Average", "Min", "Max");
+        for (int row = 0; row < grouping.getRowCount(); row++) {
+            for (int d = 0; d < dimensions.size(); d++) {
+                System.out.printf("%-25s ", grouping.getKey(row, d));
+            }
+            System.out.printf("%7d %16s %13s %13s %13s\n", grouping.getCount(row),
+                formatMoney(grouping.getTotalCents(row)), formatMoney(grouping.getAverageCents(row)),
+                formatMoney(grouping.getMinCents(row)), formatMoney(grouping.getMaxCents(row)));
+        }
+        System.out.println();
+    }
+
+    /**
+     * Displays pay totals per period; with runningTotal, also the cumulative total so far.
+     */
+    public void displayPayRollup(java.util.List<models.PayPeriodTotal> totals, boolean runningTotal) {
+        if (totals.isEmpty()) {
+            System.out.println("No payments in this range.\n");
+            return;
+        }
+        System.out.printf("%-10s %9s %16s%s\n", "Period", "Payments", "Earnings", runningTotal ? String.format(" %16s", "Year to Date") : "");
+        long cumulative = 0;
+        int payments = 0;
+        for (models.PayPeriodTotal total : totals) {
+            cumulative += total.getTotalCents();
+            payments += total.getPayments();
+            System.out.printf("%-10s %9d %16s%s\n", total.getLabel(), total.getPayments(), formatMoney(total.getTotalCents()),
+                runningTotal ? String.format(" %16s", formatMoney(cumulative)) : "");
+        }
+        System.out.printf("%-10s %9d %16s\n\n", "Total", payments, formatMoney(cumulative));
+    }
+
+    /**
+     * Displays the status and timing of each report in a concurrently generated pack.
+     */
+    public void displayReportPackStatus(services.ReportPackService.ReportPack pack) {
+        System.out.printf("%-40s %-10s %10s  %s\n", "Report", "Status", "Time ms", "Error");
+        long sequentialMillis = 0;
+        for (services.ReportPackService.ReportOutcome<?> outcome : pack.getOutcomes()) {
+            String time = outcome.getElapsedMillis() >= 0 ? String.valueOf(outcome.getElapsedMillis()) : "-";
+            System.out.printf("%-40s %-10s %10s  %s\n", outcome.getName(), outcome.getStatus(), time,
+                outcome.getError() != null ? outcome.getError() : "");
+            sequentialMillis += Math.max(0, outcome.getElapsedMillis());
+        }
+        System.out.printf("Finished in %d ms (reports took %d ms combined); %d of %d failed.\n\n",
+            pack.getElapsedMillis(), sequentialMillis, pack.getFailureCount(), pack.getOutcomes().size());
+    }
+
+    private static String formatMoney(long cents) {
+        return String.format("$%,.2f", models.PayrollReport.toDollars(cents));
+    }
+
     public void close() {
         scanner.close();
     }
@@ -0,0 +1,470 @@
+/**
+ * Bounded JDBC connection pool.
+ * Hands out physical connections wrapped in a proxy whose close() returns the connection
+ * to the pool instead of closing it, so callers can keep using try-with-resources.
+ * Connections are validated on borrow, evicted after sitting idle past the idle timeout,
+ * and reported as possible leaks when a borrower holds one longer than the leak threshold.
+ * A leak report names the borrowing thread; the borrower's stack trace is captured only
+ * when borrow sites are enabled, since filling one in on every borrow is not free.
+ * Each physical connection carries its own prepared-statement cache (see StatementCache).
+ */
+package utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ConnectionPool {
+    // Connections returned more recently than this are handed out again without a ping
+    private static final long VALIDATION_SKIP_WINDOW_MILLIS = 500;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final boolean captureBorrowSites;
+    private final int statementCacheSize;
+    private final StatementCache.Stats statementStats = new StatementCache.Stats();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final ArrayDeque<PooledEntry> idle = new ArrayDeque<>();
+    private final Set<PooledEntry> borrowed = new HashSet<>();
+    private final ScheduledExecutorService housekeeper;
+    private int totalCount;
+    private int waitingCount;
+    private long leaksDetected;
+    private boolean closed;
+
+    public ConnectionPool(String url, String username, String password, int minSize, int maxSize,
+                          long borrowTimeoutMillis, long idleTimeoutMillis, long leakThresholdMillis,
+                          boolean captureBorrowSites, int statementCacheSize) throws SQLException {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.captureBorrowSites = captureBorrowSites;
+        this.statementCacheSize = statementCacheSize;
+
+        // Open the minimum up front so a bad URL or password fails at startup, not on first use
+        for (int i = 0; i < minSize; i++) {
+            idle.addFirst(newEntry(openPhysicalConnection()));
+            totalCount++;
+        }
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "nexquery-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, Math.min(idleTimeoutMillis, leakThresholdMillis) / 2);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the borrow timeout when the pool is exhausted.
+     * Closing the returned connection hands it back to the pool.
+     */
+    public Connection getConnection() throws SQLException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+        while (true) {
+            PooledEntry entry;
+            boolean create = false;
+            lock.lock();
+            try {
+                while (!closed && idle.isEmpty() && totalCount >= maxSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new SQLTimeoutException("Timed out after " + borrowTimeoutMillis
+                            + " ms waiting for a database connection (active=" + borrowed.size()
+                            + ", max=" + maxSize + ", waiting=" + waitingCount + ")");
+                    }
+                    waitingCount++;
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection", e);
+                    } finally {
+                        waitingCount--;
+                    }
+                }
+                if (closed) {
+                    throw new SQLException("Connection pool is closed");
+                }
+                entry = idle.pollFirst();
+                if (entry == null) {
+                    totalCount++;
+                    create = true;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                try {
+                    entry = newEntry(openPhysicalConnection());
+                } catch (SQLException e) {
+                    discard(null);
+                    throw e;
+                }
+            } else if (!isValid(entry)) {
+                discard(entry);
+                continue;
+            }
+            return checkout(entry);
+        }
+    }
+
+    public int getActiveCount() {
+        lock.lock();
+        try {
+            return borrowed.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getIdleCount() {
+        lock.lock();
+        try {
+            return idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaitingCount() {
+        lock.lock();
+        try {
+            return waitingCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getTotalCount() {
+        lock.lock();
+        try {
+            return totalCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getLeaksDetected() {
+        lock.lock();
+        try {
+            return leaksDetected;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getStatementCacheHits() {
+        return statementStats.hits.sum();
+    }
+
+    public long getStatementCacheMisses() {
+        return statementStats.misses.sum();
+    }
+
+    public long getStatementCacheEvictions() {
+        return statementStats.evictions.sum();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            return "ConnectionPool[active=" + borrowed.size() + ", idle=" + idle.size() + ", waiting=" + waitingCount
+                + ", total=" + totalCount + ", max=" + maxSize + ", leaks=" + leaksDetected
+                + ", stmtCacheHits=" + statementStats.hits.sum() + ", stmtCacheMisses=" + statementStats.misses.sum() + "]";
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes idle connections and stops handing out new ones.
+     * Connections still borrowed are closed as they are returned.
+     */
+    public void close() {
+        List<PooledEntry> toClose;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            totalCount -= idle.size();
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        housekeeper.shutdownNow();
+        for (PooledEntry entry : toClose) {
+            closeQuietly(entry);
+        }
+    }
+
+    private PooledEntry newEntry(Connection connection) {
+        return new PooledEntry(connection, new StatementCache(connection, statementCacheSize, statementStats));
+    }
+
+    private Connection openPhysicalConnection() throws SQLException {
+        return DriverManager.getConnection(url, username, password);
+    }
+
+    private boolean isValid(PooledEntry entry) {
+        if (System.currentTimeMillis() - entry.lastReturnedAt < VALIDATION_SKIP_WINDOW_MILLIS) {
+            return true;
+        }
+        try {
+            return entry.connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection checkout(PooledEntry entry) {
+        String borrower = Thread.currentThread().getName();
+        // Built outside the lock; only a leak report ever reads it
+        Throwable borrowSite = captureBorrowSites ? new Throwable("Connection borrowed by " + borrower) : null;
+        lock.lock();
+        try {
+            entry.borrowedAt = System.currentTimeMillis();
+            entry.borrower = borrower;
+            entry.borrowSite = borrowSite;
+            entry.leakReported = false;
+            borrowed.add(entry);
+        } finally {
+            lock.unlock();
+        }
+        return (Connection) Proxy.newProxyInstance(
+            ConnectionPool.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            new PooledConnectionHandler(entry));
+    }
+
+    private void release(PooledEntry entry) {
+        boolean reusable = true;
+        entry.statements.releaseAll();
+        try {
+            if (!entry.connection.getAutoCommit()) {
+                // Never hand the next borrower someone else's half-finished transaction
+                entry.connection.rollback();
+                entry.connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+
+        lock.lock();
+        try {
+            borrowed.remove(entry);
+            entry.borrowSite = null;
+            entry.borrower = null;
+            if (reusable && !closed) {
+                entry.lastReturnedAt = System.currentTimeMillis();
+                idle.addFirst(entry);
+                available.signal();
+                return;
+            }
+            totalCount--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        closeQuietly(entry);
+    }
+
+    // Drops a connection that failed to open or failed validation
+    private void discard(PooledEntry entry) {
+        lock.lock();
+        try {
+            totalCount--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (entry != null) {
+            closeQuietly(entry);
+        }
+    }
+
+    private void housekeep() {
+        List<PooledEntry> expired = new ArrayList<>();
+        List<PooledEntry> leaked = new ArrayList<>();
+        int missing;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            // Oldest idle connections sit at the tail because returns go to the head
+            Iterator<PooledEntry> it = idle.descendingIterator();
+            while (it.hasNext() && totalCount > minSize) {
+                PooledEntry entry = it.next();
+                if (now - entry.lastReturnedAt < idleTimeoutMillis) {
+                    break;
+                }
+                it.remove();
+                totalCount--;
+                expired.add(entry);
+            }
+            for (PooledEntry entry : borrowed) {
+                if (!entry.leakReported && now - entry.borrowedAt > leakThresholdMillis) {
+                    entry.leakReported = true;
+                    leaksDetected++;
+                    leaked.add(entry);
+                }
+            }
+            missing = minSize - totalCount;
+            totalCount += Math.max(0, missing);
+        } finally {
+            lock.unlock();
+        }
+
+        for (PooledEntry entry : expired) {
+            closeQuietly(entry);
+        }
+        for (PooledEntry entry : leaked) {
+            Throwable site = entry.borrowSite;
+            System.err.println("WARNING: Possible connection leak - connection borrowed by " + entry.borrower
+                + " held for more than " + leakThresholdMillis + " ms."
+                + (site == null ? " Set -Dnexquery.pool.leakTraces=true to log where it was borrowed." : ""));
+            if (site != null) {
+                site.printStackTrace();
+            }
+        }
+        for (int i = 0; i < missing; i++) {
+            try {
+                PooledEntry entry = newEntry(openPhysicalConnection());
+                lock.lock();
+                try {
+                    if (closed) {
+                        totalCount--;
+                    } else {
+                        idle.addLast(entry);
+                        available.signal();
+                        entry = null;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                if (entry != null) {
+                    closeQuietly(entry);
+                }
+            } catch (SQLException e) {
+                discard(null);
+                System.err.println("Error replenishing connection pool: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void closeQuietly(PooledEntry entry) {
+        entry.statements.closeAll();
+        try {
+            entry.connection.close();
+        } catch (SQLException ignore) {
+        }
+    }
+
+    private static final class PooledEntry {
+        final Connection connection;
+        final StatementCache statements;
+        long lastReturnedAt;
+        long borrowedAt;
+        String borrower;
+        Throwable borrowSite;
+        boolean leakReported;
+
+        PooledEntry(Connection connection, StatementCache statements) {
+            this.connection = connection;
+            this.statements = statements;
+            this.lastReturnedAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Logical connection handed to callers. Each borrow gets its own handler so a
+     * handle kept after close() cannot touch a connection another caller now owns.
+     */
+    private final class PooledConnectionHandler implements InvocationHandler {
+        private final PooledEntry entry;
+        private boolean closed;
+
+        PooledConnectionHandler(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || entry.connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + entry.connection + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            if ("prepareStatement".equals(method.getName()) && args.length == 1) {
+                return entry.statements.prepare((String) args[0], (Connection) proxy);
+            }
+            try {
+                return method.invoke(entry.connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/**
+ * Buffered CSV writer over an NIO channel for large exports.
+ * Records are accumulated in a reusable character buffer and encoded to UTF-8 straight into
+ * a fixed byte buffer, so writing a row does not allocate per field. Output can be gzipped
+ * and split into several files once a row limit is reached; every file starts with the header.
+ */
+package utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import models.Employee;
+
+public class CsvChannelWriter implements Closeable {
+    private static final int CHAR_BUFFER_SIZE = 32 * 1024;
+    private static final int BYTE_BUFFER_SIZE = 128 * 1024;
+
+    private final Path basePath;
+    private final boolean gzip;
+    private final long maxRowsPerFile;
+    private final String header;
+
+    private final StringBuilder pending = new StringBuilder(CHAR_BUFFER_SIZE + 1024);
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(BYTE_BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final List<Path> files = new ArrayList<>();
+
+    private WritableByteChannel channel;
+    private long rowsInFile;
+    private long totalRows;
+
+    /**
+     * @param basePath output file; when splitting, parts are named base-00001.csv, base-00002.csv, ...
+     * @param gzip compress output (".gz" is appended to file names that lack it)
+     * @param maxRowsPerFile start a new file after this many data rows; 0 or less for a single file
+     * @param header header line written at the top of every file, without line end
+     */
+    public CsvChannelWriter(Path basePath, boolean gzip, long maxRowsPerFile, String header) {
+        this.basePath = basePath;
+        this.gzip = gzip;
+        this.maxRowsPerFile = maxRowsPerFile;
+        this.header = header;
+    }
+
+    public void write(Employee emp) throws IOException {
+        startRow();
+        CsvExportUtil.appendRow(pending, emp);
+        endRow();
+    }
+
+    /**
+     * Writes a record that has already been formatted, including its line end.
+     */
+    public void writeRecord(CharSequence record) throws IOException {
+        startRow();
+        pending.append(record);
+        endRow();
+    }
+
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    // Files written so far, in order
+    public List<Path> getFiles() {
+        return files;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel == null && files.isEmpty()) {
+            // Nothing written: still produce a file with just the header
+            openNextFile();
+        }
+        closeCurrentFile();
+    }
+
+    private void startRow() throws IOException {
+        if (channel == null || (maxRowsPerFile > 0 && rowsInFile >= maxRowsPerFile)) {
+            closeCurrentFile();
+            openNextFile();
+        }
+    }
+
+    private void endRow() throws IOException {
+        rowsInFile++;
+        totalRows++;
+        if (pending.length() >= CHAR_BUFFER_SIZE) {
+            drain(false);
+        }
+    }
+
+    private void openNextFile() throws IOException {
+        Path path = nextPath(files.size() + 1);
+        if (gzip) {
+            channel = Channels.newChannel(new GZIPOutputStream(Files.newOutputStream(path), BYTE_BUFFER_SIZE));
+        } else {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        }
+        files.add(path);
+        rowsInFile = 0;
+        encoder.reset();
+        pending.append(header).append(CsvExportUtil.LINE_END);
+    }
+
+    private void closeCurrentFile() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        try {
+            drain(true);
+        } finally {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    // Encodes the pending characters into the byte buffer, writing it to the channel whenever it fills
+    private void drain(boolean endOfFile) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(pending);
+        while (true) {
+            CoderResult result = encoder.encode(chars, bytes, endOfFile);
+            if (result.isOverflow()) {
+                flushBytes();
+                continue;
+            }
+            if (result.isError()) {
+                result.throwException();
+            }
+            break;
+        }
+        if (endOfFile) {
+            while (encoder.flush(bytes).isOverflow()) {
+                flushBytes();
+            }
+            flushBytes();
+        }
+        // Keep any unencoded tail (half of a surrogate pair) for the next drain
+        pending.delete(0, chars.position());
+    }
+
+    private void flushBytes() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+
+    private Path nextPath(int part) {
+        String name = basePath.getFileName().toString();
+        if (name.endsWith(".gz")) {
+            name = name.substring(0, name.length() - 3);
+        }
+        if (maxRowsPerFile > 0) {
+            String stem = name;
+            String extension = "";
+            int dot = name.lastIndexOf('.');
+            if (dot > 0) {
+                stem = name.substring(0, dot);
+                extension = name.substring(dot);
+            }
+            name = String.format("%s-%05d%s", stem, part, extension);
+        }
+        if (gzip && !name.endsWith(".gz")) {
+            name = name + ".gz";
+        }
+        return basePath.resolveSibling(name);
+    }
+}
@@ -1,27 +1,84 @@
 package utils;
 
+import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
 import models.Employee;
 
 public class CsvExportUtil {
+    public static final String HEADER = "ID,First Name,Last Name,Email,Salary,Hire Date,SSN,Occupation";
+    // RFC 4180 record separator
+    public static final String LINE_END = "\r\n";
+
     public static boolean exportEmployeeToCsv(Employee emp, String filePath) {
-        try (FileWriter writer = new FileWriter(filePath)) {
-            writer.write("ID,First Name,Last Name,Email,Salary,Hire Date,SSN,Occupation\n");
-            writer.write(String.format("%d,%s,%s,%s,%.2f,%s,%s,%s\n",
-                emp.getEmpId(),
-                emp.getFirstName(),
-                emp.getLastName(),
-                emp.getEmail(),
-                emp.getSalary(),
-                emp.getHireDate() != null ? emp.getHireDate() : "",
-                emp.getSSN() != null ? emp.getSSN() : "",
-                emp.getOccupation() != null ? emp.getOccupation() : ""
-            ));
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
+            StringBuilder sb = new StringBuilder(256);
+            sb.append(HEADER).append(LINE_END);
+            appendRow(sb, emp);
+            writer.append(sb);
             return true;
         } catch (IOException e) {
             System.err.println("Error exporting employee to CSV: " + e.getMessage());
             return false;
         }
     }
+
+    /**
+     * Appends one employee as a CSV record (including the line end) in HEADER column order.
+     */
+    public static void appendRow(StringBuilder sb, Employee emp) {
+        sb.append(emp.getEmpId()).append(',');
+        appendField(sb, emp.getFirstName()).append(',');
+        appendField(sb, emp.getLastName()).append(',');
+        appendField(sb, emp.getEmail()).append(',');
+        appendMoney(sb, emp.getSalary()).append(',');
+        appendField(sb, emp.getHireDate()).append(',');
+        appendField(sb, emp.getSSN()).append(',');
+        appendField(sb, emp.getOccupation()).append(LINE_END);
+    }
+
+    /**
+     * Appends a field, quoting it per RFC 4180 when it contains a comma, quote or line break.
+     * Null is written as an empty field.
+     */
+    public static StringBuilder appendField(StringBuilder sb, String value) {
+        if (value == null) {
+            return sb;
+        }
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                needsQuotes = true;
+                break;
+            }
+        }
+        if (!needsQuotes) {
+            return sb.append(value);
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                sb.append('"');
+            }
+            sb.append(c);
+        }
+        return sb.append('"');
+    }
+
+    // Appends an amount with exactly two decimals without going through String.format
+    public static StringBuilder appendMoney(StringBuilder sb, double amount) {
+        long cents = Math.round(amount * 100.0);
+        if (cents < 0) {
+            sb.append('-');
+            cents = -cents;
+        }
+        long fraction = cents % 100;
+        sb.append(cents / 100).append('.');
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        return sb.append(fraction);
+    }
 }
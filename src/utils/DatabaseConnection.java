@@ -1,27 +1,41 @@
 /**
  * Database connection utility class using Singleton pattern.
- * This class manages the MySQL database connection for the application.
- * Ensures only one database connection instance exists throughout the application.
+ * This class manages the MySQL database connection pool for the application.
+ * Ensures only one pool instance exists throughout the application; callers borrow a
+ * connection per operation and return it by closing it.
+ *
+ * Connection settings can be overridden with system properties, e.g.
+ * -Dnexquery.db.url=... -Dnexquery.pool.maxSize=20
  */
 package utils;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class DatabaseConnection {
     private static DatabaseConnection instance;
-    private Connection connection;
+    private final ConnectionPool pool;
     
     // Database credentials - UPDATE THESE WITH YOUR DATABASE INFO
-    private static final String URL = "jdbc:mysql://localhost:3306/Schema";
-    private static final String USERNAME = "root";
-    private static final String PASSWORD = ""; // Update with your MySQL password
+    private static final String URL = System.getProperty("nexquery.db.url", "jdbc:mysql://localhost:3306/Schema?useServerPrepStmts=true&useCursorFetch=true&rewriteBatchedStatements=true");
+    private static final String USERNAME = System.getProperty("nexquery.db.username", "root");
+    private static final String PASSWORD = System.getProperty("nexquery.db.password", ""); // Update with your MySQL password
+
+    // Pool settings
+    private static final int POOL_MIN_SIZE = Integer.getInteger("nexquery.pool.minSize", 2);
+    private static final int POOL_MAX_SIZE = Integer.getInteger("nexquery.pool.maxSize", 10);
+    private static final long BORROW_TIMEOUT_MS = Long.getLong("nexquery.pool.borrowTimeoutMs", 5_000L);
+    private static final long IDLE_TIMEOUT_MS = Long.getLong("nexquery.pool.idleTimeoutMs", 300_000L);
+    private static final long LEAK_THRESHOLD_MS = Long.getLong("nexquery.pool.leakThresholdMs", 60_000L);
+    // Record a stack trace on every borrow so leak warnings show the borrowing code (debugging only)
+    private static final boolean LEAK_TRACES = Boolean.getBoolean("nexquery.pool.leakTraces");
+    private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("nexquery.pool.statementCacheSize", 64);
     
     private DatabaseConnection() {
         try {
             Class.forName("com.mysql.cj.jdbc.Driver");
-            this.connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
+            this.pool = new ConnectionPool(URL, USERNAME, PASSWORD, POOL_MIN_SIZE, POOL_MAX_SIZE,
+                BORROW_TIMEOUT_MS, IDLE_TIMEOUT_MS, LEAK_THRESHOLD_MS, LEAK_TRACES, STATEMENT_CACHE_SIZE);
             System.out.println("Database connection established successfully.");
         } catch (ClassNotFoundException e) {
             System.err.println("ERROR: MySQL JDBC Driver not found.");
@@ -43,25 +57,26 @@ public class DatabaseConnection {
         }
     }
     
-    public static DatabaseConnection getInstance() {
+    public static synchronized DatabaseConnection getInstance() {
         if (instance == null) {
             instance = new DatabaseConnection();
         }
         return instance;
     }
     
-    public Connection getConnection() {
-        return connection;
+    /**
+     * Borrows a pooled connection. Close it (try-with-resources) to return it to the pool.
+     */
+    public Connection getConnection() throws SQLException {
+        return pool.getConnection();
+    }
+
+    public ConnectionPool getPool() {
+        return pool;
     }
     
     public void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("Database connection closed.");
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        pool.close();
+        System.out.println("Database connection closed.");
     }
 }
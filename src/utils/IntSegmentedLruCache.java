@@ -0,0 +1,148 @@
+/**
+ * SegmentedLruCache for primitive int keys.
+ * Same segmented-LRU eviction, TTL, weights and invalidation generations, but each shard
+ * finds its nodes through an IntObjectMap, so lookups neither box the key nor hash an
+ * Integer, and an entry costs one node instead of a node, a boxed key and a HashMap entry.
+ */
+package utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.ToLongFunction;
+
+public class IntSegmentedLruCache<V> extends SegmentedLruBase<V> {
+    private static final class IntNode<V> extends Node<V> {
+        final int key;
+
+        IntNode(int key) {
+            this.key = key;
+        }
+    }
+
+    private final class IntShard extends Shard<IntNode<V>> {
+        final IntObjectMap<IntNode<V>> nodes = new IntObjectMap<>();
+
+        IntShard(long maxWeight) {
+            super(maxWeight);
+        }
+
+        synchronized V get(int key, long now) {
+            return read(nodes.get(key), now);
+        }
+
+        synchronized void put(int key, V value, long now, long seenGeneration) {
+            if (!admits(seenGeneration)) {
+                return; // invalidated while the value was loading
+            }
+            long weight = weigher.applyAsLong(value);
+            IntNode<V> node = nodes.get(key);
+            if (weight > maxWeight) {
+                // Larger than the whole shard: caching it would only flush everything else
+                if (node != null) {
+                    remove(node);
+                }
+                return;
+            }
+            boolean added = node == null;
+            if (added) {
+                node = new IntNode<>(key);
+                nodes.put(key, node);
+            }
+            store(node, added, value, weight, now);
+        }
+
+        synchronized void invalidate(int key) {
+            IntNode<V> node = nodes.get(key);
+            if (node != null) {
+                remove(node);
+            }
+            generation++;
+        }
+
+        @Override
+        void unindex(IntNode<V> node) {
+            nodes.remove(node.key);
+        }
+
+        @Override
+        int indexSize() {
+            return nodes.size();
+        }
+
+        @Override
+        void clearIndex() {
+            nodes.clear();
+        }
+    }
+
+    private final List<IntShard> shards;
+
+    /**
+     * Cache holding at most maxEntries entries.
+     */
+    public IntSegmentedLruCache(long maxEntries, long ttlMillis) {
+        this(maxEntries, value -> 1L, ttlMillis);
+    }
+
+    /**
+     * Cache whose entries' weights, as given by weigher, add up to at most maxWeight.
+     * @param ttlMillis how long an entry may be served after it was stored
+     */
+    public IntSegmentedLruCache(long maxWeight, ToLongFunction<? super V> weigher, long ttlMillis) {
+        super(maxWeight, weigher, ttlMillis);
+        long[] shardWeights = shardWeights();
+        this.shards = new ArrayList<>(shardWeights.length);
+        for (long shardWeight : shardWeights) {
+            shards.add(new IntShard(shardWeight));
+        }
+    }
+
+    /**
+     * @return the cached value, or null if it is absent or has expired
+     */
+    public V get(int key) {
+        V value = shardFor(key).get(key, System.nanoTime());
+        countLookup(value);
+        return value;
+    }
+
+    /**
+     * Returns the cached value, calling loader and caching its result on a miss.
+     * The loader runs outside any lock, so two threads may load the same key at once.
+     * @return the value, or null if the loader returned null (which is not cached)
+     */
+    public V getOrLoad(int key, IntFunction<? extends V> loader) {
+        IntShard shard = shardFor(key);
+        V cached = shard.get(key, System.nanoTime());
+        countLookup(cached);
+        if (cached != null) {
+            return cached;
+        }
+        long seenGeneration = shard.generation();
+        V loaded = loader.apply(key);
+        if (loaded != null) {
+            shard.put(key, loaded, System.nanoTime(), seenGeneration);
+        }
+        return loaded;
+    }
+
+    public void put(int key, V value) {
+        if (value != null) {
+            shardFor(key).put(key, value, System.nanoTime(), -1);
+        }
+    }
+
+    public void invalidate(int key) {
+        shardFor(key).invalidate(key);
+    }
+
+    @Override
+    List<IntShard> shards() {
+        return shards;
+    }
+
+    private IntShard shardFor(int key) {
+        return shards.get(shardIndex(key));
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Loads generated workforce rows with JDBC batches.
+ * Each table has its own prepared statement; batches are sent parent tables first
+ * and committed together every BATCH_ROWS rows. With rewriteBatchedStatements=true
+ * (the default URL) MySQL receives each batch as multi-row INSERTs.
+ */
+package utils;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+public class JdbcWorkforceSink implements WorkforceGenerator.Sink {
+    private static final int BATCH_ROWS = 10_000;
+
+    private final Connection connection;
+    private final boolean previousAutoCommit;
+    private final PreparedStatement jobTitles;
+    private final PreparedStatement divisions;
+    private final PreparedStatement employees;
+    private final PreparedStatement employeeJobTitles;
+    private final PreparedStatement employeeDivisions;
+    private final PreparedStatement payroll;
+    // In dependency order, so links never reach the database before their employee
+    private final PreparedStatement[] flushOrder;
+    private final LocalDate[] dateCache = new LocalDate[1 << 16];
+    private int pendingRows;
+
+    public JdbcWorkforceSink(Connection connection) throws SQLException {
+        this.connection = connection;
+        this.previousAutoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        jobTitles = connection.prepareStatement("INSERT INTO job_titles (job_title_id, job_title) VALUES (?, ?)");
+        divisions = connection.prepareStatement("INSERT INTO division (ID, Name) VALUES (?, ?)");
+        employees = connection.prepareStatement(
+            "INSERT INTO employees (empid, Fname, Lname, Email, HireDate, Salary, SSN) VALUES (?, ?, ?, ?, ?, ?, ?)");
+        employeeJobTitles = connection.prepareStatement("INSERT INTO employee_job_titles (empid, job_title_id) VALUES (?, ?)");
+        employeeDivisions = connection.prepareStatement("INSERT INTO employee_division (empid, div_ID) VALUES (?, ?)");
+        payroll = connection.prepareStatement("INSERT INTO payroll (pay_date, empid, Earnings) VALUES (?, ?, ?)");
+        flushOrder = new PreparedStatement[] { jobTitles, divisions, employees, employeeJobTitles, employeeDivisions, payroll };
+    }
+
+    @Override
+    public void jobTitle(int jobTitleId, String title) throws SQLException {
+        jobTitles.setInt(1, jobTitleId);
+        jobTitles.setString(2, title);
+        add(jobTitles);
+    }
+
+    @Override
+    public void division(int divisionId, String name) throws SQLException {
+        divisions.setInt(1, divisionId);
+        divisions.setString(2, name);
+        add(divisions);
+    }
+
+    @Override
+    public void employee(int empId, String firstName, String lastName, String email, int hireEpochDay,
+                         long salaryCents, String ssn) throws SQLException {
+        employees.setInt(1, empId);
+        employees.setString(2, firstName);
+        employees.setString(3, lastName);
+        employees.setString(4, email);
+        employees.setObject(5, date(hireEpochDay));
+        employees.setBigDecimal(6, BigDecimal.valueOf(salaryCents, 2));
+        employees.setString(7, ssn);
+        add(employees);
+    }
+
+    @Override
+    public void employeeJobTitle(int empId, int jobTitleId) throws SQLException {
+        employeeJobTitles.setInt(1, empId);
+        employeeJobTitles.setInt(2, jobTitleId);
+        add(employeeJobTitles);
+    }
+
+    @Override
+    public void employeeDivision(int empId, int divisionId) throws SQLException {
+        employeeDivisions.setInt(1, empId);
+        employeeDivisions.setInt(2, divisionId);
+        add(employeeDivisions);
+    }
+
+    @Override
+    public void payroll(int empId, int payEpochDay, long earningsCents) throws SQLException {
+        payroll.setObject(1, date(payEpochDay));
+        payroll.setInt(2, empId);
+        payroll.setBigDecimal(3, BigDecimal.valueOf(earningsCents, 2));
+        add(payroll);
+    }
+
+    @Override
+    public void finish() throws SQLException {
+        try {
+            flush();
+        } finally {
+            for (PreparedStatement stmt : flushOrder) {
+                stmt.close();
+            }
+            connection.setAutoCommit(previousAutoCommit);
+        }
+    }
+
+    private void add(PreparedStatement stmt) throws SQLException {
+        stmt.addBatch();
+        if (++pendingRows >= BATCH_ROWS) {
+            flush();
+        }
+    }
+
+    private void flush() throws SQLException {
+        for (PreparedStatement stmt : flushOrder) {
+            stmt.executeBatch();
+        }
+        connection.commit();
+        pendingRows = 0;
+    }
+
+    // Dates repeat heavily (pay days, hire days), so reuse the LocalDate per epoch day
+    private LocalDate date(int epochDay) {
+        int slot = epochDay & (dateCache.length - 1);
+        LocalDate cached = dateCache[slot];
+        if (cached == null || cached.toEpochDay() != epochDay) {
+            cached = LocalDate.ofEpochDay(epochDay);
+            dateCache[slot] = cached;
+        }
+        return cached;
+    }
+}
@@ -0,0 +1,19 @@
+/**
+ * Interface for password hashing algorithms.
+ * Implementations produce self-describing stored hashes of the form
+ * "<id>$<parameters...>" so the algorithm and its cost travel with the hash
+ * and can be changed without invalidating existing passwords.
+ */
+package utils;
+
+public interface PasswordHasher {
+    // Prefix identifying this algorithm in stored hashes
+    String id();
+
+    String hash(String password);
+
+    boolean verify(String password, String storedHash);
+
+    // True if storedHash was produced by this algorithm but with weaker parameters than the current ones
+    boolean needsRehash(String storedHash);
+}
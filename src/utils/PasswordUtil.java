@@ -1,22 +1,108 @@
+/**
+ * Password hashing entry point.
+ * New hashes use the default algorithm (nexquery.password.algorithm, PBKDF2 unless
+ * changed); stored hashes are verified with whichever registered algorithm produced
+ * them, identified by the "<id>$" prefix. Bare 64-digit hex values are legacy
+ * unsalted SHA-256 hashes and always report needsRehash, unless the column they are
+ * stored in is too narrow for the default algorithm's hashes.
+ */
 package utils;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class PasswordUtil {
+    private static final Map<String, PasswordHasher> HASHERS = new ConcurrentHashMap<>();
+    private static final Sha256PasswordHasher LEGACY = new Sha256PasswordHasher();
+    // Length of every hash an algorithm produces with its current settings
+    private static final Map<PasswordHasher, Integer> HASH_LENGTHS = new ConcurrentHashMap<>();
+    private static volatile PasswordHasher defaultHasher;
+
+    static {
+        register(LEGACY);
+        register(new Pbkdf2PasswordHasher());
+        defaultHasher = HASHERS.getOrDefault(
+            System.getProperty("nexquery.password.algorithm", Pbkdf2PasswordHasher.ID),
+            HASHERS.get(Pbkdf2PasswordHasher.ID));
+    }
+
+    // Makes an algorithm available for verification under its id
+    public static void register(PasswordHasher hasher) {
+        HASHERS.put(hasher.id(), hasher);
+    }
+
+    public static void setDefaultHasher(PasswordHasher hasher) {
+        register(hasher);
+        defaultHasher = hasher;
+    }
+
+    public static PasswordHasher getDefaultHasher() {
+        return defaultHasher;
+    }
+
+    /**
+     * Hashes a password with the default algorithm, for storing.
+     */
+    public static String hash(String password) {
+        return defaultHasher.hash(password);
+    }
+
+    /**
+     * Hashes a password for a column holding at most maxLength characters: with the default
+     * algorithm, or as legacy SHA-256 (64 characters) if the default's hashes do not fit.
+     */
+    public static String hash(String password, int maxLength) {
+        return defaultHashFits(maxLength) ? hash(password) : LEGACY.hash(password);
+    }
+
+    /**
+     * True if hashes from the default algorithm fit in a column of maxLength characters.
+     */
+    public static boolean defaultHashFits(int maxLength) {
+        PasswordHasher hasher = defaultHasher;
+        return HASH_LENGTHS.computeIfAbsent(hasher, h -> h.hash("length-probe").length()) <= maxLength;
+    }
+
+    /**
+     * Checks a password against a stored hash in any registered format.
+     */
+    public static boolean verify(String password, String storedHash) {
+        if (password == null || storedHash == null) {
+            return false;
+        }
+        PasswordHasher hasher = hasherFor(storedHash);
+        return hasher != null && hasher.verify(password, storedHash);
+    }
+
+    /**
+     * True if the stored hash should be replaced by hash(password) after a successful verify,
+     * because it uses another algorithm or weaker parameters than the default.
+     */
+    public static boolean needsRehash(String storedHash) {
+        PasswordHasher hasher = storedHash != null ? hasherFor(storedHash) : null;
+        return hasher == null || hasher != defaultHasher || hasher.needsRehash(storedHash);
+    }
+
+    /**
+     * needsRehash for a hash stored in a column of maxLength characters: never true while
+     * the column is too narrow to hold a hash from the default algorithm.
+     */
+    public static boolean needsRehash(String storedHash, int maxLength) {
+        return defaultHashFits(maxLength) && needsRehash(storedHash);
+    }
+
+    /**
+     * Legacy unsalted SHA-256 hex hash. New passwords should be stored with hash(String).
+     */
     public static String hashPassword(String password) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] hash = md.digest(password.getBytes());
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Error hashing password", e);
+        return LEGACY.hash(password);
+    }
+
+    private static PasswordHasher hasherFor(String storedHash) {
+        int dollar = storedHash.indexOf('$');
+        if (dollar < 0) {
+            return Sha256PasswordHasher.isLegacyHash(storedHash) ? LEGACY : null;
         }
+        return HASHERS.get(storedHash.substring(0, dollar));
     }
 }
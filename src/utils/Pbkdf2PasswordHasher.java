@@ -0,0 +1,120 @@
+/**
+ * Salted, cost-tunable PBKDF2-HMAC-SHA256 password hashing.
+ * Stored format: pbkdf2-sha256$<iterations>$<base64 salt>$<base64 hash>.
+ * The iteration loop runs on a per-thread Mac instance into reused buffers, so
+ * hashing allocates nothing per iteration. Tune the cost with
+ * -Dnexquery.password.pbkdf2.iterations against the login latency budget
+ * (see benchmarks.PasswordHashingBenchmark).
+ */
+package utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+public class Pbkdf2PasswordHasher implements PasswordHasher {
+    public static final String ID = "pbkdf2-sha256";
+    public static final int DEFAULT_ITERATIONS = Integer.getInteger("nexquery.password.pbkdf2.iterations", 310_000);
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BYTES = 32; // one HMAC-SHA256 block
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder B64 = Base64.getEncoder().withoutPadding();
+    private static final Base64.Decoder B64_DECODER = Base64.getDecoder();
+    private static final ThreadLocal<Mac> MAC = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance("HmacSHA256");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    });
+
+    private final int iterations;
+
+    public Pbkdf2PasswordHasher() {
+        this(DEFAULT_ITERATIONS);
+    }
+
+    public Pbkdf2PasswordHasher(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("iterations must be positive");
+        }
+        this.iterations = iterations;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public String id() {
+        return ID;
+    }
+
+    @Override
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        byte[] hash = derive(password, salt, iterations);
+        return ID + '$' + iterations + '$' + B64.encodeToString(salt) + '$' + B64.encodeToString(hash);
+    }
+
+    @Override
+    public boolean verify(String password, String storedHash) {
+        String[] parts = storedHash.split("\\$");
+        if (parts.length != 4 || !ID.equals(parts[0])) {
+            return false;
+        }
+        try {
+            int storedIterations = Integer.parseInt(parts[1]);
+            byte[] salt = B64_DECODER.decode(parts[2]);
+            byte[] expected = B64_DECODER.decode(parts[3]);
+            return MessageDigest.isEqual(expected, derive(password, salt, storedIterations));
+        } catch (IllegalArgumentException e) {
+            return false; // malformed stored hash
+        }
+    }
+
+    @Override
+    public boolean needsRehash(String storedHash) {
+        String[] parts = storedHash.split("\\$");
+        if (parts.length != 4 || !ID.equals(parts[0])) {
+            return true;
+        }
+        try {
+            return Integer.parseInt(parts[1]) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    // PBKDF2 (RFC 8018) restricted to a single output block: T1 = U1 ^ U2 ^ ... ^ Uc
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        Mac mac = MAC.get();
+        byte[] key = password.getBytes(StandardCharsets.UTF_8);
+        try {
+            // HMAC zero-pads short keys, so a single zero byte is the same key as an empty one
+            mac.init(new SecretKeySpec(key.length > 0 ? key : new byte[1], "HmacSHA256"));
+            byte[] u = new byte[HASH_BYTES];
+            byte[] result = new byte[HASH_BYTES];
+            mac.update(salt);
+            mac.update(new byte[] { 0, 0, 0, 1 });
+            mac.doFinal(u, 0);
+            System.arraycopy(u, 0, result, 0, HASH_BYTES);
+            for (int i = 1; i < iterations; i++) {
+                mac.update(u);
+                mac.doFinal(u, 0);
+                for (int j = 0; j < HASH_BYTES; j++) {
+                    result[j] ^= u[j];
+                }
+            }
+            return result;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Error hashing password", e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * Per-thread deadline for database work.
+ * Code run through call() carries a deadline on its thread; every pooled prepared statement
+ * it executes gets the time left as its JDBC query timeout (rounded up to whole seconds, the
+ * unit JDBC allows), so the driver aborts a query that runs past the deadline instead of
+ * leaving it to finish after the caller has given up. Interrupting the thread cannot do
+ * that: JDBC calls blocked on the network ignore interrupts.
+ * A statement started after the deadline fails at once with SQLTimeoutException.
+ */
+package utils;
+
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.Callable;
+
+public final class QueryDeadline {
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private QueryDeadline() {
+    }
+
+    /**
+     * Runs task with statements bounded by deadlineNanos (a System.nanoTime() value).
+     * A deadline already set on this thread is kept if it is earlier.
+     */
+    public static <T> T call(long deadlineNanos, Callable<T> task) throws Exception {
+        Long previous = DEADLINE.get();
+        DEADLINE.set(previous != null && previous - deadlineNanos < 0 ? previous : deadlineNanos);
+        try {
+            return task.call();
+        } finally {
+            if (previous != null) {
+                DEADLINE.set(previous);
+            } else {
+                DEADLINE.remove();
+            }
+        }
+    }
+
+    /**
+     * Query timeout for a statement starting now.
+     * @return whole seconds left (at least 1), or 0 if this thread has no deadline
+     * @throws SQLTimeoutException if the deadline has already passed
+     */
+    static int remainingSeconds() throws SQLTimeoutException {
+        Long deadline = DEADLINE.get();
+        if (deadline == null) {
+            return 0;
+        }
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            throw new SQLTimeoutException("Deadline passed before the statement ran");
+        }
+        return (int) Math.min(Integer.MAX_VALUE, (remaining + 999_999_999L) / 1_000_000_000L);
+    }
+}
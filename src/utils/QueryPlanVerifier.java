@@ -0,0 +1,351 @@
+/**
+ * Checks that the data-access queries use indexes.
+ * Brings the schema up to date with SchemaMigrator, then calls every read path of the DAOs
+ * with sample arguments taken from the data. Each SQL statement a call executes is picked
+ * up from the thread's StatementTrace and EXPLAINed with the same bound parameters. A table
+ * read with a full scan (MySQL access type ALL, H2 tableScan) fails the check unless that
+ * call is meant to read the whole table, such as the full export or the payroll report.
+ * Tiny tables are always scanned, so run it against a realistic dataset: --seed N fills an
+ * empty database with N generated employees first.
+ * --writes also checks add, update, delete and salary adjustment, using a temporary
+ * employee (removed again, along with any left over from an interrupted run) and a 0%
+ * adjustment, so the data is unchanged afterwards. Exits with status 1 if any query falls
+ * back to a full scan. QueryPlanVerifierTest runs the same check on embedded H2.
+ * Usage: java utils.QueryPlanVerifier [--seed N] [--writes]
+ */
+package utils;
+
+import dao.EmployeeDAO;
+import dao.HireDateIndex;
+import dao.PayHistoryDAO;
+import dao.PayrollReportDAO;
+import dao.PayrollTotalsDAO;
+import dao.SalaryIndex;
+import dao.SchemaMigrator;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import models.Employee;
+import models.EmployeePage;
+import models.PayPeriodTotal;
+import models.PayrollReport;
+
+public class QueryPlanVerifier {
+    private static final Pattern TABLE_REFERENCE =
+        Pattern.compile("\\b(?:FROM|JOIN|UPDATE|INTO)\\s+(\\w+)(?:\\s+(?:AS\\s+)?(?!ON\\b|WHERE\\b|SET\\b|JOIN\\b|LEFT\\b|INNER\\b|GROUP\\b|ORDER\\b|VALUES\\b)(\\w+))?",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern H2_TABLE_SCAN = Pattern.compile("(\\w+)\\.(\\w+)\\.tableScan");
+    private static final int PROBE_EMP_ID = 2_000_000_000;
+
+    // A DAO call to check and the tables it is meant to read in full
+    @FunctionalInterface
+    interface Call {
+        void run() throws Exception;
+    }
+
+    private static class Probe {
+        final String name;
+        final Set<String> fullScansAllowed;
+        final Call call;
+
+        Probe(String name, Call call, String... fullScansAllowed) {
+            this.name = name;
+            this.call = call;
+            this.fullScansAllowed = new HashSet<>(Arrays.asList(fullScansAllowed));
+        }
+    }
+
+    // Values from the data so that the sample queries select realistic ranges
+    private static class Samples {
+        int empId;
+        String lastName;
+        String jobTitle;
+        LocalDate hireDate;
+        double salary;
+        LocalDate payDate;
+    }
+
+    private final DatabaseConnection database;
+    private boolean mysql;
+    private int failures;
+
+    public QueryPlanVerifier() {
+        this.database = DatabaseConnection.getInstance();
+    }
+
+    /**
+     * Runs every probe and prints its plan check.
+     * @return number of statements that fell back to a full scan, or -1 if the check could not run
+     */
+    public int verify(boolean includeWrites) throws SQLException {
+        Samples samples;
+        try (Connection connection = database.getConnection()) {
+            mysql = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql");
+            samples = readSamples(connection);
+        }
+        if (samples == null) {
+            System.err.println("No employees to sample; seed the database first (--seed N).");
+            return -1;
+        }
+        if (includeWrites) {
+            // A run stopped between the add and delete probes leaves the temporary employee behind
+            new EmployeeDAO().deleteEmployee(PROBE_EMP_ID);
+        }
+        failures = 0;
+        for (Probe probe : probes(samples, includeWrites)) {
+            check(probe);
+        }
+        return failures;
+    }
+
+    private List<Probe> probes(Samples s, boolean includeWrites) {
+        EmployeeDAO employees = new EmployeeDAO();
+        PayHistoryDAO payHistory = new PayHistoryDAO();
+        LocalDate hireTo = s.hireDate.plusDays(30);
+        LocalDate payFrom = s.payDate.minusMonths(6);
+        List<Probe> probes = new ArrayList<>(Arrays.asList(
+            new Probe("authenticate", () -> employees.authenticate(s.empId, s.lastName, s.hireDate.toString(), "000-00-0000")),
+            new Probe("authenticateByPassword", () -> employees.authenticateByPassword(s.empId, "not-the-password")),
+            new Probe("getEmployeeById", () -> employees.getEmployeeById(s.empId)),
+            new Probe("getEmployeesByJobTitle", () -> employees.getEmployeesByJobTitle(s.jobTitle)),
+            new Probe("getEmployeePage (title)", () -> employees.getEmployeePage(s.jobTitle, EmployeePage.START, 50)),
+            new Probe("getEmployeePage (all)", () -> employees.getEmployeePage(null, s.empId, 50)),
+            new Probe("getEmployeePageBefore", () -> employees.getEmployeePageBefore(null, s.empId, 50)),
+            new Probe("getEmployeesHiredInRange", () -> employees.forEachEmployeeHiredInRange(s.hireDate, hireTo, e -> { })),
+            new Probe("getEmployeesInSalaryRange", () -> employees.forEachEmployeeInSalaryRange(s.salary, s.salary + 500, e -> { })),
+            new Probe("forEachEmployeeById", () -> employees.forEachEmployeeById(new int[] { s.empId, s.empId + 1 }, e -> { })),
+            new Probe("getAllHRAdmins", employees::getAllHRAdmins),
+            new Probe("getAllJobTitles", employees::getAllJobTitles, "job_titles"),
+            new Probe("getEmployeePayHistory", () -> employees.getEmployeePayHistory(s.empId)),
+            new Probe("payRollup", () -> payHistory.getRollup(s.empId, payFrom, s.payDate, PayPeriodTotal.Granularity.MONTH)),
+            new Probe("payYearToDate", () -> payHistory.getYearToDate(s.empId, s.payDate)),
+            new Probe("payHistoryPage", () -> payHistory.getPage(s.empId, payFrom, s.payDate, null, 20)),
+            new Probe("previewSalaryAdjustment", () -> employees.previewSalaryAdjustment(s.salary, s.salary + 500, 20)),
+            new Probe("salaryAdjustmentDelta", () -> employees.getSalaryAdjustmentDelta(s.salary, s.salary + 500, 5)),
+            // Small summary tables read in full, plus the name lookups they join to
+            new Probe("payrollTotals", () -> {
+                PayrollTotalsDAO totals = new PayrollTotalsDAO();
+                totals.getPayrollByJobTitle();
+                totals.getPayrollByDivision();
+                totals.getGrouping(PayrollReport.Dimension.JOB_TITLE);
+                totals.getGrouping(PayrollReport.Dimension.DIVISION);
+            }, "payroll_title_totals", "payroll_division_totals", "job_titles", "division"),
+            // Whole-workforce reads by design: only the employees scan itself is allowed
+            new Probe("forEachEmployee", () -> employees.forEachEmployee(e -> { }), "employees"),
+            new Probe("livePayrollByJobTitle", employees::getLivePayrollByJobTitle, "employees", "employee_job_titles", "job_titles"),
+            new Probe("livePayrollByDivision", employees::getLivePayrollByDivision, "employees", "employee_division", "division"),
+            new Probe("payrollReport", () -> new PayrollReportDAO().buildReport(PayrollReportDAO.ALL_GROUPINGS),
+                "employees", "job_titles", "division"),
+            new Probe("hireDateIndexLoad", () -> {
+                HireDateIndex.getInstance().invalidate();
+                HireDateIndex.getInstance().size();
+            }, "employees"),
+            new Probe("salaryIndexLoad", () -> {
+                SalaryIndex.getInstance().invalidate();
+                SalaryIndex.getInstance().size();
+            }, "employees")
+        ));
+        if (includeWrites) {
+            Employee probe = new Employee(PROBE_EMP_ID, "Plan", "Probe", "plan.probe@example.com", s.salary,
+                s.hireDate.toString(), "000-00-0000", s.jobTitle);
+            probes.add(new Probe("addEmployee", () -> employees.addEmployee(probe, s.hireDate.toString(), "000-00-0000", s.salary)));
+            probes.add(new Probe("updateEmployee", () -> employees.updateEmployee(probe)));
+            probes.add(new Probe("deleteEmployee", () -> employees.deleteEmployee(PROBE_EMP_ID)));
+            probes.add(new Probe("adjustSalariesInRange", () -> employees.adjustSalariesInRange(s.salary, s.salary + 500, 0)));
+        }
+        return probes;
+    }
+
+    private void check(Probe probe) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            probe.call.run();
+        } catch (Exception e) {
+            System.out.printf("%-28s ERROR %s%n", probe.name, e);
+            failures++;
+            return;
+        }
+        Set<String> statements = new LinkedHashSet<>();
+        List<String> problems = new ArrayList<>();
+        try (Connection connection = database.getConnection()) {
+            for (StatementTrace.Entry statement : StatementTrace.since(start)) {
+                if (!statements.add(statement.sql) || !isExplainable(statement.sql)) {
+                    continue;
+                }
+                for (String table : fullScans(connection, statement)) {
+                    if (!probe.fullScansAllowed.contains(table)) {
+                        problems.add("full scan of " + table + " in: " + statement.sql);
+                    }
+                }
+            }
+        }
+        if (problems.isEmpty()) {
+            System.out.printf("%-28s ok (%d statement%s)%n", probe.name, statements.size(), statements.size() == 1 ? "" : "s");
+        } else {
+            System.out.printf("%-28s FULL SCAN%n", probe.name);
+            for (String problem : problems) {
+                System.out.println("    " + problem);
+            }
+            failures += problems.size();
+        }
+    }
+
+    // Tables the plan reads in full, by real table name (aliases resolved from the SQL)
+    private List<String> fullScans(Connection connection, StatementTrace.Entry statement) throws SQLException {
+        Map<String, String> tablesByAlias = tableAliases(statement.sql);
+        List<String> scanned = new ArrayList<>();
+        try (PreparedStatement stmt = connection.prepareStatement("EXPLAIN " + statement.sql)) {
+            for (int i = 0; i < statement.paramCount; i++) {
+                stmt.setObject(i + 1, statement.params[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                while (rs.next()) {
+                    if (mysql) {
+                        String type = rs.getString("type");
+                        String table = rs.getString("table");
+                        if ("ALL".equalsIgnoreCase(type) && table != null && !table.startsWith("<")) {
+                            scanned.add(tablesByAlias.getOrDefault(table.toLowerCase(Locale.ROOT), table.toLowerCase(Locale.ROOT)));
+                        }
+                    } else {
+                        StringBuilder plan = new StringBuilder();
+                        for (int c = 1; c <= meta.getColumnCount(); c++) {
+                            plan.append(rs.getString(c)).append('\n');
+                        }
+                        Matcher matcher = H2_TABLE_SCAN.matcher(plan);
+                        while (matcher.find()) {
+                            scanned.add(matcher.group(2).toLowerCase(Locale.ROOT));
+                        }
+                    }
+                }
+            }
+        }
+        return scanned;
+    }
+
+    private static Map<String, String> tableAliases(String sql) {
+        Map<String, String> aliases = new HashMap<>();
+        Matcher matcher = TABLE_REFERENCE.matcher(sql);
+        while (matcher.find()) {
+            String table = matcher.group(1).toLowerCase(Locale.ROOT);
+            aliases.put(table, table);
+            if (matcher.group(2) != null) {
+                aliases.put(matcher.group(2).toLowerCase(Locale.ROOT), table);
+            }
+        }
+        return aliases;
+    }
+
+    // Queries and updates have plans; DDL and single-row INSERT ... VALUES do not
+    private static boolean isExplainable(String sql) {
+        String verb = sql.trim().split("\\s+", 2)[0].toUpperCase(Locale.ROOT);
+        if ("INSERT".equals(verb)) {
+            return sql.toUpperCase(Locale.ROOT).contains("SELECT");
+        }
+        return "SELECT".equals(verb) || "UPDATE".equals(verb) || "DELETE".equals(verb);
+    }
+
+    private static Samples readSamples(Connection connection) throws SQLException {
+        Samples samples = new Samples();
+        String employee = "SELECT e.empid, e.Lname, e.HireDate, e.Salary, jt.job_title FROM employees e " +
+            "JOIN employee_job_titles ejt ON e.empid = ejt.empid JOIN job_titles jt ON ejt.job_title_id = jt.job_title_id " +
+            "WHERE e.empid >= (SELECT (MIN(empid) + MAX(empid)) / 2 FROM employees) AND e.HireDate IS NOT NULL " +
+            "ORDER BY e.empid LIMIT 1";
+        try (Statement stmt = connection.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery(employee)) {
+                if (!rs.next()) {
+                    return null;
+                }
+                samples.empId = rs.getInt("empid");
+                samples.lastName = rs.getString("Lname");
+                samples.hireDate = rs.getDate("HireDate").toLocalDate();
+                samples.salary = rs.getDouble("Salary");
+                samples.jobTitle = rs.getString("job_title");
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT MAX(pay_date) FROM payroll WHERE empid = " + samples.empId)) {
+                java.sql.Date payDate = rs.next() ? rs.getDate(1) : null;
+                samples.payDate = payDate != null ? payDate.toLocalDate() : LocalDate.now();
+            }
+        }
+        return samples;
+    }
+
+    // Fills an empty database with generated data so the optimizer sees realistic table sizes
+    private void seedIfEmpty(int employees) throws SQLException, IOException {
+        try (Connection connection = database.getConnection()) {
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM employees")) {
+                rs.next();
+                if (rs.getLong(1) > 0) {
+                    System.out.println("Database already has employees; not seeding.");
+                    return;
+                }
+            }
+            System.out.println("Seeding " + employees + " employees...");
+            new WorkforceGenerator(42L, employees).generate(new JdbcWorkforceSink(connection));
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute(mysql
+                    ? "ANALYZE TABLE employees, job_titles, employee_job_titles, division, employee_division, payroll"
+                    : "ANALYZE");
+            }
+        }
+        new PayrollTotalsDAO().rebuild();
+    }
+
+    /**
+     * Migrates the schema, seeds it with seed generated employees if it is empty (0 to skip)
+     * and checks every probe.
+     * @return number of statements that fell back to a full scan, or -1 if the check could not run
+     */
+    public static int run(int seed, boolean includeWrites) throws SQLException, IOException {
+        if (new SchemaMigrator().migrate() == null) {
+            return -1;
+        }
+        QueryPlanVerifier verifier = new QueryPlanVerifier();
+        try (Connection connection = verifier.database.getConnection()) {
+            verifier.mysql = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql");
+        }
+        if (seed > 0) {
+            verifier.seedIfEmpty(seed);
+        }
+        return verifier.verify(includeWrites);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int seed = 0;
+        boolean writes = false;
+        for (int i = 0; i < args.length; i++) {
+            if ("--seed".equals(args[i]) && i + 1 < args.length) {
+                seed = Integer.parseInt(args[++i]);
+            } else if ("--writes".equals(args[i])) {
+                writes = true;
+            } else {
+                System.err.println("Usage: java utils.QueryPlanVerifier [--seed N] [--writes]");
+                System.exit(2);
+            }
+        }
+        int fullScans = run(seed, writes);
+        if (fullScans != 0) {
+            System.out.println(fullScans < 0 ? "Plan check could not run." : fullScans + " statement(s) fell back to a full scan.");
+            System.exit(1);
+        }
+        System.out.println("All queries use indexes.");
+        System.exit(0);
+    }
+}
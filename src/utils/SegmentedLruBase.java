@@ -0,0 +1,257 @@
+/**
+ * Segmented-LRU bookkeeping shared by SegmentedLruCache and IntSegmentedLruCache.
+ * Each shard keeps its entries in two recency lists: new entries enter probation, and an
+ * entry read again is promoted to the protected segment, which holds up to 80% of the
+ * shard's capacity. Eviction takes the least recently used probation entry first. The
+ * subclasses differ only in how a shard finds the node for a key, so an int-keyed cache
+ * can index its nodes without boxing.
+ */
+package utils;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+abstract class SegmentedLruBase<V> {
+    // Share of each shard's capacity reserved for entries that were read at least twice
+    private static final double PROTECTED_SHARE = 0.8;
+    private static final int SHARDS = 16;
+
+    static class Node<V> {
+        V value;
+        long weight;
+        long expiresAt;
+        boolean protectedSegment;
+        Node<V> prev;
+        Node<V> next;
+    }
+
+    // Circular doubly linked list with a sentinel; head.next is the least recently used
+    private static final class Segment<V> {
+        final Node<V> head = new Node<>();
+        long weight;
+
+        Segment() {
+            head.prev = head;
+            head.next = head;
+        }
+
+        boolean isEmpty() {
+            return head.next == head;
+        }
+
+        Node<V> eldest() {
+            return head.next;
+        }
+
+        void addNewest(Node<V> node) {
+            node.prev = head.prev;
+            node.next = head;
+            head.prev.next = node;
+            head.prev = node;
+            weight += node.weight;
+        }
+
+        void unlink(Node<V> node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+            weight -= node.weight;
+        }
+
+        void clear() {
+            head.prev = head;
+            head.next = head;
+            weight = 0;
+        }
+    }
+
+    /**
+     * One independently locked part of the cache. Subclasses look nodes up by key and call
+     * read, store and remove while holding the shard's monitor.
+     */
+    abstract class Shard<N extends Node<V>> {
+        private final Segment<V> probation = new Segment<>();
+        private final Segment<V> protectedSegment = new Segment<>();
+        final long maxWeight;
+        private final long maxProtectedWeight;
+        long generation;
+
+        Shard(long maxWeight) {
+            this.maxWeight = maxWeight;
+            this.maxProtectedWeight = (long) (maxWeight * PROTECTED_SHARE);
+        }
+
+        // Drops the node from the subclass's key index
+        abstract void unindex(N node);
+
+        abstract int indexSize();
+
+        abstract void clearIndex();
+
+        // Value of a looked-up node (null if absent), dropping it once it has expired
+        V read(N node, long now) {
+            if (node == null) {
+                return null;
+            }
+            if (node.expiresAt <= now) {
+                remove(node);
+                expirations.increment();
+                return null;
+            }
+            touch(node);
+            return node.value;
+        }
+
+        // False if the shard was invalidated since seenGeneration (-1 skips the check)
+        boolean admits(long seenGeneration) {
+            return seenGeneration == -1 || seenGeneration == generation;
+        }
+
+        /**
+         * Stores value in node: a new node (already indexed by the caller) enters probation,
+         * an existing one is refreshed and counts as read. Evicts to stay within capacity.
+         */
+        void store(N node, boolean added, V value, long weight, long now) {
+            if (!added) {
+                segmentOf(node).unlink(node);
+            }
+            node.value = value;
+            node.weight = weight;
+            node.expiresAt = now + ttlNanos;
+            if (added) {
+                probation.addNewest(node);
+            } else {
+                segmentOf(node).addNewest(node);
+                touch(node);
+            }
+            evictOverflow();
+        }
+
+        void remove(N node) {
+            segmentOf(node).unlink(node);
+            unindex(node);
+        }
+
+        synchronized void clear() {
+            clearIndex();
+            probation.clear();
+            protectedSegment.clear();
+            generation++;
+        }
+
+        synchronized long generation() {
+            return generation;
+        }
+
+        synchronized int size() {
+            return indexSize();
+        }
+
+        synchronized long weight() {
+            return probation.weight + protectedSegment.weight;
+        }
+
+        // Records a read: probation entries are promoted, protected ones become the newest
+        private void touch(Node<V> node) {
+            segmentOf(node).unlink(node);
+            node.protectedSegment = true;
+            protectedSegment.addNewest(node);
+            while (protectedSegment.weight > maxProtectedWeight && protectedSegment.eldest() != node) {
+                Node<V> demoted = protectedSegment.eldest();
+                protectedSegment.unlink(demoted);
+                demoted.protectedSegment = false;
+                probation.addNewest(demoted);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void evictOverflow() {
+            while (probation.weight + protectedSegment.weight > maxWeight) {
+                // Every node in this shard's segments was stored through store(N, ...)
+                N victim = (N) (!probation.isEmpty() ? probation.eldest() : protectedSegment.eldest());
+                remove(victim);
+                evictions.increment();
+            }
+        }
+
+        private Segment<V> segmentOf(Node<V> node) {
+            return node.protectedSegment ? protectedSegment : probation;
+        }
+    }
+
+    final ToLongFunction<? super V> weigher;
+    final long maxWeight;
+    final long ttlNanos;
+    final LongAdder hits = new LongAdder();
+    final LongAdder misses = new LongAdder();
+    final LongAdder evictions = new LongAdder();
+    final LongAdder expirations = new LongAdder();
+
+    SegmentedLruBase(long maxWeight, ToLongFunction<? super V> weigher, long ttlMillis) {
+        if (maxWeight < 1 || ttlMillis < 1) {
+            throw new IllegalArgumentException("maxWeight and ttlMillis must be positive");
+        }
+        this.weigher = weigher;
+        this.maxWeight = maxWeight;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+    }
+
+    abstract List<? extends Shard<?>> shards();
+
+    // Capacity of each shard; small caches get fewer shards so that every shard can still hold a few entries
+    final long[] shardWeights() {
+        int shardCount = (int) Math.min(SHARDS, Math.max(1, maxWeight / 64));
+        long[] weights = new long[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            weights[i] = maxWeight / shardCount + (i < maxWeight % shardCount ? 1 : 0);
+        }
+        return weights;
+    }
+
+    // Shard index for a key hash
+    final int shardIndex(int hash) {
+        int h = hash ^ (hash >>> 16);
+        return (h & 0x7fffffff) % shards().size();
+    }
+
+    final void countLookup(Object value) {
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+    }
+
+    public void clear() {
+        for (Shard<?> shard : shards()) {
+            shard.clear();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Shard<?> shard : shards()) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    public SegmentedLruCache.Stats getStats() {
+        long size = 0;
+        long weight = 0;
+        for (Shard<?> shard : shards()) {
+            size += shard.size();
+            weight += shard.weight();
+        }
+        return new SegmentedLruCache.Stats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), size, weight, maxWeight);
+    }
+
+    public void resetStats() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+        expirations.reset();
+    }
+}
@@ -0,0 +1,216 @@
+/**
+ * Bounded in-memory cache with segmented-LRU eviction and a time-to-live.
+ * New entries enter a probation segment; an entry read again is promoted to a protected
+ * segment holding up to 80% of the capacity, so a one-off scan over many keys only
+ * flushes probation and never pushes out the entries that are read repeatedly. Capacity is
+ * a total weight: one per entry by default, or e.g. estimated bytes through a weigher.
+ * Keys are spread over independently locked shards so concurrent readers rarely contend.
+ *
+ * getOrLoad counts an invalidation generation per shard, so a load that raced an
+ * invalidate or clear of the same shard is returned to its caller but not cached.
+ * Null values are never cached, which lets a loader report an error by returning null.
+ * The eviction bookkeeping lives in SegmentedLruBase; IntSegmentedLruCache is the same
+ * cache for primitive int keys.
+ */
+package utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+public class SegmentedLruCache<K, V> extends SegmentedLruBase<V> {
+    /**
+     * Point-in-time cache counters.
+     */
+    public static class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long expirations;
+        private final long size;
+        private final long weight;
+        private final long maxWeight;
+
+        public Stats(long hits, long misses, long evictions, long expirations, long size, long weight, long maxWeight) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.size = size;
+            this.weight = weight;
+            this.maxWeight = maxWeight;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        // Entries dropped to stay within the capacity
+        public long getEvictions() {
+            return evictions;
+        }
+
+        // Entries dropped because they outlived the TTL
+        public long getExpirations() {
+            return expirations;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getWeight() {
+            return weight;
+        }
+
+        public long getMaxWeight() {
+            return maxWeight;
+        }
+
+        public double getHitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0.0 : (double) hits / requests;
+        }
+    }
+
+    private static final class KeyedNode<K, V> extends Node<V> {
+        final K key;
+
+        KeyedNode(K key) {
+            this.key = key;
+        }
+    }
+
+    private final class KeyedShard extends Shard<KeyedNode<K, V>> {
+        final Map<K, KeyedNode<K, V>> nodes = new HashMap<>();
+
+        KeyedShard(long maxWeight) {
+            super(maxWeight);
+        }
+
+        synchronized V get(K key, long now) {
+            return read(nodes.get(key), now);
+        }
+
+        synchronized void put(K key, V value, long now, long seenGeneration) {
+            if (!admits(seenGeneration)) {
+                return; // invalidated while the value was loading
+            }
+            long weight = weigher.applyAsLong(value);
+            KeyedNode<K, V> node = nodes.get(key);
+            if (weight > maxWeight) {
+                // Larger than the whole shard: caching it would only flush everything else
+                if (node != null) {
+                    remove(node);
+                }
+                return;
+            }
+            boolean added = node == null;
+            if (added) {
+                node = new KeyedNode<>(key);
+                nodes.put(key, node);
+            }
+            store(node, added, value, weight, now);
+        }
+
+        synchronized void invalidate(K key) {
+            KeyedNode<K, V> node = nodes.get(key);
+            if (node != null) {
+                remove(node);
+            }
+            generation++;
+        }
+
+        @Override
+        void unindex(KeyedNode<K, V> node) {
+            nodes.remove(node.key);
+        }
+
+        @Override
+        int indexSize() {
+            return nodes.size();
+        }
+
+        @Override
+        void clearIndex() {
+            nodes.clear();
+        }
+    }
+
+    private final List<KeyedShard> shards;
+
+    /**
+     * Cache holding at most maxEntries entries.
+     */
+    public SegmentedLruCache(long maxEntries, long ttlMillis) {
+        this(maxEntries, value -> 1L, ttlMillis);
+    }
+
+    /**
+     * Cache whose entries' weights, as given by weigher, add up to at most maxWeight.
+     * @param ttlMillis how long an entry may be served after it was stored
+     */
+    public SegmentedLruCache(long maxWeight, ToLongFunction<? super V> weigher, long ttlMillis) {
+        super(maxWeight, weigher, ttlMillis);
+        long[] shardWeights = shardWeights();
+        this.shards = new ArrayList<>(shardWeights.length);
+        for (long shardWeight : shardWeights) {
+            shards.add(new KeyedShard(shardWeight));
+        }
+    }
+
+    /**
+     * @return the cached value, or null if it is absent or has expired
+     */
+    public V get(K key) {
+        V value = shardFor(key).get(key, System.nanoTime());
+        countLookup(value);
+        return value;
+    }
+
+    /**
+     * Returns the cached value, calling loader and caching its result on a miss.
+     * The loader runs outside any lock, so two threads may load the same key at once.
+     * @return the value, or null if the loader returned null (which is not cached)
+     */
+    public V getOrLoad(K key, Function<? super K, ? extends V> loader) {
+        KeyedShard shard = shardFor(key);
+        V cached = shard.get(key, System.nanoTime());
+        countLookup(cached);
+        if (cached != null) {
+            return cached;
+        }
+        long seenGeneration = shard.generation();
+        V loaded = loader.apply(key);
+        if (loaded != null) {
+            shard.put(key, loaded, System.nanoTime(), seenGeneration);
+        }
+        return loaded;
+    }
+
+    public void put(K key, V value) {
+        if (value != null) {
+            shardFor(key).put(key, value, System.nanoTime(), -1);
+        }
+    }
+
+    public void invalidate(K key) {
+        shardFor(key).invalidate(key);
+    }
+
+    @Override
+    List<KeyedShard> shards() {
+        return shards;
+    }
+
+    private KeyedShard shardFor(K key) {
+        return shards.get(shardIndex(key.hashCode()));
+    }
+}
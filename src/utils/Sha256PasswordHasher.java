@@ -0,0 +1,71 @@
+/**
+ * Legacy unsalted SHA-256 password hashing, stored as 64 lowercase hex characters.
+ * Kept only so existing passwords still verify; they are upgraded to the default
+ * algorithm at the next successful login. Digest instances are reused per thread.
+ */
+package utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+public class Sha256PasswordHasher implements PasswordHasher {
+    public static final String ID = "sha256";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    @Override
+    public String id() {
+        return ID;
+    }
+
+    @Override
+    public String hash(String password) {
+        MessageDigest md = DIGEST.get();
+        byte[] hash = md.digest(password.getBytes(StandardCharsets.UTF_8));
+        return toHex(hash);
+    }
+
+    @Override
+    public boolean verify(String password, String storedHash) {
+        byte[] expected = storedHash.getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = hash(password).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    // Unsalted hashes should always be replaced
+    @Override
+    public boolean needsRehash(String storedHash) {
+        return true;
+    }
+
+    // Legacy hashes carry no prefix: exactly 64 hex digits
+    public static boolean isLegacyHash(String storedHash) {
+        if (storedHash == null || storedHash.length() != 64) {
+            return false;
+        }
+        for (int i = 0; i < storedHash.length(); i++) {
+            if (Character.digit(storedHash.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String toHex(byte[] bytes) {
+        char[] out = new char[bytes.length * 2];
+        for (int i = 0, j = 0; i < bytes.length; i++) {
+            int b = bytes[i] & 0xff;
+            out[j++] = HEX[b >>> 4];
+            out[j++] = HEX[b & 0x0f];
+        }
+        return new String(out);
+    }
+}
@@ -0,0 +1,247 @@
+/**
+ * Slow-query log for the data-access layer.
+ * When an operation takes at least the threshold (nexquery.slowQuery.thresholdMs, default
+ * 500; negative disables), an entry with the operation, elapsed time, rows, caller and
+ * every statement it executed (SQL, execution time, bound parameters) is written to a
+ * rotating log (nexquery.slowQuery.file, default nexquery-slow-%g.log; 10 MB x 5 files).
+ * Parameters bound to SSN or password columns, and anything shaped like an SSN, are
+ * redacted. The first time a statement shape is seen slow, its EXPLAIN plan is captured
+ * in the background on a separate pooled connection.
+ * Singleton; the check on the fast path is a single comparison.
+ */
+package utils;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class SlowQueryLog {
+    private static final long DEFAULT_THRESHOLD_MS = Long.getLong("nexquery.slowQuery.thresholdMs", 500L);
+    private static final String LOG_FILE = System.getProperty("nexquery.slowQuery.file", "nexquery-slow-%g.log");
+    private static final int LOG_FILE_LIMIT_BYTES = 10 * 1024 * 1024;
+    private static final int LOG_FILE_COUNT = 5;
+    private static final int MAX_PARAM_LENGTH = 100;
+    private static final String REDACTED = "<redacted>";
+    private static final Pattern SSN = Pattern.compile("\\b\\d{3}-?\\d{2}-?\\d{4}\\b");
+    private static final Pattern INSERT_COLUMNS = Pattern.compile(
+        "(?is)^\\s*INSERT\\s+INTO\\s+[\\w.`]+\\s*\\(([^)]*)\\)\\s*VALUES\\s*\\(");
+    private static final Pattern COMPARED_COLUMN = Pattern.compile(
+        "(?is)([\\w.`]+)\\s*(?:=|<>|!=|<=|>=|<|>|\\bLIKE\\b|\\bIN\\s*\\(|\\bBETWEEN\\b)\\s*$");
+    private static final Pattern BETWEEN_UPPER = Pattern.compile("(?is)([\\w.`]+)\\s+BETWEEN\\s+\\?\\s+AND\\s*$");
+
+    private static SlowQueryLog instance;
+
+    private final Logger logger = Logger.getLogger("nexquery.slowquery");
+    private final Set<String> explainedShapes = ConcurrentHashMap.newKeySet();
+    private final Map<String, String[]> parameterColumns = new ConcurrentHashMap<>();
+    private final ExecutorService explainer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "nexquery-slow-query-explain");
+        t.setDaemon(true);
+        return t;
+    });
+    private volatile long thresholdNanos;
+
+    private SlowQueryLog() {
+        setThresholdMillis(DEFAULT_THRESHOLD_MS);
+        logger.setUseParentHandlers(false);
+        try {
+            Handler handler = new FileHandler(LOG_FILE, LOG_FILE_LIMIT_BYTES, LOG_FILE_COUNT, true);
+            handler.setFormatter(new EntryFormatter());
+            logger.addHandler(handler);
+        } catch (IOException e) {
+            System.err.println("Error opening slow-query log " + LOG_FILE + ": " + e.getMessage());
+        }
+    }
+
+    public static synchronized SlowQueryLog getInstance() {
+        if (instance == null) {
+            instance = new SlowQueryLog();
+        }
+        return instance;
+    }
+
+    // Negative disables the log; 0 logs every operation
+    public void setThresholdMillis(long thresholdMillis) {
+        this.thresholdNanos = thresholdMillis < 0 ? Long.MAX_VALUE : thresholdMillis * 1_000_000L;
+    }
+
+    public long getThresholdMillis() {
+        return thresholdNanos == Long.MAX_VALUE ? -1 : thresholdNanos / 1_000_000L;
+    }
+
+    public Logger getLogger() {
+        return logger;
+    }
+
+    /**
+     * Called at the end of every data-access operation; writes an entry if it was slow.
+     * @param startNanos System.nanoTime() when the operation began
+     * @param rows rows returned or affected, or -1 if it failed
+     */
+    public void record(String operation, long startNanos, long elapsedNanos, long rows) {
+        if (elapsedNanos < thresholdNanos) {
+            return;
+        }
+        List<StatementTrace.Entry> statements = StatementTrace.since(startNanos);
+        StringBuilder entry = new StringBuilder(512);
+        entry.append("SLOW ").append(operation)
+            .append(String.format(Locale.ROOT, " %.1f ms", elapsedNanos / 1e6))
+            .append(rows < 0 ? ", failed" : ", " + rows + " row(s)")
+            .append(", caller ").append(caller()).append('\n');
+        for (StatementTrace.Entry statement : statements) {
+            entry.append(String.format(Locale.ROOT, "  [%.1f ms] ", statement.elapsedNanos / 1e6))
+                .append(statement.sql).append('\n');
+            if (statement.paramCount > 0) {
+                entry.append("    params: ");
+                appendParams(entry, statement);
+                entry.append('\n');
+            }
+        }
+        logger.warning(entry.toString());
+        for (StatementTrace.Entry statement : statements) {
+            if (explainedShapes.add(statement.sql)) {
+                explainer.execute(() -> explain(statement));
+            }
+        }
+    }
+
+    private void appendParams(StringBuilder sb, StatementTrace.Entry statement) {
+        String[] columns = parameterColumns.computeIfAbsent(statement.sql, SlowQueryLog::parameterColumns);
+        sb.append('[');
+        for (int i = 0; i < statement.paramCount; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            String column = i < columns.length ? columns[i] : null;
+            sb.append(column != null ? column + "=" : "").append(redact(column, statement.params[i]));
+        }
+        sb.append(']');
+    }
+
+    static String redact(String column, Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (column != null) {
+            String name = column.toLowerCase(Locale.ROOT);
+            if (name.contains("ssn") || name.contains("password")) {
+                return REDACTED;
+            }
+        }
+        String text = value.toString();
+        if (text.length() > MAX_PARAM_LENGTH) {
+            text = text.substring(0, MAX_PARAM_LENGTH) + "...";
+        }
+        text = SSN.matcher(text).replaceAll(REDACTED);
+        return value instanceof CharSequence ? "'" + text + "'" : text;
+    }
+
+    /**
+     * Best-effort name of the column each '?' is bound to, from INSERT column lists and
+     * "column <op> ?" comparisons. Unknown positions are null.
+     */
+    static String[] parameterColumns(String sql) {
+        int count = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            if (sql.charAt(i) == '?') {
+                count++;
+            }
+        }
+        String[] columns = new String[count];
+        Matcher insert = INSERT_COLUMNS.matcher(sql);
+        if (insert.find()) {
+            String[] names = insert.group(1).split(",");
+            for (int i = 0; i < Math.min(names.length, count); i++) {
+                columns[i] = unqualified(names[i].trim());
+            }
+            return columns;
+        }
+        int index = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            if (sql.charAt(i) != '?') {
+                continue;
+            }
+            String before = sql.substring(0, i);
+            Matcher compared = COMPARED_COLUMN.matcher(before);
+            Matcher between = BETWEEN_UPPER.matcher(before);
+            if (compared.find()) {
+                columns[index] = unqualified(compared.group(1));
+            } else if (between.find()) {
+                columns[index] = unqualified(between.group(1));
+            }
+            index++;
+        }
+        return columns;
+    }
+
+    private static String unqualified(String column) {
+        String name = column.replace("`", "");
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    // First frame outside the data-access and pooling code
+    private static String caller() {
+        return StackWalker.getInstance().walk(frames -> frames
+            .filter(f -> !f.getClassName().startsWith("utils.") && !f.getClassName().startsWith("dao."))
+            .findFirst()
+            .map(f -> f.getClassName() + "." + f.getMethodName() + ":" + f.getLineNumber())
+            .orElse("unknown"));
+    }
+
+    private void explain(StatementTrace.Entry statement) {
+        StringBuilder plan = new StringBuilder(256);
+        plan.append("EXPLAIN ").append(statement.sql).append('\n');
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement("EXPLAIN " + statement.sql)) {
+            for (int i = 0; i < statement.paramCount; i++) {
+                stmt.setObject(i + 1, statement.params[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                int columns = meta.getColumnCount();
+                plan.append("  ");
+                for (int c = 1; c <= columns; c++) {
+                    plan.append(c > 1 ? " | " : "").append(meta.getColumnLabel(c));
+                }
+                plan.append('\n');
+                while (rs.next()) {
+                    plan.append("  ");
+                    for (int c = 1; c <= columns; c++) {
+                        plan.append(c > 1 ? " | " : "").append(rs.getString(c));
+                    }
+                    plan.append('\n');
+                }
+            }
+            logger.info(plan.toString());
+        } catch (SQLException | RuntimeException e) {
+            logger.log(Level.INFO, plan.append("  (plan unavailable: ").append(e.getMessage()).append(")\n").toString());
+        }
+    }
+
+    // One entry per record: timestamp, then the message as built above
+    private static final class EntryFormatter extends Formatter {
+        @Override
+        public String format(LogRecord record) {
+            return Instant.ofEpochMilli(record.getMillis()) + " " + record.getMessage() + System.lineSeparator();
+        }
+    }
+}
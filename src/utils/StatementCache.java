@@ -0,0 +1,317 @@
+/**
+ * LRU cache of prepared statements bound to one physical connection.
+ * Statements are keyed by their SQL text so the driver only parses and plans each
+ * query once per connection. Callers receive a proxy whose close() clears the
+ * parameters, restores the fetch size, max rows and query timeout, and hands the statement
+ * back to the cache instead of closing it. Statements that cannot be cached (caching off,
+ * or the same SQL already checked out) get the same proxy but are really closed.
+ * Bound parameters and execution times are recorded in the thread's StatementTrace for
+ * the slow-query log, and a QueryDeadline on the thread becomes the statement's query
+ * timeout before each execution.
+ * Only used by ConnectionPool, which guarantees a single borrower per connection.
+ */
+package utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+class StatementCache {
+    private final Connection connection;
+    private final int maxSize;
+    private final Stats stats;
+    // Access-ordered, so iteration starts at the least recently used statement
+    private final LinkedHashMap<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+    private final List<CachedStatement> pendingClose = new ArrayList<>();
+    // Checked-out statements that were never cached; closed when handed back
+    private final List<CachedStatement> uncached = new ArrayList<>();
+
+    StatementCache(Connection connection, int maxSize, Stats stats) {
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.stats = stats;
+    }
+
+    /**
+     * Returns a statement for the given SQL, reusing the cached one when it is not already
+     * checked out. A second concurrent use of the same SQL on this connection gets a plain,
+     * uncached statement.
+     */
+    PreparedStatement prepare(String sql, Connection logicalConnection) throws SQLException {
+        CachedStatement cached = maxSize > 0 ? statements.get(sql) : null;
+        if (maxSize <= 0 || (cached != null && cached.inUse)) {
+            CachedStatement single = new CachedStatement(sql, connection.prepareStatement(sql), false);
+            single.inUse = true;
+            uncached.add(single);
+            return single.checkout(logicalConnection);
+        }
+        if (cached != null) {
+            stats.hits.increment();
+        } else {
+            stats.misses.increment();
+            cached = new CachedStatement(sql, connection.prepareStatement(sql), true);
+            statements.put(sql, cached);
+            evictIfNeeded();
+        }
+        cached.inUse = true;
+        return cached.checkout(logicalConnection);
+    }
+
+    /**
+     * Called when the connection goes back to the pool: anything the borrower forgot to
+     * close is reset so the next borrower starts clean.
+     */
+    void releaseAll() {
+        List<CachedStatement> open = new ArrayList<>(pendingClose);
+        open.addAll(uncached);
+        for (CachedStatement cached : statements.values()) {
+            if (cached.inUse) {
+                open.add(cached);
+            }
+        }
+        for (CachedStatement cached : open) {
+            cached.reset();
+        }
+    }
+
+    void closeAll() {
+        for (CachedStatement cached : statements.values()) {
+            closeQuietly(cached.statement);
+        }
+        statements.clear();
+        closePending();
+        for (CachedStatement single : uncached) {
+            closeQuietly(single.statement);
+        }
+        uncached.clear();
+    }
+
+    int size() {
+        return statements.size();
+    }
+
+    private void evictIfNeeded() {
+        Iterator<CachedStatement> it = statements.values().iterator();
+        while (statements.size() > maxSize && it.hasNext()) {
+            CachedStatement eldest = it.next();
+            it.remove();
+            stats.evictions.increment();
+            if (eldest.inUse) {
+                // Still being executed by the borrower; close it once it is handed back
+                pendingClose.add(eldest);
+            } else {
+                closeQuietly(eldest.statement);
+            }
+        }
+    }
+
+    private void closePending() {
+        for (CachedStatement cached : pendingClose) {
+            closeQuietly(cached.statement);
+        }
+        pendingClose.clear();
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignore) {
+        }
+    }
+
+    /**
+     * Hit, miss and eviction counters shared by every cache in a pool.
+     */
+    static final class Stats {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder evictions = new LongAdder();
+    }
+
+    private final class CachedStatement {
+        final String sql;
+        final PreparedStatement statement;
+        // False for a one-off statement that is closed rather than kept
+        final boolean cacheable;
+        boolean inUse;
+        // Set when the borrower changed the fetch size, max rows or query timeout
+        boolean tuned;
+        // The statement's own values, recorded before the first change
+        int defaultFetchSize = -1;
+        long defaultMaxRows;
+        int defaultQueryTimeout;
+        ResultSet lastResultSet;
+        Handler handler;
+        // Values bound by the current borrower, by parameter index - 1
+        Object[] params = new Object[8];
+        int paramCount;
+
+        CachedStatement(String sql, PreparedStatement statement, boolean cacheable) {
+            this.sql = sql;
+            this.statement = statement;
+            this.cacheable = cacheable;
+        }
+
+        PreparedStatement checkout(Connection logicalConnection) {
+            handler = new Handler(this, logicalConnection);
+            return (PreparedStatement) Proxy.newProxyInstance(
+                StatementCache.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class },
+                handler);
+        }
+
+        void bind(int index, Object value) {
+            if (index < 1) {
+                return;
+            }
+            if (index > params.length) {
+                params = Arrays.copyOf(params, Math.max(index, params.length * 2));
+            }
+            params[index - 1] = value;
+            paramCount = Math.max(paramCount, index);
+        }
+
+        void beforeTuning() throws SQLException {
+            if (defaultFetchSize < 0) {
+                defaultFetchSize = statement.getFetchSize();
+                defaultMaxRows = statement.getLargeMaxRows();
+                defaultQueryTimeout = statement.getQueryTimeout();
+            }
+            tuned = true;
+        }
+
+        void clearParams() {
+            Arrays.fill(params, 0, paramCount, null);
+            paramCount = 0;
+        }
+
+        void reset() {
+            if (handler != null) {
+                handler.closed = true;
+                handler = null;
+            }
+            if (!cacheable) {
+                uncached.remove(this);
+                closeQuietly(statement);
+                lastResultSet = null;
+                inUse = false;
+                return;
+            }
+            try {
+                if (lastResultSet != null) {
+                    lastResultSet.close();
+                }
+                statement.clearParameters();
+                statement.clearBatch();
+                if (tuned) {
+                    // Back to the defaults so the next borrower does not inherit streaming or limits
+                    // Max rows first: a driver may reject a fetch size above the current limit
+                    statement.setLargeMaxRows(defaultMaxRows);
+                    statement.setFetchSize(defaultFetchSize);
+                    statement.setQueryTimeout(defaultQueryTimeout);
+                    tuned = false;
+                }
+            } catch (SQLException e) {
+                // A statement that cannot be reset is not safe to reuse
+                statements.remove(sql, this);
+                closeQuietly(statement);
+            }
+            lastResultSet = null;
+            clearParams();
+            inUse = false;
+            if (pendingClose.remove(this)) {
+                closeQuietly(statement);
+            }
+        }
+    }
+
+    private static final class Handler implements InvocationHandler {
+        private final CachedStatement cached;
+        private final Connection logicalConnection;
+        boolean closed;
+
+        Handler(CachedStatement cached, Connection logicalConnection) {
+            this.cached = cached;
+            this.logicalConnection = logicalConnection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        cached.reset();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || cached.statement.isClosed();
+                case "getConnection":
+                    return logicalConnection;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement has already been closed");
+            }
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                applyDeadline();
+                long start = System.nanoTime();
+                try {
+                    return delegate(method, args);
+                } finally {
+                    StatementTrace.record(cached.sql, cached.params, cached.paramCount, start, System.nanoTime() - start);
+                }
+            }
+            if (args != null && args.length >= 2 && name.startsWith("set") && args[0] instanceof Integer) {
+                cached.bind((Integer) args[0], "setNull".equals(name) ? null : args[1]);
+            } else if ("clearParameters".equals(name)) {
+                cached.clearParams();
+            } else if ("setFetchSize".equals(name) || "setMaxRows".equals(name) || "setLargeMaxRows".equals(name)
+                    || "setQueryTimeout".equals(name)) {
+                cached.beforeTuning();
+            }
+            return delegate(method, args);
+        }
+
+        // Caps the query timeout at the time left before the thread's deadline, if it has one
+        private void applyDeadline() throws SQLException {
+            int seconds = QueryDeadline.remainingSeconds();
+            if (seconds == 0) {
+                return;
+            }
+            int current = cached.statement.getQueryTimeout();
+            if (current == 0 || seconds < current) {
+                cached.beforeTuning();
+                cached.statement.setQueryTimeout(seconds);
+            }
+        }
+
+        private Object delegate(Method method, Object[] args) throws Throwable {
+            try {
+                Object result = method.invoke(cached.statement, args);
+                if (result instanceof ResultSet) {
+                    cached.lastResultSet = (ResultSet) result;
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Per-thread ring of the most recent statement executions: SQL, bound parameters and
+ * execution time. Filled by the pooled statement proxies and read only when an operation
+ * turns out to be slow (see SlowQueryLog), so entries are preallocated and reused.
+ */
+package utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+final class StatementTrace {
+    private static final int CAPACITY = 16;
+    private static final ThreadLocal<StatementTrace> CURRENT = ThreadLocal.withInitial(StatementTrace::new);
+
+    private final Entry[] entries = new Entry[CAPACITY];
+    private int next;
+
+    private StatementTrace() {
+        for (int i = 0; i < CAPACITY; i++) {
+            entries[i] = new Entry();
+        }
+    }
+
+    static void record(String sql, Object[] params, int paramCount, long startNanos, long elapsedNanos) {
+        StatementTrace trace = CURRENT.get();
+        Entry entry = trace.entries[trace.next];
+        trace.next = (trace.next + 1) % CAPACITY;
+        entry.sql = sql;
+        if (entry.params.length < paramCount) {
+            entry.params = new Object[Math.max(paramCount, entry.params.length * 2)];
+        }
+        System.arraycopy(params, 0, entry.params, 0, paramCount);
+        entry.paramCount = paramCount;
+        entry.startNanos = startNanos;
+        entry.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Copies of this thread's statements that started at or after startNanos, oldest first.
+     */
+    static List<Entry> since(long startNanos) {
+        StatementTrace trace = CURRENT.get();
+        List<Entry> result = new ArrayList<>();
+        for (int i = 0; i < CAPACITY; i++) {
+            Entry entry = trace.entries[(trace.next + i) % CAPACITY];
+            if (entry.sql != null && entry.startNanos - startNanos >= 0) {
+                result.add(entry.copy());
+            }
+        }
+        return result;
+    }
+
+    static final class Entry {
+        String sql;
+        Object[] params = new Object[8];
+        int paramCount;
+        long startNanos;
+        long elapsedNanos;
+
+        Entry copy() {
+            Entry copy = new Entry();
+            copy.sql = sql;
+            copy.params = Arrays.copyOf(params, paramCount);
+            copy.paramCount = paramCount;
+            copy.startNanos = startNanos;
+            copy.elapsedNanos = elapsedNanos;
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * Executors for fanning out blocking work such as independent database queries.
+ * On a runtime with virtual threads (Java 21+) each task gets its own virtual thread;
+ * on older runtimes the factory falls back to a cached pool of daemon platform threads.
+ * Either way the number of queries in flight is bounded by the connection pool, not here.
+ */
+package utils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class TaskExecutors {
+    // Executors.newVirtualThreadPerTaskExecutor, looked up reflectively so the code still builds for Java 17
+    private static final Method VIRTUAL_PER_TASK = findVirtualPerTask();
+
+    private TaskExecutors() {
+    }
+
+    /**
+     * Executor that starts a new thread per task: virtual when available, otherwise a
+     * cached pool of daemon threads named namePrefix-1, namePrefix-2, ...
+     */
+    public static ExecutorService newPerTaskExecutor(String namePrefix) {
+        if (VIRTUAL_PER_TASK != null) {
+            try {
+                return (ExecutorService) VIRTUAL_PER_TASK.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                // Fall through to platform threads
+            }
+        }
+        return Executors.newCachedThreadPool(daemonThreads(namePrefix));
+    }
+
+    public static boolean usesVirtualThreads() {
+        return VIRTUAL_PER_TASK != null;
+    }
+
+    public static ThreadFactory daemonThreads(String namePrefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, namePrefix + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    private static Method findVirtualPerTask() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+/**
+ * Deterministic synthetic workforce for scale testing.
+ * Generates job titles, divisions, employees, their title and division links, and
+ * semi-monthly payroll from a seed, so the same settings always produce the same data.
+ * Distributions are shaped after a real company: a few titles and divisions hold most
+ * people (Zipf), salaries are log-normal around a per-title median, tenure is
+ * exponential (recent hires outnumber veterans) and pay runs on the 15th and the last
+ * day of each month. Rows go to a Sink, which either batch-inserts them
+ * (JdbcWorkforceSink) or writes bulk-load files (CsvWorkforceSink).
+ * Usage: java utils.WorkforceGenerator [--employees N] [--seed S] [--payroll-months M] [--out DIR]
+ */
+package utils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+public class WorkforceGenerator {
+    /**
+     * Receives generated rows. Dates are epoch days and money is in cents.
+     */
+    public interface Sink {
+        void jobTitle(int jobTitleId, String title) throws IOException, SQLException;
+
+        void division(int divisionId, String name) throws IOException, SQLException;
+
+        void employee(int empId, String firstName, String lastName, String email, int hireEpochDay,
+            long salaryCents, String ssn) throws IOException, SQLException;
+
+        void employeeJobTitle(int empId, int jobTitleId) throws IOException, SQLException;
+
+        void employeeDivision(int empId, int divisionId) throws IOException, SQLException;
+
+        void payroll(int empId, int payEpochDay, long earningsCents) throws IOException, SQLException;
+
+        // Called once after the last row
+        void finish() throws IOException, SQLException;
+    }
+
+    static final String[] REGULAR_TITLES = {
+        "Software Engineer", "Customer Support Representative", "Sales Associate", "Warehouse Associate",
+        "Accountant", "Data Analyst", "Project Manager", "Marketing Specialist", "Senior Software Engineer",
+        "Quality Assurance Engineer", "Operations Manager", "Business Analyst", "Product Manager",
+        "Technical Writer", "Network Administrator", "Database Administrator", "UX Designer",
+        "Financial Analyst", "Office Manager", "Recruiter", "Legal Counsel", "Security Engineer",
+        "DevOps Engineer", "Account Executive", "Procurement Specialist", "Facilities Coordinator",
+        "Engineering Manager", "Director of Sales", "Chief Financial Officer", "Chief Technology Officer"
+    };
+    // Median yearly salary per regular title, in dollars
+    private static final int[] REGULAR_MEDIANS = {
+        115_000, 42_000, 48_000, 38_000, 72_000, 78_000, 98_000, 65_000, 150_000,
+        82_000, 95_000, 85_000, 125_000, 70_000, 80_000, 105_000, 92_000,
+        88_000, 58_000, 68_000, 160_000, 140_000, 135_000, 90_000, 62_000, 50_000,
+        185_000, 175_000, 260_000, 280_000
+    };
+    static final String[] ADMIN_TITLES = { "HR Specialist", "HR Manager", "HR Director" };
+    private static final int[] ADMIN_MEDIANS = { 65_000, 95_000, 150_000 };
+    private static final String[] DIVISIONS = {
+        "Engineering", "Customer Success", "Sales", "Operations", "Finance", "Marketing",
+        "Product", "Human Resources", "Legal", "Facilities", "Security", "Executive"
+    };
+    private static final String[] FIRST_NAMES = {
+        "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+        "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Carlos", "Karen",
+        "Wei", "Priya", "Ahmed", "Fatima", "Hiroshi", "Yuki", "Olga", "Ivan", "Aisha", "Kwame",
+        "Lucia", "Mateo", "Sofia", "Diego", "Chloe", "Noah", "Emma", "Liam", "Ava", "Mohammed"
+    };
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+        "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+        "Lee", "Chen", "Wang", "Patel", "Kim", "Nguyen", "Singh", "Tanaka", "Kowalski", "Ivanova",
+        "Okafor", "Mensah", "Rossi", "Silva", "Dubois", "Muller", "Novak", "Haddad", "Cohen", "Rodgers"
+    };
+
+    // Same ranges JobTitleRegistry allocates from
+    private static final int REGULAR_TITLE_BASE_ID = 300;
+    private static final int ADMIN_TITLE_BASE_ID = 900;
+    private static final int SSN_AREAS = 898; // 001-899 without 666
+    private static final long SSN_SPACE = SSN_AREAS * 99L * 9999L;
+    // Coprime with SSN_SPACE, so multiplying by it permutes the SSN space
+    private static final long SSN_MULTIPLIER = 1_000_003L;
+    private static final double SALARY_SIGMA = 0.22;
+    private static final double ADMIN_SHARE = 0.015;
+
+    private final long seed;
+    private final int employees;
+    private int firstEmpId = 1;
+    private int payrollMonths = 12;
+    private double meanTenureYears = 5.0;
+    private LocalDate asOf = LocalDate.of(2025, 12, 31);
+    private LocalDate companyFounded = LocalDate.of(1995, 1, 1);
+
+    public WorkforceGenerator(long seed, int employees) {
+        if (employees < 0) {
+            throw new IllegalArgumentException("employees must not be negative");
+        }
+        this.seed = seed;
+        this.employees = employees;
+    }
+
+    public void setFirstEmpId(int firstEmpId) {
+        this.firstEmpId = firstEmpId;
+    }
+
+    // Months of payroll history, counted back from the as-of date; 0 for none
+    public void setPayrollMonths(int payrollMonths) {
+        this.payrollMonths = payrollMonths;
+    }
+
+    public void setMeanTenureYears(double meanTenureYears) {
+        this.meanTenureYears = meanTenureYears;
+    }
+
+    // Last possible hire and pay date
+    public void setAsOf(LocalDate asOf) {
+        this.asOf = asOf;
+    }
+
+    // Earliest possible hire date
+    public void setCompanyFounded(LocalDate companyFounded) {
+        this.companyFounded = companyFounded;
+    }
+
+    public static String regularTitle(int index) {
+        return REGULAR_TITLES[index];
+    }
+
+    public static int regularTitleId(int index) {
+        return REGULAR_TITLE_BASE_ID + index;
+    }
+
+    /**
+     * Generates the whole data set into sink and calls finish().
+     * @return number of rows generated across all tables
+     */
+    public long generate(Sink sink) throws IOException, SQLException {
+        SplittableRandom random = new SplittableRandom(seed);
+        long rows = 0;
+        for (int i = 0; i < REGULAR_TITLES.length; i++) {
+            sink.jobTitle(regularTitleId(i), REGULAR_TITLES[i]);
+            rows++;
+        }
+        for (int i = 0; i < ADMIN_TITLES.length; i++) {
+            sink.jobTitle(ADMIN_TITLE_BASE_ID + i, ADMIN_TITLES[i]);
+            rows++;
+        }
+        for (int i = 0; i < DIVISIONS.length; i++) {
+            sink.division(i + 1, DIVISIONS[i]);
+            rows++;
+        }
+
+        double[] titleWeights = zipfCumulative(REGULAR_TITLES.length, 1.1);
+        double[] divisionWeights = zipfCumulative(DIVISIONS.length - 1, 0.8); // HR is assigned separately
+        int lastDay = (int) asOf.toEpochDay();
+        int firstDay = (int) companyFounded.toEpochDay();
+        int hrDivision = indexOf(DIVISIONS, "Human Resources") + 1;
+        double meanTenureDays = meanTenureYears * 365.25;
+        int[] payDays = payDays();
+        StringBuilder text = new StringBuilder(64);
+
+        for (int n = 0; n < employees; n++) {
+            int empId = firstEmpId + n;
+            boolean admin = random.nextDouble() < ADMIN_SHARE;
+            int titleIndex = admin ? random.nextInt(ADMIN_TITLES.length) : pick(titleWeights, random.nextDouble());
+            int titleId = admin ? ADMIN_TITLE_BASE_ID + titleIndex : regularTitleId(titleIndex);
+            int median = admin ? ADMIN_MEDIANS[titleIndex] : REGULAR_MEDIANS[titleIndex];
+            long salaryCents = Math.round(median * Math.exp(SALARY_SIGMA * gaussian(random)) * 100);
+            salaryCents = Math.max(salaryCents, 2_000_000L);
+            int tenureDays = (int) (-Math.log(1.0 - random.nextDouble()) * meanTenureDays);
+            int hireDay = Math.max(firstDay, lastDay - tenureDays);
+            int divisionId = admin ? hrDivision : divisionFor(pick(divisionWeights, random.nextDouble()), hrDivision);
+
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            text.setLength(0);
+            text.append(first).append('.').append(last).append(empId).append("@example.com");
+            String email = text.toString().toLowerCase();
+            sink.employee(empId, first, last, email, hireDay, salaryCents, ssnFor(empId, text));
+            sink.employeeJobTitle(empId, titleId);
+            sink.employeeDivision(empId, divisionId);
+            rows += 3;
+
+            long perPeriod = salaryCents / 24;
+            for (int payDay : payDays) {
+                if (payDay < hireDay) {
+                    continue;
+                }
+                long earnings = perPeriod;
+                if (random.nextInt(40) == 0) {
+                    earnings += perPeriod * (5 + random.nextInt(20)) / 100; // occasional overtime or bonus
+                }
+                sink.payroll(empId, payDay, earnings);
+                rows++;
+            }
+        }
+        sink.finish();
+        return rows;
+    }
+
+    // Pay dates (15th and last day of the month) in the payroll window, oldest first
+    private int[] payDays() {
+        int[] days = new int[payrollMonths * 2];
+        LocalDate month = asOf.withDayOfMonth(1).minusMonths(payrollMonths - 1L);
+        for (int i = 0; i < payrollMonths; i++, month = month.plusMonths(1)) {
+            days[i * 2] = (int) month.withDayOfMonth(15).toEpochDay();
+            days[i * 2 + 1] = (int) month.withDayOfMonth(month.lengthOfMonth()).toEpochDay();
+        }
+        return days;
+    }
+
+    // Unique for every empId below SSN_SPACE, never in the 000/666/9xx areas; formatted without String.format
+    private static String ssnFor(int empId, StringBuilder sb) {
+        long x = Math.floorMod(empId * SSN_MULTIPLIER, SSN_SPACE);
+        int area = 1 + (int) (x % SSN_AREAS);
+        if (area >= 666) {
+            area++;
+        }
+        int group = 1 + (int) ((x / SSN_AREAS) % 99);
+        int serial = 1 + (int) (x / (SSN_AREAS * 99L));
+        sb.setLength(0);
+        pad(sb, area, 3).append('-');
+        pad(sb, group, 2).append('-');
+        pad(sb, serial, 4);
+        return sb.toString();
+    }
+
+    private static StringBuilder pad(StringBuilder sb, int value, int width) {
+        for (int limit = 10, i = 1; i < width; i++, limit *= 10) {
+            if (value < limit) {
+                sb.append('0');
+            }
+        }
+        return sb.append(value);
+    }
+
+    // Cumulative Zipf weights normalised to 1: rank r has weight 1 / r^exponent
+    private static double[] zipfCumulative(int count, double exponent) {
+        double[] cumulative = new double[count];
+        double total = 0;
+        for (int r = 0; r < count; r++) {
+            total += 1.0 / Math.pow(r + 1, exponent);
+            cumulative[r] = total;
+        }
+        for (int r = 0; r < count; r++) {
+            cumulative[r] /= total;
+        }
+        return cumulative;
+    }
+
+    private static int pick(double[] cumulative, double u) {
+        int lo = 0;
+        int hi = cumulative.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cumulative[mid] < u) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // Maps an index over the non-HR divisions to a division ID
+    private static int divisionFor(int index, int hrDivision) {
+        int id = index + 1;
+        return id >= hrDivision ? id + 1 : id;
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller; one value per call keeps the stream position independent of caching
+        double u = 1.0 - random.nextDouble();
+        double v = random.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u)) * Math.cos(2.0 * Math.PI * v);
+    }
+
+    private static int indexOf(String[] values, String value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i].equals(value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int employees = 100_000;
+        long seed = 42L;
+        int payrollMonths = 12;
+        Path out = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--employees": employees = Integer.parseInt(args[++i]); break;
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                case "--payroll-months": payrollMonths = Integer.parseInt(args[++i]); break;
+                case "--out": out = Paths.get(args[++i]); break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.err.println("Usage: WorkforceGenerator [--employees N] [--seed S] [--payroll-months M] [--out DIR]");
+                    System.exit(2);
+            }
+        }
+        WorkforceGenerator generator = new WorkforceGenerator(seed, employees);
+        generator.setPayrollMonths(payrollMonths);
+
+        long start = System.nanoTime();
+        long rows;
+        if (out != null) {
+            CsvWorkforceSink sink = new CsvWorkforceSink(out);
+            rows = generator.generate(sink);
+            System.out.println("Wrote bulk-load files to " + out.toAbsolutePath() + "; load them with:");
+            System.out.println(sink.loadStatements());
+        } else {
+            try (Connection connection = DatabaseConnection.getInstance().getConnection()) {
+                rows = generator.generate(new JdbcWorkforceSink(connection));
+            } finally {
+                DatabaseConnection.getInstance().closeConnection();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Generated %,d rows for %,d employees in %.1f s (%,.0f rows/min)%n",
+            rows, employees, seconds, rows / seconds * 60);
+    }
+}
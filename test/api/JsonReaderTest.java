@@ -0,0 +1,79 @@
+/**
+ * JsonReader: value types, escapes, nesting and the errors raised for malformed bodies.
+ */
+package api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class JsonReaderTest {
+    @Test
+    void parsesEveryValueType() {
+        Map<String, Object> body = JsonReader.parseObject(
+            " {\"s\":\"x\", \"n\":-12.50e1, \"i\":42, \"t\":true, \"f\":false, \"z\":null, \"a\":[1,[],{}], \"o\":{\"k\":\"v\"}} ");
+        assertEquals("x", body.get("s"));
+        assertEquals(new BigDecimal("-12.50e1"), body.get("n"));
+        assertEquals(new BigDecimal("42"), body.get("i"));
+        assertEquals(Boolean.TRUE, body.get("t"));
+        assertEquals(Boolean.FALSE, body.get("f"));
+        assertTrue(body.containsKey("z"));
+        assertNull(body.get("z"));
+        assertEquals(Arrays.asList(new BigDecimal("1"), Collections.emptyList(), Collections.emptyMap()), body.get("a"));
+        assertEquals(Collections.singletonMap("k", "v"), body.get("o"));
+    }
+
+    @Test
+    void keepsMemberOrder() {
+        Map<String, Object> body = JsonReader.parseObject("{\"b\":1,\"a\":2,\"c\":3}");
+        assertEquals(Arrays.asList("b", "a", "c"), List.copyOf(body.keySet()));
+    }
+
+    @Test
+    void decodesEscapes() {
+        assertEquals("q\" b\\ s/ \b\f\n\r\t é 😀", JsonReader.parse("\"q\\\" b\\\\ s\\/ \\b\\f\\n\\r\\t \\u00e9 \\ud83d\\ude00\""));
+    }
+
+    @Test
+    void keepsLargeNumbersExact() {
+        assertEquals(new BigDecimal("12345678901234567890.01"), JsonReader.parse("12345678901234567890.01"));
+    }
+
+    @Test
+    void rejectsMalformedInput() {
+        String[] malformed = {
+            "", "{", "{\"a\"}", "{\"a\":1,}", "{a:1}", "[1 2]", "[1,]", "\"open", "\"bad \\x escape\"",
+            "\"short \\u12\"", "\"ctl \u0001\"", "tru", "nul", "-", "1.2.3", "{} {}", "@"
+        };
+        for (String text : malformed) {
+            assertThrows(IllegalArgumentException.class, () -> JsonReader.parse(text), text);
+        }
+    }
+
+    @Test
+    void reportsTheOffsetOfAnError() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> JsonReader.parse("[1, x]"));
+        assertEquals("Unexpected character 'x' at offset 4", e.getMessage());
+    }
+
+    @Test
+    void limitsNesting() {
+        String deep = "[".repeat(33) + "]".repeat(33);
+        assertThrows(IllegalArgumentException.class, () -> JsonReader.parse(deep));
+        String allowed = "[".repeat(32) + "]".repeat(32);
+        assertTrue(JsonReader.parse(allowed) instanceof List);
+    }
+
+    @Test
+    void parseObjectRequiresAnObject() {
+        assertThrows(IllegalArgumentException.class, () -> JsonReader.parseObject("[1]"));
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * JsonWriter: separators at every nesting level, string escaping, and output that
+ * JsonReader reads back unchanged.
+ */
+package api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class JsonWriterTest {
+    @Test
+    void insertsSeparatorsAtEveryLevel() throws IOException {
+        StringWriter out = new StringWriter();
+        new JsonWriter(out).beginObject()
+            .field("id", 7)
+            .name("tags").beginArray().value("a").value(true).nullValue().beginArray().endArray().beginObject().endObject().endArray()
+            .name("nested").beginObject().field("x", 1).field("y", (String) null).endObject()
+            .field("salary", new BigDecimal("1E+3"))
+            .endObject();
+        assertEquals("{\"id\":7,\"tags\":[\"a\",true,null,[],{}],\"nested\":{\"x\":1,\"y\":null},\"salary\":1000}", out.toString());
+    }
+
+    @Test
+    void topLevelArrayOfObjects() throws IOException {
+        StringWriter out = new StringWriter();
+        JsonWriter json = new JsonWriter(out).beginArray();
+        for (int i = 0; i < 3; i++) {
+            json.beginObject().field("i", i).endObject();
+        }
+        json.endArray();
+        assertEquals("[{\"i\":0},{\"i\":1},{\"i\":2}]", out.toString());
+    }
+
+    @Test
+    void escapesStrings() throws IOException {
+        assertEquals("\"q\\\" b\\\\ \\n\\r\\t \\u0001 \\u2028 é/\"", write("q\" b\\ \n\r\t \u0001 \u2028 é/"));
+    }
+
+    @Test
+    void readerGetsBackWhatWasWritten() throws IOException {
+        String awkward = "line\nbreak \"quoted\" \\ \u0000 \u2029 😀";
+        StringWriter out = new StringWriter();
+        new JsonWriter(out).beginObject().field(awkward, awkward).name("list").beginArray().value(-5).value(false).endArray().endObject();
+        Map<String, Object> parsed = JsonReader.parseObject(out.toString());
+        assertEquals(awkward, parsed.get(awkward));
+        assertEquals(Arrays.asList(new BigDecimal("-5"), Boolean.FALSE), parsed.get("list"));
+    }
+
+    @Test
+    void limitsNesting() throws IOException {
+        JsonWriter json = new JsonWriter(new StringWriter());
+        for (int i = 0; i < 63; i++) {
+            json.beginArray();
+        }
+        assertThrows(IllegalStateException.class, json::beginArray);
+    }
+
+    private static String write(String value) throws IOException {
+        StringWriter out = new StringWriter();
+        new JsonWriter(out).value(value);
+        return out.toString();
+    }
+}
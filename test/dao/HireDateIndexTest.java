@@ -0,0 +1,269 @@
+/**
+ * HireDateIndex against the seeded embedded H2 database: date ranges and counts checked
+ * against SQL, and anniversaries and tenure checked against a plain per-employee
+ * computation, including windows that cross years and February 29 hires.
+ */
+package dao;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import utils.DatabaseConnection;
+import utils.TestDatabase;
+
+class HireDateIndexTest {
+    // Extra employees hired on February 29 and the days around it; removed again afterwards
+    private static final int FIRST_EXTRA_ID = 1_900_000_000;
+    private static final LocalDate[] EXTRA_HIRES = {
+        LocalDate.of(2016, 2, 28), LocalDate.of(2016, 2, 29), LocalDate.of(2016, 3, 1),
+        LocalDate.of(2020, 2, 29), LocalDate.of(2021, 2, 28)
+    };
+
+    private static final HireDateIndex index = HireDateIndex.getInstance();
+    // Every (empId, hire date), ordered by hire date then empId
+    private static List<Hire> hires;
+
+    private static final class Hire {
+        final int empId;
+        final LocalDate hireDate;
+
+        Hire(int empId, LocalDate hireDate) {
+            this.empId = empId;
+            this.hireDate = hireDate;
+        }
+    }
+
+    @BeforeAll
+    static void seed() throws Exception {
+        TestDatabase.seed();
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
+                 "INSERT INTO employees (empid, Fname, Lname, Email, HireDate, Salary, SSN) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < EXTRA_HIRES.length; i++) {
+                int empId = FIRST_EXTRA_ID + i;
+                stmt.setInt(1, empId);
+                stmt.setString(2, "Leap");
+                stmt.setString(3, "Day" + i);
+                stmt.setString(4, "leap.day" + i + "@example.com");
+                stmt.setDate(5, Date.valueOf(EXTRA_HIRES[i]));
+                stmt.setDouble(6, 50_000);
+                stmt.setString(7, String.format("900-00-%04d", i));
+                stmt.executeUpdate();
+            }
+        }
+        index.invalidate();
+        hires = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
+                 "SELECT empid, HireDate FROM employees WHERE HireDate IS NOT NULL ORDER BY HireDate, empid");
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                hires.add(new Hire(rs.getInt("empid"), rs.getDate("HireDate").toLocalDate()));
+            }
+        }
+    }
+
+    @AfterAll
+    static void removeExtras() throws SQLException {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement("DELETE FROM employees WHERE empid >= ? AND empid < ?")) {
+            stmt.setInt(1, FIRST_EXTRA_ID);
+            stmt.setInt(2, FIRST_EXTRA_ID + EXTRA_HIRES.length);
+            stmt.executeUpdate();
+        }
+        index.invalidate();
+    }
+
+    @Test
+    void indexesEveryHire() {
+        assertEquals(hires.size(), index.size());
+        assertEquals(hires.get(0).hireDate.getYear(), index.getFirstHireYear());
+        assertEquals(hires.get(hires.size() - 1).hireDate.getYear(), index.getLastHireYear());
+    }
+
+    @Test
+    void rangesMatchSqlAtExactHireDates() throws SQLException {
+        for (LocalDate[] range : ranges()) {
+            int[] expected = hiredBetweenSql(range[0], range[1]);
+            assertArrayEquals(expected, index.hiredBetween(range[0], range[1]), range[0] + " to " + range[1]);
+            assertEquals(expected.length, index.countHiredBetween(range[0], range[1]), range[0] + " to " + range[1]);
+        }
+    }
+
+    @Test
+    void invertedRangeIsEmpty() {
+        LocalDate day = sampleHireDates().get(0);
+        assertArrayEquals(new int[0], index.hiredBetween(day.plusDays(1), day));
+        assertEquals(0, index.countHiredBetween(day.plusDays(1), day));
+        LocalDate leapDay = LocalDate.of(2016, 2, 29);
+        assertTrue(index.countHiredBetween(leapDay, leapDay) >= 1);
+    }
+
+    @Test
+    void hiresPerYearCountsEveryYear() {
+        int firstYear = index.getFirstHireYear() - 1;
+        int lastYear = index.getLastHireYear() + 1;
+        int[] expected = new int[lastYear - firstYear + 1];
+        for (Hire hire : hires) {
+            expected[hire.hireDate.getYear() - firstYear]++;
+        }
+        assertArrayEquals(expected, index.hiresPerYear(firstYear, lastYear));
+        assertArrayEquals(new int[0], index.hiresPerYear(lastYear, firstYear));
+    }
+
+    @Test
+    void anniversariesMatchPerEmployeeComputation() {
+        List<LocalDate[]> windows = new ArrayList<>();
+        windows.add(new LocalDate[] { LocalDate.of(2021, 2, 28), LocalDate.of(2021, 2, 28) });
+        windows.add(new LocalDate[] { LocalDate.of(2021, 2, 27), LocalDate.of(2021, 3, 1) });
+        windows.add(new LocalDate[] { LocalDate.of(2024, 2, 28), LocalDate.of(2024, 2, 28) });
+        windows.add(new LocalDate[] { LocalDate.of(2024, 2, 29), LocalDate.of(2024, 2, 29) });
+        windows.add(new LocalDate[] { LocalDate.of(2024, 2, 29), LocalDate.of(2024, 3, 1) });
+        windows.add(new LocalDate[] { LocalDate.of(2023, 2, 28), LocalDate.of(2024, 2, 28) });
+        windows.add(new LocalDate[] { LocalDate.of(2022, 12, 15), LocalDate.of(2023, 1, 15) });
+        windows.add(new LocalDate[] { LocalDate.of(2019, 6, 1), LocalDate.of(2022, 5, 31) });
+        windows.add(new LocalDate[] { LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31) });
+        for (LocalDate day : sampleHireDates()) {
+            windows.add(new LocalDate[] { day.plusYears(1), day.plusYears(1) });
+            windows.add(new LocalDate[] { day.plusYears(3).minusDays(10), day.plusYears(3).plusDays(10) });
+        }
+        for (LocalDate[] window : windows) {
+            assertArrayEquals(anniversariesNaive(window[0], window[1]), index.anniversariesBetween(window[0], window[1]),
+                window[0] + " to " + window[1]);
+        }
+        assertArrayEquals(new int[0], index.anniversariesBetween(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 2, 1)));
+    }
+
+    @Test
+    void tenureMatchesFullYearsOfService() {
+        List<LocalDate> asOfDates = new ArrayList<>();
+        asOfDates.add(LocalDate.of(2024, 2, 28));
+        asOfDates.add(LocalDate.of(2024, 2, 29));
+        asOfDates.add(LocalDate.of(2025, 2, 28));
+        asOfDates.add(LocalDate.of(2025, 3, 1));
+        for (LocalDate day : sampleHireDates()) {
+            asOfDates.add(day.plusYears(2));
+            asOfDates.add(day.plusYears(2).minusDays(1));
+        }
+        int[] bounds = { 0, 1, 3, 5, 10 };
+        for (LocalDate asOf : asOfDates) {
+            int[] bandCounts = new int[bounds.length];
+            for (int i = 0; i < bounds.length; i++) {
+                int maxYears = i + 1 < bounds.length ? bounds[i + 1] : Integer.MAX_VALUE;
+                int[] expected = tenureNaive(bounds[i], maxYears, asOf);
+                assertArrayEquals(expected, index.tenureBetween(bounds[i], maxYears, asOf), bounds[i] + "+ years on " + asOf);
+                bandCounts[i] = expected.length;
+            }
+            assertArrayEquals(bandCounts, index.tenureBandCounts(asOf, bounds), "bands on " + asOf);
+            assertArrayEquals(new int[0], index.tenureBetween(5, 3, asOf));
+        }
+    }
+
+    @Test
+    void leapDayHiresCelebrateOnFebruary28() {
+        LocalDate leapDay = LocalDate.of(2020, 2, 29);
+        assertEquals(LocalDate.of(2021, 2, 28), HireDateIndex.anniversaryIn(leapDay, 2021));
+        assertEquals(LocalDate.of(2024, 2, 29), HireDateIndex.anniversaryIn(leapDay, 2024));
+        assertEquals(LocalDate.of(2021, 2, 28), HireDateIndex.nextAnniversary(leapDay, leapDay));
+        assertEquals(LocalDate.of(2021, 2, 28), HireDateIndex.nextAnniversary(leapDay, LocalDate.of(2021, 2, 28)));
+        assertEquals(LocalDate.of(2022, 2, 28), HireDateIndex.nextAnniversary(leapDay, LocalDate.of(2021, 3, 1)));
+        assertEquals(LocalDate.of(2024, 2, 29), HireDateIndex.nextAnniversary(leapDay, LocalDate.of(2023, 3, 1)));
+
+        LocalDate hired = LocalDate.of(2019, 7, 15);
+        assertEquals(LocalDate.of(2020, 7, 15), HireDateIndex.nextAnniversary(hired, LocalDate.of(2019, 1, 1)));
+        assertEquals(LocalDate.of(2023, 7, 15), HireDateIndex.nextAnniversary(hired, LocalDate.of(2023, 7, 15)));
+        assertEquals(LocalDate.of(2024, 7, 15), HireDateIndex.nextAnniversary(hired, LocalDate.of(2023, 7, 16)));
+        assertFalse(HireDateIndex.nextAnniversary(hired, hired).isBefore(hired.plusYears(1)));
+    }
+
+    // A spread of real hire dates: the first and last, and every 97th in between
+    private static List<LocalDate> sampleHireDates() {
+        List<LocalDate> days = new ArrayList<>();
+        for (int i = 0; i < hires.size(); i += 97) {
+            days.add(hires.get(i).hireDate);
+        }
+        days.add(hires.get(hires.size() - 1).hireDate);
+        return days;
+    }
+
+    // Ranges that start and end exactly on, just before and just after real hire dates
+    private static List<LocalDate[]> ranges() {
+        List<LocalDate> days = sampleHireDates();
+        assertTrue(days.size() > 4);
+        List<LocalDate[]> ranges = new ArrayList<>();
+        for (int i = 0; i + 1 < days.size(); i++) {
+            LocalDate from = days.get(i);
+            LocalDate to = days.get(i + 1);
+            ranges.add(new LocalDate[] { from, to });
+            ranges.add(new LocalDate[] { from.plusDays(1), to.minusDays(1) });
+            ranges.add(new LocalDate[] { from.minusDays(1), to.plusDays(1) });
+            ranges.add(new LocalDate[] { from, from });
+        }
+        ranges.add(new LocalDate[] { LocalDate.of(1900, 1, 1), LocalDate.of(2999, 12, 31) });
+        ranges.add(new LocalDate[] { LocalDate.of(2016, 2, 29), LocalDate.of(2016, 3, 1) });
+        return ranges;
+    }
+
+    private static int[] hiredBetweenSql(LocalDate from, LocalDate to) throws SQLException {
+        List<Integer> empIds = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
+                 "SELECT empid FROM employees WHERE HireDate BETWEEN ? AND ? ORDER BY HireDate, empid")) {
+            stmt.setDate(1, Date.valueOf(from));
+            stmt.setDate(2, Date.valueOf(to));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    empIds.add(rs.getInt(1));
+                }
+            }
+        }
+        return empIds.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // Each employee's first anniversary in the window, ordered by date, then hire date and empId
+    private static int[] anniversariesNaive(LocalDate from, LocalDate to) {
+        List<Object[]> matches = new ArrayList<>();
+        for (Hire hire : hires) {
+            for (int year = Math.max(from.getYear(), hire.hireDate.getYear() + 1); year <= to.getYear(); year++) {
+                LocalDate anniversary = hire.hireDate.withYear(year);
+                if (!anniversary.isBefore(from) && !anniversary.isAfter(to)) {
+                    matches.add(new Object[] { anniversary, hire });
+                    break;
+                }
+            }
+        }
+        // hires is already in (hire date, empId) order and the sort is stable
+        matches.sort(Comparator.comparing(match -> (LocalDate) match[0]));
+        return matches.stream().mapToInt(match -> ((Hire) match[1]).empId).toArray();
+    }
+
+    // Hired on or before asOf with minYears up to maxYears full years of service, longest-serving first
+    private static int[] tenureNaive(int minYears, int maxYears, LocalDate asOf) {
+        List<Integer> empIds = new ArrayList<>();
+        for (Hire hire : hires) {
+            if (hire.hireDate.isAfter(asOf)) {
+                continue;
+            }
+            int years = Period.between(hire.hireDate, asOf).getYears();
+            if (years >= minYears && years < maxYears) {
+                empIds.add(hire.empId);
+            }
+        }
+        return empIds.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,183 @@
+/**
+ * SalaryIndex against the seeded embedded H2 database: counts, totals, ranges and top
+ * earners checked against the same Salary BETWEEN queries in SQL, with bounds on, just
+ * inside and just outside real salaries, fractional cents, and inverted, NaN and infinite
+ * bounds. The adjustment delta is checked against the DAO's SQL preview.
+ */
+package dao;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import models.SalaryAdjustmentPreview;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import utils.DatabaseConnection;
+import utils.TestDatabase;
+
+class SalaryIndexTest {
+    private static final SalaryIndex index = SalaryIndex.getInstance();
+    // Every salary, lowest first
+    private static List<BigDecimal> salaries;
+
+    @BeforeAll
+    static void seed() throws Exception {
+        TestDatabase.seed();
+        index.invalidate();
+        salaries = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
+                 "SELECT Salary FROM employees WHERE Salary IS NOT NULL ORDER BY Salary, empid");
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                salaries.add(rs.getBigDecimal(1));
+            }
+        }
+    }
+
+    @Test
+    void indexesEverySalary() {
+        assertEquals(salaries.size(), index.size());
+        assertEquals(salaries.size(), index.countBetween(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    void rangesMatchSqlAtExactCents() throws SQLException {
+        for (double[] range : ranges()) {
+            String label = range[0] + " to " + range[1];
+            int[] expected = empIdsSql(range[0], range[1], "ORDER BY Salary, empid", Integer.MAX_VALUE);
+            assertArrayEquals(expected, index.between(range[0], range[1]), label);
+            assertEquals(expected.length, index.countBetween(range[0], range[1]), label);
+            assertEquals(sumCentsSql(range[0], range[1]), index.sumCentsBetween(range[0], range[1]), label);
+        }
+    }
+
+    @Test
+    void topEarnersMatchSql() throws SQLException {
+        for (double[] range : ranges()) {
+            for (int n : new int[] { 1, 5, 100 }) {
+                int[] expected = empIdsSql(range[0], range[1], "ORDER BY Salary DESC, empid DESC", n);
+                assertArrayEquals(expected, index.topBetween(range[0], range[1], n), n + " in " + range[0] + " to " + range[1]);
+            }
+        }
+        double highest = salaries.get(salaries.size() - 1).doubleValue();
+        assertEquals(salaries.size(), index.topBetween(Double.NEGATIVE_INFINITY, highest, Integer.MAX_VALUE).length);
+    }
+
+    @Test
+    void emptyAndInvalidBoundsMatchNothing() {
+        double median = salaries.get(salaries.size() / 2).doubleValue();
+        double nextCent = salaries.get(salaries.size() / 2).add(new BigDecimal("0.01")).doubleValue();
+        double[][] empty = {
+            { nextCent, median },
+            { Double.NaN, median },
+            { median, Double.NaN },
+            { Double.NaN, Double.NaN },
+            { Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY },
+            { Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY },
+            { median + 0.001, nextCent - 0.001 }
+        };
+        for (double[] range : empty) {
+            String label = range[0] + " to " + range[1];
+            assertEquals(0, index.countBetween(range[0], range[1]), label);
+            assertEquals(0, index.sumCentsBetween(range[0], range[1]), label);
+            assertArrayEquals(new int[0], index.between(range[0], range[1]), label);
+            assertArrayEquals(new int[0], index.topBetween(range[0], range[1], 10), label);
+        }
+        assertArrayEquals(new int[0], index.topBetween(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 0));
+        assertArrayEquals(new int[0], index.topBetween(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, -3));
+    }
+
+    @Test
+    void summaryAgreesWithIndividualQueries() {
+        for (double[] range : ranges()) {
+            SalaryIndex.RangeSummary summary = index.summarize(range[0], range[1], 10);
+            assertNotNull(summary);
+            assertEquals(index.countBetween(range[0], range[1]), summary.getCount());
+            assertEquals(index.sumCentsBetween(range[0], range[1]), summary.getTotalCents());
+            assertArrayEquals(index.topBetween(range[0], range[1], 10), summary.getTopEmpIds());
+        }
+    }
+
+    @Test
+    void adjustmentDeltaMatchesSqlPreview() {
+        EmployeeDAO employeeDAO = new EmployeeDAO();
+        for (double percent : new double[] { 3.333, -2.5, 0.7, 0 }) {
+            BigDecimal factor = SalaryAdjustmentPreview.adjustmentFactor(percent);
+            for (double[] range : ranges()) {
+                BigDecimal expected = employeeDAO.getSalaryAdjustmentDelta(range[0], range[1], percent);
+                BigDecimal actual = index.adjustmentDeltaBetween(range[0], range[1], factor);
+                assertEquals(0, expected.compareTo(actual), percent + "% of " + range[0] + " to " + range[1]
+                    + ": expected " + expected + " but was " + actual);
+            }
+            // Every salary is positive, so the open range covers the same employees as 0 to 1e12
+            assertEquals(index.adjustmentDeltaBetween(0, 1e12, factor),
+                index.adjustmentDeltaBetween(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, factor));
+        }
+    }
+
+    // Ranges bounded by real salaries: exactly, a cent inside or outside, and half a cent off
+    private static List<double[]> ranges() {
+        BigDecimal cent = new BigDecimal("0.01");
+        BigDecimal halfCent = new BigDecimal("0.005");
+        List<BigDecimal> samples = new ArrayList<>();
+        for (int i = 0; i < salaries.size(); i += 97) {
+            samples.add(salaries.get(i));
+        }
+        samples.add(salaries.get(salaries.size() - 1));
+        List<double[]> ranges = new ArrayList<>();
+        for (int i = 0; i + 1 < samples.size(); i++) {
+            BigDecimal low = samples.get(i);
+            BigDecimal high = samples.get(i + 1);
+            ranges.add(range(low, high));
+            ranges.add(range(low, low));
+            ranges.add(range(low.add(cent), high.subtract(cent)));
+            ranges.add(range(low.subtract(cent), high.add(cent)));
+            ranges.add(range(low.add(halfCent), high.subtract(halfCent)));
+            ranges.add(range(low.subtract(halfCent), high.add(halfCent)));
+        }
+        ranges.add(new double[] { 0, 1e12 });
+        return ranges;
+    }
+
+    private static double[] range(BigDecimal lowerBound, BigDecimal upperBound) {
+        return new double[] { lowerBound.doubleValue(), upperBound.doubleValue() };
+    }
+
+    private static int[] empIdsSql(double lowerBound, double upperBound, String orderBy, int limit) throws SQLException {
+        List<Integer> empIds = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
+                 "SELECT empid FROM employees WHERE Salary BETWEEN ? AND ? " + orderBy)) {
+            stmt.setBigDecimal(1, BigDecimal.valueOf(lowerBound));
+            stmt.setBigDecimal(2, BigDecimal.valueOf(upperBound));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (empIds.size() < limit && rs.next()) {
+                    empIds.add(rs.getInt(1));
+                }
+            }
+        }
+        return empIds.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static long sumCentsSql(double lowerBound, double upperBound) throws SQLException {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
+                 "SELECT COALESCE(SUM(Salary), 0) FROM employees WHERE Salary BETWEEN ? AND ?")) {
+            stmt.setBigDecimal(1, BigDecimal.valueOf(lowerBound));
+            stmt.setBigDecimal(2, BigDecimal.valueOf(upperBound));
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getBigDecimal(1).movePointRight(2).longValueExact();
+            }
+        }
+    }
+}
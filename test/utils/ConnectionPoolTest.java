@@ -0,0 +1,126 @@
+/**
+ * ConnectionPool against a private embedded H2 database: the size bound and borrow timeout,
+ * returning connections on close(), and the reset that keeps one borrower's transaction
+ * from leaking into the next.
+ */
+package utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ConnectionPoolTest {
+    private static final String URL = "jdbc:h2:mem:pool_test;DB_CLOSE_DELAY=-1";
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void createPool() throws SQLException {
+        pool = new ConnectionPool(URL, "sa", "", 1, 2, 200, 60_000, 60_000, false, 8);
+        try (Connection connection = pool.getConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS pool_rows (id INT PRIMARY KEY)");
+            stmt.execute("DELETE FROM pool_rows");
+        }
+    }
+
+    @AfterEach
+    void closePool() {
+        pool.close();
+    }
+
+    @Test
+    void opensTheMinimumUpFront() {
+        assertEquals(1, pool.getTotalCount());
+        assertEquals(1, pool.getIdleCount());
+        assertEquals(0, pool.getActiveCount());
+    }
+
+    @Test
+    void closeReturnsTheConnectionToThePool() throws SQLException {
+        Connection connection = pool.getConnection();
+        assertEquals(1, pool.getActiveCount());
+        connection.close();
+        assertEquals(0, pool.getActiveCount());
+        assertEquals(1, pool.getIdleCount());
+        assertEquals(1, pool.getTotalCount());
+        assertTrue(connection.isClosed());
+    }
+
+    @Test
+    void borrowTimesOutWhenThePoolIsExhausted() throws SQLException {
+        try (Connection first = pool.getConnection();
+             Connection second = pool.getConnection()) {
+            assertEquals(2, pool.getTotalCount());
+            long start = System.nanoTime();
+            assertThrows(SQLTimeoutException.class, pool::getConnection);
+            assertTrue(System.nanoTime() - start >= 150_000_000L, "waited for the borrow timeout");
+        }
+        assertEquals(2, pool.getIdleCount());
+    }
+
+    @Test
+    void waitingBorrowerGetsTheNextReturnedConnection() throws Exception {
+        Connection first = pool.getConnection();
+        Connection second = pool.getConnection();
+        Thread returner = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+                first.close();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        returner.start();
+        try (Connection third = pool.getConnection()) {
+            assertFalse(third.isClosed());
+        }
+        returner.join();
+        second.close();
+        assertEquals(2, pool.getTotalCount());
+    }
+
+    @Test
+    void releaseRollsBackAnUnfinishedTransaction() throws SQLException {
+        try (Connection connection = pool.getConnection();
+             Statement stmt = connection.createStatement()) {
+            connection.setAutoCommit(false);
+            stmt.executeUpdate("INSERT INTO pool_rows (id) VALUES (1)");
+        }
+        try (Connection connection = pool.getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM pool_rows")) {
+            assertTrue(connection.getAutoCommit(), "autocommit restored for the next borrower");
+            rs.next();
+            assertEquals(0, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void handleKeptAfterCloseCannotBeUsed() throws SQLException {
+        Connection connection = pool.getConnection();
+        connection.close();
+        assertThrows(SQLException.class, connection::createStatement);
+        connection.close(); // a second close is harmless
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    @Test
+    void closedPoolRefusesBorrowers() throws SQLException {
+        Connection borrowed = pool.getConnection();
+        pool.close();
+        assertThrows(SQLException.class, pool::getConnection);
+        borrowed.close();
+        assertEquals(0, pool.getTotalCount());
+    }
+}
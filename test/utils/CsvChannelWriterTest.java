@@ -0,0 +1,122 @@
+/**
+ * CsvChannelWriter and the RFC 4180 quoting in CsvExportUtil: exact output for awkward
+ * fields, multi-byte text across buffer boundaries, splitting and gzip.
+ */
+package utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import models.Employee;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CsvChannelWriterTest {
+    private static final String HEADER = CsvExportUtil.HEADER;
+    private static final String CRLF = CsvExportUtil.LINE_END;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void quotesOnlyFieldsThatNeedIt() {
+        assertEquals("plain", field("plain"));
+        assertEquals("", field(""));
+        assertEquals("", field(null));
+        assertEquals("\"a,b\"", field("a,b"));
+        assertEquals("\"say \"\"hi\"\"\"", field("say \"hi\""));
+        assertEquals("\"two\r\nlines\"", field("two\r\nlines"));
+        assertEquals("\"lf\nonly\"", field("lf\nonly"));
+        assertEquals("\"\"\"\"", field("\""));
+    }
+
+    @Test
+    void moneyHasExactlyTwoDecimals() {
+        assertEquals("1234.50", CsvExportUtil.appendMoney(new StringBuilder(), 1234.5).toString());
+        assertEquals("0.07", CsvExportUtil.appendMoney(new StringBuilder(), 0.07).toString());
+        assertEquals("-3.10", CsvExportUtil.appendMoney(new StringBuilder(), -3.1).toString());
+        assertEquals("100.00", CsvExportUtil.appendMoney(new StringBuilder(), 99.999).toString());
+    }
+
+    @Test
+    void writesAwkwardFieldsExactly() throws IOException {
+        Path file = dir.resolve("one.csv");
+        try (CsvChannelWriter writer = new CsvChannelWriter(file, false, 0, HEADER)) {
+            writer.write(new Employee(7, "Ann, Jr.", "O\"Neil", "ann@example.com", 1500.5, "2020-01-02", "123-45-6789", "Line\nBreak"));
+        }
+        String expected = HEADER + CRLF
+            + "7,\"Ann, Jr.\",\"O\"\"Neil\",ann@example.com,1500.50,2020-01-02,123-45-6789,\"Line\nBreak\"" + CRLF;
+        assertEquals(expected, Files.readString(file, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void multiByteTextSurvivesBufferBoundaries() throws IOException {
+        Path file = dir.resolve("big.csv");
+        StringBuilder expected = new StringBuilder(HEADER).append(CRLF);
+        try (CsvChannelWriter writer = new CsvChannelWriter(file, false, 0, HEADER)) {
+            for (int i = 0; i < 20_000; i++) {
+                // Odd lengths shift where the surrogate pairs fall relative to each drain
+                String name = "Zoë😀".repeat(1 + i % 5) + "é".repeat(i % 3);
+                Employee emp = new Employee(i, name, "Müller", "e" + i + "@example.com", i * 1.25, "2021-03-04", "000-00-0000", "Engineer");
+                writer.write(emp);
+                CsvExportUtil.appendRow(expected, emp);
+            }
+            assertEquals(20_000, writer.getTotalRows());
+        }
+        assertEquals(expected.toString(), Files.readString(file, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void splitsIntoNumberedFilesEachWithTheHeader() throws IOException {
+        Path base = dir.resolve("export.csv");
+        CsvChannelWriter writer = new CsvChannelWriter(base, false, 3, HEADER);
+        try (writer) {
+            for (int i = 1; i <= 7; i++) {
+                writer.writeRecord(i + CRLF);
+            }
+        }
+        assertEquals(Arrays.asList(dir.resolve("export-00001.csv"), dir.resolve("export-00002.csv"), dir.resolve("export-00003.csv")),
+            writer.getFiles());
+        assertEquals(HEADER + CRLF + "1\r\n2\r\n3\r\n", Files.readString(writer.getFiles().get(0)));
+        assertEquals(HEADER + CRLF + "4\r\n5\r\n6\r\n", Files.readString(writer.getFiles().get(1)));
+        assertEquals(HEADER + CRLF + "7\r\n", Files.readString(writer.getFiles().get(2)));
+    }
+
+    @Test
+    void gzippedPartsDecompressToTheSameText() throws IOException {
+        Path base = dir.resolve("export.csv");
+        CsvChannelWriter writer = new CsvChannelWriter(base, true, 2, HEADER);
+        try (writer) {
+            for (int i = 1; i <= 3; i++) {
+                writer.writeRecord("ré" + i + CRLF);
+            }
+        }
+        List<String> parts = new ArrayList<>();
+        for (Path part : writer.getFiles()) {
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(part))) {
+                parts.add(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        assertEquals(dir.resolve("export-00002.csv.gz"), writer.getFiles().get(1));
+        assertEquals(Arrays.asList(HEADER + CRLF + "ré1\r\nré2\r\n", HEADER + CRLF + "ré3\r\n"), parts);
+    }
+
+    @Test
+    void emptyExportStillHasAHeader() throws IOException {
+        Path file = dir.resolve("empty.csv");
+        new CsvChannelWriter(file, false, 0, HEADER).close();
+        assertEquals(HEADER + CRLF, Files.readString(file));
+    }
+
+    private static String field(String value) {
+        return CsvExportUtil.appendField(new StringBuilder(), value).toString();
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * CsvReader against RFC 4180 input: quoted commas, doubled quotes and line breaks,
+ * CRLF, LF and CR record ends, and records written by CsvExportUtil.
+ */
+package utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import models.Employee;
+import org.junit.jupiter.api.Test;
+
+class CsvReaderTest {
+    @Test
+    void splitsPlainFields() throws IOException {
+        assertEquals(Arrays.asList(Arrays.asList("a", "b", "c"), Arrays.asList("1", "2", "3")), readAll("a,b,c\r\n1,2,3\r\n"));
+    }
+
+    @Test
+    void keepsEmptyFields() throws IOException {
+        assertEquals(Arrays.asList(Arrays.asList("", "x", ""), Arrays.asList("")), readAll(",x,\r\n\r\n"));
+    }
+
+    @Test
+    void unquotesSpecialCharacters() throws IOException {
+        List<List<String>> records = readAll("\"a,b\",\"say \"\"hi\"\"\",\"two\r\nlines\",\"\"\r\nnext\r\n");
+        assertEquals(Arrays.asList("a,b", "say \"hi\"", "two\r\nlines", ""), records.get(0));
+        assertEquals(Arrays.asList("next"), records.get(1));
+        assertEquals(2, records.size());
+    }
+
+    @Test
+    void acceptsEveryLineEnding() throws IOException {
+        List<String> expected = Arrays.asList("1", "2");
+        assertEquals(Arrays.asList(expected, expected, expected, expected), readAll("1,2\n1,2\r1,2\r\n1,2"));
+    }
+
+    @Test
+    void countsRecords() throws IOException {
+        try (CsvReader reader = new CsvReader(new StringReader("h\r\n\"multi\nline\"\r\nlast"))) {
+            reader.readRecord();
+            reader.readRecord();
+            assertEquals(2, reader.getRecordNumber());
+            assertEquals(Arrays.asList("last"), reader.readRecord());
+            assertEquals(3, reader.getRecordNumber());
+            assertNull(reader.readRecord());
+        }
+    }
+
+    @Test
+    void rejectsAnUnterminatedQuote() throws IOException {
+        try (CsvReader reader = new CsvReader(new StringReader("ok\r\n\"never closed,\r\n"))) {
+            reader.readRecord();
+            IOException e = assertThrows(IOException.class, reader::readRecord);
+            assertEquals("Unterminated quoted field in record 2", e.getMessage());
+        }
+    }
+
+    @Test
+    void readsBackWhatTheExporterWrites() throws IOException {
+        Employee emp = new Employee(42, "Ann, Jr.", "O\"Neil", "ann@example.com", 1500.5, "2020-01-02", "123-45-6789", "Line\r\nBreak");
+        StringBuilder csv = new StringBuilder(CsvExportUtil.HEADER).append(CsvExportUtil.LINE_END);
+        CsvExportUtil.appendRow(csv, emp);
+        List<List<String>> records = readAll(csv.toString());
+        assertEquals(Arrays.asList(CsvExportUtil.HEADER.split(",")), records.get(0));
+        assertEquals(Arrays.asList("42", "Ann, Jr.", "O\"Neil", "ann@example.com", "1500.50", "2020-01-02", "123-45-6789", "Line\r\nBreak"),
+            records.get(1));
+    }
+
+    private static List<List<String>> readAll(String csv) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(new StringReader(csv))) {
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * IntObjectMap against java.util.HashMap: random puts and removes over a narrow key range
+ * force long probe chains, wrap-around and backward-shift deletion across resizes.
+ */
+package utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class IntObjectMapTest {
+    @Test
+    void matchesHashMapUnderRandomPutsAndRemoves() {
+        Random random = new Random(7);
+        IntObjectMap<String> map = new IntObjectMap<>(4);
+        Map<Integer, String> expected = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(2_000) - 1_000;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key), "remove " + key);
+            } else {
+                String value = "v" + i;
+                assertEquals(expected.put(key, value), map.put(key, value), "put " + key);
+            }
+            if (i % 1_000 == 0) {
+                assertEquals(expected.size(), map.size());
+                for (int probe = -1_000; probe < 1_000; probe++) {
+                    assertEquals(expected.get(probe), map.get(probe), "get " + probe);
+                }
+            }
+        }
+    }
+
+    @Test
+    void extremeAndZeroKeysAreOrdinaryKeys() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        map.put(0, "zero");
+        map.put(Integer.MIN_VALUE, "min");
+        map.put(Integer.MAX_VALUE, "max");
+        map.put(-1, "minus one");
+        assertEquals("zero", map.get(0));
+        assertEquals("min", map.get(Integer.MIN_VALUE));
+        assertEquals("max", map.get(Integer.MAX_VALUE));
+        assertEquals("minus one", map.get(-1));
+        assertEquals("zero", map.remove(0));
+        assertFalse(map.containsKey(0));
+        assertTrue(map.containsKey(Integer.MIN_VALUE));
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    void growsFromTheSmallestCapacity() {
+        IntObjectMap<Integer> map = new IntObjectMap<>(0);
+        for (int key = 0; key < 10_000; key++) {
+            map.put(key * 1024, key);
+        }
+        assertEquals(10_000, map.size());
+        for (int key = 0; key < 10_000; key++) {
+            assertEquals(key, map.get(key * 1024));
+        }
+        assertNull(map.get(1));
+    }
+
+    @Test
+    void clearEmptiesTheMap() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        map.put(1, "a");
+        map.put(17, "b");
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(1));
+        assertNull(map.get(17));
+        map.put(17, "c");
+        assertEquals("c", map.get(17));
+    }
+
+    @Test
+    void rejectsNullValues() {
+        assertThrows(IllegalArgumentException.class, () -> new IntObjectMap<String>().put(1, null));
+    }
+}
@@ -0,0 +1,21 @@
+/**
+ * Runs QueryPlanVerifier against the embedded H2 database the test task points
+ * DatabaseConnection at, so a query that loses its index fails the build.
+ * Seeds enough employees that H2 prefers an index wherever one applies, and checks
+ * twice to make sure the write probes leave the data as they found it.
+ */
+package utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class QueryPlanVerifierTest {
+    private static final int EMPLOYEES = TestDatabase.EMPLOYEES;
+
+    @Test
+    void everyQueryUsesAnIndex() throws Exception {
+        assertEquals(0, QueryPlanVerifier.run(EMPLOYEES, true), "statements that fell back to a full scan");
+        assertEquals(0, QueryPlanVerifier.run(EMPLOYEES, true), "full scans on a second run after the write probes");
+    }
+}
@@ -0,0 +1,291 @@
+/**
+ * SegmentedLruCache and IntSegmentedLruCache, run through the same cases: probation and
+ * protected segments, eviction order, weights, TTL, invalidation during a load, and the
+ * capacity bound under concurrent use. Capacities below 64 give a single shard, so the
+ * eviction order is deterministic.
+ */
+package utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class SegmentedLruCacheTest {
+    private static final long HOUR = 3_600_000L;
+
+    // The operations both caches share, with int keys
+    interface Cache {
+        String get(int key);
+
+        void put(int key, String value);
+
+        String getOrLoad(int key, IntFunction<String> loader);
+
+        void invalidate(int key);
+
+        void clear();
+
+        SegmentedLruCache.Stats stats();
+    }
+
+    interface Factory {
+        Cache create(long maxWeight, ToLongFunction<String> weigher, long ttlMillis);
+    }
+
+    static Stream<Named<Factory>> caches() {
+        Factory keyed = (maxWeight, weigher, ttlMillis) -> {
+            SegmentedLruCache<Integer, String> cache = new SegmentedLruCache<>(maxWeight, weigher, ttlMillis);
+            return new Cache() {
+                public String get(int key) {
+                    return cache.get(key);
+                }
+
+                public void put(int key, String value) {
+                    cache.put(key, value);
+                }
+
+                public String getOrLoad(int key, IntFunction<String> loader) {
+                    return cache.getOrLoad(key, loader::apply);
+                }
+
+                public void invalidate(int key) {
+                    cache.invalidate(key);
+                }
+
+                public void clear() {
+                    cache.clear();
+                }
+
+                public SegmentedLruCache.Stats stats() {
+                    return cache.getStats();
+                }
+            };
+        };
+        Factory primitive = (maxWeight, weigher, ttlMillis) -> {
+            IntSegmentedLruCache<String> cache = new IntSegmentedLruCache<>(maxWeight, weigher, ttlMillis);
+            return new Cache() {
+                public String get(int key) {
+                    return cache.get(key);
+                }
+
+                public void put(int key, String value) {
+                    cache.put(key, value);
+                }
+
+                public String getOrLoad(int key, IntFunction<String> loader) {
+                    return cache.getOrLoad(key, loader);
+                }
+
+                public void invalidate(int key) {
+                    cache.invalidate(key);
+                }
+
+                public void clear() {
+                    cache.clear();
+                }
+
+                public SegmentedLruCache.Stats stats() {
+                    return cache.getStats();
+                }
+            };
+        };
+        return Stream.of(Named.of("SegmentedLruCache", keyed), Named.of("IntSegmentedLruCache", primitive));
+    }
+
+    private static Cache entries(Factory factory, long maxEntries) {
+        return factory.create(maxEntries, value -> 1L, HOUR);
+    }
+
+    @ParameterizedTest
+    @MethodSource("caches")
+    void evictsTheLeastRecentlyAddedProbationEntry(Factory factory) {
+        Cache cache = entries(factory, 10);
+        for (int key = 0; key < 11; key++) {
+            cache.put(key, "v" + key);
+        }
+        assertNull(cache.get(0));
+        for (int key = 1; key < 11; key++) {
+            assertEquals("v" + key, cache.get(key));
+        }
+        assertEquals(1, cache.stats().getEvictions());
+        assertEquals(10, cache.stats().getSize());
+    }
+
+    @ParameterizedTest
+    @MethodSource("caches")
+    void entriesReadAgainSurviveAScan(Factory factory) {
+        Cache cache = entries(factory, 10);
+        for (int key = 0; key < 5; key++) {
+            cache.put(key, "hot" + key);
+            cache.get(key);
+        }
+        for (int key = 100; key < 1_000; key++) {
+            cache.put(key, "scan" + key);
+        }
+        for (int key = 0; key < 5; key++) {
+            assertEquals("hot" + key, cache.get(key));
+        }
+        assertEquals(10, cache.stats().getSize());
+    }
+
+    @ParameterizedTest
+    @MethodSource("caches")
+    void overfullProtectedSegmentDemotesItsEldest(Factory factory) {
+        Cache cache = entries(factory, 10);
+        for (int key = 0; key < 10; key++) {
+            cache.put(key, "v" + key);
+        }
+        // Protected holds 8 of 10: promoting all ten demotes 0 and then 1 back to probation
+        for (int key = 0; key < 10; key++) {
+            cache.get(key);
+        }
+        cache.put(10, "v10");
+        assertNull(cache.get(0));
+        for (int key = 1; key <= 10; key++) {
+            assertNotNull(cache.get(key), "key " + key);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("caches")
+    void weightsBoundTheTotal(Factory factory) {
+        Cache cache = factory.create(10, String::length, HOUR);
+        cache.put(1, "aaaa");
+        cache.put(2, "bbbb");
+        cache.put(3, "cc");
+        assertEquals(10, cache.stats().getWeight());
+        cache.put(4, "d");
+        assertNull(cache.get(1));
+        assertEquals(7, cache.stats().getWeight());
+        // Heavier than the whole cache: not stored, and the old value is dropped
+        cache.put(2, "x".repeat(11));
+        assertNull(cache.get(2));
+        assertEquals(3, cache.stats().getWeight());
+        // Replacing a value re-weighs it
+        cache.put(3, "c");
+        assertEquals(2, cache.stats().getWeight());
+    }
+
+    @ParameterizedTest
+    @MethodSource("caches")
+    void expiredEntriesAreNotServed(Factory factory) throws InterruptedException {
+        Cache cache = factory.create(10, value -> 1L, 50);
+        cache.put(1, "v");
+        assertEquals("v", cache.get(1));
+        Thread.sleep(120);
+        assertNull(cache.get(1));
+        assertEquals(1, cache.stats().getExpirations());
+        assertEquals(0, cache.stats().getSize());
+    }
+
+    @ParameterizedTest
+    @MethodSource("caches")
+    void loadsOnceAndNeverCachesNull(Factory factory) {
+        Cache cache = entries(factory, 10);
+        AtomicInteger loads = new AtomicInteger();
+        IntFunction<String> loader = key -> {
+            loads.incrementAndGet();
+            return "loaded" + key;
+        };
+        assertEquals("loaded7", cache.getOrLoad(7, loader));
+        assertEquals("loaded7", cache.getOrLoad(7, loader));
+        assertEquals(1, loads.get());
+        assertNull(cache.getOrLoad(8, key -> null));
+        assertEquals("late", cache.getOrLoad(8, key -> "late"));
+        SegmentedLruCache.Stats stats = cache.stats();
+        assertEquals(1, stats.getHits());
+        assertEquals(3, stats.getMisses());
+    }
+
+    @ParameterizedTest
+    @MethodSource("caches")
+    void loadRacingAnInvalidationIsNotCached(Factory factory) {
+        Cache cache = entries(factory, 10);
+        assertEquals("stale", cache.getOrLoad(5, key -> {
+            cache.invalidate(key);
+            return "stale";
+        }));
+        assertNull(cache.get(5));
+        assertEquals("stale", cache.getOrLoad(6, key -> {
+            cache.clear();
+            return "stale";
+        }));
+        assertNull(cache.get(6));
+        assertEquals("fresh", cache.getOrLoad(5, key -> "fresh"));
+        assertEquals("fresh", cache.get(5));
+    }
+
+    @ParameterizedTest
+    @MethodSource("caches")
+    void negativeAndExtremeKeysAreOrdinaryKeys(Factory factory) {
+        Cache cache = entries(factory, 1_000);
+        int[] keys = { Integer.MIN_VALUE, -1, 0, 1, Integer.MAX_VALUE };
+        for (int key : keys) {
+            cache.put(key, "v" + key);
+        }
+        for (int key : keys) {
+            assertEquals("v" + key, cache.get(key));
+        }
+        cache.invalidate(-1);
+        assertNull(cache.get(-1));
+        assertEquals(4, cache.stats().getSize());
+    }
+
+    @ParameterizedTest
+    @MethodSource("caches")
+    void staysWithinCapacityUnderConcurrentUse(Factory factory) throws InterruptedException {
+        Cache cache = entries(factory, 1_000);
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 50_000; i++) {
+                    int key = random.nextInt(5_000) - 2_500;
+                    String value = cache.getOrLoad(key, k -> "v" + k);
+                    if (!value.equals("v" + key)) {
+                        throw new AssertionError("wrong value for " + key + ": " + value);
+                    }
+                    if (i % 97 == 0) {
+                        cache.invalidate(key);
+                    }
+                }
+            });
+            thread.setUncaughtExceptionHandler((th, e) -> {
+                synchronized (failures) {
+                    failures.add(e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(failures.isEmpty(), () -> failures.toString());
+        SegmentedLruCache.Stats stats = cache.stats();
+        assertTrue(stats.getSize() <= 1_000, "size " + stats.getSize());
+        assertEquals(stats.getSize(), stats.getWeight());
+        assertEquals(400_000, stats.getHits() + stats.getMisses());
+    }
+
+    @Test
+    void rejectsNonPositiveLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new SegmentedLruCache<String, String>(0, HOUR));
+        assertThrows(IllegalArgumentException.class, () -> new IntSegmentedLruCache<String>(10, 0));
+    }
+}
@@ -0,0 +1,164 @@
+/**
+ * StatementCache through a ConnectionPool on a private embedded H2 database: reuse by SQL
+ * text, LRU eviction, concurrent use of the same SQL, and the reset that hands the next
+ * borrower a statement without the previous one's parameters, limits or open results.
+ */
+package utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StatementCacheTest {
+    private static final String URL = "jdbc:h2:mem:statement_cache_test;DB_CLOSE_DELAY=-1";
+    private static final String BY_ID = "SELECT id FROM cached_rows WHERE id = ?";
+    private static final String ABOVE = "SELECT id FROM cached_rows WHERE id > ? ORDER BY id";
+    private static final String BELOW = "SELECT id FROM cached_rows WHERE id < ? ORDER BY id";
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void createPool() throws SQLException {
+        // A single connection, so every borrow sees the same cache of two statements
+        pool = new ConnectionPool(URL, "sa", "", 1, 1, 1000, 60_000, 60_000, false, 2);
+        try (Connection connection = pool.getConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS cached_rows (id INT PRIMARY KEY)");
+            stmt.execute("MERGE INTO cached_rows KEY (id) VALUES (1), (2), (3), (4), (5)");
+        }
+    }
+
+    @AfterEach
+    void closePool() {
+        pool.close();
+    }
+
+    @Test
+    void sameSqlIsPreparedOnce() throws SQLException {
+        try (Connection connection = pool.getConnection()) {
+            assertEquals(2, queryFirst(connection, BY_ID, 2));
+            assertEquals(3, queryFirst(connection, BY_ID, 3));
+        }
+        try (Connection connection = pool.getConnection()) {
+            assertEquals(4, queryFirst(connection, BY_ID, 4));
+        }
+        assertEquals(1, pool.getStatementCacheMisses());
+        assertEquals(2, pool.getStatementCacheHits());
+    }
+
+    @Test
+    void leastRecentlyUsedStatementIsEvicted() throws SQLException {
+        try (Connection connection = pool.getConnection()) {
+            queryFirst(connection, BY_ID, 1);
+            queryFirst(connection, ABOVE, 1);
+            queryFirst(connection, BY_ID, 1);  // BY_ID is now the most recently used
+            queryFirst(connection, BELOW, 5);  // evicts ABOVE
+            assertEquals(1, pool.getStatementCacheEvictions());
+            queryFirst(connection, BY_ID, 1);
+            assertEquals(2, pool.getStatementCacheHits());
+            queryFirst(connection, ABOVE, 1);
+            assertEquals(4, pool.getStatementCacheMisses());
+        }
+    }
+
+    @Test
+    void sameSqlInUseTwiceGetsASeparateStatement() throws SQLException {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement outer = connection.prepareStatement(ABOVE);
+             PreparedStatement inner = connection.prepareStatement(ABOVE)) {
+            outer.setInt(1, 3);
+            inner.setInt(1, 0);
+            try (ResultSet outerRows = outer.executeQuery(); ResultSet innerRows = inner.executeQuery()) {
+                assertTrue(outerRows.next());
+                assertTrue(innerRows.next());
+                assertEquals(4, outerRows.getInt(1));
+                assertEquals(1, innerRows.getInt(1));
+            }
+        }
+        assertEquals(1, pool.getStatementCacheMisses());
+        assertEquals(0, pool.getStatementCacheHits());
+    }
+
+    @Test
+    void closeResetsLimitsForTheNextUser() throws SQLException {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(ABOVE)) {
+            stmt.setMaxRows(1);
+            stmt.setFetchSize(1);
+            stmt.setQueryTimeout(7);
+            stmt.setInt(1, 0);
+            assertEquals(1, count(stmt.executeQuery()));
+        }
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(ABOVE)) {
+            assertEquals(0, stmt.getMaxRows());
+            assertEquals(0, stmt.getQueryTimeout());
+            // Parameters were cleared, so running without binding one fails
+            assertThrows(SQLException.class, stmt::executeQuery);
+            stmt.setInt(1, 0);
+            assertEquals(5, count(stmt.executeQuery()));
+        }
+        assertEquals(1, pool.getStatementCacheHits());
+    }
+
+    @Test
+    void statementLeftOpenIsResetWhenTheConnectionIsReturned() throws SQLException {
+        PreparedStatement forgotten;
+        ResultSet openRows;
+        try (Connection connection = pool.getConnection()) {
+            forgotten = connection.prepareStatement(ABOVE);
+            forgotten.setMaxRows(2);
+            forgotten.setInt(1, 0);
+            openRows = forgotten.executeQuery();
+            assertTrue(openRows.next());
+        }
+        assertTrue(forgotten.isClosed());
+        assertTrue(openRows.isClosed());
+        assertThrows(SQLException.class, forgotten::executeQuery);
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(ABOVE)) {
+            stmt.setInt(1, 0);
+            assertEquals(5, count(stmt.executeQuery()));
+        }
+        assertEquals(1, pool.getStatementCacheHits());
+    }
+
+    @Test
+    void statementReportsItsLogicalConnection() throws SQLException {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(BY_ID)) {
+            assertSame(connection, stmt.getConnection());
+            assertFalse(stmt.isClosed());
+        }
+    }
+
+    private static int queryFirst(Connection connection, String sql, int param) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, param);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : -1;
+            }
+        }
+    }
+
+    private static int count(ResultSet rs) throws SQLException {
+        try (rs) {
+            int rows = 0;
+            while (rs.next()) {
+                rows++;
+            }
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * The embedded H2 database the test task points DatabaseConnection at, migrated and seeded
+ * the same way QueryPlanVerifier seeds an empty database. Every test class that needs data
+ * shares this one copy, so whichever class runs first leaves the verifier the same
+ * realistic dataset it would have built itself.
+ */
+package utils;
+
+import dao.PayrollTotalsDAO;
+import dao.SchemaMigrator;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public final class TestDatabase {
+    public static final int EMPLOYEES = 2000;
+    public static final long SEED = 42L;
+
+    private TestDatabase() {
+    }
+
+    /**
+     * Migrates the schema and seeds EMPLOYEES generated employees if the database is empty.
+     */
+    public static synchronized void seed() throws SQLException, IOException {
+        if (new SchemaMigrator().migrate() == null) {
+            throw new SQLException("Schema migration failed");
+        }
+        try (Connection connection = DatabaseConnection.getInstance().getConnection()) {
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM employees")) {
+                rs.next();
+                if (rs.getLong(1) > 0) {
+                    return;
+                }
+            }
+            new WorkforceGenerator(SEED, EMPLOYEES).generate(new JdbcWorkforceSink(connection));
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("ANALYZE");
+            }
+        }
+        new PayrollTotalsDAO().rebuild();
+    }
+}